@@ -0,0 +1,105 @@
+package io.syndesis.qe.steps.flow;
+
+import io.syndesis.common.model.DataShape;
+import io.syndesis.common.model.DataShapeKinds;
+import io.syndesis.common.model.action.Action;
+import io.syndesis.common.model.action.ActionDescriptor;
+import io.syndesis.common.model.action.ConnectorAction;
+import io.syndesis.common.model.action.ConnectorDescriptor;
+import io.syndesis.common.util.json.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former JSON round trip of {@link AbstractStep#generateStepAction(Action, ActionDescriptor)} with the builder copy that
+ * replaced it.
+ *
+ * Run with {@code mvn clean package -P benchmark && java -jar benchmarks/target/benchmarks.jar ActionDescriptorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionDescriptorBenchmark {
+    /**
+     * Number of the properties of the JSON schema of the data shapes.
+     */
+    @Param({"10", "1000"})
+    private int schemaProperties;
+
+    private Action action;
+    private ConnectorDescriptor descriptor;
+
+    @Setup
+    public void setup() {
+        descriptor = new ConnectorDescriptor.Builder()
+            .inputDataShape(dataShape("input"))
+            .outputDataShape(dataShape("output"))
+            .build();
+        action = new ConnectorAction.Builder()
+            .id("benchmark-action")
+            .name("Benchmark action")
+            .descriptor(new ConnectorDescriptor.Builder().connectorId("benchmark").build())
+            .build();
+    }
+
+    /**
+     * The former implementation: serializes the action and the descriptor parts, patches the JSON and parses the action back.
+     */
+    @Benchmark
+    public Action jsonRoundTrip() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModules(new Jdk8Module());
+        JSONObject json = new JSONObject(mapper.writeValueAsString(action));
+        JSONObject inputDataType = new JSONObject(mapper.writeValueAsString(descriptor.getInputDataShape().get()));
+        JSONObject outputDataType = new JSONObject(mapper.writeValueAsString(descriptor.getOutputDataShape().get()));
+        JSONArray propertyDefinitionSteps = new JSONArray(mapper.writeValueAsString(descriptor.getPropertyDefinitionSteps()));
+
+        json.getJSONObject("descriptor").put("inputDataShape", inputDataType);
+        json.getJSONObject("descriptor").put("outputDataShape", outputDataType);
+        json.getJSONObject("descriptor").put("propertyDefinitionSteps", propertyDefinitionSteps);
+
+        return JsonUtils.reader().forType(Action.class).readValue(json.toString());
+    }
+
+    @Benchmark
+    public Action builderCopy() {
+        return AbstractStep.withDescriptor(action, descriptor.getInputDataShape(), descriptor.getOutputDataShape(),
+            descriptor.getPropertyDefinitionSteps());
+    }
+
+    private DataShape dataShape(String name) {
+        StringBuilder schema = new StringBuilder("{\"$schema\":\"http://json-schema.org/draft-04/schema#\",\"type\":\"object\",\"properties\":{");
+        for (int i = 0; i < schemaProperties; i++) {
+            if (i > 0) {
+                schema.append(',');
+            }
+            schema.append("\"field").append(i).append("\":{\"type\":\"string\",\"description\":\"Field ").append(i).append("\"}");
+        }
+        schema.append("}}");
+        return new DataShape.Builder()
+            .kind(DataShapeKinds.JSON_SCHEMA)
+            .name(name)
+            .specification(schema.toString())
+            .build();
+    }
+}
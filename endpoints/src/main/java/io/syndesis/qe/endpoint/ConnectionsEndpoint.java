@@ -1,6 +1,7 @@
 package io.syndesis.qe.endpoint;
 
 import io.syndesis.common.model.connection.Connection;
+import io.syndesis.qe.endpoint.util.ConnectorMetadataCache;
 
 import org.springframework.stereotype.Component;
 
@@ -18,6 +19,25 @@ public class ConnectionsEndpoint extends AbstractEndpoint<Connection> {
         super(Connection.class, "/connections");
     }
 
+    @Override
+    public Connection create(Connection obj) {
+        final Connection created = super.create(obj);
+        created.getId().ifPresent(ConnectorMetadataCache.getInstance()::invalidateConnection);
+        return created;
+    }
+
+    @Override
+    public void update(String id, Connection obj) {
+        super.update(id, obj);
+        ConnectorMetadataCache.getInstance().invalidateConnection(id);
+    }
+
+    @Override
+    public void delete(String id) {
+        super.delete(id);
+        ConnectorMetadataCache.getInstance().invalidateConnection(id);
+    }
+
     public Connection getConnectionByName(String connectionName) {
         Optional<Connection> connection = list().stream().filter(c -> c.getName().equals(connectionName)).findFirst();
         return connection.orElse(null);
@@ -1,6 +1,7 @@
 package io.syndesis.qe.endpoint;
 
 import io.syndesis.common.model.connection.Connector;
+import io.syndesis.qe.endpoint.util.ConnectorMetadataCache;
 
 import org.springframework.stereotype.Component;
 
@@ -25,4 +26,10 @@ public class ConnectorsEndpoint extends AbstractEndpoint<Connector> {
     public void delete(String id) {
         throw new UnsupportedOperationException("Connectors cannot be deleted using REST API.");
     }
+
+    @Override
+    public void update(String id, Connector obj) {
+        super.update(id, obj);
+        ConnectorMetadataCache.getInstance().invalidateConnector(id);
+    }
 }
@@ -2,6 +2,7 @@ package io.syndesis.qe.endpoint;
 
 import io.syndesis.common.model.connection.ConnectorSettings;
 import io.syndesis.qe.endpoint.client.EndpointClient;
+import io.syndesis.qe.endpoint.util.ConnectorMetadataCache;
 import io.syndesis.server.endpoint.v1.handler.connection.CustomConnectorHandler;
 
 import org.springframework.stereotype.Component;
@@ -45,6 +46,7 @@ public class CustomApiEndpoint {
                 .header("X-Forwarded-User", "pista")
                 .header("X-Forwarded-Access-Token", "kral");
         invocation.post(Entity.entity(cs, MediaType.APPLICATION_JSON), JsonNode.class);
+        ConnectorMetadataCache.getInstance().invalidateConnectors();
     }
 
     public void createCAEUsingUrl(ConnectorSettings conSettings) {
@@ -56,6 +58,7 @@ public class CustomApiEndpoint {
                 .header("X-Forwarded-User", "pista")
                 .header("X-Forwarded-Access-Token", "kral");
         invocation.post(Entity.entity(conSettings, MediaType.APPLICATION_JSON), JsonNode.class);
+        ConnectorMetadataCache.getInstance().invalidateConnectors();
     }
 
     public String getEndpointUrl(String endpointName) {
@@ -3,6 +3,7 @@ package io.syndesis.qe.endpoint;
 import static org.assertj.core.api.Assertions.fail;
 
 import io.syndesis.common.model.extension.Extension;
+import io.syndesis.qe.endpoint.util.ConnectorMetadataCache;
 
 import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataOutput;
 import org.springframework.stereotype.Component;
@@ -52,6 +53,14 @@ public class ExtensionsEndpoint extends AbstractEndpoint<Extension> {
             .request(MediaType.APPLICATION_JSON)
             .headers(commonHeaders);
         invocation.post(Entity.entity(e.toString(), MediaType.APPLICATION_JSON), JsonNode.class);
+        // the extension may add or replace connectors
+        ConnectorMetadataCache.getInstance().invalidateConnectors();
+    }
+
+    @Override
+    public void delete(String id) {
+        super.delete(id);
+        ConnectorMetadataCache.getInstance().invalidateConnectors();
     }
 
     public Extension getExtensionByName(String name) {
@@ -0,0 +1,182 @@
+package io.syndesis.qe.endpoint.util;
+
+import io.syndesis.common.model.action.ConnectorAction;
+import io.syndesis.common.model.action.ConnectorDescriptor;
+import io.syndesis.common.model.connection.Connection;
+import io.syndesis.common.model.connection.Connector;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Run-scoped cache of the connector metadata used when building integration flows through REST.
+ *
+ * Caches the connectors, the connections and the action descriptors returned for the configured properties, so adding several steps
+ * with the same connector or action doesn't fetch them again. The syndesis model objects are immutable, so the cached instances are shared.
+ * The endpoints that create, update or delete connectors, connections or extensions invalidate the affected entries, resetting the
+ * database invalidates everything.
+ */
+@Slf4j
+public final class ConnectorMetadataCache {
+    private static final ConnectorMetadataCache INSTANCE = new ConnectorMetadataCache();
+
+    private final Map<String, ActionIndex> connectors = new ConcurrentHashMap<>();
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    // key is [connection id, action id, configured properties]
+    private final Map<List<Object>, ConnectorDescriptor> descriptors = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private ConnectorMetadataCache() {
+    }
+
+    public static ConnectorMetadataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param connectorId connector id
+     * @param loader loads the connector when it's not cached, may return null
+     * @return connector or null if the loader didn't find it
+     */
+    public Connector getConnector(String connectorId, Function<String, Connector> loader) {
+        ActionIndex index = index(connectorId, loader);
+        return index == null ? null : index.connector;
+    }
+
+    /**
+     * Finds the first action whose id contains the given string, or if there is none, the first action whose camel connector prefix
+     * contains it. The result is remembered for the connector.
+     *
+     * @param connectorId connector id
+     * @param loader loads the connector when it's not cached
+     * @param idOrPrefix part of the action id or camel connector prefix
+     * @return action
+     */
+    public Optional<ConnectorAction> findAction(String connectorId, Function<String, Connector> loader, String idOrPrefix) {
+        ActionIndex index = index(connectorId, loader);
+        return index == null ? Optional.empty() : index.find(idOrPrefix);
+    }
+
+    /**
+     * @param connectionId connection id
+     * @param loader loads the connection when it's not cached, may return null
+     * @return connection or null if the loader didn't find it
+     */
+    public Connection getConnection(String connectionId, Function<String, Connection> loader) {
+        return lookup(connections, connectionId, loader);
+    }
+
+    /**
+     * @param connectionId connection id
+     * @param actionId action id
+     * @param configuredProperties properties sent to the action endpoint
+     * @param loader loads the descriptor when it's not cached
+     * @return action descriptor with the data shapes for the configured properties
+     */
+    public ConnectorDescriptor getDescriptor(String connectionId, String actionId, Map<?, ?> configuredProperties,
+        Supplier<ConnectorDescriptor> loader) {
+        final List<Object> key = Arrays.asList(connectionId, actionId,
+            configuredProperties == null ? Collections.emptyMap() : new HashMap<>(configuredProperties));
+        return lookup(descriptors, key, k -> loader.get());
+    }
+
+    /**
+     * Forgets the connector and all action descriptors, as they may have been created from the connector's actions.
+     *
+     * @param connectorId connector id
+     */
+    public void invalidateConnector(String connectorId) {
+        connectors.remove(connectorId);
+        descriptors.clear();
+    }
+
+    /**
+     * Forgets all connectors and descriptors, e.g. when an extension adds or removes connectors.
+     */
+    public void invalidateConnectors() {
+        connectors.clear();
+        descriptors.clear();
+    }
+
+    /**
+     * Forgets the connection and the action descriptors obtained through it.
+     *
+     * @param connectionId connection id
+     */
+    public void invalidateConnection(String connectionId) {
+        connections.remove(connectionId);
+        descriptors.keySet().removeIf(k -> k.get(0).equals(connectionId));
+    }
+
+    public void invalidateAll() {
+        log.debug("Invalidating connector metadata cache: {}", this);
+        connectors.clear();
+        connections.clear();
+        descriptors.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d connectors, %d connections, %d descriptors, %d hits, %d misses", connectors.size(), connections.size(),
+            descriptors.size(), hits.get(), misses.get());
+    }
+
+    private ActionIndex index(String connectorId, Function<String, Connector> loader) {
+        return lookup(connectors, connectorId, id -> {
+            Connector connector = loader.apply(id);
+            return connector == null ? null : new ActionIndex(connector);
+        });
+    }
+
+    private <K, V> V lookup(Map<K, V> cache, K key, Function<K, V> loader) {
+        V value = cache.get(key);
+        if (value != null) {
+            hits.incrementAndGet();
+            return value;
+        }
+        misses.incrementAndGet();
+        // the loader calls REST, so it's not called under the map lock; a concurrent miss only loads the same value twice
+        value = loader.apply(key);
+        if (value != null) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Connector with its actions resolved by the id or camel connector prefix.
+     */
+    private static final class ActionIndex {
+        private final Connector connector;
+        private final Map<String, Optional<ConnectorAction>> resolved = new ConcurrentHashMap<>();
+
+        private ActionIndex(Connector connector) {
+            this.connector = connector;
+        }
+
+        private Optional<ConnectorAction> find(String idOrPrefix) {
+            return resolved.computeIfAbsent(idOrPrefix, p -> {
+                Optional<ConnectorAction> action = connector.getActions().stream()
+                    .filter(a -> a.getId().get().contains(p))
+                    .findFirst();
+                if (!action.isPresent()) {
+                    action = connector.getActions().stream()
+                        .filter(a -> a.getDescriptor().getCamelConnectorPrefix().contains(p))
+                        .findFirst();
+                }
+                return action;
+            });
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.syndesis.qe;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durations and sizes of the backup and restore phases for one database size.
+ *
+ * The report is logged and appended to {@link #CSV} as one line per phase, so the runs with different database sizes can be compared.
+ */
+@Slf4j
+class BackupThroughputReport {
+    static final Path CSV = Paths.get("target", "backup-throughput.csv");
+
+    private final String seed;
+    private final List<String> lines = new ArrayList<>();
+
+    /**
+     * @param integrations number of seeded integrations
+     * @param connections number of seeded connections
+     * @param activities number of seeded activity records
+     * @param dbBytes size of the database after seeding
+     */
+    BackupThroughputReport(int integrations, int connections, int activities, long dbBytes) {
+        seed = String.format("%d,%d,%d,%d", integrations, connections, activities, dbBytes);
+    }
+
+    /**
+     * Records the phase.
+     *
+     * @param phase phase name
+     * @param startNanos {@link System#nanoTime()} at the start of the phase
+     * @param bytes bytes processed by the phase
+     */
+    void record(String phase, long startNanos, long bytes) {
+        final long elapsed = System.nanoTime() - startNanos;
+        final double mbPerSecond = elapsed == 0 ? 0D : bytes / 1024D / 1024D / (elapsed / 1e9);
+        log.info("Backup throughput: {} of {} bytes took {} ms ({} MB/s)", phase, bytes, TimeUnit.NANOSECONDS.toMillis(elapsed),
+            String.format("%.2f", mbPerSecond));
+        lines.add(String.format("%s,%s,%d,%d,%.2f", seed, phase, bytes, TimeUnit.NANOSECONDS.toMillis(elapsed), mbPerSecond));
+    }
+
+    void write() {
+        try {
+            Files.createDirectories(CSV.getParent());
+            if (!Files.exists(CSV)) {
+                Files.write(CSV, "integrations,connections,activities,db bytes,phase,bytes,ms,MB/s\n".getBytes(StandardCharsets.UTF_8));
+            }
+            Files.write(CSV, lines, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            log.info("Backup throughput report appended to {}", CSV.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Unable to write backup throughput report", e);
+        }
+    }
+}
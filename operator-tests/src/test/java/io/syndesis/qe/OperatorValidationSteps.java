@@ -3,11 +3,14 @@ package io.syndesis.qe;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
+import io.syndesis.common.model.connection.Connection;
+import io.syndesis.common.model.integration.Integration;
 import io.syndesis.qe.account.Account;
 import io.syndesis.qe.account.AccountsDirectory;
 import io.syndesis.qe.addon.Addon;
 import io.syndesis.qe.component.Component;
 import io.syndesis.qe.component.ComponentUtils;
+import io.syndesis.qe.endpoint.ConnectionsEndpoint;
 import io.syndesis.qe.endpoint.IntegrationsEndpoint;
 import io.syndesis.qe.resource.ResourceFactory;
 import io.syndesis.qe.resource.impl.ExternalDatabase;
@@ -21,7 +24,6 @@ import io.syndesis.qe.utils.http.HTTPUtils;
 import io.syndesis.qe.wait.OpenShiftWaitUtils;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.assertj.core.api.SoftAssertions;
 import org.json.JSONArray;
@@ -32,29 +34,30 @@ import org.yaml.snakeyaml.Yaml;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
+import cz.xtf.core.openshift.PodShellOutput;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
@@ -74,6 +77,7 @@ import io.fabric8.kubernetes.api.model.Toleration;
 import io.fabric8.kubernetes.client.LocalPortForward;
 import io.fabric8.openshift.api.model.DeploymentConfig;
 import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.S3Object;
 
 @Slf4j
 public class OperatorValidationSteps {
@@ -82,8 +86,16 @@ public class OperatorValidationSteps {
     private static final String SYNDESIS_BACKUP_BUCKET_PREFIX = "syndesis-backup";
     private static final String SYNDESIS_BACKUP_SECRET_NAME = "syndesis-backup-s3";
 
+    private static final String BACKUP_DONE_LOG = "backup for syndesis done";
+    private static final int SEED_CONCURRENCY = 8;
+
     private Path backupTempDir;
-    private Path backupTempFile;
+    private String backupFileName;
+    private BackupThroughputReport backupReport;
+
+    @Autowired
+    @Lazy
+    private ConnectionsEndpoint connections;
 
     @Autowired
     @Lazy
@@ -439,7 +451,7 @@ public class OperatorValidationSteps {
     public void waitForBackup(int interval) {
         log.info("Waiting until the operator does the backup...");
         try {
-            OpenShiftWaitUtils.waitFor(() -> OpenShiftUtils.getPodLogs("syndesis-operator").contains("backup for syndesis done"),
+            OpenShiftWaitUtils.waitFor(() -> OpenShiftUtils.getPodLogs("syndesis-operator").contains(BACKUP_DONE_LOG),
                 interval * 1000L, 10 * 60000L);
             log.info("Backup done");
         } catch (TimeoutException | InterruptedException e) {
@@ -447,23 +459,8 @@ public class OperatorValidationSteps {
         }
     }
 
-    @When("download the backup file")
-    public void downloadBackup() {
-        final String prefix = OpenShiftUtils.getInstance().getImageStream("syndesis-operator")
-            .getSpec().getTags().get(0).getName().split("-")[0];
-        final String fullFileName = s3.getFileNameWithPrefix(S3BucketNameBuilder.getBucketName(SYNDESIS_BACKUP_BUCKET_PREFIX), prefix);
-        try {
-            backupTempFile = Files.createTempFile("syndesis", "backup");
-        } catch (IOException e) {
-            fail("Unable to create local backup file: ", e);
-        }
-        log.debug("Downloading backup file from S3 bucket " + S3BucketNameBuilder.getBucketName(SYNDESIS_BACKUP_BUCKET_PREFIX)
-            + "to: " + backupTempFile.toString());
-        s3.downloadFile(S3BucketNameBuilder.getBucketName(SYNDESIS_BACKUP_BUCKET_PREFIX), fullFileName, backupTempFile);
-    }
-
-    @When("prepare backup folder")
-    public void prepareBackupFolder() {
+    @When("download and unpack the backup")
+    public void downloadAndUnpackBackup() {
         try {
             // There is some mess with access rights in docker when using createTempDirectory, so create temp directory manually
             backupTempDir = Files.createDirectory(Paths.get("/tmp", "syndesis-backup-" + new Random(new Date().getTime()).nextInt()));
@@ -473,38 +470,125 @@ public class OperatorValidationSteps {
             fail("Unable to create local backup folder: ", e);
         }
 
-        ZipFile zipFile = null;
+        final String bucket = S3BucketNameBuilder.getBucketName(SYNDESIS_BACKUP_BUCKET_PREFIX);
+        if (backupFileName == null) {
+            final String prefix = OpenShiftUtils.getInstance().getImageStream("syndesis-operator")
+                .getSpec().getTags().get(0).getName().split("-")[0];
+            backupFileName = s3.getFileNameWithPrefix(bucket, prefix);
+        }
+        log.debug("Downloading backup file " + backupFileName + " from S3 bucket " + bucket + " to: " + backupTempDir.toString());
+        // the backup is unpacked while it's downloaded, so there is no local copy of the zip file
+        final long start = System.nanoTime();
+        final long size = s3.unzip(bucket, backupFileName, backupTempDir);
+        if (backupReport != null) {
+            backupReport.record("download and unpack", start, size);
+        }
+    }
+
+    /**
+     * Seeds the syndesis database, the connections are copies of the sample PostgresDB connection, the integrations are empty drafts and
+     * the activity records are rows in the activity part of the jsondb table with 1kB of random content.
+     */
+    @When("seed syndesis-db with {int} integrations, {int} connections and {int} activity records")
+    public void seedDb(int integrationCount, int connectionCount, int activityCount) {
+        final String run = Long.toString(System.currentTimeMillis());
+        final Connection template = connections.getConnectionByName("PostgresDB");
+        final long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(SEED_CONCURRENCY, r -> {
+            Thread t = new Thread(r, "syndesis-db-seed");
+            t.setDaemon(true);
+            return t;
+        });
         try {
-            zipFile = new ZipFile(backupTempFile.toFile());
-        } catch (IOException e) {
-            fail("Unable to open zip file: ", e);
-        }
-        Enumeration<? extends ZipEntry> entries = zipFile.entries();
-        while (entries.hasMoreElements()) {
-            ZipEntry entry = entries.nextElement();
-            File entryDestination = new File(backupTempDir.toFile(), entry.getName());
-            if (entry.isDirectory()) {
-                entryDestination.mkdirs();
-            } else {
-                entryDestination.getParentFile().mkdirs();
-                try (InputStream in = zipFile.getInputStream(entry)) {
-                    try (OutputStream out = new FileOutputStream(entryDestination)) {
-                        IOUtils.copy(in, out);
-                    }
-                } catch (IOException e) {
-                    fail("Unable to unzip backup file: ", e);
-                }
+            List<Future<?>> created = new ArrayList<>();
+            for (int i = 0; i < connectionCount; i++) {
+                final String name = "backup-seed-" + run + "-connection-" + i;
+                created.add(executor.submit(() -> connections.create(new Connection.Builder().createFrom(template)
+                    .id(Optional.empty())
+                    .name(name)
+                    .build())));
+            }
+            for (int i = 0; i < integrationCount; i++) {
+                final String name = "backup-seed-" + run + "-integration-" + i;
+                created.add(executor.submit(() -> integrations.create(new Integration.Builder().name(name).build())));
             }
+            for (Future<?> f : created) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("Interrupted while seeding the database");
+        } catch (ExecutionException e) {
+            fail("Unable to seed the database", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (activityCount > 0) {
+            syndesisDbSql("INSERT INTO jsondb (path, value) SELECT '/activity/exchanges/:backup-seed-" + run
+                + "/:' || lpad(n::text, 10, '0') || '/steps', '`' || (SELECT string_agg(md5(random()::text), '') FROM generate_series(1, 32)"
+                + " WHERE n > 0) FROM generate_series(1, " + activityCount + ") n;");
         }
+        final long dbSize = Long.parseLong(syndesisDbSql("SELECT pg_database_size('syndesis');").trim());
+        log.info("Seeded {} integrations, {} connections and {} activity records in {} ms, the database has {} bytes", integrationCount,
+            connectionCount, activityCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), dbSize);
+        backupReport = new BackupThroughputReport(integrationCount, connectionCount, activityCount, dbSize);
+    }
+
+    /**
+     * Waits for the next scheduled backup, the measured time includes the wait for the schedule, the database dump and the upload to S3.
+     */
+    @When("wait for the next backup and measure its throughput")
+    public void measureBackup() {
+        assertBackupSeeded();
+        final String bucket = S3BucketNameBuilder.getBucketName(SYNDESIS_BACKUP_BUCKET_PREFIX);
+        final int backupsBefore = StringUtils.countMatches(OpenShiftUtils.getPodLogs("syndesis-operator"), BACKUP_DONE_LOG);
+        final long start = System.nanoTime();
+        try {
+            OpenShiftWaitUtils.waitFor(
+                () -> StringUtils.countMatches(OpenShiftUtils.getPodLogs("syndesis-operator"), BACKUP_DONE_LOG) > backupsBefore,
+                1000L, 15 * 60000L);
+        } catch (TimeoutException | InterruptedException e) {
+            fail("Exception thrown while waiting for backup log", e);
+        }
+        S3Object backup = s3.getLatestObject(bucket).orElseThrow(() -> new IllegalStateException("No backup found in bucket " + bucket));
+        backupFileName = backup.key();
+        backupReport.record("backup", start, backup.size());
+    }
+
+    @Then("write backup throughput report")
+    public void writeBackupReport() {
+        assertBackupSeeded();
+        backupReport.write();
+        backupReport = null;
+    }
+
+    private void assertBackupSeeded() {
+        assertThat(backupReport).as("The backup throughput is measured only after the \"seed syndesis-db with ...\" step").isNotNull();
+    }
+
+    private String syndesisDbSql(String sql) {
+        final Pod dbPod = OpenShiftUtils.getAnyPod("syndesis.io/component", "syndesis-db")
+            .orElseThrow(() -> new IllegalStateException("syndesis-db pod is not present"));
+        PodShellOutput output = OpenShiftUtils.getInstance().podShell(dbPod, "postgresql")
+            .executeWithBash("psql -d syndesis -t -A <<'EOF'\n" + sql + "\nEOF");
+        if (StringUtils.isNotEmpty(output.getError()) && output.getError().contains("ERROR")) {
+            fail("SQL " + sql + " failed: " + output.getError());
+        }
+        return output.getOutput();
     }
 
     @When("perform {string} {string} restore from backup")
     public void performRestore(String method, String type) {
+        final long start = System.nanoTime();
         if ("manual".equals(method)) {
             performManualRestore(type);
         } else {
             performOperatorRestore();
         }
+        if (backupReport != null) {
+            backupReport.record("restore " + method, start, FileUtils.sizeOfDirectory(backupTempDir.toFile()));
+        }
     }
 
     public void performOperatorRestore() {
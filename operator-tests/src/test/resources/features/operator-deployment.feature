@@ -356,8 +356,7 @@ Feature: Operator Deployment
     Then verify that JMS message with content 'Hello backup' was received from "queue" "backup-out"
 
     When wait for backup with 30s interval
-      And download the backup file
-      And prepare backup folder
+      And download and unpack the backup
 
       # Deploy new instance of syndesis
       And clean application state
@@ -387,6 +386,25 @@ Feature: Operator Deployment
       | spec/backup-external-db.yml | operator | external |spec/components/database/externalDb.yml |
       | spec/backup-external-db.yml | manual   | external |spec/components/database/externalDb.yml |
 
+  @operator-backup-throughput
+  Scenario Outline: Backup and Restore throughput - <integrations> integrations, <connections> connections, <activities> activities
+    Given create sample bucket on S3 with name "syndesis-backup"
+      And clean backup S3 bucket
+    When create pull secret for backup
+      And deploy Syndesis CR from file "spec/backup.yml"
+      And wait for Syndesis to become ready
+      And seed syndesis-db with <integrations> integrations, <connections> connections and <activities> activity records
+      And wait for the next backup and measure its throughput
+      And download and unpack the backup
+      And perform "operator" "standard" restore from backup
+    Then write backup throughput report
+
+    Examples:
+      | integrations | connections | activities |
+      | 10           | 10          | 1000       |
+      | 100          | 100         | 100000     |
+      | 500          | 500         | 1000000    |
+
   @operator-affinity
   @operator-affinity-infra
   @ENTESB-13803
@@ -9,14 +9,12 @@ import io.syndesis.common.model.action.StepAction;
 import io.syndesis.common.model.action.StepDescriptor;
 import io.syndesis.common.model.integration.Step;
 import io.syndesis.common.model.integration.StepKind;
-import io.syndesis.common.util.json.JsonUtils;
 import io.syndesis.qe.endpoint.AtlasmapEndpoint;
 import io.syndesis.qe.entities.DataMapperStepDefinition;
 import io.syndesis.qe.entities.StepDefinition;
 import io.syndesis.qe.utils.TestUtils;
 
 import org.apache.commons.lang3.StringUtils;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -24,7 +22,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -500,21 +497,12 @@ public class AtlasMapperGenerator {
      * @return action with datashapes set
      */
     private Action getMapperStepAction(DataShape outputConnectorInputDataShape) {
-        ObjectMapper mapper = new ObjectMapper().registerModules(new Jdk8Module());
-        Action ts = new StepAction.Builder().descriptor(new StepDescriptor.Builder().build()).build();
-        try {
-            DataShape inputDataShape = new DataShape.Builder().kind(DataShapeKinds.ANY).name("All preceding outputs").build();
-            JSONObject json = new JSONObject(mapper.writeValueAsString(ts));
-            JSONObject inputDataType = new JSONObject(mapper.writeValueAsString(inputDataShape));
-            JSONObject outputDataType = new JSONObject(mapper.writeValueAsString(outputConnectorInputDataShape));
-
-            json.getJSONObject("descriptor").put("inputDataShape", inputDataType);
-            json.getJSONObject("descriptor").put("outputDataShape", outputDataType);
-            ts = JsonUtils.reader().forType(Action.class).readValue(json.toString());
-            log.debug(mapper.writeValueAsString(ts));
-        } catch (IOException ex) {
-            log.error("Error: " + ex);
-        }
-        return ts;
+        DataShape inputDataShape = new DataShape.Builder().kind(DataShapeKinds.ANY).name("All preceding outputs").build();
+        return new StepAction.Builder()
+            .descriptor(new StepDescriptor.Builder()
+                .inputDataShape(inputDataShape)
+                .outputDataShape(outputConnectorInputDataShape)
+                .build())
+            .build();
     }
 }
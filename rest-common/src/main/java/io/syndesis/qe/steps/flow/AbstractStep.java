@@ -8,28 +8,25 @@ import io.syndesis.common.model.action.Action;
 import io.syndesis.common.model.action.ActionDescriptor;
 import io.syndesis.common.model.action.ConnectorAction;
 import io.syndesis.common.model.action.ConnectorDescriptor;
+import io.syndesis.common.model.action.StepAction;
+import io.syndesis.common.model.action.StepDescriptor;
 import io.syndesis.common.model.connection.Connection;
 import io.syndesis.common.model.connection.Connector;
 import io.syndesis.common.model.extension.Extension;
 import io.syndesis.common.model.integration.Step;
 import io.syndesis.common.model.integration.StepKind;
-import io.syndesis.common.util.json.JsonUtils;
 import io.syndesis.qe.endpoint.ConnectionsActionsEndpoint;
 import io.syndesis.qe.endpoint.ConnectionsEndpoint;
 import io.syndesis.qe.endpoint.ConnectorsEndpoint;
+import io.syndesis.qe.endpoint.util.ConnectorMetadataCache;
 import io.syndesis.qe.entities.DataMapperDefinition;
 import io.syndesis.qe.entities.StepDefinition;
 import io.syndesis.qe.storage.StepsStorage;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
-
-import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -71,15 +68,16 @@ public abstract class AbstractStep {
 
     public void createStep() {
         // Some steps do not have connector / connection
-        Connector connector = properties.get(StepProperty.CONNECTOR_ID) == null ? null : connectorsEndpoint.get((String) properties.get(StepProperty.CONNECTOR_ID));
-        Connection connection = properties.get(StepProperty.CONNECTION_ID) == null ? null : connectionsEndpoint.get((String) properties.get(StepProperty.CONNECTION_ID));
+        final String connectorId = (String) properties.get(StepProperty.CONNECTOR_ID);
+        Connection connection = properties.get(StepProperty.CONNECTION_ID) == null ? null
+            : ConnectorMetadataCache.getInstance().getConnection((String) properties.get(StepProperty.CONNECTION_ID), connectionsEndpoint::get);
         Action action;
         // If the action is not String, then we already have action object, so just use it
         if (properties.get(StepProperty.ACTION) != null && !(properties.get(StepProperty.ACTION) instanceof String)) {
             action = (Action) properties.get(StepProperty.ACTION);
         } else {
             // It may not have an action
-            action = properties.get(StepProperty.ACTION) == null ? null : findConnectorAction(connector, (String) properties.get(StepProperty.ACTION));
+            action = properties.get(StepProperty.ACTION) == null ? null : findConnectorAction(connectorId, (String) properties.get(StepProperty.ACTION));
             if (action != null) {
                 // Get the action with datashapes configured
                 action = generateStepAction(action, getConnectorDescriptor(action, (Map) properties.get(StepProperty.PROPERTIES),
@@ -109,53 +107,32 @@ public abstract class AbstractStep {
             steps.getStepDefinitions().add(new StepDefinition(stepBuilder.build()));
         }
         properties.clear();
+        log.debug("Connector metadata cache: {}", ConnectorMetadataCache.getInstance());
     }
 
-    private Action findConnectorAction(Connector connector, String connectorPrefix) {
-        Optional<ConnectorAction> action;
+    private Action findConnectorAction(String connectorId, String connectorPrefix) {
+        Connector connector = connectorId == null ? null : ConnectorMetadataCache.getInstance().getConnector(connectorId, connectorsEndpoint::get);
         if (connector == null) {
             fail("Incorrect parameter combination, connector was null, but action was provided");
         }
 
-        action = connector.getActions()
-                .stream()
-                .filter(a -> a.getId().get().contains(connectorPrefix))
-                .findFirst();
-
-        if (!action.isPresent()) {
-            action = connector.getActions()
-                    .stream()
-                    .filter(a -> a.getDescriptor().getCamelConnectorPrefix().contains(connectorPrefix))
-                    .findFirst();
-        }
-
-        return action.get();
+        return ConnectorMetadataCache.getInstance().findAction(connectorId, connectorsEndpoint::get, connectorPrefix).get();
     }
 
     ConnectorDescriptor getConnectorDescriptor(Action action, Map configuredProperties, String connectionId) {
-        ConnectionsActionsEndpoint conActEndpoint = new ConnectionsActionsEndpoint(connectionId);
-        return conActEndpoint.postParamsAction(action.getId().get(), configuredProperties);
+        // The descriptor depends only on the connection, the action and the configured properties
+        return ConnectorMetadataCache.getInstance().getDescriptor(connectionId, action.getId().get(), configuredProperties,
+            () -> new ConnectionsActionsEndpoint(connectionId).postParamsAction(action.getId().get(), configuredProperties));
     }
 
-    //Small hack -> the Action doesn't provide setters for input/output data shape
-    Action generateStepAction(Action action, ActionDescriptor connectorDescriptor) {
-        ObjectMapper mapper = new ObjectMapper().registerModules(new Jdk8Module());
-        Action ts = null;
-        try {
-            JSONObject json = new JSONObject(mapper.writeValueAsString(action));
-            JSONObject inputDataType = new JSONObject(mapper.writeValueAsString(connectorDescriptor.getInputDataShape().get()));
-            JSONObject outputDataType = new JSONObject(mapper.writeValueAsString(connectorDescriptor.getOutputDataShape().get()));
-            JSONArray propertyDefinitionSteps = new JSONArray(mapper.writeValueAsString(connectorDescriptor.getPropertyDefinitionSteps()));
-
-            json.getJSONObject("descriptor").put("inputDataShape", inputDataType);
-            json.getJSONObject("descriptor").put("outputDataShape", outputDataType);
-            json.getJSONObject("descriptor").put("propertyDefinitionSteps", propertyDefinitionSteps);
-
-            ts = JsonUtils.reader().forType(Action.class).readValue(json.toString());
-        } catch (IOException ex) {
-            log.error("Error: " + ex);
-        }
-        return ts;
+    /**
+     * Creates a copy of the action with the data shapes and property definitions of the descriptor.
+     * @param action action
+     * @param descriptor descriptor with the data shapes, e.g. returned by the connection's action endpoint
+     * @return action object with datashapes
+     */
+    Action generateStepAction(Action action, ActionDescriptor descriptor) {
+        return withDescriptor(action, descriptor.getInputDataShape(), descriptor.getOutputDataShape(), descriptor.getPropertyDefinitionSteps());
     }
 
     /**
@@ -168,26 +145,50 @@ public abstract class AbstractStep {
      * @return action object with datashapes
      */
     Action withCustomDatashape(Action action, ConnectorDescriptor connectorDescriptor, String direction, DataShapeKinds kind, String datashape) {
-        // This will set datashapes and property definitions from the connectorDescriptor
-        Action a = generateStepAction(action, connectorDescriptor);
-        ObjectMapper mapper = new ObjectMapper().registerModules(new Jdk8Module());
-        try {
-            JSONObject json = new JSONObject(mapper.writeValueAsString(a));
-            DataShape ds = new DataShape.Builder()
-                    .name(kind.toString())
-                    .description(kind.toString())
-                    .kind(kind)
-                    .specification(datashape)
-                    .build();
-
-            json.getJSONObject("descriptor").put("in".equals(direction) ? "inputDataShape" : "outputDataShape", new JSONObject(mapper.writeValueAsString(ds)));
-
-            a = JsonUtils.reader().forType(Action.class).readValue(json.toString());
-        } catch (IOException ex) {
-            log.error("Error: " + ex);
-        }
-        return a;
+        DataShape ds = new DataShape.Builder()
+                .name(kind.toString())
+                .description(kind.toString())
+                .kind(kind)
+                .specification(datashape)
+                .build();
+        // The other datashape and property definitions are taken from the connectorDescriptor
+        return withDescriptor(action,
+            "in".equals(direction) ? Optional.of(ds) : connectorDescriptor.getInputDataShape(),
+            "in".equals(direction) ? connectorDescriptor.getOutputDataShape() : Optional.of(ds),
+            connectorDescriptor.getPropertyDefinitionSteps());
     }
 
-
+    /**
+     * Copies the action with the given descriptor parts, compared with the former JSON round trip by ActionDescriptorBenchmark.
+     * @param action connector or step action
+     * @param in input datashape
+     * @param out output datashape
+     * @param propertyDefinitionSteps property definitions
+     * @return action object with datashapes
+     */
+    static Action withDescriptor(Action action, Optional<DataShape> in, Optional<DataShape> out,
+        List<ActionDescriptor.ActionDescriptorStep> propertyDefinitionSteps) {
+        if (action instanceof ConnectorAction) {
+            final ConnectorAction connectorAction = (ConnectorAction) action;
+            return new ConnectorAction.Builder().createFrom(connectorAction)
+                .descriptor(new ConnectorDescriptor.Builder().createFrom(connectorAction.getDescriptor())
+                    .inputDataShape(in)
+                    .outputDataShape(out)
+                    .propertyDefinitionSteps(propertyDefinitionSteps)
+                    .build())
+                .build();
+        }
+        if (action instanceof StepAction) {
+            final StepAction stepAction = (StepAction) action;
+            return new StepAction.Builder().createFrom(stepAction)
+                .descriptor(new StepDescriptor.Builder().createFrom(stepAction.getDescriptor())
+                    .inputDataShape(in)
+                    .outputDataShape(out)
+                    .propertyDefinitionSteps(propertyDefinitionSteps)
+                    .build())
+                .build();
+        }
+        fail("Unsupported action type " + action.getClass().getName());
+        return null;
+    }
 }
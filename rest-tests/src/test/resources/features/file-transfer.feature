@@ -76,3 +76,46 @@ Feature: Integration - File transfer
     Then wait for integration with name: "FTP to FTP rest test" to become active
     When put "test-ftp.txt" file with content "Hello FTP" in the directory: "/download" using FTP
     Then validate that file "test-ftp.txt" has been transfered from "/download" to "/upload" directory using FTP
+
+  @integration-ftp-ftp-large-payload
+  @ftp
+  @large-payload
+  Scenario: FTP to FTP - Large generated files
+    Given deploy FTP server
+    And delete file "/upload/generated-0.csv" from FTP
+    And delete file "/upload/generated-1.csv" from FTP
+    And delete file "/upload/generated-2.csv" from FTP
+    When create FTP connection
+    And create FTP "download" action with values
+      | directoryName | initialDelay | delay | delete |
+      | download      | 1000         | 500   | true   |
+    And create FTP "upload" action with values
+      | directoryName | fileExist | tempPrefix    |
+      | upload        | Override  | copyingprefix |
+    When create integration with name: "FTP to FTP large payload rest test"
+    Then wait for integration with name: "FTP to FTP large payload rest test" to become active
+    When upload 3 generated csv files of size "50MB" to "/download" directory using FTP
+    Then verify that all generated files are in "/upload" directory using FTP
+    And verify that the generated files were transferred at least 0.5 MB/s
+
+  @integration-sftp-sftp-large-payload
+  @sftp
+  @large-payload
+  Scenario: SFTP to SFTP - Large generated files
+    Given deploy SFTP server
+    And prepare SFTP server
+    And delete file "/test/upload/generated-0.csv" from SFTP
+    And delete file "/test/upload/generated-1.csv" from SFTP
+    And delete file "/test/upload/generated-2.csv" from SFTP
+    When create SFTP connection
+    And create SFTP "download" action with values
+      | directoryName  | initialDelay | delay | delete |
+      | /test/download | 1000         | 500   | true   |
+    And create SFTP "upload" action with values
+      | directoryName | fileExist | tempPrefix    |
+      | /test/upload  | Override  | copyingprefix |
+    When create integration with name: "SFTP to SFTP large payload rest test"
+    Then wait for integration with name: "SFTP to SFTP large payload rest test" to become active
+    When upload 3 generated csv files of size "50MB" to "/test/download" directory using SFTP
+    Then verify that all generated files are in "/test/upload" directory using SFTP
+    And verify that the generated files were transferred at least 0.5 MB/s
@@ -0,0 +1,26 @@
+# @sustainer: avano@redhat.com
+
+@rest
+@amqbroker
+@activemq
+@integration-amq-to-amq
+Feature: Integration - AMQ to AMQ
+
+  Background:
+    Given clean application state
+      And deploy ActiveMQ broker
+      And create ActiveMQ connection
+      And clean destination type "queue" with name "amq-amq-in"
+      And clean destination type "queue" with name "amq-amq-out"
+
+  @integration-amq-amq-collector
+  Scenario: AMQ to AMQ message rate
+    When create ActiveMQ "subscribe" action step with destination type "queue" and destination name "amq-amq-in"
+      And create ActiveMQ "publish" action step with destination type "queue" and destination name "amq-amq-out"
+      And create integration with name: "AMQ-AMQ-collector"
+    Then wait for integration with name: "AMQ-AMQ-collector" to become active
+
+    When start collecting JMS messages from "queue" with name "amq-amq-out"
+      And publish 100 messages with content "amq-amq" to "queue" with name "amq-amq-in"
+    Then verify that 100 JMS messages were collected from "amq-amq-out" within 120 seconds
+      And verify that JMS messages collected from "amq-amq-out" arrived at least 1.0 messages per second
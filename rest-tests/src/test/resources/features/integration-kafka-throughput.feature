@@ -0,0 +1,22 @@
+# @sustainer: avano@redhat.com
+
+@rest
+@integration-kafka-throughput
+@kafka
+Feature: Integration - Kafka throughput
+  Background:
+    Given clean application state
+      And deploy Kafka broker reachable from the test suite
+
+  @kafka-to-kafka-throughput
+  Scenario: Kafka to Kafka throughput
+    When create Kafka connection with extra options
+      | groupId | kafka-throughput |
+      And create Kafka "subscribe" step with topic "throughput-in"
+      And create Kafka "publish" step with topic "throughput-out"
+    When create integration with name: "kafka-throughput"
+    Then wait for integration with name: "kafka-throughput" to become active
+    When produce 5000 kafka messages with 10 keys to topic "throughput-in" at 500 messages per second
+    Then verify that all produced kafka messages are received at least once from topic "throughput-out" within 120 seconds
+      And verify that 0.95 percentile of kafka end-to-end latency is at most 5000 ms
+      And verify that kafka consumer group "kafka-throughput" has no lag on topic "throughput-in" within 60 seconds
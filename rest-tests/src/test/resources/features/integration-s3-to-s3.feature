@@ -63,3 +63,16 @@ Feature: Integration - S3
       And wait for integration with name: "delete filtered from S3 rest test" to become active
     Then validate bucket with name "syndesis-server-bucket-out" does not contain file with name "testdelete1.txt"
       And validate bucket with name "syndesis-server-bucket-out" contains file with name "testdelete2.txt" and text "Hello world!"
+
+  @integration-s3-s3-large-payload
+  @large-payload
+  Scenario: S3 to S3 - Large generated files
+    Given create S3 connection using "syndesis-server-bucket-out" bucket
+      And create S3 connection using "syndesis-server-bucket-in" bucket
+    When create S3 polling START action step with bucket: "syndesis-server-bucket-out"
+      And create S3 "copy" FINISH action step with bucket: "syndesis-server-bucket-in"
+      And create integration with name: "S3 to S3 large payload rest test"
+      And wait for integration with name: "S3 to S3 large payload rest test" to become active
+      And upload 3 generated json files of size "50MB" to S3 bucket "syndesis-server-bucket-out"
+    Then verify that all generated files are in S3 bucket "syndesis-server-bucket-in"
+      And verify that the generated files were transferred at least 0.5 MB/s
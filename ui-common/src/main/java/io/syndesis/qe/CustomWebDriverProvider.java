@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,10 @@ import lombok.extern.slf4j.Slf4j;
 public class CustomWebDriverProvider implements WebDriverProvider {
     public static final String DOWNLOAD_DIR = Paths.get("tmp" + File.separator + "download").toAbsolutePath().toString();
 
+    private static final AtomicInteger SLOTS = new AtomicInteger();
+    // each thread drives its own browser, so each thread gets its own download directory
+    private static final ThreadLocal<Integer> SLOT = ThreadLocal.withInitial(SLOTS::getAndIncrement);
+
     private final String INTEGRATION_EXPORT_MIME_TYPE = "application/octet-stream;application/zip";
 
     @Override
@@ -34,8 +39,8 @@ public class CustomWebDriverProvider implements WebDriverProvider {
             return prepareChromeWebDriver();
         } else {
 
-            // firefox needs to have DOWNLOAD_DIR path already created
-            File dirPath = new File(DOWNLOAD_DIR);
+            // firefox needs to have download dir path already created
+            File dirPath = new File(downloadDir());
             dirPath.mkdirs();
 
             return prepareFirefoxDriver();
@@ -55,13 +60,14 @@ public class CustomWebDriverProvider implements WebDriverProvider {
         Map<String, Object> preferences = new Hashtable<String, Object>();
         preferences.put("profile.default_content_settings.popups", 0);
         preferences.put("download.prompt_for_download", "false");
-        preferences.put("download.default_directory", DOWNLOAD_DIR);
+        preferences.put("download.default_directory", downloadDir());
 
         ChromeOptions options = new ChromeOptions();
         options.setExperimentalOption("prefs", preferences);
         options.addArguments("--no-sandbox");
         options.addArguments(TestConfiguration.syndesisUrl());
         options.setCapability("acceptInsecureCerts", true);
+        options.setHeadless(TestConfiguration.uiHeadless());
 
         TestConfiguration.browserBinary().map(options::setBinary);
 
@@ -89,11 +95,12 @@ public class CustomWebDriverProvider implements WebDriverProvider {
         FirefoxOptions firefoxOptions = new FirefoxOptions();
         firefoxOptions.setCapability("marionette", true);
         firefoxOptions.addArguments(TestConfiguration.syndesisUrl());
+        firefoxOptions.setHeadless(TestConfiguration.uiHeadless());
 
         firefoxOptions.addPreference("browser.download.folderList", 2);
         firefoxOptions.addPreference("browser.download.manager.showWhenStarting", false);
         firefoxOptions.addPreference("browser.download.panel.shown", false);
-        firefoxOptions.addPreference("browser.download.dir", DOWNLOAD_DIR);
+        firefoxOptions.addPreference("browser.download.dir", downloadDir());
         firefoxOptions.addPreference("browser.download.useDownloadDir", true);
         firefoxOptions.addPreference("browser.helperApps.neverAsk.saveToDisk", INTEGRATION_EXPORT_MIME_TYPE);
         firefoxOptions.addPreference("javascript.enabled", true);
@@ -113,12 +120,23 @@ public class CustomWebDriverProvider implements WebDriverProvider {
         return new FirefoxDriver(firefoxOptions);
     }
 
+    /**
+     * Download directory of the browser driven by the current thread.
+     *
+     * When the features run in several browsers concurrently, each browser downloads to its own subdirectory of {@link #DOWNLOAD_DIR}.
+     *
+     * @return absolute path of the download directory
+     */
+    public static String downloadDir() {
+        return TestConfiguration.uiBrowsers() > 1 ? DOWNLOAD_DIR + File.separator + SLOT.get() : DOWNLOAD_DIR;
+    }
+
     /**
      * Cleaning a browser download folder
      */
     public static void cleanDownloadFolder() throws IOException {
         try {
-            FileUtils.cleanDirectory(new File(DOWNLOAD_DIR));
+            FileUtils.cleanDirectory(new File(downloadDir()));
         } catch (IllegalArgumentException ex) {
             log.info("Temp download dir for webdriver not found, skip cleaning");
         }
@@ -0,0 +1,216 @@
+package io.syndesis.qe;
+
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerScheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.cucumber.junit.Cucumber;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cucumber runner that runs the features in a pool of {@link TestConfiguration#uiBrowsers()} browsers.
+ *
+ * Each thread of the pool drives its own browser, Selenide binds the driver to the thread and {@link CustomWebDriverProvider} gives each
+ * browser its own download directory. The browsers don't share cookies, so each browser has a separate cookie jar for the same
+ * Syndesis user and logs in on its own, or gets the session of that user injected by {@link io.syndesis.qe.utils.SessionCache}. The
+ * scenarios of one feature run in the same thread in the given order.
+ *
+ * The features are started from the longest one, according to the durations of the previous runs stored in
+ * {@link TestConfiguration#uiDurationsFile()}, so the pool doesn't wait for a long feature started last. Features without a recorded
+ * duration are started first. With a single browser the features run serially in the given order, like with the {@link Cucumber} runner.
+ *
+ * The features running concurrently share the Syndesis instance, so only the features that don't depend on its exclusive state (e.g. by
+ * resetting the database) should be run with more than one browser.
+ */
+@Slf4j
+public class ParallelCucumber extends Runner implements Filterable {
+    private final Cucumber delegate;
+    private final int browsers;
+    private final Path durationsFile;
+
+    public ParallelCucumber(Class<?> clazz) throws InitializationError {
+        delegate = new Cucumber(clazz);
+        browsers = TestConfiguration.uiBrowsers();
+        durationsFile = Paths.get(TestConfiguration.uiDurationsFile());
+        if (browsers > 1) {
+            delegate.sort(new Sorter(new LongestFirst(loadDurations(), features())));
+            delegate.setScheduler(new BrowserPoolScheduler(browsers));
+            log.info("Running UI features in {} browsers", browsers);
+        }
+    }
+
+    @Override
+    public Description getDescription() {
+        return delegate.getDescription();
+    }
+
+    @Override
+    public void filter(Filter filter) throws NoTestsRemainException {
+        delegate.filter(filter);
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        DurationRecorder recorder = new DurationRecorder();
+        notifier.addListener(recorder);
+        try {
+            delegate.run(notifier);
+        } finally {
+            notifier.removeListener(recorder);
+            saveDurations(recorder.durations);
+        }
+    }
+
+    private Set<Description> features() {
+        return new HashSet<>(delegate.getDescription().getChildren());
+    }
+
+    /**
+     * @return feature name to duration in milliseconds
+     */
+    private Map<String, Long> loadDurations() {
+        Map<String, Long> durations = new HashMap<>();
+        if (!Files.isReadable(durationsFile)) {
+            return durations;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(durationsFile)) {
+            properties.load(in);
+            properties.stringPropertyNames().forEach(name -> durations.put(name, Long.parseLong(properties.getProperty(name))));
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Unable to read the feature durations from {}, the features will run in the given order", durationsFile, e);
+        }
+        return durations;
+    }
+
+    /**
+     * Stores the durations of the features that ran, the durations of the other features are kept.
+     *
+     * @param durations feature name to duration in milliseconds
+     */
+    private void saveDurations(Map<String, Long> durations) {
+        if (durations.isEmpty()) {
+            return;
+        }
+        Properties properties = new Properties();
+        loadDurations().forEach((name, millis) -> properties.setProperty(name, String.valueOf(millis)));
+        durations.forEach((name, millis) -> properties.setProperty(name, String.valueOf(millis)));
+        try {
+            Files.createDirectories(durationsFile.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(durationsFile)) {
+                properties.store(out, "UI feature durations in milliseconds");
+            }
+        } catch (IOException e) {
+            log.warn("Unable to store the feature durations to {}", durationsFile, e);
+        }
+    }
+
+    /**
+     * Orders the features by the estimated duration, the longest first. The scenarios are not reordered.
+     */
+    private static final class LongestFirst implements Comparator<Description> {
+        private final Map<String, Long> durations;
+        private final Set<Description> features;
+
+        private LongestFirst(Map<String, Long> durations, Set<Description> features) {
+            this.durations = durations;
+            this.features = features;
+        }
+
+        @Override
+        public int compare(Description d1, Description d2) {
+            if (!features.contains(d1) || !features.contains(d2)) {
+                // the sort is stable, so the scenarios keep their order
+                return 0;
+            }
+            return Long.compare(estimate(d2), estimate(d1));
+        }
+
+        private long estimate(Description feature) {
+            return durations.getOrDefault(feature.getDisplayName(), Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Runs the features in a fixed pool of threads, one browser per thread.
+     */
+    private static final class BrowserPoolScheduler implements RunnerScheduler {
+        private final ExecutorService executor;
+
+        private BrowserPoolScheduler(int browsers) {
+            final AtomicInteger threads = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(browsers, r -> new Thread(r, "ui-browser-" + threads.incrementAndGet()));
+        }
+
+        @Override
+        public void schedule(Runnable childStatement) {
+            executor.submit(childStatement);
+        }
+
+        @Override
+        public void finished() {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Sums up the durations of the scenarios of each feature.
+     */
+    @RunListener.ThreadSafe
+    private final class DurationRecorder extends RunListener {
+        private final Map<String, Long> durations = new ConcurrentHashMap<>();
+        private final Map<Description, Long> started = new ConcurrentHashMap<>();
+        private final Map<Description, String> featureOf = new HashMap<>();
+
+        private DurationRecorder() {
+            for (Description feature : delegate.getDescription().getChildren()) {
+                feature.getChildren().forEach(scenario -> featureOf.put(scenario, feature.getDisplayName()));
+            }
+        }
+
+        @Override
+        public void testStarted(Description description) {
+            started.put(description, System.currentTimeMillis());
+        }
+
+        @Override
+        public void testFinished(Description description) {
+            final Long start = started.remove(description);
+            final String feature = featureOf.get(description);
+            if (start != null && feature != null) {
+                durations.merge(feature, System.currentTimeMillis() - start, Long::sum);
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package io.syndesis.qe;
 
+import io.syndesis.qe.pages.ElementCache;
+import io.syndesis.qe.report.locator.LocatorStats;
+import io.syndesis.qe.report.performance.PagePerformance;
 import io.syndesis.qe.report.selector.SelectorSnooper;
 
 import org.junit.AfterClass;
@@ -18,10 +21,13 @@ public abstract class UITestSuiteParent extends TestSuiteParent {
         Configuration.browserSize = "1920x1080";
         //Logging selectors is disabled by default, enable it in test properties if you wish
         SelectorSnooper.init();
+        ElementCache.init();
     }
 
     @AfterClass
     public static void onTestsEnd() {
         SelectorSnooper.finish();
+        LocatorStats.generateReport();
+        PagePerformance.generateReport();
     }
 }
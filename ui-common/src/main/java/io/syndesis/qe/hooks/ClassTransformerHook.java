@@ -1,6 +1,8 @@
 package io.syndesis.qe.hooks;
 
 import io.syndesis.qe.TestConfiguration;
+import io.syndesis.qe.pages.SyndesisPageObject;
+import io.syndesis.qe.report.performance.PagePerformance;
 import io.syndesis.qe.report.selector.ExcludeFromSelectorReports;
 import io.syndesis.qe.report.selector.SelectorSnooper;
 
@@ -66,10 +68,31 @@ public class ClassTransformerHook implements EventListener {
             }).installOnByteBuddyAgent();
     }
 
+    private void transformPagePerformance() {
+        lazyAgentInstall();
+        /*
+         The resulting agent changes validate() of all page objects to call PagePerformanceInterceptor#onExit()
+         TLDR: after the page object validated the page successfully, the browser performance metrics of the page are captured
+         */
+        new AgentBuilder.Default()
+            .disableClassFormatChanges()
+            .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+            .type(ElementMatchers.isSubTypeOf(SyndesisPageObject.class))
+            .transform((builder, typeDescription, classLoader, module) -> builder
+                .visit(Advice.to(PagePerformanceInterceptor.class).on(ElementMatchers.named("validate")
+                    .and(ElementMatchers.takesArguments(0))
+                    .and(ElementMatchers.returns(boolean.class))
+                    .and(ElementMatchers.not(ElementMatchers.isAbstract())))))
+            .installOnByteBuddyAgent();
+    }
+
     private void transform() {
         if (TestConfiguration.snoopSelectors()) {
             transformSelectors();
         }
+        if (TestConfiguration.uiPerformance()) {
+            transformPagePerformance();
+        }
     }
 
     ///Install Bytebuddy agent only once
@@ -93,6 +116,16 @@ public class ClassTransformerHook implements EventListener {
         }
     }
 
+    public static class PagePerformanceInterceptor {
+
+        @Advice.OnMethodExit
+        public static void onExit(@Advice.This Object page, @Advice.Return boolean valid) {
+            if (valid) {
+                PagePerformance.capture(page.getClass());
+            }
+        }
+    }
+
     @Override
     public void setEventPublisher(EventPublisher publisher) {
         //NOOP all action is handled in constructor
@@ -1,6 +1,8 @@
 package io.syndesis.qe.hooks;
 
 import io.syndesis.qe.TestConfiguration;
+import io.syndesis.qe.utils.SessionCache;
+import io.syndesis.qe.utils.UIWaitUtils;
 
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
@@ -18,6 +20,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.stream.Collectors;
 
+import io.cucumber.java.After;
 import io.cucumber.java.AfterStep;
 import io.cucumber.java.Scenario;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +40,20 @@ public class UITestsHooks {
         }
     }
 
+    /**
+     * Reports the time saved in the scenario by waiting for the settled UI instead of the fixed sleeps and by reusing the cached sessions.
+     * @param scenario scenario
+     */
+    @After
+    public void reportSavedTime(Scenario scenario) {
+        for (String stats : new String[] {UIWaitUtils.resetStats(), SessionCache.getInstance().resetStats()}) {
+            if (stats != null) {
+                log.info("Scenario {}: {}", scenario.getName(), stats);
+                scenario.log(stats);
+            }
+        }
+    }
+
     /**
      * Takes a screenshot using selenium and then resizes it to half size and attaches it to the scenario.
      * @param scenario scenario
@@ -0,0 +1,113 @@
+package io.syndesis.qe.pages;
+
+import io.syndesis.qe.TestConfiguration;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.AbstractWebDriverEventListener;
+
+import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.WebDriverRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of the elements found by the page objects.
+ *
+ * The cached elements are still lazy Selenide proxies that are re-resolved on every interaction, the cache only saves the polling that
+ * waits for the element to appear. Entries expire after {@link TestConfiguration#uiElementCacheTtl()} ms and the whole cache of the thread
+ * is dropped when its browser navigates or clicks an element, as the click may change the route of the application. The navigation is
+ * observed by a listener registered in {@link #init()}, so the lookups don't ask the browser for the current URL. The cache is disabled
+ * when the TTL is 0 (default).
+ */
+public final class ElementCache {
+    private static final long TTL = TestConfiguration.uiElementCacheTtl();
+    private static final ThreadLocal<Map<String, Entry>> STATE = ThreadLocal.withInitial(HashMap::new);
+
+    private ElementCache() {
+    }
+
+    public static boolean isEnabled() {
+        return TTL > 0;
+    }
+
+    /**
+     * Registers the navigation listener, has to be called before the browser is started.
+     */
+    public static void init() {
+        if (isEnabled()) {
+            WebDriverRunner.addListener(new NavigationListener());
+        }
+    }
+
+    /**
+     * Returns the cached element or finds it using given lookup.
+     *
+     * @param key cache key
+     * @param lookup function finding the element
+     * @return element
+     */
+    public static SelenideElement get(String key, Supplier<SelenideElement> lookup) {
+        if (!isEnabled()) {
+            return lookup.get();
+        }
+        final Map<String, Entry> entries = STATE.get();
+        final long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expires > now) {
+            return entry.element;
+        }
+        SelenideElement element = lookup.get();
+        entries.put(key, new Entry(element, System.currentTimeMillis() + TTL));
+        return element;
+    }
+
+    /**
+     * Drops all cached elements of the current thread.
+     */
+    public static void invalidate() {
+        STATE.remove();
+    }
+
+    /**
+     * Drops the cache of the thread driving the browser, the listener is called from that thread.
+     */
+    private static final class NavigationListener extends AbstractWebDriverEventListener {
+        @Override
+        public void afterNavigateTo(String url, WebDriver driver) {
+            invalidate();
+        }
+
+        @Override
+        public void afterNavigateBack(WebDriver driver) {
+            invalidate();
+        }
+
+        @Override
+        public void afterNavigateForward(WebDriver driver) {
+            invalidate();
+        }
+
+        @Override
+        public void afterNavigateRefresh(WebDriver driver) {
+            invalidate();
+        }
+
+        @Override
+        public void afterClickOn(WebElement element, WebDriver driver) {
+            invalidate();
+        }
+    }
+
+    private static final class Entry {
+        private final SelenideElement element;
+        private final long expires;
+
+        private Entry(SelenideElement element, long expires) {
+            this.element = element;
+            this.expires = expires;
+        }
+    }
+}
@@ -54,11 +54,11 @@ public class SupportPage extends SyndesisPageObject {
         getButton("Download").shouldBe(visible).click();
 
         assertThat(TestUtils.waitForEvent(File::exists,
-            () -> new File(CustomWebDriverProvider.DOWNLOAD_DIR + File.separator + "syndesis.zip"),
+            () -> new File(CustomWebDriverProvider.downloadDir() + File.separator + "syndesis.zip"),
             TimeUnit.MINUTES, 5, TimeUnit.SECONDS, 5))
             .isTrue();
 
-        return new File(CustomWebDriverProvider.DOWNLOAD_DIR + File.separator + "syndesis.zip");
+        return new File(CustomWebDriverProvider.downloadDir() + File.separator + "syndesis.zip");
     }
 
     public String getVersion() {
@@ -11,10 +11,11 @@ import static com.codeborne.selenide.Condition.visible;
 import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
 
+import io.syndesis.qe.report.locator.LocatorStats;
 import io.syndesis.qe.utils.Alert;
 import io.syndesis.qe.utils.ByUtils;
 import io.syndesis.qe.utils.Conditions;
-import io.syndesis.qe.utils.TestUtils;
+import io.syndesis.qe.utils.Locators;
 import io.syndesis.qe.wait.OpenShiftWaitUtils;
 
 import org.junit.Assert;
@@ -24,46 +25,57 @@ import org.openqa.selenium.Keys;
 import org.openqa.selenium.StaleElementReferenceException;
 
 import com.codeborne.selenide.Condition;
+import com.codeborne.selenide.Configuration;
 import com.codeborne.selenide.ElementsCollection;
 import com.codeborne.selenide.Selenide;
 import com.codeborne.selenide.SelenideElement;
 
 import java.util.Map;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public abstract class SyndesisPageObject {
+    private static final By BUTTON = Locators.tagName("button");
+    private static final By ROOT = Locators.id("root");
+    private static final long BUTTON_WAIT_TIMEOUT = 60 * 1000L;
+    private static final long BUTTON_POLL_INTERVAL = 250L;
 
     public abstract SelenideElement getRootElement();
 
     public abstract boolean validate();
 
     public SelenideElement getButton(String buttonTitle) {
-        return getButton(buttonTitle, getRootElement());
+        return ElementCache.get(cacheKey("button", buttonTitle), () -> getButton(buttonTitle, getRootElement()));
     }
 
     public SelenideElement getButtonByCssClassName(String buttonClassName) {
-        return getButtonByCssClassName(buttonClassName, getRootElement());
+        return ElementCache.get(cacheKey("buttonClass", buttonClassName), () -> getButtonByCssClassName(buttonClassName, getRootElement()));
     }
 
     public SelenideElement getButtonByCssClassName(String buttonClassName, SelenideElement differentRoot) {
         log.info("searching for button *{}*", buttonClassName);
+        final long start = System.nanoTime();
 
-        waitForButtons(Condition.cssClass(buttonClassName), differentRoot);
+        int retries = waitForButtons(Condition.cssClass(buttonClassName), differentRoot);
 
-        ElementsCollection foundButtons = differentRoot.shouldBe(visible).findAll(By.className(buttonClassName)).filter(visible);
-        return foundButtons.get(0);
+        ElementsCollection foundButtons = differentRoot.shouldBe(visible).findAll(Locators.className(buttonClassName)).filter(visible);
+        SelenideElement button = foundButtons.get(0);
+        LocatorStats.record(getClass(), "button." + buttonClassName, start, retries);
+        return button;
     }
 
     public SelenideElement getButton(String buttonTitle, SelenideElement differentRoot) {
         log.info("searching for button *{}*", buttonTitle);
+        final long start = System.nanoTime();
 
-        waitForButtons(Condition.exactText(buttonTitle), differentRoot);
+        int retries = waitForButtons(Condition.exactText(buttonTitle), differentRoot);
 
-        ElementsCollection foundButtons = differentRoot.shouldBe(visible).findAll(By.tagName("button"))
+        ElementsCollection foundButtons = differentRoot.shouldBe(visible).findAll(BUTTON)
             .filter(Condition.exactText(buttonTitle))
             .exclude(Conditions.STALE_ELEMENT)
             .shouldHave(sizeGreaterThanOrEqual(1));
@@ -72,32 +84,68 @@ public abstract class SyndesisPageObject {
             log.warn("Ambiguous button title. Found more that 1 button with title {}", buttonTitle);
         }
         log.info("Button found! ");
+        LocatorStats.record(getClass(), "button \"" + buttonTitle + "\"", start, retries);
 
         return foundButtons.first();
     }
 
-    private void waitForButtons(Condition condition, SelenideElement differentRoot) {
-        int maxRetries = 60;
-        int retries = 0;
-        boolean found = false;
-        BooleanSupplier bs = () -> differentRoot.shouldBe(visible).findAll(By.tagName("button")).filter(condition).size() >= 1;
-        while (!found && retries < maxRetries) {
+    /**
+     * Waits until a button matching the condition is present.
+     *
+     * @param condition button condition
+     * @param differentRoot root element to search in
+     * @return number of unsuccessful attempts
+     */
+    private int waitForButtons(Condition condition, SelenideElement differentRoot) {
+        final AtomicReference<SelenideElement> root = new AtomicReference<>(differentRoot);
+        final int retries = waitFor(() -> {
             try {
-                found = bs.getAsBoolean();
+                return root.get().shouldBe(visible).findAll(BUTTON).filter(condition).size() >= 1;
             } catch (StaleElementReferenceException ex) {
                 log.warn("Element was detached from the page, trying again to find a button but now within syndesis-root element");
-                bs = () -> $(By.id("root")).shouldBe(visible).findAll(By.tagName("button")).filter(condition).size() >= 1;
-            }
-            if (!found) {
-                retries++;
-                TestUtils.sleepIgnoreInterrupt(1000L);
+                root.set($(ROOT));
+                return false;
             }
+        }, BUTTON_POLL_INTERVAL, BUTTON_WAIT_TIMEOUT);
+        // when the button didn't appear, the following lookup fails with the details
+        return Math.max(retries, 0);
+    }
+
+    /**
+     * Waits for the condition using {@link OpenShiftWaitUtils#waitFor(BooleanSupplier, BooleanSupplier, long, long)} and counts the attempts.
+     *
+     * @param condition condition to check
+     * @param interval pause between the attempts in milliseconds
+     * @param timeout maximum time to wait in milliseconds
+     * @return number of unsuccessful attempts before the condition was true or -1 if it wasn't true in time
+     */
+    private static int waitFor(BooleanSupplier condition, long interval, long timeout) {
+        final AtomicInteger attempts = new AtomicInteger();
+        try {
+            OpenShiftWaitUtils.waitFor(() -> {
+                attempts.incrementAndGet();
+                return condition.getAsBoolean();
+            }, null, interval, timeout);
+            return attempts.get() - 1;
+        } catch (TimeoutException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
         }
     }
 
+    /**
+     * Creates the key for the {@link ElementCache}, the elements are cached per page object class and root element, so the instances of
+     * the same class with different roots don't share the elements. The search criteria of the root are known without asking the browser.
+     */
+    protected String cacheKey(String kind, String value) {
+        return getClass().getName() + '[' + getRootElement().getSearchCriteria() + "]#" + kind + ':' + value;
+    }
+
     public SelenideElement getFirstVisibleButton(String buttonTitle) {
         log.info("searching for first visible button {}", buttonTitle);
-        ElementsCollection buttonElements = this.getRootElement().findAll(By.linkText(buttonTitle)).filter(visible);
+        ElementsCollection buttonElements = this.getRootElement().findAll(Locators.linkText(buttonTitle)).filter(visible);
         return buttonElements.get(0);
     }
 
@@ -131,11 +179,12 @@ public abstract class SyndesisPageObject {
     }
 
     public void goToUrl(String url) {
+        ElementCache.invalidate();
         getWebDriver().get(url);
     }
 
     public SelenideElement getLink(String linkTitle) {
-        return this.getRootElement().find(By.linkText(linkTitle));
+        return this.getRootElement().find(Locators.linkText(linkTitle));
     }
 
     public SelenideElement getLink(String linkTitle, int index) {
@@ -144,7 +193,7 @@ public abstract class SyndesisPageObject {
     }
 
     public ElementsCollection getLinks(String linkTitle) {
-        return this.getRootElement().findAll(By.linkText(linkTitle));
+        return this.getRootElement().findAll(Locators.linkText(linkTitle));
     }
 
     public SelenideElement getLinkRandom(String linkTitle) {
@@ -154,15 +203,15 @@ public abstract class SyndesisPageObject {
     }
 
     public SelenideElement getElementByCssSelector(String cssSelector) {
-        return this.getRootElement().find(By.cssSelector(cssSelector));
+        return this.getRootElement().find(Locators.cssSelector(cssSelector));
     }
 
     public SelenideElement getElementByXpath(String xpathSelector) {
-        return this.getRootElement().find(By.xpath(xpathSelector));
+        return this.getRootElement().find(Locators.xpath(xpathSelector));
     }
 
     public SelenideElement getElementByClassName(String elementClassName) {
-        return this.getRootElement().find(By.className(elementClassName));
+        return this.getRootElement().find(Locators.className(elementClassName));
     }
 
     public SelenideElement getElementByLocator(By elementLocator) {
@@ -172,11 +221,11 @@ public abstract class SyndesisPageObject {
 
     public SelenideElement getTitleByText(String text) {
         log.info("searching for title {}", text);
-        return this.getRootElement().find(By.cssSelector(String.format("h2:contains('%s')", text)));
+        return this.getRootElement().find(Locators.cssSelector(String.format("h2:contains('%s')", text)));
     }
 
     public ElementsCollection getElementsByClassName(String elementClassName) {
-        return this.getRootElement().findAll(By.className(elementClassName));
+        return this.getRootElement().findAll(Locators.className(elementClassName));
     }
 
     public SelenideElement getElementRandom(String elementClassName) {
@@ -192,12 +241,12 @@ public abstract class SyndesisPageObject {
     }
 
     public void selectOption(SelenideElement selectElement, String option) {
-        SelenideElement optionElement = getElementContainingText(By.tagName("option"), option, selectElement);
+        SelenideElement optionElement = getElementContainingText(Locators.tagName("option"), option, selectElement);
         optionElement.shouldBe(visible).click();
     }
 
     private SelenideElement getElementById(String inputId) {
-        return this.getRootElement().find(By.id(inputId));
+        return this.getRootElement().find(Locators.id(inputId));
     }
 
     private SelenideElement getElementByDataTestid(String inputDataTestid) {
@@ -205,7 +254,7 @@ public abstract class SyndesisPageObject {
     }
 
     public SelenideElement getInputBySelector(String selector) {
-        return this.getRootElement().find(By.cssSelector(selector));
+        return this.getRootElement().find(Locators.cssSelector(selector));
     }
 
     public void fillInputById(String inputId, String value) {
@@ -260,10 +309,10 @@ public abstract class SyndesisPageObject {
     }
 
     public SelenideElement getElementContainingText(By by, String text, SelenideElement differentRoot) {
-        try {
-            OpenShiftWaitUtils.waitFor(() -> differentRoot.shouldBe(visible).findAll(by).size() > 0, 30 * 1000L);
-        } catch (TimeoutException | InterruptedException e) {
-            fail("Element was not found in 30s", e);
+        final long start = System.nanoTime();
+        final int retries = waitFor(() -> differentRoot.shouldBe(visible).findAll(by).size() > 0, BUTTON_POLL_INTERVAL, 30 * 1000L);
+        if (retries < 0) {
+            fail("Element was not found in 30s");
         }
 
         ElementsCollection elements = differentRoot.shouldBe(visible).findAll(by).shouldBe(sizeGreaterThan(0));
@@ -271,12 +320,20 @@ public abstract class SyndesisPageObject {
 
         elements = elements.filter(exactText(text));
         assertThat(elements.size()).isGreaterThanOrEqualTo(1);
+        LocatorStats.record(getClass(), by + " \"" + text + "\"", start, retries);
         return elements.first();
     }
 
     public String getElementText(By locator) {
+        final long start = System.nanoTime();
         SelenideElement element = this.getRootElement().shouldBe(visible).find(locator);
-        return element.shouldBe(visible).getText();
+        final int retries = waitFor(() -> element.is(visible), BUTTON_POLL_INTERVAL, Configuration.timeout);
+        if (retries < 0) {
+            fail("Element " + locator + " was not visible in " + Configuration.timeout + " ms");
+        }
+        String text = element.getText();
+        LocatorStats.record(getClass(), locator.toString(), start, retries);
+        return text;
     }
 
     public void checkButtonStatus(String buttonTitle, String status) {
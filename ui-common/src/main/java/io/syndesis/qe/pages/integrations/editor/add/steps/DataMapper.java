@@ -14,6 +14,7 @@ import io.syndesis.qe.utils.ByUtils;
 import io.syndesis.qe.utils.Conditions;
 import io.syndesis.qe.utils.TestUtils;
 import io.syndesis.qe.utils.UIUtils;
+import io.syndesis.qe.utils.UIWaitUtils;
 
 import org.openqa.selenium.By;
 
@@ -93,6 +94,7 @@ public class DataMapper extends SyndesisPageObject {
 
         //during investigating instability on chrome, i noticed that the datamapper is reloaded after 2-3sec, so after that
         // the all collection are not expanded. I am not able to reproduce it manually, maybe some problem with chrome driver
+        // the UI is quiet before the reload starts, so waiting until it settles would return too early
         TestUtils.sleepIgnoreInterrupt(4000);
         if (mapperCollectionFound) {
             ElementsCollection dataMapperCollections = getSourceElementColumn().$$(Element.COLLECTION_ROOT).exclude(Conditions.STALE_ELEMENT);
@@ -253,7 +255,7 @@ public class DataMapper extends SyndesisPageObject {
                 " If it is a part of nested collection, you have to add all parent names. See mapping step's JavaDoc");
         }
         mappingItemRow.scrollIntoView(true);
-        TestUtils.sleepIgnoreInterrupt(500);
+        UIWaitUtils.settle(500L);
 
         //if click cause undesired behavior in the future, hover() can be used instead
         mappingItemRow.click();
@@ -53,7 +53,7 @@ public class ImportIntegration extends SyndesisPageObject {
      */
     public void importIntegration(String integrationName) {
 
-        String filePath = CustomWebDriverProvider.DOWNLOAD_DIR + File.separator + integrationName + "-export.zip";
+        String filePath = CustomWebDriverProvider.downloadDir() + File.separator + integrationName + "-export.zip";
         File exportedIntegrationFile = new File(filePath);
         importIntegration(exportedIntegrationFile);
     }
@@ -65,7 +65,7 @@ public class ImportIntegration extends SyndesisPageObject {
      */
     public void importIntegrationViaDragAndDrop(String integrationName) {
 
-        String filePath = CustomWebDriverProvider.DOWNLOAD_DIR + File.separator + integrationName + "-export.zip";
+        String filePath = CustomWebDriverProvider.downloadDir() + File.separator + integrationName + "-export.zip";
 
         DragAndDropFile.dragAndDropFile(new File(filePath),
             $(Element.DRAG_AND_DROP_PLACE).shouldBe(visible),
@@ -116,7 +116,7 @@ public class Details extends SyndesisPageObject {
 
         this.getButton("Export").shouldBe(visible).click();
 
-        String filePath = CustomWebDriverProvider.DOWNLOAD_DIR + File.separator + this.getIntegrationName() + "-export.zip";
+        String filePath = CustomWebDriverProvider.downloadDir() + File.separator + this.getIntegrationName() + "-export.zip";
 
         // wait for download
         Thread.sleep(5000);
@@ -0,0 +1,110 @@
+package io.syndesis.qe.report.locator;
+
+import io.syndesis.qe.utils.stats.Histogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects the lookup times and retry counts of the page object locators.
+ *
+ * The statistics are kept per page object class and locator, the report at the end of the test run lists the slowest pages and locators.
+ */
+@Slf4j
+public final class LocatorStats {
+    private static final Path REPORT = Paths.get("target/cucumber/locator_report.txt");
+    private static final int TOP = 30;
+    private static final Map<String, Stat> LOCATORS = new ConcurrentHashMap<>();
+    private static final Map<String, Stat> PAGES = new ConcurrentHashMap<>();
+
+    private LocatorStats() {
+    }
+
+    /**
+     * Records one lookup.
+     *
+     * @param page page object class that performed the lookup
+     * @param locator description of the locator
+     * @param startNanos {@link System#nanoTime()} when the lookup started
+     * @param retries number of unsuccessful attempts before the element was found
+     */
+    public static void record(Class<?> page, String locator, long startNanos, int retries) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        LOCATORS.computeIfAbsent(page.getSimpleName() + " -> " + locator, Stat::new).record(millis, retries);
+        PAGES.computeIfAbsent(page.getSimpleName(), Stat::new).record(millis, retries);
+    }
+
+    public static List<Stat> slowestLocators(int count) {
+        return slowest(LOCATORS, count);
+    }
+
+    public static List<Stat> slowestPages(int count) {
+        return slowest(PAGES, count);
+    }
+
+    public static void reset() {
+        LOCATORS.clear();
+        PAGES.clear();
+    }
+
+    /**
+     * Writes the report of the slowest pages and locators.
+     */
+    public static void generateReport() {
+        if (LOCATORS.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder("Slowest pages (total lookup time):");
+        slowestPages(TOP).forEach(stat -> sb.append(System.lineSeparator()).append(stat));
+        sb.append(System.lineSeparator()).append(System.lineSeparator()).append("Slowest locators (total lookup time):");
+        slowestLocators(TOP).forEach(stat -> sb.append(System.lineSeparator()).append(stat));
+        sb.append(System.lineSeparator());
+        log.info(sb.toString());
+        try {
+            Files.write(REPORT, sb.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("Unable to write locator report", e);
+        }
+    }
+
+    private static List<Stat> slowest(Map<String, Stat> stats, int count) {
+        return stats.values().stream()
+            .sorted(Comparator.comparingLong((Stat s) -> s.getTime().getSum()).reversed())
+            .limit(count)
+            .collect(Collectors.toList());
+    }
+
+    @Getter
+    public static final class Stat {
+        private final String name;
+        private final Histogram time = new Histogram("ms");
+        private final LongAdder retries = new LongAdder();
+
+        private Stat(String name) {
+            this.name = name;
+        }
+
+        private void record(long millis, int retryCount) {
+            time.record(millis);
+            retries.add(retryCount);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: total=%d ms, retries=%d, %s", name, time.getSum(), retries.sum(), time.summary());
+        }
+    }
+}
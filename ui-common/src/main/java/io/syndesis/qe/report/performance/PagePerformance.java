@@ -0,0 +1,241 @@
+package io.syndesis.qe.report.performance;
+
+import static org.assertj.core.api.Assertions.fail;
+
+import io.syndesis.qe.TestConfiguration;
+import io.syndesis.qe.utils.stats.Histogram;
+
+import org.openqa.selenium.WebDriverException;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects the performance of the Syndesis UI as measured by the browser.
+ *
+ * The metrics are captured after each successful {@code validate()} of a page object, see {@link io.syndesis.qe.hooks.ClassTransformerHook},
+ * and kept per page object class: the load of the document for the pages opened by a navigation (Navigation Timing), the slowest API call
+ * and the transferred bytes since the previous capture (Resource Timing), the long tasks since the previous capture (Long Tasks API) and
+ * the used JS heap. The API and the heap are available only in Chrome.
+ *
+ * At the end of the run the means are appended to {@link TestConfiguration#uiPerformanceTrendFile()} and compared with the median of the
+ * previous runs, a mean higher than the median times {@link TestConfiguration#uiPerformanceRegressionThreshold()} fails the run.
+ */
+@Slf4j
+public final class PagePerformance {
+    private static final Path REPORT = Paths.get("target/cucumber/page_performance_report.txt");
+    private static final int MIN_SAMPLES = 3;
+    private static final int MIN_RUNS = 3;
+    private static final int HISTORY_RUNS = 10;
+    private static final Map<String, Stat> PAGES = new ConcurrentHashMap<>();
+
+    // returns null when the page was captured already, otherwise the metrics of the page since the previous capture
+    private static final String CAPTURE_SCRIPT = "var s = window.__syndesisQePerf;"
+        + "if (!s) {"
+        + "  s = window.__syndesisQePerf = {page: null, newDocument: true, longTasks: []};"
+        + "  performance.setResourceTimingBufferSize(1000);"
+        + "  if (window.PerformanceObserver && PerformanceObserver.supportedEntryTypes"
+        + "    && PerformanceObserver.supportedEntryTypes.indexOf('longtask') >= 0) {"
+        + "    new PerformanceObserver(function(list) { list.getEntries().forEach(function(e) { s.longTasks.push(e.duration); }); })"
+        + "      .observe({entryTypes: ['longtask']});"
+        + "  }"
+        + "}"
+        + "var page = arguments[0] + ' ' + location.pathname;"
+        + "if (s.page === page) { return null; }"
+        + "s.page = page;"
+        + "var nav = s.newDocument ? performance.getEntriesByType('navigation')[0] : null;"
+        + "s.newDocument = false;"
+        + "var resources = performance.getEntriesByType('resource');"
+        + "performance.clearResourceTimings();"
+        + "var longTasks = s.longTasks;"
+        + "s.longTasks = [];"
+        + "return {"
+        + "  NAVIGATION: nav ? Math.round(nav.loadEventEnd > 0 ? nav.loadEventEnd : nav.duration) : -1,"
+        + "  SLOWEST_API: Math.round(resources.filter(function(r) { return r.initiatorType === 'xmlhttprequest' || r.initiatorType === 'fetch'; })"
+        + "    .reduce(function(max, r) { return Math.max(max, r.duration); }, -1)),"
+        + "  TRANSFERRED: Math.round(resources.reduce(function(sum, r) { return sum + (r.transferSize || 0); }, 0) / 1024),"
+        + "  LONG_TASKS: Math.round(longTasks.reduce(function(sum, d) { return sum + d; }, 0)),"
+        + "  HEAP: performance.memory ? Math.round(performance.memory.usedJSHeapSize / 1024 / 1024) : -1"
+        + "};";
+
+    private PagePerformance() {
+    }
+
+    /**
+     * Captures the metrics of the page shown in the browser of the current thread.
+     *
+     * @param page page object class that validated the page
+     */
+    public static void capture(Class<?> page) {
+        if (!WebDriverRunner.hasWebDriverStarted()) {
+            return;
+        }
+        try {
+            Map<String, Object> metrics = Selenide.executeJavaScript(CAPTURE_SCRIPT, page.getSimpleName());
+            if (metrics != null) {
+                PAGES.computeIfAbsent(page.getSimpleName(), Stat::new).record(metrics);
+            }
+        } catch (WebDriverException | ClassCastException e) {
+            log.debug("Unable to capture the performance of {}: {}", page.getSimpleName(), e.getMessage());
+        }
+    }
+
+    public static void reset() {
+        PAGES.clear();
+    }
+
+    /**
+     * Writes the report, appends the run to the trend and fails if the run is slower than the previous runs.
+     */
+    public static void generateReport() {
+        if (PAGES.isEmpty()) {
+            return;
+        }
+        final Path trendFile = Paths.get(TestConfiguration.uiPerformanceTrendFile());
+        final double threshold = TestConfiguration.uiPerformanceRegressionThreshold();
+        final Map<String, List<Double>> history = history(trendFile);
+
+        StringBuilder sb = new StringBuilder("Page performance:");
+        List<String> trend = new ArrayList<>();
+        List<String> regressions = new ArrayList<>();
+        final String run = Instant.now().toString();
+        for (Stat stat : new TreeMap<>(PAGES).values()) {
+            sb.append(System.lineSeparator()).append(stat.name);
+            for (Map.Entry<Metric, Histogram> entry : stat.metrics.entrySet()) {
+                final Metric metric = entry.getKey();
+                final Histogram values = entry.getValue();
+                if (values.getCount() == 0) {
+                    continue;
+                }
+                sb.append(System.lineSeparator()).append("  ").append(values.format(metric.description));
+                trend.add(String.format(Locale.ROOT, "%s,%s,%s,%d,%.1f", run, stat.name, metric, values.getCount(), values.getMean()));
+                final String regression = regression(stat.name, metric, values, history, threshold);
+                if (regression != null) {
+                    regressions.add(regression);
+                }
+            }
+        }
+        if (!regressions.isEmpty()) {
+            sb.append(System.lineSeparator()).append(System.lineSeparator()).append("Regressions:");
+            regressions.forEach(r -> sb.append(System.lineSeparator()).append(r));
+        }
+        sb.append(System.lineSeparator());
+        log.info(sb.toString());
+        try {
+            Files.write(REPORT, sb.toString().getBytes(StandardCharsets.UTF_8));
+            Files.createDirectories(trendFile.toAbsolutePath().getParent());
+            if (!Files.exists(trendFile)) {
+                Files.write(trendFile, Collections.singletonList("run,page,metric,count,mean"), StandardCharsets.UTF_8);
+            }
+            Files.write(trendFile, trend, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Unable to write page performance report", e);
+        }
+        if (!regressions.isEmpty() && threshold > 0) {
+            fail("Syndesis UI performance regressed, see " + REPORT + ":" + System.lineSeparator() + String.join(System.lineSeparator(), regressions));
+        }
+    }
+
+    /**
+     * @return page and metric to the means of the last runs, the oldest first
+     */
+    private static Map<String, List<Double>> history(Path trendFile) {
+        Map<String, Map<String, Double>> runs = new LinkedHashMap<>();
+        if (Files.isReadable(trendFile)) {
+            try {
+                for (String line : Files.readAllLines(trendFile, StandardCharsets.UTF_8)) {
+                    final String[] columns = line.split(",");
+                    if (columns.length == 5 && !"run".equals(columns[0])) {
+                        runs.computeIfAbsent(columns[0], r -> new LinkedHashMap<>()).put(columns[1] + "," + columns[2], Double.parseDouble(columns[4]));
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                log.warn("Unable to read the page performance trend {}", trendFile, e);
+            }
+        }
+        List<Map<String, Double>> lastRuns = new ArrayList<>(runs.values());
+        lastRuns = lastRuns.subList(Math.max(0, lastRuns.size() - HISTORY_RUNS), lastRuns.size());
+        Map<String, List<Double>> history = new LinkedHashMap<>();
+        lastRuns.forEach(r -> r.forEach((key, mean) -> history.computeIfAbsent(key, k -> new ArrayList<>()).add(mean)));
+        return history;
+    }
+
+    private static String regression(String page, Metric metric, Histogram values, Map<String, List<Double>> history, double threshold) {
+        final List<Double> previous = history.get(page + "," + metric);
+        if (values.getCount() < MIN_SAMPLES || previous == null || previous.size() < MIN_RUNS) {
+            return null;
+        }
+        List<Double> sorted = new ArrayList<>(previous);
+        Collections.sort(sorted);
+        final double median = sorted.get(sorted.size() / 2);
+        final double mean = values.getMean();
+        // small absolute differences are noise, e.g. a long task of 10 ms instead of 5 ms
+        if (mean > median * threshold && mean - median >= metric.noise) {
+            return String.format("%s %s: mean %.1f %s, median of the previous %d runs %.1f %s", page, metric.description, mean, metric.unit,
+                previous.size(), median, metric.unit);
+        }
+        return null;
+    }
+
+    /**
+     * Metrics captured by the script, the names match the keys returned by the script.
+     */
+    private enum Metric {
+        NAVIGATION("document load", "ms", 100),
+        SLOWEST_API("slowest API call", "ms", 100),
+        TRANSFERRED("transferred", "KB", 100),
+        LONG_TASKS("long tasks", "ms", 50),
+        HEAP("used JS heap", "MB", 10);
+
+        private final String description;
+        private final String unit;
+        private final long noise;
+
+        Metric(String description, String unit, long noise) {
+            this.description = description;
+            this.unit = unit;
+            this.noise = noise;
+        }
+    }
+
+    private static final class Stat {
+        private final String name;
+        private final Map<Metric, Histogram> metrics = new EnumMap<>(Metric.class);
+
+        private Stat(String name) {
+            this.name = name;
+            for (Metric metric : Metric.values()) {
+                metrics.put(metric, new Histogram(metric.unit));
+            }
+        }
+
+        private void record(Map<String, Object> values) {
+            for (Metric metric : Metric.values()) {
+                final Object value = values.get(metric.name());
+                // -1 means the metric is not available for the page, e.g. no navigation since the previous capture
+                if (value instanceof Number && ((Number) value).longValue() >= 0) {
+                    metrics.get(metric).record(((Number) value).longValue());
+                }
+            }
+        }
+    }
+}
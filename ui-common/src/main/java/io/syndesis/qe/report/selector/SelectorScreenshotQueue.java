@@ -0,0 +1,119 @@
+package io.syndesis.qe.report.selector;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebElement;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+
+import javax.imageio.ImageIO;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Takes the screenshots of reported elements.
+ *
+ * The screenshot itself is taken synchronously on the calling (test) thread, the browser of the thread can't be driven from another
+ * thread. Only decoding the screenshot, highlighting the element and writing the file is done on a single background thread. Both the
+ * number of screenshots and the number of pending tasks are capped, so the selector snooping doesn't slow down the test run more than
+ * necessary.
+ */
+@Slf4j
+class SelectorScreenshotQueue {
+    private static final String BOUNDING_RECT_JS = "var r = arguments[0].getBoundingClientRect();"
+        + " return [r.left, r.top, r.width, r.height, window.devicePixelRatio || 1];";
+
+    private final Path folder;
+    private final int maxScreenshots;
+    private final AtomicInteger taken = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final ThreadPoolExecutor executor;
+
+    SelectorScreenshotQueue(Path folder, int maxScreenshots, int queueCapacity) {
+        this.folder = folder;
+        this.maxScreenshots = maxScreenshots;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+            Thread t = new Thread(r, "selector-screenshots");
+            t.setDaemon(true);
+            return t;
+        }, (r, e) -> dropped.incrementAndGet());
+    }
+
+    /**
+     * Takes the screenshot of the current viewport on the calling thread and schedules writing of the screenshot with highlighted element.
+     *
+     * @param el element to highlight
+     * @return file name of the screenshot (relative to the screenshot folder) or null if the screenshot was not taken
+     */
+    String capture(WebElement el) {
+        final int number = taken.incrementAndGet();
+        if (number > maxScreenshots) {
+            dropped.incrementAndGet();
+            return null;
+        }
+        final byte[] screenshot;
+        final List<Number> rect;
+        try {
+            rect = Selenide.executeJavaScript(BOUNDING_RECT_JS, el);
+            screenshot = ((TakesScreenshot) WebDriverRunner.getWebDriver()).getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            log.warn("Unable to take screenshot of the selected element: {}", e.getMessage());
+            return null;
+        }
+        final String fileName = Instant.now().toString() + "-" + number + ".png";
+        executor.execute(() -> write(screenshot, rect, fileName));
+        return fileName;
+    }
+
+    /**
+     * Waits until all pending screenshots are written.
+     *
+     * @param timeoutSeconds maximum time to wait
+     */
+    void drain(long timeoutSeconds) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                log.warn("Not all selector screenshots were written in {} seconds", timeoutSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.get() > 0) {
+            log.info("Skipped {} selector screenshots (limit {})", dropped.get(), maxScreenshots);
+        }
+    }
+
+    private void write(byte[] screenshot, List<Number> rect, String fileName) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(screenshot));
+            if (rect != null && rect.size() == 5) {
+                final double ratio = rect.get(4).doubleValue();
+                Graphics2D g = image.createGraphics();
+                g.setColor(Color.RED);
+                g.setStroke(new BasicStroke(2));
+                g.drawRect((int) (rect.get(0).doubleValue() * ratio), (int) (rect.get(1).doubleValue() * ratio),
+                    (int) (rect.get(2).doubleValue() * ratio), (int) (rect.get(3).doubleValue() * ratio));
+                g.dispose();
+            }
+            ImageIO.write(image, "png", new File(folder.resolve(fileName).toUri()));
+        } catch (Exception e) {
+            log.error("Unable to write selector screenshot " + fileName, e);
+        }
+    }
+}
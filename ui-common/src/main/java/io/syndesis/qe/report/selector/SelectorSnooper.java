@@ -1,16 +1,13 @@
 package io.syndesis.qe.report.selector;
 
 import io.syndesis.qe.TestConfiguration;
+import io.syndesis.qe.utils.stats.Histogram;
 
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.codeborne.selenide.Driver;
-import com.codeborne.selenide.Screenshots;
 import com.codeborne.selenide.Selenide;
 import com.codeborne.selenide.WebDriverRunner;
 import com.codeborne.selenide.impl.WebElementSelector;
@@ -18,12 +15,17 @@ import com.google.common.collect.Sets;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.Instant;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,22 +38,32 @@ public class SelectorSnooper {
 
     private static final Pattern FORBIDDEN_CSS_CHARACTERS = Pattern.compile("[#.]");
     private static final Path SCREEN_SHOT_FOLDER = Paths.get("target/cucumber/screenshots");
-    private static String scenarioName;
-    private static Set<By> currentSelectors = new HashSet<>();
+    private static final Path HISTOGRAM_REPORT = Paths.get("target/cucumber/selector_timing.txt");
+    private static final int SCREENSHOT_QUEUE_CAPACITY = 32;
+    // The browsers run in parallel threads, the scenario and the paused reporting belong to the thread
+    private static final ThreadLocal<String> SCENARIO_NAME = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PAUSE_REPORTING = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    // Re-entrancy guard, lookups done by the snooper itself must not be reported
+    private static final ThreadLocal<Boolean> IN_SNOOPER = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    // Selector -> true if the selector doesn't use data-testid, filled when the selector is seen for the first time (false if not sampled)
+    private static final ConcurrentHashMap<String, Boolean> SEEN_SELECTORS = new ConcurrentHashMap<>();
+    private static final Histogram LOOKUP_TIME = new Histogram("us");
+    private static final Histogram SNOOP_TIME = new Histogram("us");
     private static SelectorUsageReporter reporter = new SelectorUsageReporter();
-    private static boolean pauseReporting = false;
+    private static SelectorScreenshotQueue screenshots;
+    private static double sampleRate = 1D;
 
     @Before
     public static void before(Scenario scenario) {
-        scenarioName = scenario.getUri() + ":" + scenario.getName();
+        SCENARIO_NAME.set(scenario.getUri() + ":" + scenario.getName());
     }
 
     public static void pauseReporting() {
-        pauseReporting = true;
+        PAUSE_REPORTING.set(Boolean.TRUE);
     }
 
     public static void resumeReporting() {
-        pauseReporting = false;
+        PAUSE_REPORTING.set(Boolean.FALSE);
     }
 
     /**
@@ -60,6 +72,12 @@ public class SelectorSnooper {
     public static void init() {
         if (TestConfiguration.snoopSelectors()) {
             log.info("Overriding WebElementSelector to report selectors");
+            sampleRate = TestConfiguration.snoopSelectorsSampleRate();
+            if (sampleRate < 1D) {
+                log.info("Inspecting {}% of new selectors", sampleRate * 100);
+            }
+            screenshots = new SelectorScreenshotQueue(SCREEN_SHOT_FOLDER, TestConfiguration.snoopSelectorsMaxScreenshots(),
+                SCREENSHOT_QUEUE_CAPACITY);
             WebElementSelector.instance = new WebElementSelectorDetector();
             log.info("Creating folder {} for storing screenshots", SCREEN_SHOT_FOLDER.toAbsolutePath());
             try {
@@ -76,45 +94,22 @@ public class SelectorSnooper {
      */
     public static void finish() {
         if (TestConfiguration.snoopSelectors()) {
+            screenshots.drain(60L);
             log.info("Generating selector reports");
             reporter.generateReports();
-            log.info("Logging selectors took {} ms from total test run", WebElementSelectorDetector.delta);
-        }
-    }
-
-    /**
-     * Highlights WebElement in the webpage and takes a screenshot
-     * uses JS alerts to let Selenide know that the Javascript is done
-     *
-     * @param el element to highlight
-     * @return path to the generated screenshot
-     */
-    private static String highlightElement(WebElement el) {
-        String originalBorder = Selenide.executeJavaScript("arguments[0].style.border", el);
-        WebDriverWait wait = new WebDriverWait(WebDriverRunner.getWebDriver(), 3);
-        Selenide.executeJavaScript("arguments[0].style.border=\"2px solid red\"", el);
-        wait.until(ExpectedConditions.attributeContains(el, "style", "2px solid red"));
-        File tmpImage = Screenshots.takeScreenShotAsFile();
-        String fileName = Instant.now().toString() + ".png";
-        String path = SCREEN_SHOT_FOLDER.resolve(fileName).toString();
-        try {
-            FileUtils.copyFile(tmpImage, FileUtils.getFile(path));
-        } catch (IOException e) {
-            e.printStackTrace();
+            log.info("Logging selectors took {} ms from total test run", TimeUnit.MICROSECONDS.toMillis(SNOOP_TIME.getSum()));
+            final String histograms = LOOKUP_TIME.format("Selector lookup time") + System.lineSeparator()
+                + SNOOP_TIME.format("Selector snooping overhead") + System.lineSeparator();
+            log.info(histograms);
+            try {
+                Files.write(HISTOGRAM_REPORT, histograms.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                log.error("Unable to write selector timing report", e);
+            }
         }
-        //There is no way to reliably wait for inline style removal/being changed, this is more reliable, although ugly when you look at it running
-        Selenide.executeJavaScript("arguments[0].style.border=arguments[1]; alert(\"I love javascript\");", el, originalBorder);
-        wait.until(ExpectedConditions.alertIsPresent());
-        Selenide.switchTo().alert().accept();
-        return fileName;
     }
 
     private static void reportWrongSelector(By selector, WebElement el) {
-        //This causes the selector to be reported just once, but also to keep track of all the scenarios it is used in
-        if (reporter.wasSelectorReported(selector)) {
-            reporter.selectorIsUsedInScenario(selector, scenarioName);
-            return;
-        }
         log.warn("Found selector which doesn't use data-testid {}", selector);
         StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
 
@@ -122,10 +117,10 @@ public class SelectorSnooper {
             //Find call source of the selector
             if (stackTraceElement.getClassName().contains("io.syndesis.qe") && !stackTraceElement.getClassName().contains("SelectorSnooper")) {
                 log.warn("This selector is called from {}", stackTraceElement);
-                String imgPath = highlightElement(el);
-                SelectorUsageInfo info =
-                    new SelectorUsageInfo(selector.toString(), WebDriverRunner.url(), Sets.newHashSet(scenarioName), stackTraceElement.toString(),
-                        imgPath);
+                String imgPath = screenshots.capture(el);
+                Set<String> scenarios = Collections.synchronizedSet(Sets.newHashSet(SCENARIO_NAME.get()));
+                SelectorUsageInfo info = new SelectorUsageInfo(selector.toString(), WebDriverRunner.url(), scenarios, stackTraceElement.toString(),
+                    imgPath);
                 String dataTestId = Selenide.$(el).data("testid");
                 if (dataTestId != null) {
                     info.setDataTestId(dataTestId);
@@ -141,57 +136,89 @@ public class SelectorSnooper {
         return matcher.matches();
     }
 
-    private static final class WebElementSelectorDetector extends WebElementSelector {
+    private static boolean isWrongSelector(By selector) {
+        if (selector.getClass() == By.ByCssSelector.class) {
+            String type = selector.toString().replace("By.cssSelector: ", "");
+            return usesForbiddenCssCharacters(type);
+        }
+        return true;
+    }
 
-        public static long delta = 0;
+    /**
+     * Inspects the found element.
+     *
+     * Each selector is inspected (and possibly reported with a screenshot) only the first time it is seen, all following lookups only add
+     * the current scenario to the already reported selector. When the sampling is enabled, only given fraction of new selectors is inspected,
+     * the selectors that were not sampled are marked as seen and skipped from then on. The screenshot of a reported selector is taken on the
+     * calling thread, see {@link SelectorScreenshotQueue}.
+     */
+    private static void snoop(By selector, WebElement el) {
+        final String key = selector.toString();
+        Boolean wrong = SEEN_SELECTORS.get(key);
+        if (wrong == null) {
+            if (sampleRate < 1D && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                // not sampled, the selector is never inspected, so the following lookups of a hot selector don't get another chance
+                SEEN_SELECTORS.putIfAbsent(key, Boolean.FALSE);
+                return;
+            }
+            wrong = isWrongSelector(selector);
+            if (SEEN_SELECTORS.putIfAbsent(key, wrong) == null) {
+                if (wrong) {
+                    reportWrongSelector(selector, el);
+                }
+                return;
+            }
+        }
+        if (wrong && reporter.wasSelectorReported(selector)) {
+            reporter.selectorIsUsedInScenario(selector, SCENARIO_NAME.get());
+        }
+    }
+
+    private static final class WebElementSelectorDetector extends WebElementSelector {
 
         @Override
         public List<WebElement> findElements(Driver driver, SearchContext context, By selector) {
-            //Ignore all currently logged selectors, if this condition wasn't here everything would burn in recursive hell
-            if (pauseReporting || currentSelectors.contains(selector)) {
+            if (PAUSE_REPORTING.get() || IN_SNOOPER.get()) {
                 return super.findElements(driver, context, selector);
             }
-            currentSelectors.add(selector);
-            List<WebElement> elements = super.findElements(driver, context, selector);
+            List<WebElement> elements = timed(() -> super.findElements(driver, context, selector));
             if (elements.size() > 0) {
-                long startTime = Instant.now().toEpochMilli();
-                WebElement el = elements.get(0);
-                if (selector.getClass() == By.ByCssSelector.class) {
-                    String type = selector.toString().replace("By.cssSelector: ", "");
-                    if (usesForbiddenCssCharacters(type)) {
-                        reportWrongSelector(selector, el);
-                    }
-                } else {
-                    reportWrongSelector(selector, el);
-                }
-                //Time tracking of the logging logic
-                delta += Instant.now().minusMillis(startTime).toEpochMilli();
+                inspect(selector, elements.get(0));
             }
-            currentSelectors.remove(selector);
             return elements;
         }
 
         @Override
         public WebElement findElement(Driver driver, SearchContext context, By selector) {
-            if (pauseReporting || currentSelectors.contains(selector)) {
+            if (PAUSE_REPORTING.get() || IN_SNOOPER.get()) {
                 return super.findElement(driver, context, selector);
             }
-            currentSelectors.add(selector);
-            WebElement el = super.findElement(driver, context, selector);
+            WebElement el = timed(() -> super.findElement(driver, context, selector));
             if (el != null) {
-                long start = Instant.now().toEpochMilli();
-                if (selector.getClass() == By.ByCssSelector.class) {
-                    String type = selector.toString().replace("By.cssSelector: ", "");
-                    if (usesForbiddenCssCharacters(type)) {
-                        reportWrongSelector(selector, el);
-                    }
-                } else {
-                    reportWrongSelector(selector, el);
-                }
-                delta += Instant.now().minusMillis(start).toEpochMilli();
+                inspect(selector, el);
             }
-            currentSelectors.remove(selector);
             return el;
         }
+
+        private static <T> T timed(Supplier<T> lookup) {
+            final long start = System.nanoTime();
+            try {
+                return lookup.get();
+            } finally {
+                LOOKUP_TIME.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+        }
+
+        private static void inspect(By selector, WebElement el) {
+            final long start = System.nanoTime();
+            IN_SNOOPER.set(Boolean.TRUE);
+            try {
+                snoop(selector, el);
+            } finally {
+                IN_SNOOPER.set(Boolean.FALSE);
+                //Time tracking of the logging logic
+                SNOOP_TIME.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+        }
     }
 }
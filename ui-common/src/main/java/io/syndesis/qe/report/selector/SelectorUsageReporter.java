@@ -17,6 +17,7 @@ import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -27,7 +28,7 @@ public class SelectorUsageReporter {
     private final Map<String, SelectorUsageInfo> reports;
 
     public SelectorUsageReporter() {
-        reports = new HashMap<>();
+        reports = new ConcurrentHashMap<>();
     }
 
     public void report(SelectorUsageInfo info) {
@@ -41,8 +41,10 @@ import io.syndesis.qe.utils.ByUtils;
 import io.syndesis.qe.utils.CalendarUtils;
 import io.syndesis.qe.utils.OpenShiftUtils;
 import io.syndesis.qe.utils.PortForwardUtils;
+import io.syndesis.qe.utils.SessionCache;
 import io.syndesis.qe.utils.TestUtils;
 import io.syndesis.qe.utils.UIUtils;
+import io.syndesis.qe.utils.UIWaitUtils;
 import io.syndesis.qe.utils.google.GoogleAccount;
 import io.syndesis.qe.utils.google.GoogleAccounts;
 import io.syndesis.qe.wait.OpenShiftWaitUtils;
@@ -147,6 +149,7 @@ public class CommonSteps {
     public void logout() {
         $(Element.NAVIGATION_USER_DROPDOWN).shouldBe(visible).click();
         clickOnButton("Logout");
+        SessionCache.getInstance().invalidate();
 
         try {
             OpenShiftWaitUtils.waitFor(() -> WebDriverRunner.getWebDriver().getCurrentUrl().contains("/logout"), 20 * 1000);
@@ -154,7 +157,7 @@ public class CommonSteps {
             fail("Log out did not go as expected.");
         }
 
-        TestUtils.sleepForJenkinsDelayIfHigher(3);
+        UIWaitUtils.settleForJenkinsDelayIfHigher(3);
         $(Element.LOGIN_BUTTON).shouldBe(visible).click();
 
         try {
@@ -208,7 +211,12 @@ public class CommonSteps {
      * @param afterLogout flag to indicate that browser is already open
      */
     private void doLogin(boolean afterLogout) {
+        final long start = System.currentTimeMillis();
         if (!afterLogout) {
+            if (SessionCache.getInstance().restore()) {
+                WebDriverRunner.getWebDriver().manage().window().maximize();
+                return;
+            }
             Selenide.open(TestConfiguration.syndesisUrl());
         }
 
@@ -261,6 +269,7 @@ public class CommonSteps {
             log.info("Authorize access login page");
             $("input[name=\"approve\"]").shouldBe(visible).click();
         }
+        SessionCache.getInstance().loggedIn(start);
     }
 
     @Given("^created connections$")
@@ -308,8 +317,8 @@ public class CommonSteps {
 
             clickOnLink("Create Connection");
 
-            log.info("Sleeping so jenkins has more time to load all connectors");
-            TestUtils.sleepIgnoreInterrupt(TestConfiguration.getJenkinsDelay() * 1000);
+            log.info("Waiting so jenkins has more time to load all connectors");
+            UIWaitUtils.settle(TestConfiguration.getJenkinsDelay() * 1000L);
 
             selectConnectionTypeSteps.selectConnectionType(connectionType);
             configureConnectionSteps.fillConnectionDetails(connectionCredentialsName);
@@ -341,7 +350,7 @@ public class CommonSteps {
             clickOnButton("Save");
 
             try {
-                TestUtils.sleepForJenkinsDelayIfHigher(2);
+                UIWaitUtils.settleForJenkinsDelayIfHigher(2);
                 OpenShiftWaitUtils.waitFor(() -> !syndesisRootPage.getCurrentUrl().contains("connections/create"), 2, 20);
             } catch (TimeoutException | InterruptedException e) {
                 clickOnButton("Save");
@@ -682,7 +691,7 @@ public class CommonSteps {
 
     @Then("^removes? file \"([^\"]*)\" if it exists$")
     public void removeFileIfExists(String fileName) throws Throwable {
-        Files.deleteIfExists(Paths.get(CustomWebDriverProvider.DOWNLOAD_DIR + File.separator + fileName));
+        Files.deleteIfExists(Paths.get(CustomWebDriverProvider.downloadDir() + File.separator + fileName));
     }
 
     /**
@@ -715,14 +724,14 @@ public class CommonSteps {
     @Then("^fill in values by element ID")
     public void fillFormViaID(DataTable data) {
         Form.waitForInputs(20);
-        TestUtils.sleepIgnoreInterrupt(2000);
+        UIWaitUtils.settle(2000L);
         new Form(new SyndesisRootPage().getRootElement()).fillById(data.asMap(String.class, String.class));
     }
 
     @Then("^fill in values by element data-testid")
     public void fillFormViaTestID(DataTable data) {
         Form.waitForInputs(20);
-        TestUtils.sleepIgnoreInterrupt(2000);
+        UIWaitUtils.settle(2000L);
         Map<String, String> dataMap = new HashMap<>(data.asMap(String.class, String.class));
         dataMap.replaceAll((key, value) -> value == null ? "" : value);
         new Form(new SyndesisRootPage().getRootElement()).fillByTestId(dataMap);
@@ -741,7 +750,7 @@ public class CommonSteps {
     @Then("^force fill in values by element data-testid$")
     public void forceFillFormViaTestID(DataTable data) {
         Form.waitForInputs(20);
-        TestUtils.sleepIgnoreInterrupt(2000);
+        UIWaitUtils.settle(2000L);
         new Form(new SyndesisRootPage().getRootElement()).forceFillByTestId(data.asMap(String.class, String.class));
     }
 
@@ -790,12 +799,12 @@ public class CommonSteps {
         clickOnLink("Create Connection");
 
         //sometimes page is loaded but connections are not so we need to wait here a bit
-        TestUtils.sleepIgnoreInterrupt(TestConfiguration.getJenkinsDelay());
+        UIWaitUtils.settle(TestConfiguration.getJenkinsDelay() * 1000L);
 
         selectConnectionTypeSteps.selectConnectionType(connectorName);
 
         //slenide did validation before it reached correct page, but lets wait a second (it helps, trust me!)
-        TestUtils.sleepForJenkinsDelayIfHigher(1);
+        UIWaitUtils.settleForJenkinsDelayIfHigher(1);
         doOAuthValidation(connectorName);
 
         assertThat(WebDriverRunner.currentFrameUrl())
@@ -805,7 +814,7 @@ public class CommonSteps {
         nameConnectionSteps.setConnectionName(newConnectionName);
 
         try {
-            TestUtils.sleepForJenkinsDelayIfHigher(2);
+            UIWaitUtils.settleForJenkinsDelayIfHigher(2);
             OpenShiftWaitUtils.waitFor(() -> !syndesisRootPage.getCurrentUrl().contains("connections/create"), 2, 20);
         } catch (TimeoutException | InterruptedException e) {
             clickOnButton("Save");
@@ -23,7 +23,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.codeborne.selenide.ElementsCollection;
 
 import java.util.Base64;
-import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -113,10 +112,9 @@ public class KafkaSteps {
         String cert = extractValue("crt", secrets);
 
         //        3. put values into account:
-        Account kafkaTlsAccount = AccountsDirectory.getInstance().get("kafka-autodetect-tls");
-        Map<String, String> kafkaAutodetectTlsParameters = kafkaTlsAccount.getProperties();
-        kafkaAutodetectTlsParameters.put("brokercertificate", cert);
-        kafkaTlsAccount.setProperties(kafkaAutodetectTlsParameters);
+        Account kafkaTlsAccount = AccountsDirectory.getInstance().get("kafka-autodetect-tls").copy();
+        kafkaTlsAccount.getProperties().put("brokercertificate", cert);
+        AccountsDirectory.getInstance().setAccount("kafka-autodetect-tls", kafkaTlsAccount);
     }
 
     private String extractValue(String word, String input) {
@@ -3,14 +3,22 @@ package io.syndesis.qe.steps.other;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
+import io.syndesis.qe.utils.KuduUtils;
 import io.syndesis.qe.utils.OpenShiftUtils;
+import io.syndesis.qe.utils.TestUtils;
 import io.syndesis.qe.utils.http.HTTPUtils;
 
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import io.cucumber.java.After;
+import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class KuduSteps {
+    private KuduUtils kuduUtils;
 
     @When("^create table in Kudu server$")
     public void createTable() {
@@ -48,4 +56,57 @@ public class KuduSteps {
 
         assertThat(response).isEqualToIgnoringCase("Success");
     }
+
+    @When("^create Kudu table \"([^\"]*)\" with (\\d+) partitions$")
+    public void createNativeTable(String table, int partitions) {
+        kudu().createTable(table, partitions);
+    }
+
+    @When("^insert (\\d+) rows into Kudu table \"([^\"]*)\"$")
+    public void insertRows(int count, String table) {
+        assertThat(kudu().insertRows(table, 0, count)).as("Rows inserted into Kudu table %s", table).isEqualTo(count);
+    }
+
+    @Then("^check that Kudu table \"([^\"]*)\" contains (\\d+) rows within (\\d+) seconds$")
+    public void validateRows(String table, int count, int timeout) {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+        BitSet found = kudu().scanKeys(table, 0, count);
+        while (found.cardinality() < count && System.currentTimeMillis() < deadline) {
+            TestUtils.sleepIgnoreInterrupt(5000L);
+            found = kudu().scanKeys(table, 0, count);
+        }
+        if (found.cardinality() < count) {
+            fail("Kudu table " + table + " contains " + found.cardinality() + " of " + count + " rows, first missing key: "
+                + found.nextClearBit(0));
+        }
+        if (count > 0) {
+            assertThat(kudu().getValue(table, count - 1)).isEqualTo(KuduUtils.value(count - 1));
+        }
+    }
+
+    @Then("^check that Kudu rows were inserted at least (\\d+) rows per second$")
+    public void validateInsertRate(int rate) {
+        assertThat(kudu().getInsertRate()).as("Kudu insert rate in rows/s").isGreaterThanOrEqualTo(rate);
+    }
+
+    @When("^delete Kudu table \"([^\"]*)\"$")
+    public void deleteNativeTable(String table) {
+        kudu().deleteTable(table);
+    }
+
+    @After("@kudu")
+    public void closeKuduClient() {
+        if (kuduUtils != null) {
+            kuduUtils.close();
+            kuduUtils = null;
+            KuduUtils.closePortForward();
+        }
+    }
+
+    private KuduUtils kudu() {
+        if (kuduUtils == null) {
+            kuduUtils = new KuduUtils();
+        }
+        return kuduUtils;
+    }
 }
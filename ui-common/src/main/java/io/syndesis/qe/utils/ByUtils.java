@@ -10,11 +10,11 @@ import java.util.stream.Collectors;
 public class ByUtils {
 
     public static By dataTestId(String dataTestId) {
-        return By.cssSelector(String.format("*[data-testid~=\"%s\"]", dataTestId));
+        return Locators.get("dataTestId", dataTestId, id -> By.cssSelector(String.format("*[data-testid~=\"%s\"]", id)));
     }
 
     public static By dataTestId(String tag, String dataTestId) {
-        return By.cssSelector(String.format("%s[data-testid~=\"%s\"]", tag, dataTestId));
+        return Locators.cssSelector(String.format("%s[data-testid~=\"%s\"]", tag, dataTestId));
     }
 
     public static By containsDataTestId(String dataTestId) {
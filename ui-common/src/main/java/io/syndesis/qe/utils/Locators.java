@@ -0,0 +1,70 @@
+package io.syndesis.qe.utils;
+
+import org.openqa.selenium.By;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Registry of compiled locators.
+ *
+ * {@link By} instances are immutable, so the locators built from the same string can be reused instead of being created on every lookup.
+ * Many locators are built from the texts used in the scenarios, so only the {@link #MAX_LOCATORS} recently used locators are kept per thread.
+ */
+public final class Locators {
+    private static final int MAX_LOCATORS = 1000;
+    // one cache per browser thread, so the lookups of the parallel browsers don't contend on a lock
+    private static final ThreadLocal<Map<String, By>> LOCATORS = ThreadLocal.withInitial(() -> new LinkedHashMap<String, By>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, By> eldest) {
+            return size() > MAX_LOCATORS;
+        }
+    });
+
+    private Locators() {
+    }
+
+    public static By id(String id) {
+        return get("id", id, By::id);
+    }
+
+    public static By tagName(String tagName) {
+        return get("tagName", tagName, By::tagName);
+    }
+
+    public static By className(String className) {
+        return get("className", className, By::className);
+    }
+
+    public static By linkText(String linkText) {
+        return get("linkText", linkText, By::linkText);
+    }
+
+    public static By cssSelector(String cssSelector) {
+        return get("cssSelector", cssSelector, By::cssSelector);
+    }
+
+    public static By xpath(String xpath) {
+        return get("xpath", xpath, By::xpath);
+    }
+
+    /**
+     * Returns the cached locator or creates a new one using given factory.
+     *
+     * @param kind kind of the locator, used to distinguish the same value used with different factories
+     * @param value locator value
+     * @param factory function creating the locator from the value
+     * @return locator
+     */
+    public static By get(String kind, String value, Function<String, By> factory) {
+        return LOCATORS.get().computeIfAbsent(kind + ':' + value, k -> factory.apply(value));
+    }
+
+    /**
+     * @return number of the locators cached for the current thread
+     */
+    public static int size() {
+        return LOCATORS.get().size();
+    }
+}
@@ -0,0 +1,210 @@
+package io.syndesis.qe.utils;
+
+import io.syndesis.qe.TestConfiguration;
+import io.syndesis.qe.endpoint.Constants;
+import io.syndesis.qe.utils.http.HTTPUtils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Run-scoped cache of the authenticated Syndesis sessions.
+ *
+ * After the first full login of a user, the cookies and the local storage of the Syndesis origin are captured. A browser that logs in later
+ * as the same user, e.g. another browser of the pool or a browser reopened after a failure, gets them injected instead of going through
+ * the OAuth login again. The cached session is validated by a request for the current user first, an invalid session is dropped and the
+ * caller falls back to the full login. Logging out drops the session of the user.
+ *
+ * The time saved compared to the average full login is summed up per thread, i.e. per scenario, and reported by the hooks.
+ */
+@Slf4j
+public final class SessionCache {
+    private static final SessionCache INSTANCE = new SessionCache();
+
+    // served by the oauth proxy without authentication, so the browser can set the cookies of the Syndesis origin
+    private static final String PING_PATH = "/ping";
+    private static final String CURRENT_USER_PATH = Constants.API_PATH + "/users/~";
+
+    private static final String LOCAL_STORAGE_SCRIPT = "var items = {};"
+        + "for (var i = 0; i < localStorage.length; i++) { items[localStorage.key(i)] = localStorage.getItem(localStorage.key(i)); }"
+        + "return items;";
+    private static final String RESTORE_LOCAL_STORAGE_SCRIPT = "var items = arguments[0];"
+        + "for (var key in items) { localStorage.setItem(key, items[key]); }";
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // browsers that are logged in already, they keep the session across the scenarios
+    private final Set<WebDriver> loggedInBrowsers = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final OkHttpClient client = HTTPUtils.createClient(10, TimeUnit.SECONDS).newBuilder()
+        .followRedirects(false)
+        .followSslRedirects(false)
+        .build();
+    private final AtomicLong fullLogins = new AtomicLong();
+    private final AtomicLong fullLoginMillis = new AtomicLong();
+    // the browsers run in parallel threads, so the reuse statistics are kept per thread
+    private final ThreadLocal<long[]> stats = ThreadLocal.withInitial(() -> new long[2]);
+
+    private SessionCache() {
+    }
+
+    public static SessionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Injects the cached session of the configured user into the current browser and opens Syndesis.
+     *
+     * @return true if Syndesis was opened with the cached session, false if the browser is logged in already or the full login is needed
+     */
+    public boolean restore() {
+        final long start = System.currentTimeMillis();
+        final Session session = sessions.get(user());
+        if (session == null || loggedInBrowsers.contains(WebDriverRunner.getWebDriver())) {
+            return false;
+        }
+        if (!isValid(session)) {
+            log.info("Cached session of {} is not valid anymore, logging in", user());
+            sessions.remove(user());
+            return false;
+        }
+        try {
+            Selenide.open(TestConfiguration.syndesisUrl() + PING_PATH);
+            WebDriver.Options options = WebDriverRunner.getWebDriver().manage();
+            session.cookies.forEach(options::addCookie);
+            Selenide.executeJavaScript(RESTORE_LOCAL_STORAGE_SCRIPT, session.localStorage);
+            Selenide.open(TestConfiguration.syndesisUrl());
+        } catch (WebDriverException e) {
+            log.warn("Unable to inject the cached session of {}, logging in", user(), e);
+            return false;
+        }
+        if (!isOnSyndesis()) {
+            log.info("Cached session of {} was not accepted, logging in", user());
+            sessions.remove(user());
+            return false;
+        }
+        loggedInBrowsers.add(WebDriverRunner.getWebDriver());
+        final long restoreMillis = System.currentTimeMillis() - start;
+        final long[] current = stats.get();
+        current[0]++;
+        current[1] += Math.max(0, averageFullLogin() - restoreMillis);
+        log.info("Reused the cached session of {} in {} ms", user(), restoreMillis);
+        return true;
+    }
+
+    /**
+     * Records the full login and captures the session once the browser is redirected back to Syndesis. Nothing is recorded when the
+     * browser was logged in already.
+     *
+     * @param start {@link System#currentTimeMillis()} at the start of the login
+     */
+    public void loggedIn(long start) {
+        if (!loggedInBrowsers.add(WebDriverRunner.getWebDriver())) {
+            return;
+        }
+        if (!TestUtils.waitForNoFail(this::isOnSyndesis, 1, 30)) {
+            log.warn("Browser was not redirected to Syndesis after the login, the session is not cached");
+            return;
+        }
+        fullLogins.incrementAndGet();
+        fullLoginMillis.addAndGet(System.currentTimeMillis() - start);
+        try {
+            Map<String, String> localStorage = new HashMap<>();
+            Map<String, Object> items = Selenide.executeJavaScript(LOCAL_STORAGE_SCRIPT);
+            if (items != null) {
+                items.forEach((key, value) -> localStorage.put(key, String.valueOf(value)));
+            }
+            List<Cookie> cookies = WebDriverRunner.getWebDriver().manage().getCookies().stream()
+                // without the domain the cookie is set for the current host, the captured domain may be rejected by some browsers
+                .map(c -> new Cookie.Builder(c.getName(), c.getValue()).path(c.getPath()).expiresOn(c.getExpiry())
+                    .isSecure(c.isSecure()).isHttpOnly(c.isHttpOnly()).build())
+                .collect(Collectors.toList());
+            sessions.put(user(), new Session(cookies, localStorage));
+            log.info("Cached the session of {}: {} cookies, {} local storage items", user(), cookies.size(), localStorage.size());
+        } catch (WebDriverException e) {
+            log.warn("Unable to capture the session of {}", user(), e);
+        }
+    }
+
+    /**
+     * Drops the cached session of the configured user and marks the current browser as logged out.
+     */
+    public void invalidate() {
+        sessions.remove(user());
+        if (WebDriverRunner.hasWebDriverStarted()) {
+            loggedInBrowsers.remove(WebDriverRunner.getWebDriver());
+        }
+    }
+
+    /**
+     * Returns the summary of the sessions reused by the current thread since the last call and resets the counters.
+     *
+     * @return summary or null if no session was reused
+     */
+    public String resetStats() {
+        final long[] current = stats.get();
+        stats.remove();
+        final long reused = current[0];
+        final long savedMillis = current[1];
+        return reused == 0 ? null : String.format("%d cached sessions reused, saved %d ms compared to the full login", reused, savedMillis);
+    }
+
+    private long averageFullLogin() {
+        final long logins = fullLogins.get();
+        return logins == 0 ? 0 : fullLoginMillis.get() / logins;
+    }
+
+    private boolean isOnSyndesis() {
+        final String url = WebDriverRunner.url();
+        return url.startsWith(TestConfiguration.syndesisUrl()) && !url.contains("oauth");
+    }
+
+    private boolean isValid(Session session) {
+        Request request = new Request.Builder().url(TestConfiguration.syndesisUrl() + CURRENT_USER_PATH).get()
+            .header("Cookie", session.cookies.stream().map(c -> c.getName() + "=" + c.getValue()).collect(Collectors.joining("; ")))
+            .build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.code() == 200;
+        } catch (IOException e) {
+            log.debug("Unable to validate the cached session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static String user() {
+        return TestConfiguration.syndesisUsername();
+    }
+
+    /**
+     * Cookies and local storage of the Syndesis origin.
+     */
+    private static final class Session {
+        private final List<Cookie> cookies;
+        private final Map<String, String> localStorage;
+
+        private Session(List<Cookie> cookies, Map<String, String> localStorage) {
+            this.cookies = Collections.unmodifiableList(new ArrayList<>(cookies));
+            this.localStorage = Collections.unmodifiableMap(localStorage);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.syndesis.qe.utils;
+
+import io.syndesis.qe.TestConfiguration;
+
+import org.openqa.selenium.WebDriverException;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Waits until the UI is settled instead of sleeping for a fixed time.
+ *
+ * The UI is settled when the document is loaded, there are no pending XHR or fetch requests, no visible PatternFly spinners or running
+ * finite animations and the DOM didn't change for {@link TestConfiguration#uiSettleQuietMs()}. The requests and DOM mutations are tracked
+ * by a script injected into the page on the first check, the script is injected again after each navigation. Requests started before the
+ * injection are not tracked, the quiet window covers them.
+ *
+ * Each wait is bounded by the sleep it replaces, so it never takes longer than the original sleep. The time saved compared to the
+ * original sleeps is summed up per thread, i.e. per scenario, and reported by the hooks.
+ *
+ * The wait doesn't know about a navigation that didn't start yet, so it may return right after a click that loads a new document, e.g. on
+ * the external OAuth pages. Keep the fixed sleeps there.
+ */
+@Slf4j
+public final class UIWaitUtils {
+    private static final long POLL_INTERVAL = 100L;
+
+    private static final String SPINNERS = ".pf-c-spinner, .spinner, .Loader, [role=progressbar]";
+
+    // returns [document loaded, pending requests, visible spinners, running finite animations, millis since the last DOM mutation]
+    private static final String SETTLED_SCRIPT = "var s = window.__syndesisQeSettle;"
+        + "if (!s) {"
+        + "  s = window.__syndesisQeSettle = {pending: 0, lastMutation: Date.now()};"
+        + "  var send = XMLHttpRequest.prototype.send;"
+        + "  XMLHttpRequest.prototype.send = function() {"
+        + "    s.pending++;"
+        + "    this.addEventListener('loadend', function() { s.pending--; });"
+        + "    return send.apply(this, arguments);"
+        + "  };"
+        + "  if (window.fetch) {"
+        + "    var fetch = window.fetch;"
+        + "    window.fetch = function() {"
+        + "      s.pending++;"
+        + "      return fetch.apply(this, arguments).then("
+        + "        function(r) { s.pending--; return r; }, function(e) { s.pending--; throw e; });"
+        + "    };"
+        + "  }"
+        + "  new MutationObserver(function() { s.lastMutation = Date.now(); })"
+        + "    .observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+        + "}"
+        + "var spinners = Array.prototype.filter.call(document.querySelectorAll('" + SPINNERS + "'),"
+        + "  function(e) { return e.offsetParent !== null; }).length;"
+        // infinite animations are spinners or decorations, the visible spinners are checked above
+        + "var animations = document.getAnimations ? document.getAnimations().filter(function(a) {"
+        + "  return a.playState === 'running' && a.effect && a.effect.getComputedTiming().endTime !== Infinity; }).length : 0;"
+        + "return [document.readyState === 'complete', s.pending, spinners, animations, Date.now() - s.lastMutation];";
+
+    // the browsers run in parallel threads, so the statistics are kept per thread
+    private static final ThreadLocal<Stats> STATS = ThreadLocal.withInitial(Stats::new);
+
+    private UIWaitUtils() {
+    }
+
+    /**
+     * Waits until the UI is settled.
+     *
+     * @param maxMillis the sleep this wait replaces, the wait returns after this time even if the UI is not settled
+     * @return true if the UI settled before the timeout
+     */
+    public static boolean settle(long maxMillis) {
+        final long start = System.currentTimeMillis();
+        final long deadline = start + maxMillis;
+        final long quiet = TestConfiguration.uiSettleQuietMs();
+        boolean settled = false;
+        while (!settled && System.currentTimeMillis() < deadline) {
+            settled = isSettled(quiet);
+            if (!settled) {
+                TestUtils.sleepIgnoreInterrupt(Math.min(POLL_INTERVAL, Math.max(0, deadline - System.currentTimeMillis())));
+            }
+        }
+        final long waited = System.currentTimeMillis() - start;
+        final Stats stats = STATS.get();
+        stats.waits++;
+        stats.waited += waited;
+        stats.saved += Math.max(0, maxMillis - waited);
+        log.debug("UI {} after {} ms, replaced sleep was {} ms", settled ? "settled" : "not settled", waited, maxMillis);
+        return settled;
+    }
+
+    /**
+     * Waits until the UI is settled, at most for the jenkins delay or the given delay, whichever is higher.
+     *
+     * @param delayInSeconds delay in seconds
+     * @return true if the UI settled before the timeout
+     * @see TestUtils#sleepForJenkinsDelayIfHigher(int)
+     */
+    public static boolean settleForJenkinsDelayIfHigher(int delayInSeconds) {
+        return settle(Math.max(TestConfiguration.getJenkinsDelay(), delayInSeconds) * 1000L);
+    }
+
+    /**
+     * @param quietMillis time without DOM mutations
+     * @return true if the UI is settled, false if it is not or if the state can't be checked, e.g. during a navigation
+     */
+    public static boolean isSettled(long quietMillis) {
+        if (!WebDriverRunner.hasWebDriverStarted()) {
+            return false;
+        }
+        try {
+            List<Object> state = Selenide.executeJavaScript(SETTLED_SCRIPT);
+            return state != null && state.size() == 5
+                && Boolean.TRUE.equals(state.get(0))
+                && ((Number) state.get(1)).longValue() <= 0
+                && ((Number) state.get(2)).longValue() == 0
+                && ((Number) state.get(3)).longValue() == 0
+                && ((Number) state.get(4)).longValue() >= quietMillis;
+        } catch (WebDriverException | ClassCastException e) {
+            log.trace("Unable to check if the UI is settled: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns the summary of the waits of the current thread since the last call and resets the counters.
+     *
+     * @return summary or null if there were no waits
+     */
+    public static String resetStats() {
+        final Stats stats = STATS.get();
+        STATS.remove();
+        return stats.waits == 0 ? null
+            : String.format("%d settled UI waits took %d ms, saved %d ms compared to fixed sleeps", stats.waits, stats.waited, stats.saved);
+    }
+
+    private static final class Stats {
+        private long waits;
+        private long waited;
+        private long saved;
+    }
+}
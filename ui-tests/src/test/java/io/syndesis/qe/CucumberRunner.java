@@ -2,8 +2,6 @@ package io.syndesis.qe;
 
 import org.junit.runner.RunWith;
 
-import io.cucumber.junit.Cucumber;
-
-@RunWith(Cucumber.class)
+@RunWith(ParallelCucumber.class)
 public class CucumberRunner extends UITestSuiteParent {
 }
@@ -126,6 +126,10 @@ Feature: Dynamodb connector
   @dynamodb-query
   Scenario: Webhook to dynamoDb - query item
     Given reset content of "contact" table
+    # the queried item is one of many, so the query doesn't find it just because it is alone in the table
+    When insert 50 synthetic records into dynamoDb table
+    Then verify that 50 new records are in the dynamoDB table within 60 seconds
+    And verify the dynamoDB table contains the synthetic records
     When insert into dynamoDb table
       | email      | test@redhat.com |
       | company    | Red Hat         |
@@ -413,3 +413,12 @@ Feature: Integration - FHIR - all actions
 
     When sleep for "10000" ms
     Then validate that last inserted patients name has been changed to "Jano Matrtaj" in FHIR
+
+  @fhir-7-bulk
+  Scenario: FHIR bulk create and delete of synthetic patients
+
+    Then validate that 0 synthetic patients are in FHIR
+    When create 200 synthetic patients on FHIR
+    Then validate that 200 synthetic patients are in FHIR
+    When delete all synthetic patients on FHIR
+    Then validate that 0 synthetic patients are in FHIR
@@ -0,0 +1,22 @@
+# @sustainer: tplevko@redhat.com
+
+# The native Kudu client connects to the tablet servers on the addresses they advertise. This Kudu advertises localhost addresses
+# that are port-forwarded to the pod, so the integrations can't use it, see kudu.feature for the integration scenarios.
+
+@ui
+@kudu
+@database
+@integrations-kudu-native
+Feature: Kudu native client
+
+  Background:
+    Given deploy Kudu reachable from the test suite
+    And delete Kudu table "bulk-table"
+    And create Kudu table "bulk-table" with 4 partitions
+
+  @integrations-kudu-native-bulk
+  Scenario: Bulk insert and scan with the native Kudu client
+    When insert 1000000 rows into Kudu table "bulk-table"
+    Then check that Kudu table "bulk-table" contains 1000000 rows within 60 seconds
+    And check that Kudu rows were inserted at least 1000 rows per second
+    And delete Kudu table "bulk-table"
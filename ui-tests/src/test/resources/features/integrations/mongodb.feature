@@ -175,6 +175,68 @@ Feature: MongoDB
         "value": "v2"
       """
 
+  @mongodb-consume-capped-bulk
+  Scenario: MongoDB consume tail of generated documents
+    Given create mongodb capped collection "capped_bulk" with size 1000000 and max 1000
+    And create mongodb collection "bulk_collection"
+    And navigate to the "Home" page
+    And click on the "Create Integration" link to create a new integration.
+    Then check visibility of visual integration editor
+    And check that position of connection to fill is "Start"
+
+    When select the "Mongo36" connection
+    And select "Retrieve documents tail-" integration action
+    And fill in values by element data-testid
+      | collection               | capped_bulk |
+      | tailtrackincreasingfield | _id         |
+    And click on the "Next" button
+    And force fill in values by element data-testid
+      | describe-data-shape-form-kind-input | JSON Instance |
+    And fill text into text-editor
+      | [{"value": "value-0"},{"value": "value-1"}] |
+    And fill in values by element data-testid
+      | describe-data-shape-form-name-input | inputInstance |
+    And click on the "Next" button
+    Then check visibility of page "Choose a Finish Connection"
+
+    When select the "Mongo36" connection
+    And select "Insert" integration action
+    And fill in values by element data-testid
+      | collection | bulk_collection |
+    And click on the "Next" button
+
+    And add integration step on position "0"
+    And select "Split" integration step
+    And click on the "Next" button
+
+    And add integration step on position "1"
+    And select "Data Mapper" integration step
+    And create data mapper mappings
+      | value | value |
+    And click on the "Done" button
+
+    And publish integration
+    And set integration name "Mongo to Mongo bulk"
+    And publish integration
+
+    And navigate to the "Integrations" page
+    And wait until integration "Mongo to Mongo bulk" gets into "Running" state
+
+    When insert 100 generated documents into mongodb collection "capped_bulk" at 20 documents per second
+    Then verify that mongodb collection "bulk_collection" has 100 documents within 60 seconds
+    And verify that mongodb collection "bulk_collection" has 1 document matching
+      | value    |
+      | value-99 |
+
+    When upsert the following documents into mongodb collection "bulk_collection" by "value"
+      | value    | state   |
+      | value-0  | checked |
+      | value-99 | checked |
+    Then verify that mongodb collection "bulk_collection" has 2 document matching
+      | state   |
+      | checked |
+    And verify that mongodb collection "bulk_collection" has 100 documents within 10 seconds
+
   @mongodb-update
   Scenario: MongoDB update
     When create mongodb collection "update_collection"
@@ -49,3 +49,4 @@ Feature: Integration - MQTT to MQTT
     And wait until integration "MQTT publish-subscribe-request E2E" gets into "Running" state
 
     Then verify that when message is sent to "news" topic it is redirected to "olds" topic via integration
+    And verify that 500 messages sent to "news" topic at 100 messages per second are redirected to "olds" topic via integration
@@ -98,3 +98,46 @@ Feature: Integration - ServiceNow-amq/log
     And wait until integration "amq-2-snow" gets into "Running" state
     Then send "{number2}" incident to "incidents-create" queue and verify it was created in SN
 
+
+  @integrations-servicenow-3
+  Scenario: Get many incidents from service now
+    Given delete all incidents with "QABULK" number prefix
+    And create 20 incidents with "QABULK" number prefix
+    Then verify that there are 20 incidents with "QABULK" number prefix
+
+    When navigate to the "Home" page
+    And click on the "Create Integration" link to create a new integration.
+    Then check visibility of visual integration editor
+    And check that position of connection to fill is "Start"
+
+    When select the "ServiceNow" connection
+    And select "Retrieve Record" integration action
+    And select "Incident" from "table" dropdown
+    And fill in values by element data-testid
+      | limit | 20 |
+    # the prefix gets the same browser suffix as the numbers of the created incidents
+    And fill in and modify values by element ID
+      | query | numberSTARTSWITHQABULK |
+    And click on the "Next" button
+    And sleep for jenkins delay or 10 seconds
+    Then check that position of connection to fill is "Finish"
+
+    When select the "AMQ" connection
+    And select "Publish Messages" integration action
+    And fill in values by element data-testid
+      | destinationname | incidents-bulk |
+      | destinationtype | Queue          |
+    And click on the "Next" button
+    And click on the "Done" button
+    And sleep for jenkins delay or 30 seconds
+
+    When start collecting JMS messages from "queue" with name "incidents-bulk"
+    And publish integration
+    And set integration name "service-now-bulk-2-amq"
+    And publish integration
+    And navigate to the "Integrations" page
+    And wait until integration "service-now-bulk-2-amq" gets into "Running" state
+    Then verify that 1 JMS messages were collected from "incidents-bulk" within 120 seconds
+
+    When delete all incidents with "QABULK" number prefix
+    Then verify that there are 0 incidents with "QABULK" number prefix
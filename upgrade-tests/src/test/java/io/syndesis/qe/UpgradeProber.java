@@ -0,0 +1,306 @@
+package io.syndesis.qe;
+
+import io.syndesis.qe.component.Component;
+import io.syndesis.qe.endpoint.Constants;
+import io.syndesis.qe.utils.OpenShiftUtils;
+import io.syndesis.qe.utils.http.HTTPUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.client.LocalPortForward;
+import io.fabric8.openshift.api.model.Route;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Probes the Syndesis components in the background during the upgrade.
+ *
+ * Each component is probed every interval by a plain GET request with a short timeout. The prober records the time, latency and
+ * response code of every probe. The report contains the availability gaps, the number of errors and the latency percentiles of each
+ * component, the timeline is split into buckets of {@link #BUCKET_MILLIS}.
+ *
+ * The server is probed through a dedicated port-forward to {@link #LOCAL_PORT}, so the port-forward used by the tests is not affected.
+ * The port-forward is re-created after a failed probe, as the server pod is replaced during the upgrade. The integration is probed through
+ * its route by a GET request to the webhook, so no exchange is triggered; any response from the integration (i.e. not a 5xx response from
+ * the router) means the integration is available.
+ */
+@Slf4j
+public class UpgradeProber implements AutoCloseable {
+    public static final int LOCAL_PORT = 8089;
+    private static final long BUCKET_MILLIS = 30000L;
+    private static final int NO_RESPONSE = -1;
+
+    private final OkHttpClient client = HTTPUtils.createClient(5, TimeUnit.SECONDS);
+    private final List<Probe> probes = new ArrayList<>();
+    private final long intervalMillis;
+    private ScheduledExecutorService executor;
+    private LocalPortForward portForward;
+    private long startNanos;
+    private long stopNanos;
+
+    /**
+     * @param intervalMillis interval between the probes of one component
+     * @param integrationName name of the webhook integration to probe, null to probe only the server
+     */
+    public UpgradeProber(long intervalMillis, String integrationName) {
+        this.intervalMillis = intervalMillis;
+        probes.add(new Probe("server version", () -> get(serverUrl("/version")), code -> code == 200));
+        probes.add(new Probe("server integrations", () -> get(serverUrl("/integrations")), code -> code == 200));
+        if (integrationName != null) {
+            final String url = webhookUrl(integrationName);
+            probes.add(new Probe("integration " + integrationName, () -> get(url), code -> code != NO_RESPONSE && code < 500));
+        }
+    }
+
+    public void start() {
+        startNanos = System.nanoTime();
+        executor = Executors.newScheduledThreadPool(probes.size(), r -> {
+            Thread t = new Thread(r, "upgrade-prober");
+            t.setDaemon(true);
+            return t;
+        });
+        for (Probe probe : probes) {
+            executor.scheduleWithFixedDelay(probe::probe, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        log.info("Upgrade prober started with {} ms interval", intervalMillis);
+    }
+
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        stopNanos = System.nanoTime();
+        closePortForward();
+        log.info("Upgrade prober stopped");
+    }
+
+    /**
+     * @return one line per component with the number of probes and errors, the downtime and the latency percentiles
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        for (Probe probe : probes) {
+            List<long[]> samples = probe.samples();
+            List<Long> latencies = new ArrayList<>();
+            int errors = 0;
+            for (long[] sample : samples) {
+                if (probe.available.test((int) sample[2])) {
+                    latencies.add(sample[1]);
+                } else {
+                    errors++;
+                }
+            }
+            Collections.sort(latencies);
+            lines.add(String.format("%s: %d probes, %d errors, downtime %d ms in %d gaps, latency p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms",
+                probe.component, samples.size(), errors, downtime(probe), gaps(probe).size(), percentile(latencies, 50), percentile(latencies, 90),
+                percentile(latencies, 99), percentile(latencies, 100)));
+        }
+        return lines;
+    }
+
+    /**
+     * Logs the report and writes it to the directory, the summary with the gaps to upgrade-probe-report.txt and the timeline to
+     * upgrade-probe-timeline.csv.
+     *
+     * @param directory target directory
+     */
+    public void writeReport(Path directory) {
+        List<String> report = new ArrayList<>(summary());
+        report.forEach(line -> log.info("Upgrade probe: {}", line));
+        List<String> timeline = new ArrayList<>();
+        timeline.add("component,bucket start s,probes,errors,p50 ms,p99 ms");
+        for (Probe probe : probes) {
+            for (long[] gap : gaps(probe)) {
+                report.add(String.format("%s unavailable from %.1f s for %d ms", probe.component, gap[0] / 1000D, gap[1] - gap[0]));
+            }
+            timeline.addAll(timeline(probe));
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("upgrade-probe-report.txt"), report, StandardCharsets.UTF_8);
+            Files.write(directory.resolve("upgrade-probe-timeline.csv"), timeline, StandardCharsets.UTF_8);
+            log.info("Upgrade probe report written to {}", directory.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Unable to write upgrade probe report", e);
+        }
+    }
+
+    /**
+     * @param probe probe
+     * @return total time in milliseconds when the component was unavailable
+     */
+    public long downtime(Probe probe) {
+        return gaps(probe).stream().mapToLong(g -> g[1] - g[0]).sum();
+    }
+
+    public List<Probe> getProbes() {
+        return Collections.unmodifiableList(probes);
+    }
+
+    /**
+     * A gap starts with the first failed probe and ends with the next successful probe, or with the end of probing.
+     *
+     * @return gaps as [start, end] in milliseconds since the start
+     */
+    private List<long[]> gaps(Probe probe) {
+        List<long[]> gaps = new ArrayList<>();
+        long gapStart = -1;
+        for (long[] sample : probe.samples()) {
+            final boolean available = probe.available.test((int) sample[2]);
+            if (!available && gapStart < 0) {
+                gapStart = sample[0];
+            } else if (available && gapStart >= 0) {
+                gaps.add(new long[] {gapStart, sample[0]});
+                gapStart = -1;
+            }
+        }
+        if (gapStart >= 0) {
+            gaps.add(new long[] {gapStart, TimeUnit.NANOSECONDS.toMillis((stopNanos == 0 ? System.nanoTime() : stopNanos) - startNanos)});
+        }
+        return gaps;
+    }
+
+    private List<String> timeline(Probe probe) {
+        List<String> lines = new ArrayList<>();
+        List<long[]> samples = probe.samples();
+        int from = 0;
+        while (from < samples.size()) {
+            final long bucket = samples.get(from)[0] / BUCKET_MILLIS;
+            List<Long> latencies = new ArrayList<>();
+            int errors = 0;
+            int to = from;
+            while (to < samples.size() && samples.get(to)[0] / BUCKET_MILLIS == bucket) {
+                if (probe.available.test((int) samples.get(to)[2])) {
+                    latencies.add(samples.get(to)[1]);
+                } else {
+                    errors++;
+                }
+                to++;
+            }
+            Collections.sort(latencies);
+            lines.add(String.format("%s,%d,%d,%d,%.1f,%.1f", probe.component, bucket * BUCKET_MILLIS / 1000, to - from, errors,
+                percentile(latencies, 50), percentile(latencies, 99)));
+            from = to;
+        }
+        return lines;
+    }
+
+    /**
+     * @param sorted sorted latencies in microseconds
+     * @param percentile percentile
+     * @return nearest-rank percentile in milliseconds, 0 when there are no latencies
+     */
+    private static double percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0D;
+        }
+        final int rank = (int) Math.ceil(percentile / 100D * sorted.size());
+        return sorted.get(Math.max(0, rank - 1)) / 1000D;
+    }
+
+    private int get(String url) {
+        if (url == null) {
+            return NO_RESPONSE;
+        }
+        Request request = new Request.Builder().url(url).get()
+            .header("X-Forwarded-User", "pista")
+            .header("X-Forwarded-Access-Token", "kral")
+            .build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.code();
+        } catch (IOException e) {
+            log.debug("Probe of {} failed: {}", url, e.getMessage());
+            return NO_RESPONSE;
+        }
+    }
+
+    private synchronized String serverUrl(String path) {
+        if (portForward == null || !portForward.isAlive()) {
+            closePortForward();
+            try {
+                portForward = OpenShiftUtils.createLocalPortForward(Component.SERVER.getName(), 8080, LOCAL_PORT);
+            } catch (RuntimeException e) {
+                log.debug("Unable to create port-forward to the server: {}", e.getMessage());
+            }
+        }
+        return portForward == null ? null : "http://localhost:" + LOCAL_PORT + Constants.API_PATH + path;
+    }
+
+    private synchronized void closePortForward() {
+        OpenShiftUtils.terminateLocalPortForward(portForward);
+        portForward = null;
+    }
+
+    private static String webhookUrl(String integrationName) {
+        final String name = integrationName.replaceAll("_", "-").replaceAll(" ", "-").toLowerCase();
+        Optional<Route> route = OpenShiftUtils.getInstance().getRoutes().stream()
+            .filter(r -> r.getMetadata().getName().contains(name))
+            .findFirst();
+        if (!route.isPresent()) {
+            throw new IllegalStateException("The route for integration " + integrationName + " doesn't exist");
+        }
+        return String.format("https://%s/webhook/upgrade-probe", route.get().getSpec().getHost());
+    }
+
+    /**
+     * Probes of one component.
+     */
+    public final class Probe {
+        private final String component;
+        private final Supplier<Integer> request;
+        private final IntPredicate available;
+        // [millis since the start, latency in microseconds, response code]
+        private final List<long[]> samples = new ArrayList<>();
+
+        private Probe(String component, Supplier<Integer> request, IntPredicate available) {
+            this.component = component;
+            this.request = request;
+            this.available = available;
+        }
+
+        public String getComponent() {
+            return component;
+        }
+
+        private void probe() {
+            final long start = System.nanoTime();
+            final int code = request.get();
+            final long end = System.nanoTime();
+            if (code == NO_RESPONSE && component.startsWith("server")) {
+                // the port-forward may point to a pod that doesn't exist anymore
+                closePortForward();
+            }
+            synchronized (samples) {
+                samples.add(new long[] {TimeUnit.NANOSECONDS.toMillis(start - startNanos), TimeUnit.NANOSECONDS.toMicros(end - start), code});
+            }
+        }
+
+        private List<long[]> samples() {
+            synchronized (samples) {
+                return new ArrayList<>(samples);
+            }
+        }
+    }
+}
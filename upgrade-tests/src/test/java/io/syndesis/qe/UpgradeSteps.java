@@ -15,7 +15,7 @@ import io.syndesis.qe.utils.OpenShiftUtils;
 import io.syndesis.qe.utils.SampleDbConnectionManager;
 import io.syndesis.qe.utils.TestUtils;
 import io.syndesis.qe.utils.http.HTTPUtils;
-import io.syndesis.qe.wait.OpenShiftWaitUtils;
+import io.syndesis.qe.wait.StatusObserver;
 
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
@@ -23,13 +23,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.vdurmont.semver4j.Semver;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import io.cucumber.java.After;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import io.fabric8.kubernetes.api.model.LocalObjectReference;
@@ -45,6 +48,8 @@ public class UpgradeSteps {
     @Autowired
     private IntegrationsEndpoint integrationsEndpoint;
 
+    private UpgradeProber prober;
+
     @When("deploy previous Syndesis CR {string}")
     public void deploySyndesis(String crFile) {
         Syndesis syndesis = ResourceFactory.get(PreviousSyndesis.class);
@@ -112,9 +117,7 @@ public class UpgradeSteps {
         Syndesis syndesis = ResourceFactory.get(Syndesis.class);
         syndesis.defaultValues();
         syndesis.pullOperatorImage();
-        syndesis.installCluster();
-        syndesis.grantPermissions();
-        syndesis.deployOperator();
+        syndesis.installOperator();
     }
 
     @Then("^verify syndesis \"([^\"]*)\" version$")
@@ -147,22 +150,18 @@ public class UpgradeSteps {
 
     @Then("wait until upgrade is done")
     public void waitForUpgrade() {
+        StatusObserver<Map<String, Object>> cr = ResourceFactory.get(Syndesis.class).observeCr();
         try {
-            OpenShiftWaitUtils.waitFor(() -> {
-                JSONObject cr = new JSONObject(ResourceFactory.get(Syndesis.class).getCr());
-                return !"Installed".equals(cr.getJSONObject("status").getString("phase"));
-            });
+            // the phase must be present, a CR without status is not being upgraded yet
+            cr.waitFor(5 * 60000L, c -> StatusObserver.crPhase(c).filter(phase -> !"Installed".equals(phase)).isPresent());
         } catch (TimeoutException | InterruptedException e) {
             InfraFail.fail("Timeout waiting for CR status to be changed from \"Installed\"");
         }
 
         try {
-            OpenShiftWaitUtils.waitFor(() -> {
-                JSONObject cr = new JSONObject(ResourceFactory.get(Syndesis.class).getCr());
-                return "Installed".equals(cr.getJSONObject("status").getString("phase"));
-            }, 15 * 60000L);
+            cr.waitFor(15 * 60000L, c -> "Installed".equals(StatusObserver.crPhase(c).orElse(null)));
         } catch (TimeoutException | InterruptedException e) {
-            InfraFail.fail("Timeout waiting for CR status to be \"Installed\"");
+            InfraFail.fail("Timeout waiting for CR status to be \"Installed\", the last phase was " + StatusObserver.crPhase(cr.get()).orElse(null));
         }
     }
 
@@ -188,6 +187,33 @@ public class UpgradeSteps {
         assertThat(logsAfter.substring(logsAfter.indexOf(lastLine))).contains("[[options]]");
     }
 
+    @When("start upgrade prober with {int}ms interval")
+    public void startProber(int interval) {
+        startProber(interval, null);
+    }
+
+    @When("start upgrade prober with {int}ms interval for integration {string}")
+    public void startProber(int interval, String integrationName) {
+        stopProber();
+        prober = new UpgradeProber(interval, integrationName);
+        prober.start();
+    }
+
+    @Then("stop upgrade prober and write the report")
+    public void writeProberReport() {
+        prober.close();
+        prober.writeReport(Paths.get("target", "upgrade-probe"));
+        prober = null;
+    }
+
+    @After
+    public void stopProber() {
+        if (prober != null) {
+            prober.close();
+            prober = null;
+        }
+    }
+
     @When("close DB connections")
     public void closeDbConnections() {
         SampleDbConnectionManager.closeConnections();
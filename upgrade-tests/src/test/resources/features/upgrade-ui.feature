@@ -55,10 +55,12 @@ Feature: Upgrade Syndesis
 
     # close all connections used by DB steps. The new connection will be created by that step later
     When close DB connections
+    And start upgrade prober with 1000ms interval for integration "webhook-before-upgrade"
     And perform syndesis upgrade to newer version using operator
     Then wait until upgrade is done
     And sleep for jenkins delay or 180 seconds
     And wait for Syndesis to become ready
+    And stop upgrade prober and write the report
     And verify syndesis "upgraded" version
     And check that pull secret is linked in the service accounts
 
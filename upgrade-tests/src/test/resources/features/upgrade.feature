@@ -19,10 +19,12 @@ Feature: Syndesis Upgrade Using Operator
       And deploy previous Syndesis CR "syndesis-cr-previous.yaml"
       And wait for Syndesis to become ready
       And verify syndesis "previous" version
-    When perform syndesis upgrade to newer version using operator
+    When start upgrade prober with 1000ms interval
+      And perform syndesis upgrade to newer version using operator
     Then wait until upgrade is done
       And sleep for jenkins delay or 180 seconds
       And wait for Syndesis to become ready
+      And stop upgrade prober and write the report
       And verify syndesis "upgraded" version
       And check that pull secret is linked in the service accounts
 
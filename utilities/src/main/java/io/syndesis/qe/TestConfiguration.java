@@ -86,6 +86,34 @@ public class TestConfiguration {
 
     public static final String STATE_CHECK_INTERVAL = "syndesis.server.state.check.interval";
     public static final String SNOOP_SELECTORS = "syndesis.config.snoop.selectors";
+    public static final String SNOOP_SELECTORS_SAMPLE_RATE = "syndesis.config.snoop.selectors.sample.rate";
+    public static final String SNOOP_SELECTORS_MAX_SCREENSHOTS = "syndesis.config.snoop.selectors.screenshots.max";
+    public static final String UI_ELEMENT_CACHE_TTL = "syndesis.config.ui.element.cache.ttl";
+
+    public static final String FILE_TRANSFER_CONNECTIONS = "syndesis.config.file.transfer.connections";
+    public static final String S3_PART_SIZE_MB = "syndesis.config.s3.part.size.mb";
+    public static final String S3_CONCURRENCY = "syndesis.config.s3.concurrency";
+    public static final String SQS_CONSUMERS = "syndesis.config.sqs.consumers";
+    public static final String DYNAMODB_CONCURRENCY = "syndesis.config.dynamodb.concurrency";
+    public static final String KAFKA_PRODUCER_LINGER_MS = "syndesis.config.kafka.producer.linger.ms";
+    public static final String KAFKA_PRODUCER_BATCH_SIZE = "syndesis.config.kafka.producer.batch.size";
+    public static final String KAFKA_PRODUCER_COMPRESSION = "syndesis.config.kafka.producer.compression";
+    public static final String FHIR_BUNDLE_SIZE = "syndesis.config.fhir.bundle.size";
+    public static final String FHIR_BUNDLE_TYPE = "syndesis.config.fhir.bundle.type";
+    public static final String FHIR_CONCURRENCY = "syndesis.config.fhir.concurrency";
+    public static final String MONGODB_BATCH_SIZE = "syndesis.config.mongodb.batch.size";
+    public static final String SERVICENOW_CONCURRENCY = "syndesis.config.servicenow.concurrency";
+    public static final String SERVICENOW_REQUESTS_PER_SECOND = "syndesis.config.servicenow.requests.per.second";
+    public static final String KUDU_MUTATION_BUFFER_SPACE = "syndesis.config.kudu.mutation.buffer.space";
+    public static final String KUDU_FLUSH_INTERVAL_MS = "syndesis.config.kudu.flush.interval.ms";
+    public static final String OPERATOR_RESOURCES_CACHE_DIR = "syndesis.config.operator.resources.cache.dir";
+    public static final String UI_SETTLE_QUIET_MS = "syndesis.config.ui.settle.quiet.ms";
+    public static final String UI_BROWSERS = "syndesis.config.ui.browsers";
+    public static final String UI_HEADLESS = "syndesis.config.ui.headless";
+    public static final String UI_DURATIONS_FILE = "syndesis.config.ui.durations.file";
+    public static final String UI_PERFORMANCE = "syndesis.config.ui.performance";
+    public static final String UI_PERFORMANCE_TREND_FILE = "syndesis.config.ui.performance.trend.file";
+    public static final String UI_PERFORMANCE_REGRESSION_THRESHOLD = "syndesis.config.ui.performance.regression.threshold";
 
     public static final String SYNDESIS_UPGRADE_PREVIOUS_VERSION = "syndesis.upgrade.previous.version";
 
@@ -333,6 +361,140 @@ public class TestConfiguration {
         return Boolean.parseBoolean(get().readValue(SNOOP_SELECTORS));
     }
 
+    // Fraction (0.0 - 1.0) of not yet seen selectors that are inspected by the selector snooper
+    public static double snoopSelectorsSampleRate() {
+        return Double.parseDouble(get().readValue(SNOOP_SELECTORS_SAMPLE_RATE, "1.0"));
+    }
+
+    public static int snoopSelectorsMaxScreenshots() {
+        return Integer.parseInt(get().readValue(SNOOP_SELECTORS_MAX_SCREENSHOTS, "200"));
+    }
+
+    // How long (in ms) are the elements found by the page objects cached, 0 disables the cache
+    public static long uiElementCacheTtl() {
+        return Long.parseLong(get().readValue(UI_ELEMENT_CACHE_TTL, "0"));
+    }
+
+    // Maximum number of connections (and parallel transfers) used by FTP / SFTP utils
+    public static int fileTransferConnections() {
+        return Integer.parseInt(get().readValue(FILE_TRANSFER_CONNECTIONS, "4"));
+    }
+
+    // Size of the parts of S3 multipart uploads, S3 requires at least 5 MB
+    public static int s3PartSizeMb() {
+        return Integer.parseInt(get().readValue(S3_PART_SIZE_MB, "8"));
+    }
+
+    // Number of parallel S3 requests (multipart upload parts, delete batches)
+    public static int s3Concurrency() {
+        return Integer.parseInt(get().readValue(S3_CONCURRENCY, "4"));
+    }
+
+    // Number of concurrent long-polling SQS consumers per queue
+    public static int sqsConsumers() {
+        return Integer.parseInt(get().readValue(SQS_CONSUMERS, "4"));
+    }
+
+    // Number of parallel DynamoDB batch writes and scan segments
+    public static int dynamoDbConcurrency() {
+        return Integer.parseInt(get().readValue(DYNAMODB_CONCURRENCY, "4"));
+    }
+
+    // Time the Kafka load generator waits for more records before sending a batch
+    public static int kafkaProducerLingerMs() {
+        return Integer.parseInt(get().readValue(KAFKA_PRODUCER_LINGER_MS, "5"));
+    }
+
+    // Maximum size of a Kafka producer batch in bytes
+    public static int kafkaProducerBatchSize() {
+        return Integer.parseInt(get().readValue(KAFKA_PRODUCER_BATCH_SIZE, "65536"));
+    }
+
+    // Compression of the Kafka producer batches (none, gzip, snappy, lz4, zstd)
+    public static String kafkaProducerCompression() {
+        return get().readValue(KAFKA_PRODUCER_COMPRESSION, "lz4");
+    }
+
+    // Number of resources in one FHIR bundle
+    public static int fhirBundleSize() {
+        return Integer.parseInt(get().readValue(FHIR_BUNDLE_SIZE, "100"));
+    }
+
+    // Type of the FHIR bundles creating resources, "transaction" (all or nothing) or "batch"
+    public static String fhirBundleType() {
+        return get().readValue(FHIR_BUNDLE_TYPE, "transaction");
+    }
+
+    // Number of FHIR bundles sent in parallel
+    public static int fhirConcurrency() {
+        return Integer.parseInt(get().readValue(FHIR_CONCURRENCY, "4"));
+    }
+
+    // Number of documents in one MongoDB insertMany/bulkWrite call
+    public static int mongoDbBatchSize() {
+        return Integer.parseInt(get().readValue(MONGODB_BATCH_SIZE, "1000"));
+    }
+
+    // Number of parallel Service-Now requests in bulk operations
+    public static int serviceNowConcurrency() {
+        return Integer.parseInt(get().readValue(SERVICENOW_CONCURRENCY, "4"));
+    }
+
+    // Maximum rate of Service-Now requests in bulk operations, 0 means unlimited
+    public static int serviceNowRequestsPerSecond() {
+        return Integer.parseInt(get().readValue(SERVICENOW_REQUESTS_PER_SECOND, "20"));
+    }
+
+    // Maximum number of buffered operations of a Kudu session
+    public static int kuduMutationBufferSpace() {
+        return Integer.parseInt(get().readValue(KUDU_MUTATION_BUFFER_SPACE, "10000"));
+    }
+
+    // Interval of the background flushes of a Kudu session
+    public static int kuduFlushIntervalMs() {
+        return Integer.parseInt(get().readValue(KUDU_FLUSH_INTERVAL_MS, "1000"));
+    }
+
+    // Directory of the resources rendered by the operator image, empty value disables the cache, mvn clean drops the default one
+    public static String operatorResourcesCacheDir() {
+        return get().readValue(OPERATOR_RESOURCES_CACHE_DIR, Paths.get("target", "syndesis-operator-resources").toAbsolutePath().toString());
+    }
+
+    // Time without DOM mutations after which the UI is considered settled
+    public static long uiSettleQuietMs() {
+        return Long.parseLong(get().readValue(UI_SETTLE_QUIET_MS, "500"));
+    }
+
+    // Number of browsers running the UI features concurrently
+    public static int uiBrowsers() {
+        return Integer.parseInt(get().readValue(UI_BROWSERS, "1"));
+    }
+
+    // Headless browsers are used by default when the features run concurrently
+    public static boolean uiHeadless() {
+        return Boolean.parseBoolean(get().readValue(UI_HEADLESS, String.valueOf(uiBrowsers() > 1)));
+    }
+
+    // Feature durations of the previous runs, used to start the longest features first
+    public static String uiDurationsFile() {
+        return get().readValue(UI_DURATIONS_FILE, Paths.get("tmp", "ui-feature-durations.properties").toAbsolutePath().toString());
+    }
+
+    // Collect the browser performance metrics of the page objects
+    public static boolean uiPerformance() {
+        return Boolean.parseBoolean(get().readValue(UI_PERFORMANCE, "false"));
+    }
+
+    // Page performance of the previous runs, kept outside of target so it survives the clean build
+    public static String uiPerformanceTrendFile() {
+        return get().readValue(UI_PERFORMANCE_TREND_FILE, Paths.get("tmp", "ui-performance-trend.csv").toAbsolutePath().toString());
+    }
+
+    // Ratio to the median of the previous runs that fails the run, 0 only reports the regressions
+    public static double uiPerformanceRegressionThreshold() {
+        return Double.parseDouble(get().readValue(UI_PERFORMANCE_REGRESSION_THRESHOLD, "1.5"));
+    }
+
     public static String image(Image image) {
         return get().readValue(image.name());
     }
@@ -1,10 +1,10 @@
 package io.syndesis.qe.account;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import lombok.Data;
 import lombok.Getter;
-import lombok.Setter;
 
 /**
  * Contains information about a third party service account.
@@ -46,9 +46,8 @@ public class Account {
         TWITTER_TALKY("twitter_talky"),
         ZENHUB("ZenHub");
 
-        @Setter
         @Getter
-        private String id;
+        private final String id;
 
         Name(String id) {
             this.id = id;
@@ -62,4 +61,14 @@ public class Account {
     public String getProperty(String name) {
         return properties.get(name);
     }
+
+    /**
+     * @return copy of the account with its own properties map
+     */
+    public Account copy() {
+        Account copy = new Account();
+        copy.setService(service);
+        copy.setProperties(properties == null ? null : new HashMap<>(properties));
+        return copy;
+    }
 }
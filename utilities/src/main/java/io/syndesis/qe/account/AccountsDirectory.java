@@ -8,30 +8,43 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Account directory which manages account information.
  *
+ * The accounts are kept in an immutable snapshot indexed by the account name and by the {@link Account.Name} ordinal, so the lookups
+ * don't need any locking. The snapshot holds copies of the accounts. Adding an account publishes a new snapshot, so an account is changed
+ * by adding its changed {@link Account#copy()}. The accounts overridden by {@link #overrideAccount(String, Account)} are visible only to
+ * the current thread (scenario), so parallel scenarios can use different credentials for the same account name.
+ *
  * @author jknetl
  */
 @Slf4j
 public class AccountsDirectory {
-    private static AccountsDirectory instance;
+    private static volatile AccountsDirectory instance;
 
-    private ObjectMapper mapper = new ObjectMapper();
-    @Getter
-    private Map<String, Account> accounts;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ThreadLocal<Snapshot> overrides = new ThreadLocal<>();
+    private volatile Snapshot accounts;
 
     public static AccountsDirectory getInstance() {
-        if (instance == null) {
-            instance = new AccountsDirectory();
+        AccountsDirectory result = instance;
+        if (result == null) {
+            synchronized (AccountsDirectory.class) {
+                result = instance;
+                if (result == null) {
+                    result = new AccountsDirectory();
+                    instance = result;
+                }
+            }
         }
-        return instance;
+        return result;
     }
 
     private AccountsDirectory() throws AccountsException {
@@ -40,19 +53,32 @@ public class AccountsDirectory {
 
     private void load(Path path) throws AccountsException {
         try {
-            accounts = mapper.readValue(path.toFile(), new TypeReference<Map<String, Account>>() {
-            });
+            accounts = new Snapshot(mapper.readValue(path.toFile(), new TypeReference<Map<String, Account>>() {
+            }));
         } catch (IOException e) {
             throw new AccountsException("Cannot load account information.", e);
         }
     }
 
-    public void addAccount(String key, Account account) {
-        accounts.put(key, account);
+    public synchronized void addAccount(String key, Account account) {
+        accounts = accounts.with(key, account);
+    }
+
+    /**
+     * @return read-only view of all accounts including the overrides of the current thread
+     */
+    public Map<String, Account> getAccounts() {
+        final Snapshot layer = overrides.get();
+        if (layer == null) {
+            return accounts.byKey;
+        }
+        Map<String, Account> merged = new LinkedHashMap<>(accounts.byKey);
+        merged.putAll(layer.byKey);
+        return Collections.unmodifiableMap(merged);
     }
 
     public int getTotalAccounts() {
-        return accounts.size();
+        return getAccounts().size();
     }
 
     /**
@@ -62,7 +88,7 @@ public class AccountsDirectory {
      */
     @Deprecated
     public Optional<Account> getAccount(String name) {
-        return Optional.ofNullable(accounts.get(name));
+        return Optional.ofNullable(find(name));
     }
 
     /**
@@ -72,7 +98,7 @@ public class AccountsDirectory {
      */
     @Deprecated
     public Optional<Account> getAccount(Account.Name accountName) {
-        return getAccount(accountName.getId());
+        return Optional.ofNullable(find(accountName));
     }
 
     /**
@@ -83,7 +109,11 @@ public class AccountsDirectory {
      * @throws IllegalStateException when account with such name doesn't exist.
      */
     public Account get(String accountName) {
-        return getAccount(accountName).orElseThrow(() -> new IllegalStateException("Following account not found in credentials definitions: " + accountName));
+        Account account = find(accountName);
+        if (account == null) {
+            throw new IllegalStateException("Following account not found in credentials definitions: " + accountName);
+        }
+        return account;
     }
 
     /**
@@ -93,7 +123,11 @@ public class AccountsDirectory {
      * @return account
      */
     public Account get(Account.Name name) {
-        return get(name.getId());
+        Account account = find(name);
+        if (account == null) {
+            throw new IllegalStateException("Following account not found in credentials definitions: " + name.getId());
+        }
+        return account;
     }
 
     /**
@@ -103,10 +137,82 @@ public class AccountsDirectory {
      * @return true if exists, false otherwise
      */
     public boolean exists(String accountName) {
-        return getAccount(accountName).isPresent();
+        return find(accountName) != null;
     }
 
     public void setAccount(String name, Account account) {
-        accounts.put(name, account);
+        addAccount(name, account);
+    }
+
+    /**
+     * Overrides the account for the current thread only, the other threads still see the shared account. A copy of the account is stored.
+     *
+     * @param name account name
+     * @param account account to use instead
+     */
+    public void overrideAccount(String name, Account account) {
+        final Snapshot layer = overrides.get();
+        overrides.set(layer == null ? new Snapshot(Collections.singletonMap(name, account)) : layer.with(name, account));
+    }
+
+    /**
+     * Removes all overrides of the current thread, doesn't load the accounts if they were not loaded yet.
+     */
+    public static void clearOverrides() {
+        final AccountsDirectory current = instance;
+        if (current != null) {
+            current.overrides.remove();
+        }
+    }
+
+    private Account find(String name) {
+        final Snapshot layer = overrides.get();
+        if (layer != null) {
+            Account account = layer.byKey.get(name);
+            if (account != null) {
+                return account;
+            }
+        }
+        return accounts.byKey.get(name);
+    }
+
+    private Account find(Account.Name name) {
+        final Snapshot layer = overrides.get();
+        if (layer != null) {
+            Account account = layer.get(name);
+            if (account != null) {
+                return account;
+            }
+        }
+        return accounts.get(name);
+    }
+
+    /**
+     * Immutable set of accounts.
+     */
+    private static final class Snapshot {
+        private final Map<String, Account> byKey;
+        private final Account[] byName;
+
+        private Snapshot(Map<String, Account> accounts) {
+            // the accounts are copied, so changing the account after it was added doesn't change the snapshot
+            Map<String, Account> copy = new LinkedHashMap<>();
+            accounts.forEach((key, account) -> copy.put(key, account == null ? null : account.copy()));
+            byKey = Collections.unmodifiableMap(copy);
+            byName = new Account[Account.Name.values().length];
+            for (Account.Name name : Account.Name.values()) {
+                byName[name.ordinal()] = byKey.get(name.getId());
+            }
+        }
+
+        private Account get(Account.Name name) {
+            return byName[name.ordinal()];
+        }
+
+        private Snapshot with(String key, Account account) {
+            Map<String, Account> copy = new LinkedHashMap<>(byKey);
+            copy.put(key, account);
+            return new Snapshot(copy);
+        }
     }
 }
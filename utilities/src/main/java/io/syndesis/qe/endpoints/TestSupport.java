@@ -3,6 +3,7 @@ package io.syndesis.qe.endpoints;
 import io.syndesis.qe.addon.Addon;
 import io.syndesis.qe.endpoint.Constants;
 import io.syndesis.qe.endpoint.client.EndpointClient;
+import io.syndesis.qe.endpoint.util.ConnectorMetadataCache;
 import io.syndesis.qe.resource.ResourceFactory;
 import io.syndesis.qe.resource.impl.CamelK;
 import io.syndesis.qe.resource.impl.Syndesis;
@@ -45,6 +46,7 @@ public final class TestSupport {
      * Resets Syndesis database.
      */
     public void resetDB() {
+        ConnectorMetadataCache.getInstance().invalidateAll();
         TestUtils.withRetry(() -> {
             PortForwardUtils.createOrCheckPortForward();
             if (resetDbWithResponse(getEndpointUrl()) == 204) {
@@ -1,6 +1,7 @@
 package io.syndesis.qe.hooks;
 
 import io.syndesis.qe.TestConfiguration;
+import io.syndesis.qe.account.AccountsDirectory;
 import io.syndesis.qe.resource.ResourceFactory;
 import io.syndesis.qe.resource.impl.CamelK;
 import io.syndesis.qe.utils.OpenShiftUtils;
@@ -90,4 +91,10 @@ public class TestHooks {
             ResourceFactory.destroy(CamelK.class);
         }
     }
+
+    @After
+    public void clearAccountOverrides() {
+        // the overrides are bound to the thread, so they would leak into the next scenario run by the same thread
+        AccountsDirectory.clearOverrides();
+    }
 }
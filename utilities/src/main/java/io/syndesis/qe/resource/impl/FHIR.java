@@ -121,7 +121,7 @@ public class FHIR implements Resource {
 
             fhir.setService("fhir-app");
             fhir.setProperties(fhirParameters);
-            AccountsDirectory.getInstance().getAccounts().put("fhir", fhir);
+            AccountsDirectory.getInstance().addAccount("fhir", fhir);
         }
     }
 }
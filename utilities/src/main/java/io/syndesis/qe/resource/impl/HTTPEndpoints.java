@@ -138,12 +138,12 @@ public class HTTPEndpoints implements Resource {
         params.put("baseUrl", "http://http-svc:8080");
         http.setService("http");
         http.setProperties(params);
-        AccountsDirectory.getInstance().getAccounts().put("http", http);
+        AccountsDirectory.getInstance().addAccount("http", http);
         Account https = new Account();
         params = new HashMap<>();
         params.put("baseUrl", "https://https-svc:8443");
         https.setService("https");
         https.setProperties(params);
-        AccountsDirectory.getInstance().getAccounts().put("https", https);
+        AccountsDirectory.getInstance().addAccount("https", https);
     }
 }
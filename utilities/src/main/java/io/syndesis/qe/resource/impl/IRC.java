@@ -197,6 +197,6 @@ public class IRC implements Resource {
         params.put("port", "6667");
         irc.setService("irc");
         irc.setProperties(params);
-        AccountsDirectory.getInstance().getAccounts().put("irc", irc);
+        AccountsDirectory.getInstance().addAccount("irc", irc);
     }
 }
@@ -12,12 +12,16 @@ import io.syndesis.qe.wait.OpenShiftWaitUtils;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 
 import io.fabric8.kubernetes.api.model.apiextensions.v1.CustomResourceDefinition;
 import io.fabric8.kubernetes.api.model.rbac.ClusterRole;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -28,6 +32,23 @@ public class Kafka implements Resource {
      */
     private static String RESOURCES_FOLDER = "../utilities/src/main/resources/kafka/amq-streams-2.3-cluster-operator";
     private static String KAFKA_CR = "../utilities/src/main/resources/kafka/kafka-ephemeral-2.3.yaml";
+    private static final String LISTENERS = "    listeners:\n";
+    // advertised as localhost, so that the brokers are reachable from the test suite through a port-forward, see KafkaUtils
+    private static final String PORT_FORWARD_LISTENER = "      - name: portforward\n"
+        + "        port: 9094\n"
+        + "        type: internal\n"
+        + "        tls: false\n"
+        + "        configuration:\n"
+        + "          brokers:\n"
+        + "            - broker: 0\n"
+        + "              advertisedHost: localhost\n"
+        + "              advertisedPort: 9094\n";
+
+    /**
+     * Adds the listener used by the Kafka load generator and output verifier to the broker.
+     */
+    @Setter
+    private boolean portForwardListener;
 
     public Kafka() {
         RESOURCES_FOLDER = Paths.get(RESOURCES_FOLDER).toAbsolutePath().toString();
@@ -52,10 +73,26 @@ public class Kafka implements Resource {
             }
         }
         OpenShiftWaitUtils.isPodReady(OpenShiftUtils.getAnyPod("strimzi.io/kind", "cluster-operator"));
-        OpenShiftUtils.create(KAFKA_CR);
+        OpenShiftUtils.create(portForwardListener ? withPortForwardListener() : KAFKA_CR);
         addAccounts();
     }
 
+    /**
+     * @return path to the copy of the Kafka CR with the additional port-forward listener
+     */
+    private static String withPortForwardListener() {
+        try {
+            final String cr = new String(Files.readAllBytes(Paths.get(KAFKA_CR)), StandardCharsets.UTF_8);
+            Path copy = Files.createTempFile("kafka-portforward", ".yaml");
+            copy.toFile().deleteOnExit();
+            Files.write(copy, cr.replace(LISTENERS, LISTENERS + PORT_FORWARD_LISTENER).getBytes(StandardCharsets.UTF_8));
+            return copy.toString();
+        } catch (IOException e) {
+            InfraFail.fail("IO exception during creating Kafka CR with the port-forward listener", e);
+            return KAFKA_CR;
+        }
+    }
+
     @Override
     public void undeploy() {
         OpenShiftUtils.delete(KAFKA_CR);
@@ -94,7 +131,7 @@ public class Kafka implements Resource {
         kafkaParameters.put("brokers", brokersNameBase + "-brokers:9092");
         kafka.setService("kafka");
         kafka.setProperties(kafkaParameters);
-        AccountsDirectory.getInstance().getAccounts().put("kafka", kafka);
+        AccountsDirectory.getInstance().addAccount("kafka", kafka);
 
         //for ui testing - plain:
         Account kafkaAutodetectPlain = new Account();
@@ -103,7 +140,7 @@ public class Kafka implements Resource {
         kafkaAutodetectPlainParameters.put("transportprotocol", "PLAIN");
         kafkaAutodetectPlain.setService("kafka-autodetect-plain");
         kafkaAutodetectPlain.setProperties(kafkaAutodetectPlainParameters);
-        AccountsDirectory.getInstance().getAccounts().put("kafka-autodetect-plain", kafkaAutodetectPlain);
+        AccountsDirectory.getInstance().addAccount("kafka-autodetect-plain", kafkaAutodetectPlain);
 
         //for ui testing - tls:
         Account kafkaAutodetectTls = new Account();
@@ -112,7 +149,7 @@ public class Kafka implements Resource {
         kafkaAutodetectTlsParameters.put("transportprotocol", "TLS");
         kafkaAutodetectTls.setService("kafka-autodetect-tls");
         kafkaAutodetectTls.setProperties(kafkaAutodetectTlsParameters);
-        AccountsDirectory.getInstance().getAccounts().put("kafka-autodetect-tls", kafkaAutodetectTls);
+        AccountsDirectory.getInstance().addAccount("kafka-autodetect-tls", kafkaAutodetectTls);
     }
 
     private static String constructBrokerName(String brokersNameBase, Integer port) {
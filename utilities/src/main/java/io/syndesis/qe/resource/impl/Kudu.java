@@ -20,6 +20,7 @@ import io.fabric8.kubernetes.api.model.ServicePortBuilder;
 import io.fabric8.kubernetes.api.model.ServiceSpecBuilder;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteBuilder;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -34,9 +35,31 @@ public class Kudu implements Resource {
     public static final String MOUNT_NAME_TSERVER = "syndesis-kudu-tserver";
     public static final String MOUNT_PATH_MASTER = "/var/lib/kudu/master";
     public static final String MOUNT_PATH_TSERVER = "/var/lib/kudu/tserver";
+    public static final String NATIVE_APP_NAME = "syndesis-kudu-native";
+    public static final int TSERVER_PORT = 7050;
+    private static final String NATIVE_IMAGE = "apache/kudu:1.15.0";
+    // the master and the tablet server share the pod, so they reach each other on localhost as well
+    private static final String NATIVE_MASTER_ARGS = "--fs_wal_dir=" + MOUNT_PATH_MASTER + " --rpc_bind_addresses=0.0.0.0:" + KUDU_PORT
+        + " --rpc_advertised_addresses=localhost:" + KUDU_PORT + " --use_hybrid_clock=false";
+    private static final String NATIVE_TSERVER_ARGS = "--fs_wal_dir=" + MOUNT_PATH_TSERVER + " --rpc_bind_addresses=0.0.0.0:" + TSERVER_PORT
+        + " --rpc_advertised_addresses=localhost:" + TSERVER_PORT + " --use_hybrid_clock=false";
+
+    /**
+     * Deploys a Kudu master and tablet server that advertise localhost addresses instead of the Kudu image used by the integrations.
+     *
+     * The native client talks to the tablet servers on the addresses they advertise, so with the port-forwards to the master and to every
+     * tablet server (see KuduUtils) the test suite reaches the whole cluster. The integrations can't use this deployment, because the
+     * advertised addresses point to their own pods.
+     */
+    @Setter
+    private boolean reachableFromTestSuite;
 
     @Override
     public void deploy() {
+        if (reachableFromTestSuite) {
+            deployNative();
+            return;
+        }
         if (!OpenShiftUtils.isDcDeployed(APP_NAME)) {
             List<ContainerPort> ports = new LinkedList<>();
             ports.add(new ContainerPortBuilder()
@@ -174,8 +197,56 @@ public class Kudu implements Resource {
         createAccount();
     }
 
+    private void deployNative() {
+        if (OpenShiftUtils.isDcDeployed(NATIVE_APP_NAME)) {
+            return;
+        }
+        OpenShiftUtils.getInstance().deploymentConfigs().createOrReplaceWithNew()
+            .editOrNewMetadata()
+            .withName(NATIVE_APP_NAME)
+            .addToLabels(LABEL_NAME, NATIVE_APP_NAME)
+            .endMetadata()
+            .editOrNewSpec()
+            .addToSelector(LABEL_NAME, NATIVE_APP_NAME)
+            .withReplicas(1)
+            .editOrNewTemplate()
+            .editOrNewMetadata()
+            .addToLabels(LABEL_NAME, NATIVE_APP_NAME)
+            .endMetadata()
+            .editOrNewSpec()
+            .addNewContainer().withName("kudu-master").withImage(NATIVE_IMAGE).withArgs("master")
+            .addNewPort().withName("master").withContainerPort(KUDU_PORT).withProtocol("TCP").endPort()
+            .addNewEnv().withName("MASTER_ARGS").withValue(NATIVE_MASTER_ARGS).endEnv()
+            .addNewVolumeMount().withName(MOUNT_NAME_MASTER).withMountPath(MOUNT_PATH_MASTER).withReadOnly(false).endVolumeMount()
+            .endContainer()
+            .addNewContainer().withName("kudu-tserver").withImage(NATIVE_IMAGE).withArgs("tserver")
+            .addNewPort().withName("tserver").withContainerPort(TSERVER_PORT).withProtocol("TCP").endPort()
+            .addNewEnv().withName("KUDU_MASTERS").withValue("localhost:" + KUDU_PORT).endEnv()
+            .addNewEnv().withName("TSERVER_ARGS").withValue(NATIVE_TSERVER_ARGS).endEnv()
+            .addNewVolumeMount().withName(MOUNT_NAME_TSERVER).withMountPath(MOUNT_PATH_TSERVER).withReadOnly(false).endVolumeMount()
+            .endContainer()
+            .addNewVolume()
+            .withName(MOUNT_NAME_MASTER)
+            .withNewEmptyDir().endEmptyDir()
+            .endVolume()
+            .addNewVolume()
+            .withName(MOUNT_NAME_TSERVER)
+            .withNewEmptyDir().endEmptyDir()
+            .endVolume()
+            .endSpec()
+            .endTemplate()
+            .addNewTrigger()
+            .withType("ConfigChange")
+            .endTrigger()
+            .endSpec()
+            .done();
+    }
+
     @Override
     public void undeploy() {
+        OpenShiftUtils.getInstance().getDeploymentConfigs().stream().filter(dc -> dc.getMetadata().getName().equals(NATIVE_APP_NAME))
+            .findFirst()
+            .ifPresent(dc -> OpenShiftUtils.getInstance().deleteDeploymentConfig(dc, true));
         OpenShiftUtils.getInstance().getDeploymentConfigs().stream().filter(dc -> dc.getMetadata().getName().equals(APP_NAME)).findFirst()
             .ifPresent(dc -> OpenShiftUtils.getInstance().deleteDeploymentConfig(dc, true));
         OpenShiftUtils.getInstance().getServices().stream().filter(service -> APP_NAME.equals(service.getMetadata().getName())).findFirst()
@@ -198,6 +269,9 @@ public class Kudu implements Resource {
 
     @Override
     public boolean isReady() {
+        if (reachableFromTestSuite) {
+            return OpenShiftWaitUtils.isPodReady(OpenShiftUtils.getAnyPod(LABEL_NAME, NATIVE_APP_NAME));
+        }
         return OpenShiftWaitUtils.isPodReady(OpenShiftUtils.getAnyPod(LABEL_NAME, APP_NAME))
             && OpenShiftUtils.getPodLogs(APP_NAME).contains("Flush successful")
             && OpenShiftWaitUtils.isPodReady(OpenShiftUtils.getAnyPod(LABEL_NAME, API_APP_NAME))
@@ -206,7 +280,7 @@ public class Kudu implements Resource {
 
     @Override
     public boolean isDeployed() {
-        return OpenShiftUtils.isDcDeployed(APP_NAME);
+        return OpenShiftUtils.isDcDeployed(reachableFromTestSuite ? NATIVE_APP_NAME : APP_NAME);
     }
 
     public void createAccount() {
@@ -0,0 +1,138 @@
+package io.syndesis.qe.resource.impl;
+
+import io.syndesis.qe.TestConfiguration;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of the resources rendered by the operator image.
+ *
+ * The rendered YAML is stored in {@link TestConfiguration#operatorResourcesCacheDir()} under the hash of the operator image id, the cluster
+ * API URL and the operator command parameters, so the operator container runs only once for the same image, cluster and parameters,
+ * even across test runs until the build directory is cleaned. The image id changes whenever the tag is pulled with a different content,
+ * so a moving tag never returns stale resources. The parsed resources are kept in memory for the lifetime of the JVM.
+ */
+@Slf4j
+final class OperatorResourcesCache {
+    private static final Map<String, List<HasMetadata>> PARSED = new ConcurrentHashMap<>();
+
+    private OperatorResourcesCache() {
+    }
+
+    /**
+     * Gets the resources rendered by the operator.
+     *
+     * @param image operator image
+     * @param params operator command parameters including the namespace
+     * @param renderer runs the operator and returns the rendered YAML, or null if it failed
+     * @param parser parses the YAML
+     * @return read-only list of the resources shared by all callers, the resources must not be modified
+     */
+    static List<HasMetadata> get(String image, List<String> params, Supplier<String> renderer, Function<String, List<HasMetadata>> parser) {
+        final String imageId = imageId(image);
+        // without the image id the content can't be identified, so the resources are rendered every time
+        final String key = imageId == null ? null : sha256(imageId + "\n" + TestConfiguration.openShiftUrl() + "\n" + String.join("\n", params));
+        if (key != null && PARSED.containsKey(key)) {
+            return PARSED.get(key);
+        }
+
+        final Path file = key == null ? null : file(key);
+        String yaml = null;
+        if (file != null && Files.isReadable(file)) {
+            try {
+                yaml = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+                log.info("Using operator resources cached in {}", file);
+            } catch (IOException e) {
+                log.warn("Unable to read cached operator resources {}", file, e);
+            }
+        }
+        final boolean rendered = yaml == null;
+        if (rendered) {
+            yaml = renderer.get();
+        }
+
+        final List<HasMetadata> resources = yaml == null ? null : parser.apply(yaml);
+        if (resources == null || resources.isEmpty()) {
+            return resources;
+        }
+        if (rendered && file != null) {
+            store(file, yaml);
+        }
+        final List<HasMetadata> result = Collections.unmodifiableList(resources);
+        if (key != null) {
+            PARSED.put(key, result);
+        }
+        return result;
+    }
+
+    private static String sha256(String value) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path file(String key) {
+        final String dir = TestConfiguration.operatorResourcesCacheDir();
+        return StringUtils.isEmpty(dir) ? null : Paths.get(dir, key + ".yaml");
+    }
+
+    private static void store(Path file, String yaml) {
+        try {
+            Files.createDirectories(file.getParent());
+            // parallel runs may render the same resources, the atomic move makes sure nobody reads a partially written file
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(tmp, yaml.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Operator resources cached in {}", file);
+        } catch (IOException e) {
+            log.warn("Unable to cache operator resources in {}", file, e);
+        }
+    }
+
+    /**
+     * @param image image
+     * @return content addressed id of the local image, or null if the image is not present locally
+     */
+    private static String imageId(String image) {
+        try {
+            Process p = new ProcessBuilder(Arrays.asList(TestConfiguration.containerTool(), "image", "inspect", "--format", "{{.Id}}", image))
+                .redirectErrorStream(true).start();
+            final String output = IOUtils.toString(p.getInputStream(), StandardCharsets.UTF_8).trim();
+            if (p.waitFor() == 0 && !output.isEmpty()) {
+                return output;
+            }
+            log.warn("Unable to get the id of image {}: {}", image, output);
+        } catch (IOException e) {
+            log.warn("Unable to get the id of image {}", image, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
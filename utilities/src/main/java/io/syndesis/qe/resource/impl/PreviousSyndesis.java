@@ -13,9 +13,7 @@ public class PreviousSyndesis extends Syndesis {
         log.info("  Namespace: " + TestConfiguration.openShiftNamespace());
         super.createPullSecret();
         super.pullOperatorImage();
-        super.grantPermissions();
-        super.installCluster();
-        super.deployOperator();
+        super.installOperator();
         deploySyndesisViaOperator();
         super.workaround411();
         super.workaround411();
@@ -19,6 +19,7 @@ import io.syndesis.qe.utils.PortForwardUtils;
 import io.syndesis.qe.utils.TestUtils;
 import io.syndesis.qe.utils.TodoUtils;
 import io.syndesis.qe.wait.OpenShiftWaitUtils;
+import io.syndesis.qe.wait.StatusObserver;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ArrayUtils;
@@ -34,13 +35,19 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -51,13 +58,17 @@ import io.fabric8.kubernetes.api.model.LocalObjectReference;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.api.model.ServiceAccountBuilder;
 import io.fabric8.kubernetes.api.model.ServiceAccountList;
 import io.fabric8.kubernetes.api.model.apiextensions.v1.CustomResourceDefinition;
 import io.fabric8.kubernetes.api.model.apiextensions.v1.CustomResourceDefinitionVersion;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
 import io.fabric8.kubernetes.client.dsl.internal.RawCustomResourceOperationsImpl;
+import io.fabric8.openshift.api.model.Route;
+import io.fabric8.openshift.api.model.RouteIngressCondition;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -104,9 +115,7 @@ public class Syndesis implements Resource {
 
         createPullSecret();
         pullOperatorImage();
-        installCluster();
-        grantPermissions();
-        deployOperator();
+        installOperator();
         deployCrAndRoutes();
     }
 
@@ -225,6 +234,45 @@ public class Syndesis implements Resource {
         }).start();
     }
 
+    /**
+     * Installs the cluster resources, grants the permissions and deploys the operator.
+     *
+     * The cluster installation, the permission grant and the rendering of the operator resources run in separate containers, so they
+     * run concurrently. The operator is deployed when all of them are done.
+     */
+    public void installOperator() {
+        ExecutorService executor = Executors.newFixedThreadPool(3, r -> {
+            Thread t = new Thread(r, "syndesis-operator-install");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            CompletableFuture<Void> cluster = CompletableFuture.runAsync(this::installCluster, executor);
+            CompletableFuture<Void> grant = CompletableFuture.runAsync(this::grantPermissions, executor);
+            CompletableFuture<List<HasMetadata>> resources = CompletableFuture.supplyAsync(this::getOperatorResources, executor);
+            join(cluster);
+            join(grant);
+            deployOperator(join(resources));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // rethrow the original assertion error or exception so that the test fails with the actual cause
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     public void installCluster() {
         executeOperatorCommandAndWait(
             "install",
@@ -309,25 +357,28 @@ public class Syndesis implements Resource {
      * In case of multiple uses of a static route, openshift will create the route anyway with a false condition, so rather fail fast.
      */
     public void checkRoute() {
+        // the former condition fetched the route for each of its five checks
+        StatusObserver<Route> route = StatusObserver.route("syndesis", 5);
         try {
-            OpenShiftWaitUtils.waitFor(() -> OpenShiftUtils.getInstance().getRoute("syndesis") != null
-                    && OpenShiftUtils.getInstance().getRoute("syndesis").getStatus().getIngress() != null
-                    && OpenShiftUtils.getInstance().getRoute("syndesis").getStatus().getIngress().size() > 0
-                    && OpenShiftUtils.getInstance().getRoute("syndesis").getStatus().getIngress().get(0).getConditions() != null
-                    && OpenShiftUtils.getInstance().getRoute("syndesis").getStatus().getIngress().get(0).getConditions().size() > 0,
-                120000L);
+            route.waitFor(120000L, Objects::nonNull, r -> r.getStatus().getIngress() != null, StatusObserver::hasRouteCondition);
         } catch (TimeoutException | InterruptedException e) {
-            log.debug("Syndesis route: " + OpenShiftUtils.getInstance().getRoute("syndesis"));
+            log.debug("Syndesis route: " + route.get());
             InfraFail.fail("There was a problem with provisioning of syndesis route");
         }
 
-        if ("false".equalsIgnoreCase(
-            OpenShiftUtils.getInstance().getRoute("syndesis").getStatus().getIngress().get(0).getConditions().get(0).getStatus())) {
-            InfraFail.fail("Syndesis route failed to provision because of: " +
-                OpenShiftUtils.getInstance().getRoute("syndesis").getStatus().getIngress().get(0).getConditions().get(0).getMessage());
+        RouteIngressCondition condition = StatusObserver.routeCondition(route.get()).get();
+        if ("false".equalsIgnoreCase(condition.getStatus())) {
+            InfraFail.fail("Syndesis route failed to provision because of: " + condition.getMessage());
         }
     }
 
+    /**
+     * @return observer of the Syndesis custom resource, use {@link StatusObserver#crPhase(Map)} to get its phase
+     */
+    public StatusObserver<Map<String, Object>> observeCr() {
+        return new StatusObserver<>("Syndesis CR", this::getCr, 1);
+    }
+
     public Map<String, Object> getCr() {
         return getSyndesisCrClient().get(TestConfiguration.openShiftNamespace(), CR_NAME);
     }
@@ -464,45 +515,80 @@ public class Syndesis implements Resource {
         return context;
     }
 
+    /**
+     * Gets the resources rendered by the operator image.
+     *
+     * The rendered resources are cached by {@link OperatorResourcesCache}, so the returned list is read-only and shared, copy the resources
+     * before changing them.
+     *
+     * @return operator resources
+     */
     public List<HasMetadata> getOperatorResources() {
         String imageName = StringUtils.substringBeforeLast(operatorImage, ":");
         String imageTag = StringUtils.substringAfterLast(operatorImage, ":");
+        final String[] params = {
+            "install",
+            "operator",
+            "--image",
+            imageName,
+            "--tag",
+            imageTag,
+            "-e", "yaml"};
 
-        log.info("Generating resources using operator image {}", operatorImage);
         List<HasMetadata> resourceList = null;
         try {
-            Process p = this.executeOperatorCommand(
-                "install",
-                "operator",
-                "--image",
-                imageName,
-                "--tag",
-                imageTag,
-                "-e", "yaml");
-
-            final String resources = IOUtils.toString(p.getInputStream(), StandardCharsets.UTF_8);
-            log.debug("Resources generated from the operator image");
-            log.debug(resources);
-            resourceList = OpenShiftUtils.getInstance().load(IOUtils.toInputStream(resources, StandardCharsets.UTF_8)).get();
-            p.waitFor();
+            // the namespace is a part of the rendered resources, so it's a part of the cache key as well
+            List<String> key = new ArrayList<>(Arrays.asList(params));
+            key.add(TestConfiguration.openShiftNamespace());
+            resourceList = OperatorResourcesCache.get(operatorImage, key, () -> {
+                log.info("Generating resources using operator image {}", operatorImage);
+                try {
+                    Process p = this.executeOperatorCommand(params);
+                    final String resources = IOUtils.toString(p.getInputStream(), StandardCharsets.UTF_8);
+                    p.waitFor();
+                    log.debug("Resources generated from the operator image");
+                    log.debug(resources);
+                    if (p.exitValue() != 0) {
+                        log.error("The operator command failed with exit value {}: {}", p.exitValue(),
+                            IOUtils.toString(p.getErrorStream(), StandardCharsets.UTF_8));
+                        return null;
+                    }
+                    return resources;
+                } catch (IOException | InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, yaml -> OpenShiftUtils.getInstance().load(IOUtils.toInputStream(yaml, StandardCharsets.UTF_8)).get());
         } catch (Exception e) {
             log.error("Could not load resources from operator image, check debug logs", e);
             fail("Failed to install using operator");
         }
+        if (resourceList == null || resourceList.isEmpty()) {
+            fail("Failed to install using operator, no resources were generated by the operator image");
+        }
 
         return resourceList;
     }
 
     public void deployOperator() {
-        List<HasMetadata> resourceList = getOperatorResources();
+        deployOperator(getOperatorResources());
+    }
+
+    /**
+     * Deploys the operator resources, the given resources are not modified.
+     *
+     * @param operatorResources resources rendered by the operator image
+     */
+    public void deployOperator(List<HasMetadata> operatorResources) {
         final String operatorResourcesName = "syndesis-operator";
+        List<HasMetadata> resourceList = new ArrayList<>(operatorResources);
         Optional<HasMetadata> serviceAccount = resourceList.stream()
             .filter(resource -> "ServiceAccount".equals(resource.getKind()) && operatorResourcesName.equals(resource.getMetadata().getName()))
             .findFirst();
 
         if (serviceAccount.isPresent()) {
-            ((ServiceAccount) serviceAccount.get())
-                .getImagePullSecrets().add(new LocalObjectReference(TestConfiguration.syndesisPullSecretName()));
+            resourceList.set(resourceList.indexOf(serviceAccount.get()), new ServiceAccountBuilder((ServiceAccount) serviceAccount.get())
+                .addToImagePullSecrets(new LocalObjectReference(TestConfiguration.syndesisPullSecretName()))
+                .build());
         } else {
             log.error("Service account not found in resources");
         }
@@ -548,7 +634,11 @@ public class Syndesis implements Resource {
         Deployment deployment = (Deployment) resourceList.stream()
             .filter(r -> "Deployment".equals(r.getKind()) && operatorResourcesName.equals(r.getMetadata().getName()))
             .findFirst().orElseThrow(() -> new RuntimeException("Unable to find deployment in operator resources"));
-        deployment.getSpec().getTemplate().getSpec().getContainers().get(0).getEnv().addAll(envVarsToAdd);
+        resourceList.set(resourceList.indexOf(deployment), new DeploymentBuilder(deployment)
+            .editSpec().editTemplate().editSpec().editFirstContainer()
+            .addAllToEnv(envVarsToAdd)
+            .endContainer().endSpec().endTemplate().endSpec()
+            .build());
 
         OpenShiftUtils.asRegularUser(() -> OpenShiftUtils.getInstance().resourceList(resourceList).createOrReplace());
         waitingForSyndesisOperator(operatorResourcesName);
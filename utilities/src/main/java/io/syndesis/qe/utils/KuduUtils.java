@@ -0,0 +1,310 @@
+package io.syndesis.qe.utils;
+
+import static org.assertj.core.api.Assertions.fail;
+
+import io.syndesis.qe.TestConfiguration;
+import io.syndesis.qe.account.Account;
+import io.syndesis.qe.account.AccountsDirectory;
+import io.syndesis.qe.resource.impl.Kudu;
+
+import org.apache.kudu.ColumnSchema;
+import org.apache.kudu.Schema;
+import org.apache.kudu.Type;
+import org.apache.kudu.client.CreateTableOptions;
+import org.apache.kudu.client.Insert;
+import org.apache.kudu.client.KuduClient;
+import org.apache.kudu.client.KuduException;
+import org.apache.kudu.client.KuduPredicate;
+import org.apache.kudu.client.KuduScanner;
+import org.apache.kudu.client.KuduSession;
+import org.apache.kudu.client.KuduTable;
+import org.apache.kudu.client.PartialRow;
+import org.apache.kudu.client.RowError;
+import org.apache.kudu.client.RowErrorsAndOverflowStatus;
+import org.apache.kudu.client.RowResult;
+import org.apache.kudu.client.RowResultIterator;
+import org.apache.kudu.client.SessionConfiguration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.LocalPortForward;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Kudu native client for bulk loading and verifying tables.
+ *
+ * The rows are inserted by a session flushed in the background, so the inserts are sent in batches of up to
+ * {@link TestConfiguration#kuduMutationBufferSpace()} operations. The verification scans fetch only the key column and push the key
+ * range predicates to the tablet servers.
+ *
+ * The default constructor connects to the Kudu deployed by {@link Kudu} with {@link Kudu#setReachableFromTestSuite(boolean)}. The client
+ * connects to the master through a port-forward to {@link Kudu#KUDU_PORT} and to the tablet server by the localhost address it
+ * advertises, which is port-forwarded as well. Set the "masterAddresses" property of the kudu account to use another Kudu cluster.
+ */
+@Slf4j
+public class KuduUtils implements AutoCloseable {
+    public static final String KEY_COLUMN = "key";
+    public static final String VALUE_COLUMN = "value";
+    private static final long TIMEOUT_MILLIS = 60000L;
+
+    private static final List<LocalPortForward> PORT_FORWARDS = new ArrayList<>();
+
+    private final KuduClient client;
+    private double insertRate;
+
+    public KuduUtils() {
+        this(masterAddresses());
+    }
+
+    /**
+     * @param masterAddresses comma separated master addresses
+     */
+    public KuduUtils(String masterAddresses) {
+        client = new KuduClient.KuduClientBuilder(masterAddresses).defaultOperationTimeoutMs(TIMEOUT_MILLIS).build();
+    }
+
+    /**
+     * Creates the table with int32 key and string value columns if it doesn't exist yet.
+     *
+     * @param table table name
+     * @param buckets number of hash partitions
+     */
+    public void createTable(String table, int buckets) {
+        // the tablet server registers with the master only after the pod is ready
+        if (!TestUtils.waitForNoFail(this::hasTabletServer, 2, 60)) {
+            fail("No Kudu tablet server registered with the master");
+        }
+        try {
+            if (client.tableExists(table)) {
+                return;
+            }
+            Schema schema = new Schema(Arrays.asList(
+                new ColumnSchema.ColumnSchemaBuilder(KEY_COLUMN, Type.INT32).key(true).build(),
+                new ColumnSchema.ColumnSchemaBuilder(VALUE_COLUMN, Type.STRING).nullable(true).build()
+            ));
+            client.createTable(table, schema, new CreateTableOptions()
+                .addHashPartitions(Collections.singletonList(KEY_COLUMN), buckets)
+                .setNumReplicas(1));
+            log.info("Created Kudu table {} with {} hash partitions", table, buckets);
+        } catch (KuduException e) {
+            fail("Unable to create Kudu table " + table, e);
+        }
+    }
+
+    public void deleteTable(String table) {
+        try {
+            if (client.tableExists(table)) {
+                client.deleteTable(table);
+            }
+        } catch (KuduException e) {
+            fail("Unable to delete Kudu table " + table, e);
+        }
+    }
+
+    /**
+     * Inserts the rows with keys from the given key, the value of the row is "value-&lt;key&gt;".
+     *
+     * @param table table name
+     * @param fromKey key of the first row
+     * @param count number of rows
+     * @return number of inserted rows
+     */
+    public long insertRows(String table, int fromKey, int count) {
+        final long start = System.nanoTime();
+        long failed;
+        KuduSession session = client.newSession();
+        try {
+            session.setFlushMode(SessionConfiguration.FlushMode.AUTO_FLUSH_BACKGROUND);
+            session.setMutationBufferSpace(TestConfiguration.kuduMutationBufferSpace());
+            session.setFlushInterval(TestConfiguration.kuduFlushIntervalMs());
+            KuduTable kuduTable = client.openTable(table);
+            for (int key = fromKey; key < fromKey + count; key++) {
+                Insert insert = kuduTable.newInsert();
+                PartialRow row = insert.getRow();
+                row.addInt(KEY_COLUMN, key);
+                row.addString(VALUE_COLUMN, value(key));
+                // blocks when the buffers are full until the background flush frees them
+                session.apply(insert);
+            }
+            session.flush();
+        } catch (KuduException e) {
+            fail("Unable to insert rows into Kudu table " + table, e);
+        } finally {
+            failed = pendingErrors(session);
+            try {
+                session.close();
+            } catch (KuduException e) {
+                log.error("Error while closing Kudu session", e);
+            }
+        }
+        final long inserted = count - failed;
+        final long elapsed = System.nanoTime() - start;
+        insertRate = elapsed == 0 ? 0D : inserted * 1e9 / elapsed;
+        log.info("Inserted {} rows ({} failed) into Kudu table {} in {} ms ({} rows/s)", inserted, failed, table,
+            TimeUnit.NANOSECONDS.toMillis(elapsed), String.format("%.1f", insertRate));
+        return inserted;
+    }
+
+    /**
+     * Scans the keys in the range [fromKey, fromKey + count), only the key column is fetched.
+     *
+     * @param table table name
+     * @param fromKey first key
+     * @param count number of keys
+     * @return found keys, bit i is set when the key fromKey + i was found
+     */
+    public BitSet scanKeys(String table, int fromKey, int count) {
+        final long start = System.nanoTime();
+        BitSet found = new BitSet(count);
+        long rows = 0;
+        try {
+            KuduTable kuduTable = client.openTable(table);
+            ColumnSchema key = kuduTable.getSchema().getColumn(KEY_COLUMN);
+            KuduScanner scanner = client.newScannerBuilder(kuduTable)
+                .setProjectedColumnNames(Collections.singletonList(KEY_COLUMN))
+                .addPredicate(KuduPredicate.newComparisonPredicate(key, KuduPredicate.ComparisonOp.GREATER_EQUAL, fromKey))
+                .addPredicate(KuduPredicate.newComparisonPredicate(key, KuduPredicate.ComparisonOp.LESS, (long) fromKey + count))
+                .build();
+            try {
+                while (scanner.hasMoreRows()) {
+                    RowResultIterator results = scanner.nextRows();
+                    while (results.hasNext()) {
+                        RowResult result = results.next();
+                        found.set(result.getInt(0) - fromKey);
+                        rows++;
+                    }
+                }
+            } finally {
+                scanner.close();
+            }
+        } catch (KuduException e) {
+            fail("Unable to scan Kudu table " + table, e);
+        }
+        final long elapsed = System.nanoTime() - start;
+        log.info("Scanned {} rows of Kudu table {} in {} ms ({} rows/s)", rows, table, TimeUnit.NANOSECONDS.toMillis(elapsed),
+            String.format("%.1f", elapsed == 0 ? 0D : rows * 1e9 / elapsed));
+        return found;
+    }
+
+    /**
+     * Reads the value of the row.
+     *
+     * @param table table name
+     * @param key key of the row
+     * @return value or null when there is no such row
+     */
+    public String getValue(String table, int key) {
+        try {
+            KuduTable kuduTable = client.openTable(table);
+            KuduScanner scanner = client.newScannerBuilder(kuduTable)
+                .setProjectedColumnNames(Collections.singletonList(VALUE_COLUMN))
+                .addPredicate(KuduPredicate.newComparisonPredicate(kuduTable.getSchema().getColumn(KEY_COLUMN),
+                    KuduPredicate.ComparisonOp.EQUAL, key))
+                .build();
+            try {
+                while (scanner.hasMoreRows()) {
+                    RowResultIterator results = scanner.nextRows();
+                    if (results.hasNext()) {
+                        return results.next().getString(0);
+                    }
+                }
+            } finally {
+                scanner.close();
+            }
+        } catch (KuduException e) {
+            fail("Unable to scan Kudu table " + table, e);
+        }
+        return null;
+    }
+
+    /**
+     * @return rows per second of the last {@link #insertRows(String, int, int)} call
+     */
+    public double getInsertRate() {
+        return insertRate;
+    }
+
+    public static String value(int key) {
+        return "value-" + key;
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.close();
+        } catch (KuduException e) {
+            log.error("Error while closing Kudu client", e);
+        }
+    }
+
+    /**
+     * Creates the port-forwards to the Kudu master and to the tablet server if they are not alive.
+     *
+     * @return master address reachable through the port-forward
+     */
+    public static synchronized String ensurePortForward() {
+        if (PORT_FORWARDS.isEmpty() || PORT_FORWARDS.stream().anyMatch(pf -> !pf.isAlive())) {
+            closePortForward();
+            Pod pod = OpenShiftUtils.getAnyPod("app", Kudu.NATIVE_APP_NAME)
+                .orElseThrow(() -> new IllegalStateException("Kudu pod is not present, deploy Kudu reachable from the test suite"));
+            log.info("Creating port-forward to Kudu {}", pod.getMetadata().getName());
+            PORT_FORWARDS.add(OpenShiftUtils.portForward(pod, Kudu.KUDU_PORT, Kudu.KUDU_PORT));
+            // the local port must be the advertised one, the client connects to the tablet server by that address
+            PORT_FORWARDS.add(OpenShiftUtils.portForward(pod, Kudu.TSERVER_PORT, Kudu.TSERVER_PORT));
+            TestUtils.sleepIgnoreInterrupt(2000L);
+        }
+        return "localhost:" + Kudu.KUDU_PORT;
+    }
+
+    public static synchronized void closePortForward() {
+        PORT_FORWARDS.forEach(pf -> {
+            try {
+                pf.close();
+            } catch (IOException e) {
+                log.error("Error while closing Kudu port forward.", e);
+            }
+        });
+        PORT_FORWARDS.clear();
+    }
+
+    private static String masterAddresses() {
+        if (AccountsDirectory.getInstance().exists(Account.Name.KUDU.getId())) {
+            Account account = AccountsDirectory.getInstance().get(Account.Name.KUDU);
+            if (account.getProperties() != null && account.getProperties().containsKey("masterAddresses")) {
+                return account.getProperty("masterAddresses");
+            }
+        }
+        return ensurePortForward();
+    }
+
+    private boolean hasTabletServer() {
+        try {
+            return client.listTabletServers().getTabletServersCount() > 0;
+        } catch (KuduException e) {
+            log.debug("Unable to list Kudu tablet servers: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static long pendingErrors(KuduSession session) {
+        if (session.countPendingErrors() == 0) {
+            return 0;
+        }
+        RowErrorsAndOverflowStatus errors = session.getPendingErrors();
+        RowError[] rowErrors = errors.getRowErrors();
+        for (int i = 0; i < Math.min(10, rowErrors.length); i++) {
+            log.error("Kudu row error: {}", rowErrors[i]);
+        }
+        if (errors.isOverflowed()) {
+            log.error("Kudu error buffer overflowed, some errors were discarded");
+        }
+        return rowErrors.length;
+    }
+}
@@ -176,9 +176,9 @@ public final class TestUtils {
         if (!optional.isPresent()) {
             account = new Account();
             account.setService(connectionName);
-            AccountsDirectory.getInstance().setAccount(connectionName, account);
         } else {
-            account = optional.get();
+            // the accounts of the directory are shared, the changed copy replaces the account
+            account = optional.get().copy();
         }
 
         Map<String, String> properties = account.getProperties();
@@ -197,6 +197,7 @@ public final class TestUtils {
                 properties.forEach((key, value) -> log.debug("Key: *{}*, value: *{}*", key, value));
                 break;
         }
+        AccountsDirectory.getInstance().setAccount(connectionName, account);
     }
 
     /**
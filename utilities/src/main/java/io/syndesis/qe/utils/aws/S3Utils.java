@@ -2,27 +2,43 @@ package io.syndesis.qe.utils.aws;
 
 import static org.assertj.core.api.Assertions.fail;
 
+import io.syndesis.qe.TestConfiguration;
 import io.syndesis.qe.account.Account;
 import io.syndesis.qe.account.AccountsDirectory;
+import io.syndesis.qe.utils.payload.ContentDigest;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PreDestroy;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -31,15 +47,24 @@ import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.core.sync.ResponseTransformer;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 import software.amazon.awssdk.utils.builder.SdkBuilder;
 
 /**
  * Aws S3 utils.
  *
+ * The objects are listed page by page (optionally limited by the key prefix), deleted in batches of up to 1000 keys and uploaded using
+ * parallel multipart uploads. When the AWS account contains the "endpoint" property, the client is pointed to that endpoint with
+ * path-style access, so a local S3-compatible server can be used instead of AWS.
+ *
  * Jan 3, 2018 Red Hat
  *
  * @author tplevko@redhat.com
@@ -48,17 +73,38 @@ import software.amazon.awssdk.utils.builder.SdkBuilder;
 @Lazy
 @Component
 public class S3Utils {
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
     private final S3Client s3client;
+    private final int partSize;
+    private final int concurrency;
+    private ExecutorService executor;
     // holder for buckets created by this instance
     @Getter
     private Set<String> bucketsCreated = new HashSet<>();
 
     public S3Utils() {
-        Account s3Account = AccountsDirectory.getInstance().get(Account.Name.AWS);
-        s3client = S3Client.builder()
+        this(createClient(AccountsDirectory.getInstance().get(Account.Name.AWS)));
+    }
+
+    /**
+     * @param s3client client, e.g. connected to a local S3-compatible server
+     */
+    public S3Utils(S3Client s3client) {
+        this.s3client = s3client;
+        this.partSize = Math.max(MIN_PART_SIZE, TestConfiguration.s3PartSizeMb() * 1024 * 1024);
+        this.concurrency = Math.max(1, TestConfiguration.s3Concurrency());
+    }
+
+    private static S3Client createClient(Account s3Account) {
+        S3ClientBuilder builder = S3Client.builder()
             .region(Region.of(s3Account.getProperty("region")))
-            .credentialsProvider(() -> AwsBasicCredentials.create(s3Account.getProperty("accessKey"), s3Account.getProperty("secretKey")))
-            .build();
+            .credentialsProvider(() -> AwsBasicCredentials.create(s3Account.getProperty("accessKey"), s3Account.getProperty("secretKey")));
+        if (s3Account.getProperty("endpoint") != null) {
+            builder.endpointOverride(URI.create(s3Account.getProperty("endpoint")))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+        }
+        return builder.build();
     }
 
     public void forceCreateS3Bucket(String bucketName) {
@@ -89,20 +135,72 @@ public class S3Utils {
     }
 
     public void deleteS3Bucket(String bucketName) {
-        ListObjectsV2Request listObjectsV2Request = ListObjectsV2Request.builder().bucket(bucketName).build();
-        ListObjectsV2Response listObjectsV2Response;
+        deleteObjects(bucketName, null);
+        s3client.deleteBucket(b -> b.bucket(bucketName));
+    }
+
+    /**
+     * Lists all objects with the given key prefix, follows the continuation tokens.
+     *
+     * @param bucketName bucket name
+     * @param prefix key prefix, null lists the whole bucket
+     * @return objects
+     */
+    public List<S3Object> listObjects(String bucketName, String prefix) {
+        return s3client.listObjectsV2Paginator(b -> b.bucket(bucketName).prefix(prefix)).contents().stream().collect(Collectors.toList());
+    }
 
-        do {
-            listObjectsV2Response = s3client.listObjectsV2(listObjectsV2Request);
-            for (S3Object s3Object : listObjectsV2Response.contents()) {
-                s3client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(s3Object.key()).build());
+    /**
+     * Deletes all objects with the given key prefix. Every listed page (up to 1000 keys) is deleted by one DeleteObjects request, the
+     * requests run in parallel with the listing of the next pages.
+     *
+     * @param bucketName bucket name
+     * @param prefix key prefix, null deletes all objects
+     * @return number of deleted objects
+     */
+    public int deleteObjects(String bucketName, String prefix) {
+        List<Future<DeleteObjectsResponse>> batches = new ArrayList<>();
+        int count = 0;
+        for (ListObjectsV2Response page : s3client.listObjectsV2Paginator(b -> b.bucket(bucketName).prefix(prefix))) {
+            if (page.contents().isEmpty()) {
+                continue;
             }
+            List<ObjectIdentifier> keys = page.contents().stream()
+                .map(o -> ObjectIdentifier.builder().key(o.key()).build())
+                .collect(Collectors.toList());
+            count += keys.size();
+            batches.add(executor().submit(() -> s3client.deleteObjects(b -> b.bucket(bucketName).delete(d -> d.objects(keys).quiet(true)))));
+        }
+        List<String> errors = new ArrayList<>();
+        for (Future<DeleteObjectsResponse> batch : batches) {
+            get(batch).errors().forEach(e -> errors.add(e.key() + ": " + e.message()));
+        }
+        if (!errors.isEmpty()) {
+            fail("Unable to delete objects from bucket " + bucketName + ": " + errors);
+        }
+        log.debug("Deleted {} objects from bucket {}", count, bucketName);
+        return count;
+    }
 
-            listObjectsV2Request = ListObjectsV2Request.builder().bucket(bucketName)
-                .continuationToken(listObjectsV2Response.nextContinuationToken())
-                .build();
-        } while (listObjectsV2Response.isTruncated());
-        s3client.deleteBucket(b -> b.bucket(bucketName));
+    /**
+     * Checks if the object exists using HeadObject request, the bucket is not listed.
+     *
+     * @param bucketName bucket name
+     * @param key object key
+     * @return true if the object exists
+     */
+    public boolean doesObjectExist(String bucketName, String key) {
+        try {
+            s3client.headObject(b -> b.bucket(bucketName).key(key));
+            return true;
+        } catch (NoSuchKeyException ex) {
+            return false;
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return false;
+            }
+            throw ex;
+        }
     }
 
     /**
@@ -113,16 +211,7 @@ public class S3Utils {
      * @param text file content
      */
     public void createTextFile(String bucketName, String fileName, String text) {
-        try {
-            final File temp = File.createTempFile(fileName, "");
-            temp.deleteOnExit();
-            final BufferedWriter bw = new BufferedWriter(new FileWriter(temp));
-            bw.write(text);
-            bw.close();
-            s3client.putObject(b -> b.bucket(bucketName).key(fileName), RequestBody.fromFile(temp));
-        } catch (IOException ex) {
-            log.error("Error with tmp file: " + ex);
-        }
+        s3client.putObject(b -> b.bucket(bucketName).key(fileName), RequestBody.fromBytes(text.getBytes(StandardCharsets.UTF_8)));
     }
 
     /**
@@ -133,7 +222,7 @@ public class S3Utils {
      * @return true/false
      */
     public boolean checkFileExistsInBucket(String bucketName, String fileName) {
-        return s3client.listObjectsV2(b -> b.bucket(bucketName)).contents().stream().anyMatch(o -> fileName.equals(o.key()));
+        return doesObjectExist(bucketName, fileName);
     }
 
     /**
@@ -161,13 +250,148 @@ public class S3Utils {
         }
     }
 
+    /**
+     * Uploads the stream of unknown length. Content smaller than one part is uploaded by a single PutObject request, larger content by a
+     * multipart upload with up to {@link TestConfiguration#s3Concurrency()} parts of {@link TestConfiguration#s3PartSizeMb()} MB uploaded
+     * in parallel (this also limits the memory used for the buffered parts).
+     *
+     * @param bucketName bucket name
+     * @param fileName file name
+     * @param content file content, the stream is closed after the upload
+     */
+    public void uploadMultipart(String bucketName, String fileName, InputStream content) {
+        final long start = System.nanoTime();
+        long size = 0;
+        String uploadId = null;
+        try (InputStream is = content) {
+            byte[] part = readPart(is);
+            if (part.length < partSize) {
+                s3client.putObject(b -> b.bucket(bucketName).key(fileName), RequestBody.fromBytes(part));
+                size = part.length;
+            } else {
+                uploadId = s3client.createMultipartUpload(b -> b.bucket(bucketName).key(fileName)).uploadId();
+                final String id = uploadId;
+                final Semaphore inFlight = new Semaphore(concurrency);
+                List<Future<CompletedPart>> parts = new ArrayList<>();
+                byte[] data = part;
+                while (data.length > 0) {
+                    inFlight.acquire();
+                    final byte[] partData = data;
+                    final int partNumber = parts.size() + 1;
+                    size += partData.length;
+                    parts.add(executor().submit(() -> {
+                        try {
+                            String eTag = s3client.uploadPart(b -> b.bucket(bucketName).key(fileName).uploadId(id).partNumber(partNumber)
+                                .contentLength((long) partData.length), RequestBody.fromBytes(partData)).eTag();
+                            return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                    data = readPart(is);
+                }
+                List<CompletedPart> completed = new ArrayList<>();
+                for (Future<CompletedPart> p : parts) {
+                    completed.add(get(p));
+                }
+                s3client.completeMultipartUpload(b -> b.bucket(bucketName).key(fileName).uploadId(id)
+                    .multipartUpload(m -> m.parts(completed)));
+            }
+        } catch (IOException | RuntimeException ex) {
+            abort(bucketName, fileName, uploadId);
+            fail("Error uploading file to s3: " + ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abort(bucketName, fileName, uploadId);
+            fail("Interrupted while uploading file to s3");
+        }
+        final long elapsed = System.nanoTime() - start;
+        log.info("Uploaded {} bytes to s3://{}/{} in {} ms ({} MB/s)", size, bucketName, fileName, TimeUnit.NANOSECONDS.toMillis(elapsed),
+            String.format("%.2f", elapsed == 0 ? 0D : size / 1024D / 1024D / (elapsed / 1e9)));
+    }
+
+    /**
+     * Unpacks the zip file while streaming it from the bucket, neither the zip file nor its entries are stored in a temporary file.
+     *
+     * @param bucketName bucket name
+     * @param fileName zip file name
+     * @param directory target directory
+     * @return number of bytes downloaded
+     */
+    public long unzip(String bucketName, String fileName, Path directory) {
+        final long start = System.nanoTime();
+        final Path root = directory.toAbsolutePath().normalize();
+        long size = 0;
+        try (CountingInputStream is = new CountingInputStream(getObjectInputStream(bucketName, fileName));
+            ZipInputStream zip = new ZipInputStream(is)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                final Path target = root.resolve(entry.getName()).normalize();
+                if (!target.startsWith(root)) {
+                    fail("Zip entry " + entry.getName() + " is outside of the target directory");
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.copy(zip, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            size = is.getByteCount();
+        } catch (IOException ex) {
+            fail("Error unpacking file from s3: " + ex);
+        }
+        final long elapsed = System.nanoTime() - start;
+        log.info("Downloaded and unpacked {} bytes from s3://{}/{} in {} ms ({} MB/s)", size, bucketName, fileName,
+            TimeUnit.NANOSECONDS.toMillis(elapsed), String.format("%.2f", elapsed == 0 ? 0D : size / 1024D / 1024D / (elapsed / 1e9)));
+        return size;
+    }
+
+    /**
+     * @param bucketName bucket name
+     * @return the most recently modified object in the bucket
+     */
+    public Optional<S3Object> getLatestObject(String bucketName) {
+        return s3client.listObjectsV2Paginator(b -> b.bucket(bucketName)).contents().stream()
+            .max(Comparator.comparing(S3Object::lastModified));
+    }
+
+    /**
+     * Computes the digest of the file while streaming it from the bucket.
+     *
+     * @param bucketName bucket name
+     * @param fileName file name
+     * @return digest of the file content or null if the file does not exist
+     */
+    public ContentDigest digestFile(String bucketName, String fileName) {
+        try (InputStream is = getObjectInputStream(bucketName, fileName)) {
+            return ContentDigest.of(is);
+        } catch (NoSuchKeyException ex) {
+            return null;
+        } catch (IOException ex) {
+            fail("Error reading file from s3: " + ex);
+        }
+        return null;
+    }
+
     private InputStream getObjectInputStream(String bucketName, String fileName) {
         return s3client.getObject(b -> b.bucket(bucketName).key(fileName), ResponseTransformer.toInputStream());
     }
 
+    /**
+     * Returns the key of the first object starting with the prefix. When there is no such object, the first object containing the prefix
+     * is returned.
+     *
+     * @param bucketName bucket name
+     * @param prefix prefix
+     * @return object key
+     */
     public String getFileNameWithPrefix(String bucketName, String prefix) {
-        Optional<S3Object> s3Object = s3client.listObjectsV2(b -> b.bucket(bucketName)).contents()
-            .stream().filter(o -> o.key().contains(prefix)).findFirst();
+        Optional<S3Object> s3Object = s3client.listObjectsV2Paginator(b -> b.bucket(bucketName).prefix(prefix)).contents().stream().findFirst();
+        if (!s3Object.isPresent()) {
+            s3Object = s3client.listObjectsV2Paginator(b -> b.bucket(bucketName)).contents()
+                .stream().filter(o -> o.key().contains(prefix)).findFirst();
+        }
         if (!s3Object.isPresent()) {
             fail("Unable to find file with " + prefix + " prefix");
         }
@@ -175,20 +399,87 @@ public class S3Utils {
     }
 
     public int getFileCount(String bucketName) {
-        return s3client.listObjectsV2(b -> b.bucket(bucketName)).contents().size();
+        return getFileCount(bucketName, null);
+    }
+
+    public int getFileCount(String bucketName, String prefix) {
+        int count = 0;
+        for (ListObjectsV2Response page : s3client.listObjectsV2Paginator(b -> b.bucket(bucketName).prefix(prefix))) {
+            count += page.keyCount() != null ? page.keyCount() : page.contents().size();
+        }
+        return count;
     }
 
     public void cleanS3Bucket(String bucketName) {
-        s3client.listObjectsV2(b -> b.bucket(bucketName)).contents().forEach(c -> s3client.deleteObject(b -> b.bucket(bucketName).key(c.key())));
+        deleteObjects(bucketName, null);
     }
 
     /**
      * Method to delete all the buckets created by this instance of S3Utils.
      */
-    @PreDestroy
     public void deleteAllBuckets() {
         for (String bucketName : bucketsCreated) {
             deleteS3Bucket(bucketName);
         }
     }
+
+    /**
+     * Deletes the created buckets and shuts down the executor used for the parallel uploads and deletes.
+     */
+    @PreDestroy
+    public void close() {
+        try {
+            deleteAllBuckets();
+        } finally {
+            synchronized (this) {
+                if (executor != null) {
+                    executor.shutdownNow();
+                    executor = null;
+                }
+            }
+        }
+    }
+
+    private byte[] readPart(InputStream is) throws IOException {
+        byte[] buffer = new byte[partSize];
+        final int read = IOUtils.read(is, buffer);
+        return read == partSize ? buffer : Arrays.copyOf(buffer, read);
+    }
+
+    private void abort(String bucketName, String fileName, String uploadId) {
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            s3client.abortMultipartUpload(b -> b.bucket(bucketName).key(fileName).uploadId(uploadId));
+        } catch (RuntimeException ex) {
+            log.warn("Unable to abort multipart upload of {}: {}", fileName, ex.getMessage());
+        }
+    }
+
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for S3 request", ex);
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            final AtomicInteger threads = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(concurrency, r -> {
+                Thread t = new Thread(r, "s3-utils-" + threads.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
 }
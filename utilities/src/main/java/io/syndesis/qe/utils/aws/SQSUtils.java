@@ -1,5 +1,6 @@
 package io.syndesis.qe.utils.aws;
 
+import io.syndesis.qe.TestConfiguration;
 import io.syndesis.qe.account.Account;
 import io.syndesis.qe.account.AccountsDirectory;
 import io.syndesis.qe.utils.TestUtils;
@@ -14,7 +15,9 @@ import javax.annotation.PreDestroy;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
@@ -33,7 +36,15 @@ public class SQSUtils {
     private static String queueUrlPrefix;
     private static String queueArnPrefix;
 
+    // Short long-poll wait for the draining receiver, it is closed as soon as the queue is empty and close() waits for the running polls
+    private static final int SHORT_POLL_SECONDS = 1;
+    private static final long RECEIVE_TIMEOUT_MS = 60000L;
+    private static final long DRAIN_TIMEOUT_MS = 120000L;
+    // Purging a queue "may take up to 60 seconds"
+    private static final int PURGE_TIMEOUT_SECONDS = 60;
+
     private SqsClient client;
+    private final Map<String, Double> receiveRates = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void initClient() {
@@ -106,23 +117,38 @@ public class SQSUtils {
 
     /**
      * Returns all messages. You can get maximum of 10 messages per poll and even then the count of messages returned
-     * seems somewhat random, so repeat until all messages are received
+     * seems somewhat random, so the messages are received by concurrent consumers until all messages are received. The consumers never ask
+     * for more messages than are still missing, so no message is hidden needlessly, and they long-poll for
+     * {@link SqsReceiver#LONG_POLL_SECONDS}. The messages are not deleted, they become visible again after the visibility timeout.
      *
      * @return messages list
      */
     public List<Message> getMessages(String queueName) {
         final int queueSize = getQueueSize(queueName);
-        List<Message> allMessages = new ArrayList<>();
-
-        while (queueSize != allMessages.size()) {
-            allMessages.addAll(client.receiveMessage(
-                b -> b.queueUrl(getQueueUrl(queueName))
-                    .maxNumberOfMessages(10).attributeNames(QueueAttributeName.ALL)
-                    .build()).messages()
-            );
+        if (queueSize == 0) {
+            return new ArrayList<>();
+        }
+        final int consumers = Math.max(1, Math.min(TestConfiguration.sqsConsumers(), (queueSize + 9) / 10));
+        try (SqsReceiver receiver = new SqsReceiver(client, getQueueUrl(queueName), consumers, queueSize, SqsReceiver.LONG_POLL_SECONDS, false,
+            queueSize)) {
+            List<Message> messages = receiver.take(queueSize, RECEIVE_TIMEOUT_MS);
+            if (messages.size() < queueSize) {
+                log.warn("Received only {} of {} messages from {}", messages.size(), queueSize, queueName);
+            }
+            receiveRates.put(queueName, receiver.getReceiveRate());
+            log.info("Received messages from {}: {}", queueName, receiver);
+            return messages;
         }
+    }
 
-        return allMessages;
+    /**
+     * Returns the receive rate of the last {@link #getMessages(String)} call for the queue.
+     *
+     * @param queueName queue name
+     * @return messages per second, 0 if no message was received from the queue yet
+     */
+    public double getReceiveRate(String queueName) {
+        return receiveRates.getOrDefault(queueName, 0D);
     }
 
     /**
@@ -131,15 +157,21 @@ public class SQSUtils {
      * @return queue size
      */
     public int getQueueSize(String queueName) {
+        return getQueueAttribute(queueName, QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES);
+    }
+
+    private int getQueueAttribute(String queueName, QueueAttributeName attribute) {
         return Integer.parseInt(
             client.getQueueAttributes(b -> b.queueUrl(getQueueUrl(queueName))
-                .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
-                .build()).attributes().get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
+                .attributeNames(attribute)
+                .build()).attributes().get(attribute)
         );
     }
 
     /**
-     * Removes all messages from the queue.
+     * Removes all messages from the queue. The visible messages are received and deleted in batches until the approximate number of
+     * messages is 0. Only when there are messages in flight (received by someone else), the queue is purged by PurgeQueue and the method
+     * waits until the queue is empty, at most {@value #PURGE_TIMEOUT_SECONDS} seconds.
      *
      * @param queueNames queue names
      */
@@ -147,15 +179,47 @@ public class SQSUtils {
         for (String queueName : queueNames) {
             log.debug("Purging queue " + queueName);
             try {
-                client.purgeQueue(b -> b.queueUrl(getQueueUrl(queueName)).build());
+                drain(queueName);
+                if (getQueueAttribute(queueName, QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE) > 0) {
+                    client.purgeQueue(b -> b.queueUrl(getQueueUrl(queueName)).build());
+                    if (!TestUtils.waitForNoFail(() -> isEmpty(queueName), 1, PURGE_TIMEOUT_SECONDS)) {
+                        log.warn("Queue {} still has messages {} seconds after the purge", queueName, PURGE_TIMEOUT_SECONDS);
+                    }
+                }
             } catch (QueueDoesNotExistException e) {
                 // ignore
             } catch (PurgeQueueInProgressException ex) {
-                // If for some reason some other purge queue is in progress, wait and retry
-                log.debug("Purging " + queueName + " threw PurgeQueueInProgressException, waiting and retrying");
-                TestUtils.sleepIgnoreInterrupt(90000L);
-                client.purgeQueue(b -> b.queueUrl(getQueueUrl(queueName)).build());
+                // the previous purge removes the in-flight messages as well
+                log.debug("Purging " + queueName + " threw PurgeQueueInProgressException, the queue is already being purged");
             }
         }
     }
+
+    private boolean isEmpty(String queueName) {
+        return getQueueSize(queueName) == 0 && getQueueAttribute(queueName, QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE) == 0;
+    }
+
+    /**
+     * Receives and deletes the messages until the approximate number of the messages in the queue is 0.
+     *
+     * @param queueName queue name
+     * @return number of deleted messages
+     */
+    public long drain(String queueName) {
+        final long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        SqsReceiver receiver = new SqsReceiver(client, getQueueUrl(queueName), TestConfiguration.sqsConsumers(), 10, SHORT_POLL_SECONDS, true);
+        int remaining;
+        try {
+            while ((remaining = getQueueSize(queueName)) > 0 && System.currentTimeMillis() < deadline) {
+                TestUtils.sleepIgnoreInterrupt(500L);
+            }
+        } finally {
+            receiver.close();
+        }
+        if (remaining > 0) {
+            log.warn("Queue {} was not drained in {} ms, {} messages are left", queueName, DRAIN_TIMEOUT_MS, remaining);
+        }
+        log.debug("Drained queue {}: {}", queueName, receiver);
+        return receiver.getDeleted();
+    }
 }
@@ -0,0 +1,277 @@
+package io.syndesis.qe.utils.aws;
+
+import io.syndesis.qe.utils.TestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.QueueDoesNotExistException;
+
+/**
+ * Receives messages from one SQS queue using concurrent long-polling consumers.
+ *
+ * Every consumer repeatedly receives up to 10 messages and puts them into a bounded buffer, so the consumers slow down when the messages
+ * are not taken from the buffer. The acknowledged messages are deleted in batches of 10. When the receiver is closed, it waits until the
+ * running receive requests finish, so no message is received (and hidden) after {@link #close()} returns.
+ */
+@Slf4j
+public class SqsReceiver implements AutoCloseable {
+    public static final int LONG_POLL_SECONDS = 20;
+    private static final int MAX_MESSAGES = 10;
+
+    private final SqsClient client;
+    private final String queueUrl;
+    private final int waitTimeSeconds;
+    private final boolean autoAcknowledge;
+    private final BlockingQueue<Message> buffer;
+    private final Queue<DeleteMessageBatchRequestEntry> acknowledged = new ConcurrentLinkedQueue<>();
+    private final ExecutorService consumers;
+    private final LongAdder received = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final AtomicLong entryIds = new AtomicLong();
+    // messages that may still be requested, the running requests have their maximum subtracted already
+    private final AtomicLong unrequested;
+    private final long started = System.nanoTime();
+    private volatile boolean running = true;
+
+    /**
+     * @param client SQS client
+     * @param queueUrl queue URL
+     * @param consumerCount number of concurrent consumers
+     * @param capacity capacity of the buffer of received messages
+     * @param waitTimeSeconds long-poll wait time (max {@link #LONG_POLL_SECONDS}), shorter wait makes {@link #close()} faster
+     * @param autoAcknowledge delete the messages as soon as they are received
+     */
+    public SqsReceiver(SqsClient client, String queueUrl, int consumerCount, int capacity, int waitTimeSeconds, boolean autoAcknowledge) {
+        this(client, queueUrl, consumerCount, capacity, waitTimeSeconds, autoAcknowledge, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param client SQS client
+     * @param queueUrl queue URL
+     * @param consumerCount number of concurrent consumers
+     * @param capacity capacity of the buffer of received messages
+     * @param waitTimeSeconds long-poll wait time (max {@link #LONG_POLL_SECONDS}), shorter wait makes {@link #close()} faster
+     * @param autoAcknowledge delete the messages as soon as they are received
+     * @param limit maximum number of messages to receive, the receive requests ask only for the messages that are still needed
+     */
+    public SqsReceiver(SqsClient client, String queueUrl, int consumerCount, int capacity, int waitTimeSeconds, boolean autoAcknowledge,
+        long limit) {
+        this.client = client;
+        this.unrequested = new AtomicLong(limit);
+        this.queueUrl = queueUrl;
+        this.waitTimeSeconds = Math.min(waitTimeSeconds, LONG_POLL_SECONDS);
+        this.autoAcknowledge = autoAcknowledge;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(capacity, MAX_MESSAGES));
+        final int count = Math.max(1, consumerCount);
+        final AtomicInteger threads = new AtomicInteger();
+        this.consumers = Executors.newFixedThreadPool(count, r -> {
+            Thread t = new Thread(r, "sqs-receiver-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < count; i++) {
+            consumers.submit(this::consume);
+        }
+    }
+
+    /**
+     * Takes the next received message.
+     *
+     * @param timeout maximum time to wait
+     * @param unit time unit
+     * @return message or null if no message was received in time
+     */
+    public Message poll(long timeout, TimeUnit unit) {
+        try {
+            return buffer.poll(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Takes the given number of messages.
+     *
+     * @param count number of messages
+     * @param timeoutMillis maximum time to wait
+     * @return received messages, less than count when the messages were not received in time
+     */
+    public List<Message> take(int count, long timeoutMillis) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        List<Message> messages = new ArrayList<>(count);
+        while (messages.size() < count) {
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            Message m = poll(remaining, TimeUnit.MILLISECONDS);
+            if (m != null) {
+                messages.add(m);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Marks the message as processed, the message is deleted with the next full batch or on {@link #flush()}.
+     *
+     * @param message message
+     */
+    public void acknowledge(Message message) {
+        // the entry ids must be unique within the batch, the same message may be received twice
+        acknowledged.add(DeleteMessageBatchRequestEntry.builder().id("m" + entryIds.incrementAndGet()).receiptHandle(message.receiptHandle())
+            .build());
+        if (acknowledged.size() >= MAX_MESSAGES) {
+            deleteBatch(false);
+        }
+    }
+
+    /**
+     * Deletes all acknowledged messages.
+     */
+    public void flush() {
+        while (!acknowledged.isEmpty()) {
+            deleteBatch(true);
+        }
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getDeleted() {
+        return deleted.sum();
+    }
+
+    /**
+     * @return average number of received messages per second since the receiver was started
+     */
+    public double getReceiveRate() {
+        final long elapsed = System.nanoTime() - started;
+        return elapsed == 0 ? 0D : received.sum() * 1e9 / elapsed;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        consumers.shutdown();
+        try {
+            if (!consumers.awaitTermination(waitTimeSeconds + 10L, TimeUnit.SECONDS)) {
+                log.warn("SQS consumers of {} did not finish in time", queueUrl);
+                consumers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            consumers.shutdownNow();
+        }
+        flush();
+        log.debug("SQS receiver of {} closed: {}", queueUrl, this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("received=%d, deleted=%d, rate=%.1f msg/s", getReceived(), getDeleted(), getReceiveRate());
+    }
+
+    private void consume() {
+        while (running) {
+            final int max = reserve();
+            if (max == 0) {
+                // the other consumers may still receive less than they asked for and return the rest
+                TestUtils.sleepIgnoreInterrupt(100L);
+                continue;
+            }
+            List<Message> messages;
+            try {
+                messages = client.receiveMessage(b -> b.queueUrl(queueUrl)
+                    .maxNumberOfMessages(max)
+                    .waitTimeSeconds(waitTimeSeconds)
+                    .attributeNames(QueueAttributeName.ALL)).messages();
+            } catch (QueueDoesNotExistException e) {
+                unrequested.addAndGet(max);
+                log.debug("Queue {} does not exist", queueUrl);
+                return;
+            } catch (RuntimeException e) {
+                unrequested.addAndGet(max);
+                log.warn("Unable to receive SQS messages from {}: {}", queueUrl, e.getMessage());
+                TestUtils.sleepIgnoreInterrupt(1000L);
+                continue;
+            }
+            unrequested.addAndGet(max - messages.size());
+            received.add(messages.size());
+            for (Message m : messages) {
+                if (autoAcknowledge) {
+                    acknowledge(m);
+                } else {
+                    offer(m);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of messages the next receive request may ask for, 0 if no message is needed now
+     */
+    private int reserve() {
+        while (true) {
+            final long current = unrequested.get();
+            if (current <= 0) {
+                return 0;
+            }
+            final int max = (int) Math.min(MAX_MESSAGES, current);
+            if (unrequested.compareAndSet(current, current - max)) {
+                return max;
+            }
+        }
+    }
+
+    private void offer(Message message) {
+        try {
+            while (!buffer.offer(message, 1, TimeUnit.SECONDS)) {
+                if (!running) {
+                    // nobody takes the messages anymore, the message becomes visible again after the visibility timeout
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deleteBatch(boolean partial) {
+        List<DeleteMessageBatchRequestEntry> batch = new ArrayList<>(MAX_MESSAGES);
+        synchronized (acknowledged) {
+            if (acknowledged.size() < MAX_MESSAGES && !partial) {
+                return;
+            }
+            DeleteMessageBatchRequestEntry entry;
+            while (batch.size() < MAX_MESSAGES && (entry = acknowledged.poll()) != null) {
+                batch.add(entry);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        DeleteMessageBatchResponse response = client.deleteMessageBatch(b -> b.queueUrl(queueUrl).entries(batch));
+        deleted.add(response.successful().size());
+        response.failed().forEach(f -> log.warn("Unable to delete SQS message {}: {}", f.id(), f.message()));
+    }
+}
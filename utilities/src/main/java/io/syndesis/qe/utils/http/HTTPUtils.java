@@ -153,6 +153,17 @@ public final class HTTPUtils {
     }
 
     private static OkHttpClient getClient() {
+        return createClient(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a client that trusts all certificates.
+     *
+     * @param timeout connect, read and write timeout
+     * @param unit timeout unit
+     * @return client
+     */
+    public static OkHttpClient createClient(long timeout, TimeUnit unit) {
         // Create a trust manager that does not validate certificate chains
         final TrustManager[] trustAllCerts = new TrustManager[] {
             new X509TrustManager() {
@@ -181,9 +192,9 @@ public final class HTTPUtils {
             builder.sslSocketFactory(sslSocketFactory, (X509TrustManager) trustAllCerts[0]);
             builder.hostnameVerifier((hostname, session) -> true);
             return builder
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
+                .connectTimeout(timeout, unit)
+                .writeTimeout(timeout, unit)
+                .readTimeout(timeout, unit)
                 .build();
         } catch (NoSuchAlgorithmException | KeyManagementException e) {
             fail("Error while creating Http client", e);
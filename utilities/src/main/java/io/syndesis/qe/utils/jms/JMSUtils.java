@@ -32,6 +32,23 @@ public final class JMSUtils {
         sendMessage(JMS_APP_NAME, PROTOCOL, JMS_USER, JMS_PASS, type, name, content);
     }
 
+    /**
+     * Sends the messages through one port-forward, the content of each message is suffixed with its sequence number.
+     *
+     * @param type destination type
+     * @param name destination name
+     * @param content content of the messages
+     * @param count number of messages
+     */
+    public static void sendMessages(Destination type, String name, String content, int count) {
+        JmsClientManager.sendMessage(JMS_APP_NAME, PROTOCOL, JMS_USER, JMS_PASS, client -> {
+            withDestination(client, type, name);
+            for (int i = 0; i < count; i++) {
+                client.sendMessage(content + "-" + i);
+            }
+        });
+    }
+
     public static Message getMessage(String appName, String jmsProtocol, String user, String pass, Destination type, String destinationName,
         long timeout) {
         return JmsClientManager.receiveMessage(appName, jmsProtocol, user, pass, client ->
@@ -64,6 +81,18 @@ public final class JMSUtils {
         if (m == null) {
             return null;
         }
+        String text = getText(m);
+        log.debug("Got message: " + text);
+        return text;
+    }
+
+    /**
+     * Extracts the text of the text or bytes message.
+     *
+     * @param m message
+     * @return text or null if the text can't be read
+     */
+    public static String getText(Message m) {
         String text = null;
         try {
             if (m instanceof JmsTextMessage) {
@@ -77,11 +106,33 @@ public final class JMSUtils {
             log.error("Unable to get text from message", e);
             e.printStackTrace();
         }
-
-        log.debug("Got message: " + text);
         return text;
     }
 
+    /**
+     * Starts collecting the messages from the destination, the collector (and its port-forward) stays open until it is closed.
+     *
+     * @param type destination type
+     * @param name destination name
+     * @param selector message selector, may be null
+     * @param subscription durable subscription name for topics, null for non-durable consumer
+     * @param storeLimit maximum number of stored messages
+     * @return collector
+     */
+    public static JmsMessageCollector collect(Destination type, String name, String selector, String subscription, int storeLimit) {
+        JmsClientManager manager = new JmsClientManager(JMS_APP_NAME, PROTOCOL, JMS_USER, JMS_PASS);
+        try {
+            JmsClient client = withDestination(manager.getClient(), type, name);
+            if (subscription != null) {
+                client.durable().subscriptionName(subscription);
+            }
+            return client.createCollector(selector, storeLimit, manager::close);
+        } catch (RuntimeException e) {
+            manager.close();
+            throw e;
+        }
+    }
+
     public static void clear(Destination type, String name) {
         Message m = getMessage(PROTOCOL, type, name, 5000L);
         while (m != null) {
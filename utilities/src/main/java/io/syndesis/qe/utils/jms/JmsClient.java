@@ -45,6 +45,7 @@ public class JmsClient {
     private boolean isPersistant = false;
     private boolean isTransacted = false;
     private boolean isDurable;
+    private String subscriptionName;
     private boolean keepAlive = false;
     private long timeToLive = 0;
     private int retries = 10;
@@ -91,6 +92,18 @@ public class JmsClient {
         return this;
     }
 
+    /**
+     * Sets the name of the durable subscription created by {@link #createCollector(String, int)}, so that the subscription can be
+     * resumed by another collector.
+     *
+     * @param name subscription name, also used as the client id of the connection
+     * @return this
+     */
+    public JmsClient subscriptionName(String name) {
+        this.subscriptionName = name;
+        return this;
+    }
+
     public JmsClient setRetries(int setRetries) {
         this.retries = setRetries;
         return this;
@@ -277,6 +290,44 @@ public class JmsClient {
         return result;
     }
 
+    /**
+     * Creates the long-lived asynchronous consumer, the connection is open until the collector is closed.
+     *
+     * @param selector message selector, may be null
+     * @param storeLimit maximum number of stored messages
+     * @return collector
+     */
+    public JmsMessageCollector createCollector(String selector, int storeLimit) {
+        return createCollector(selector, storeLimit, () -> { });
+    }
+
+    JmsMessageCollector createCollector(String selector, int storeLimit, Runnable onClose) {
+        final boolean durableTopic = isDurable && !isQueue;
+        final String clientId = durableTopic ? (subscriptionName != null ? subscriptionName : "collector-" + UUID.randomUUID()) : null;
+        final Connection connection = startConnection(clientId);
+        if (connection == null) {
+            throw new IllegalStateException("Unable to start JMS connection for " + destinationName);
+        }
+        try {
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer consumer;
+            if (isQueue) {
+                consumer = session.createConsumer(session.createQueue(destinationName), selector);
+            } else if (durableTopic) {
+                consumer = session.createDurableSubscriber(session.createTopic(destinationName), clientId, selector, false);
+            } else {
+                consumer = session.createConsumer(session.createTopic(destinationName), selector);
+            }
+            return new JmsMessageCollector(destinationName, session, consumer, storeLimit, () -> {
+                safeCloseConnection(connection);
+                onClose.run();
+            });
+        } catch (JMSException e) {
+            safeCloseConnection(connection);
+            throw new IllegalStateException("Unable to create JMS collector for " + destinationName, e);
+        }
+    }
+
     public static String getTextMessage(Message message) {
         if (message instanceof TextMessage) {
             try {
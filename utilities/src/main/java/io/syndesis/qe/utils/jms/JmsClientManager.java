@@ -73,7 +73,7 @@ public class JmsClientManager {
         }
     }
 
-    private JmsClient getClient() {
+    JmsClient getClient() {
         if (jmsLocalPortForward == null || !jmsLocalPortForward.isAlive()) {
             Pod pod = OpenShiftUtils.getInstance().getAnyPod("app", jmsAppName);
             jmsLocalPortForward = OpenShiftUtils.portForward(pod, jmsPort, jmsPort);
@@ -81,7 +81,7 @@ public class JmsClientManager {
         return this.initClient();
     }
 
-    private void close() {
+    void close() {
         if (jmsClient != null) {
             jmsClient.disconnect();
             jmsClient = null;
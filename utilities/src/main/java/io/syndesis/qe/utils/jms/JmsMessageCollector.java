@@ -0,0 +1,183 @@
+package io.syndesis.qe.utils.jms;
+
+import io.syndesis.qe.utils.stats.Histogram;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Long-lived asynchronous consumer that counts the received messages.
+ *
+ * The messages are delivered to the {@link MessageListener} by the JMS provider, so the collector keeps up with the integration
+ * regardless of how often the test checks it. Only the first {@code storeLimit} messages are kept, the rest is only counted, so the
+ * memory stays bounded even for large runs. The collector records the inter-arrival time and the latency computed from the JMS timestamp.
+ * Use {@link JmsClient#createCollector(String, int)} to create it.
+ */
+@Slf4j
+public class JmsMessageCollector implements MessageListener, AutoCloseable {
+    private final String destination;
+    private final Session session;
+    private final MessageConsumer consumer;
+    private final Runnable onClose;
+    private final int storeLimit;
+    private final List<Message> stored = new ArrayList<>();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicLong received = new AtomicLong();
+    private final Histogram interArrival = new Histogram("us");
+    private final Histogram latency = new Histogram("ms");
+    private volatile long firstArrival;
+    private volatile long lastArrival;
+
+    JmsMessageCollector(String destination, Session session, MessageConsumer consumer, int storeLimit, Runnable onClose) throws JMSException {
+        this.destination = destination;
+        this.session = session;
+        this.consumer = consumer;
+        this.storeLimit = storeLimit;
+        this.onClose = onClose;
+        consumer.setMessageListener(this);
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        final long now = System.nanoTime();
+        // the messages of one session are delivered by a single thread
+        if (lastArrival == 0L) {
+            firstArrival = now;
+        } else {
+            interArrival.record(TimeUnit.NANOSECONDS.toMicros(now - lastArrival));
+        }
+        lastArrival = now;
+        try {
+            if (message.getJMSTimestamp() > 0) {
+                latency.record(System.currentTimeMillis() - message.getJMSTimestamp());
+            }
+        } catch (JMSException e) {
+            log.debug("Unable to read JMS timestamp", e);
+        }
+        synchronized (stored) {
+            if (stored.size() < storeLimit) {
+                stored.add(message);
+            }
+        }
+        final long count = received.incrementAndGet();
+        if (!waiters.isEmpty()) {
+            waiters.removeIf(w -> w.release(count));
+        }
+    }
+
+    /**
+     * Waits until given number of messages is received.
+     *
+     * @param count expected number of messages
+     * @param timeoutMillis maximum time to wait
+     * @return true if the messages were received in time
+     */
+    public boolean awaitMessages(long count, long timeoutMillis) {
+        Waiter waiter = new Waiter(count);
+        waiters.add(waiter);
+        // the message may have arrived before the waiter was registered
+        if (waiter.release(received.get())) {
+            waiters.remove(waiter);
+        }
+        try {
+            return waiter.latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiters.remove(waiter);
+        }
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * @return copy of the stored messages, at most storeLimit messages in the order of arrival
+     */
+    public List<Message> getMessages() {
+        synchronized (stored) {
+            return new ArrayList<>(stored);
+        }
+    }
+
+    /**
+     * @return texts of the stored messages
+     */
+    public List<String> getMessageTexts() {
+        return getMessages().stream().map(JMSUtils::getText).collect(Collectors.toList());
+    }
+
+    /**
+     * @return histogram of the time between two consecutive messages in microseconds
+     */
+    public Histogram getInterArrival() {
+        return interArrival;
+    }
+
+    /**
+     * @return histogram of the time between sending (JMS timestamp) and receiving the message in milliseconds
+     */
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return average number of messages per second between the first and the last message
+     */
+    public double getArrivalRate() {
+        final long elapsed = lastArrival - firstArrival;
+        return elapsed == 0 ? 0D : (received.get() - 1) * 1e9 / elapsed;
+    }
+
+    @Override
+    public void close() {
+        try {
+            consumer.close();
+            session.close();
+        } catch (JMSException e) {
+            log.debug("Error while closing JMS collector", e);
+        } finally {
+            onClose.run();
+        }
+        log.debug("JMS collector of {} closed: {}", destination, this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: received=%d, rate=%.1f msg/s, inter-arrival %s, latency %s", destination, getReceived(), getArrivalRate(),
+            interArrival.summary(), latency.summary());
+    }
+
+    private static final class Waiter {
+        private final long count;
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private Waiter(long count) {
+            this.count = count;
+        }
+
+        private boolean release(long received) {
+            if (received >= count) {
+                latch.countDown();
+                return true;
+            }
+            return false;
+        }
+    }
+}
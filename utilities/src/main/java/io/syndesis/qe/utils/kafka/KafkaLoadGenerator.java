@@ -0,0 +1,169 @@
+package io.syndesis.qe.utils.kafka;
+
+import io.syndesis.qe.TestConfiguration;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Produces keyed messages at a given rate.
+ *
+ * The producer is idempotent (acks=all), so a retried batch does not create duplicates in the topic and any duplicate seen by
+ * {@link KafkaOutputVerifier} was created by the integration. Linger, batch size and compression are taken from {@link TestConfiguration}.
+ * Every message contains the run id, the sequence number and the send timestamp, see {@link #payload(long, String)}.
+ */
+@Slf4j
+public class KafkaLoadGenerator implements AutoCloseable {
+    private final String runId;
+    private final KafkaProducer<String, String> producer;
+    // sequence numbers continue across the produce calls, so the verifier sees every message of the run only once
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public KafkaLoadGenerator(String bootstrapServers) {
+        this(bootstrapServers, new Properties());
+    }
+
+    /**
+     * @param bootstrapServers bootstrap servers
+     * @param overrides producer properties overriding the defaults
+     */
+    public KafkaLoadGenerator(String bootstrapServers, Properties overrides) {
+        this.runId = UUID.randomUUID().toString().substring(0, 8);
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.CLIENT_ID_CONFIG, "syndesis-kafka-load-" + runId);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, String.valueOf(TestConfiguration.kafkaProducerLingerMs()));
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(TestConfiguration.kafkaProducerBatchSize()));
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, TestConfiguration.kafkaProducerCompression());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.putAll(overrides);
+        this.producer = new KafkaProducer<>(props);
+    }
+
+    /**
+     * Produces given number of messages at the given rate and waits until all of them are acknowledged.
+     *
+     * The messages are distributed over the keys round-robin, so the messages with the same key end up in the same partition in the order
+     * of their sequence numbers. The sequence numbers continue where the previous call ended.
+     *
+     * @param topic topic
+     * @param count number of messages
+     * @param keys number of distinct keys
+     * @param ratePerSecond target rate, values &lt;= 0 produce as fast as the producer buffer allows
+     * @return producing statistics
+     */
+    public ProduceResult produce(String topic, int count, int keys, int ratePerSecond) {
+        final long failedBefore = failed.sum();
+        final long intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0L;
+        final long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            if (intervalNanos > 0) {
+                final long wait = start + i * intervalNanos - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            final long seq = sequence.getAndIncrement();
+            final String key = key(seq, keys);
+            producer.send(new ProducerRecord<>(topic, key, payload(seq, key)), (metadata, exception) -> {
+                if (exception == null) {
+                    sent.increment();
+                } else {
+                    log.warn("Unable to produce Kafka message: {}", exception.getMessage());
+                    failed.increment();
+                }
+            });
+        }
+        producer.flush();
+        ProduceResult result = new ProduceResult(count, failed.sum() - failedBefore, System.nanoTime() - start);
+        log.info("Produced to {} (run {}): {}", topic, runId, result);
+        return result;
+    }
+
+    /**
+     * Creates the payload that is understood by {@link KafkaOutputVerifier}.
+     *
+     * @param seq sequence number
+     * @param key message key
+     * @return JSON payload
+     */
+    public String payload(long seq, String key) {
+        return String.format("{\"runId\":\"%s\",\"seq\":%d,\"key\":\"%s\",\"sentAt\":%d}", runId, seq, key, System.currentTimeMillis());
+    }
+
+    public static String key(long seq, int keys) {
+        return "key-" + seq % Math.max(1, keys);
+    }
+
+    /**
+     * @return id that is embedded in every message produced by this generator
+     */
+    public String getRunId() {
+        return runId;
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public void close() {
+        producer.close();
+    }
+
+    /**
+     * Result of the produce run.
+     */
+    public static class ProduceResult {
+        private final long count;
+        private final long failed;
+        private final long elapsedNanos;
+
+        ProduceResult(long count, long failed, long elapsedNanos) {
+            this.count = count;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public double getMessagesPerSecond() {
+            return elapsedNanos == 0 ? 0D : count * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d messages (%d failed) in %d ms, %.1f msg/s", count, failed, getElapsedMillis(), getMessagesPerSecond());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package io.syndesis.qe.utils.kafka;
+
+import io.syndesis.qe.utils.stats.Histogram;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consumes the output topic of an integration and checks the messages produced by {@link KafkaLoadGenerator}.
+ *
+ * The verifier uses its own consumer group and reads the topic from the beginning, so it can be started before or after the messages were
+ * produced. Only the messages of the given run are counted, the latency is computed from the embedded send timestamp. The consumer runs
+ * in a background thread until the verifier is closed.
+ */
+@Slf4j
+public class KafkaOutputVerifier implements AutoCloseable {
+    private static final Pattern RUN_ID = Pattern.compile("\"runId\"\\s*:\\s*\"([^\"]*)\"");
+    private static final Pattern SEQ = Pattern.compile("\"seq\"\\s*:\\s*(\\d+)");
+    private static final Pattern SENT_AT = Pattern.compile("\"sentAt\"\\s*:\\s*(\\d+)");
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500L);
+
+    private final String topic;
+    private final String runId;
+    private final Consumer<String, String> consumer;
+    private final Thread poller;
+    private final BitSet seen = new BitSet();
+    private final Map<String, Long> lastSeqPerKey = new HashMap<>();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder outOfOrder = new LongAdder();
+    private final Histogram latency = new Histogram("ms");
+    private volatile boolean running = true;
+
+    /**
+     * @param bootstrapServers bootstrap servers
+     * @param topic output topic
+     * @param runId run id of the {@link KafkaLoadGenerator}, null to count all messages with a sequence number
+     */
+    public KafkaOutputVerifier(String bootstrapServers, String topic, String runId) {
+        this(createConsumer(bootstrapServers), topic, runId);
+    }
+
+    KafkaOutputVerifier(Consumer<String, String> consumer, String topic, String runId) {
+        this.topic = topic;
+        this.runId = runId;
+        this.consumer = consumer;
+        consumer.subscribe(Collections.singletonList(topic));
+        this.poller = new Thread(this::consume, "kafka-verifier-" + topic);
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    private static Consumer<String, String> createConsumer(String bootstrapServers) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "syndesis-kafka-verifier-" + UUID.randomUUID().toString().substring(0, 8));
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        // messages of aborted transactions must not be counted when verifying exactly-once delivery
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        return new KafkaConsumer<>(props);
+    }
+
+    /**
+     * Waits until given number of distinct messages is received.
+     *
+     * @param count expected number of messages
+     * @param timeoutMillis maximum time to wait
+     * @return true if the messages were received in time
+     */
+    public boolean awaitMessages(long count, long timeoutMillis) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (getDistinct() < count && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return getDistinct() >= count;
+    }
+
+    /**
+     * @return number of all received messages of the run, including duplicates
+     */
+    public long getReceived() {
+        return received.sum();
+    }
+
+    /**
+     * @return number of distinct sequence numbers received
+     */
+    public long getDistinct() {
+        synchronized (seen) {
+            return seen.cardinality();
+        }
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    /**
+     * @return number of messages that arrived after a message with a higher sequence number and the same key
+     */
+    public long getOutOfOrder() {
+        return outOfOrder.sum();
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the sequence numbers that were not received.
+     *
+     * @param expected number of produced messages
+     * @param limit maximum number of returned sequence numbers
+     * @return missing sequence numbers
+     */
+    public List<Long> getMissing(int expected, int limit) {
+        List<Long> missing = new ArrayList<>();
+        synchronized (seen) {
+            for (int i = seen.nextClearBit(0); i < expected && missing.size() < limit; i = seen.nextClearBit(i + 1)) {
+                missing.add((long) i);
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        consumer.wakeup();
+        try {
+            poller.join(10_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.debug("Kafka verifier of {} closed: {}", topic, this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: received=%d, distinct=%d, duplicates=%d, outOfOrder=%d, latency %s", topic, getReceived(), getDistinct(),
+            getDuplicates(), getOutOfOrder(), latency.summary());
+    }
+
+    private void consume() {
+        try {
+            while (running) {
+                for (ConsumerRecord<String, String> record : consumer.poll(POLL_TIMEOUT)) {
+                    process(record);
+                }
+            }
+        } catch (WakeupException e) {
+            // closed
+        } catch (RuntimeException e) {
+            log.error("Kafka verifier of {} failed", topic, e);
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void process(ConsumerRecord<String, String> record) {
+        final long now = System.currentTimeMillis();
+        final String payload = record.value();
+        if (payload == null) {
+            return;
+        }
+        if (runId != null) {
+            Matcher id = RUN_ID.matcher(payload);
+            if (!id.find() || !runId.equals(id.group(1))) {
+                return;
+            }
+        }
+        Matcher seq = SEQ.matcher(payload);
+        if (!seq.find()) {
+            return;
+        }
+        final int current = Integer.parseInt(seq.group(1));
+        received.increment();
+        Matcher sentAt = SENT_AT.matcher(payload);
+        if (sentAt.find()) {
+            latency.record(now - Long.parseLong(sentAt.group(1)));
+        }
+        synchronized (seen) {
+            if (seen.get(current)) {
+                duplicates.increment();
+            } else {
+                seen.set(current);
+            }
+        }
+        if (record.key() != null) {
+            Long last = lastSeqPerKey.put(record.key(), (long) current);
+            if (last != null && last > current) {
+                outOfOrder.increment();
+            }
+        }
+    }
+}
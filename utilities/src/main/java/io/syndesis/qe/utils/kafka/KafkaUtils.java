@@ -0,0 +1,180 @@
+package io.syndesis.qe.utils.kafka;
+
+import static org.assertj.core.api.Assertions.fail;
+
+import io.syndesis.qe.utils.OpenShiftUtils;
+import io.syndesis.qe.utils.TestUtils;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TopicExistsException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.LocalPortForward;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Kafka client side of the tests: load generator, output verifier and consumer group lag.
+ *
+ * The default constructor connects to the broker deployed by {@link io.syndesis.qe.resource.impl.Kafka} through a port-forward to its
+ * "portforward" listener that advertises localhost. The listener is added only by the "deploy Kafka broker reachable from the test suite"
+ * step. The other constructor can be used with any broker.
+ */
+@Slf4j
+public class KafkaUtils implements AutoCloseable {
+    public static final int PORT_FORWARD_PORT = 9094;
+    private static final long TIMEOUT_SECONDS = 30L;
+
+    private static LocalPortForward portForward;
+
+    private final String bootstrapServers;
+    private AdminClient admin;
+
+    public KafkaUtils() {
+        this(ensurePortForward());
+    }
+
+    /**
+     * @param bootstrapServers bootstrap servers
+     */
+    public KafkaUtils(String bootstrapServers) {
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    public KafkaLoadGenerator loadGenerator() {
+        return new KafkaLoadGenerator(bootstrapServers);
+    }
+
+    /**
+     * Starts consuming the topic.
+     *
+     * @param topic topic
+     * @param runId run id of the {@link KafkaLoadGenerator} whose messages should be counted
+     * @return verifier
+     */
+    public KafkaOutputVerifier verifier(String topic, String runId) {
+        return new KafkaOutputVerifier(bootstrapServers, topic, runId);
+    }
+
+    /**
+     * Creates the topic if it doesn't exist yet.
+     *
+     * @param topic topic
+     * @param partitions number of partitions
+     */
+    public void createTopic(String topic, int partitions) {
+        try {
+            admin().createTopics(Collections.singletonList(new NewTopic(topic, partitions, (short) 1))).all()
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                fail("Unable to create Kafka topic " + topic, e.getCause());
+            }
+        } catch (InterruptedException | TimeoutException e) {
+            fail("Unable to create Kafka topic " + topic, e);
+        }
+    }
+
+    /**
+     * Computes the lag of the consumer group, i.e. the difference between the end offset and the committed offset, of every partition of
+     * the topic. A partition without committed offset has the lag equal to its end offset.
+     *
+     * @param group consumer group
+     * @param topic topic
+     * @return lag per partition
+     */
+    public Map<TopicPartition, Long> getConsumerGroupLag(String group, String topic) {
+        TopicDescription description = get(admin().describeTopics(Collections.singletonList(topic)).allTopicNames(), "describe topic " + topic)
+            .get(topic);
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        description.partitions().forEach(p -> latest.put(new TopicPartition(topic, p.partition()), OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = get(admin().listOffsets(latest).all(), "list offsets of " + topic);
+        Map<TopicPartition, OffsetAndMetadata> committed = get(admin().listConsumerGroupOffsets(group).partitionsToOffsetAndMetadata(),
+            "list offsets of consumer group " + group);
+        Map<TopicPartition, Long> lag = new HashMap<>();
+        ends.forEach((tp, end) -> {
+            OffsetAndMetadata offset = committed.get(tp);
+            lag.put(tp, Math.max(0L, end.offset() - (offset == null ? 0L : offset.offset())));
+        });
+        return lag;
+    }
+
+    public long getTotalConsumerGroupLag(String group, String topic) {
+        return getConsumerGroupLag(group, topic).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public String getBootstrapServers() {
+        return bootstrapServers;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (admin != null) {
+            admin.close();
+            admin = null;
+        }
+    }
+
+    /**
+     * Creates the port-forward to the Kafka broker if it's not alive.
+     *
+     * @return bootstrap servers reachable through the port-forward
+     */
+    public static synchronized String ensurePortForward() {
+        if (portForward == null || !portForward.isAlive()) {
+            Pod pod = OpenShiftUtils.getAnyPod("strimzi.io/name", "my-cluster-kafka")
+                .orElseThrow(() -> new IllegalStateException("Kafka broker pod is not present"));
+            log.info("Creating port-forward to Kafka broker {}", pod.getMetadata().getName());
+            portForward = OpenShiftUtils.portForward(pod, PORT_FORWARD_PORT, PORT_FORWARD_PORT);
+            TestUtils.sleepIgnoreInterrupt(2000L);
+        }
+        return "localhost:" + PORT_FORWARD_PORT;
+    }
+
+    public static synchronized void closePortForward() {
+        if (portForward != null && portForward.isAlive()) {
+            try {
+                portForward.close();
+            } catch (IOException e) {
+                log.error("Error while closing Kafka port forward.", e);
+            }
+        }
+        portForward = null;
+    }
+
+    private synchronized AdminClient admin() {
+        if (admin == null) {
+            Properties props = new Properties();
+            props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+            admin = AdminClient.create(props);
+        }
+        return admin;
+    }
+
+    private static <T> T get(KafkaFuture<T> future, String operation) {
+        try {
+            return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            fail("Unable to " + operation, e.getCause());
+        } catch (InterruptedException | TimeoutException e) {
+            fail("Unable to " + operation, e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,231 @@
+package io.syndesis.qe.utils.mqtt;
+
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Long-lived MQTT publisher.
+ *
+ * The messages are published asynchronously, the number of messages waiting for the broker acknowledgement is limited by the in-flight
+ * window. The client is connected lazily and reconnected when the connection was lost (e.g. when the port-forward was closed).
+ */
+@Slf4j
+public class MqttPublisher implements AutoCloseable {
+    private static final long TIMEOUT_MS = 30_000L;
+
+    private final String broker;
+    private final String clientId;
+    private final MqttConnectOptions options;
+    private final int maxInFlight;
+    private final Semaphore window;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private MqttAsyncClient client;
+
+    public MqttPublisher(String broker, String userName, String password, int maxInFlight) {
+        this.broker = broker;
+        this.clientId = "syndesis-mqtt-sender-" + UUID.randomUUID().toString().substring(0, 8);
+        this.maxInFlight = maxInFlight;
+        this.window = new Semaphore(maxInFlight);
+        this.options = new MqttConnectOptions();
+        options.setCleanSession(true);
+        options.setMaxInflight(maxInFlight);
+        if (userName != null) {
+            options.setUserName(userName);
+            options.setPassword(password.toCharArray());
+        }
+    }
+
+    /**
+     * Publishes the message and waits for the broker acknowledgement.
+     *
+     * @param topic topic
+     * @param payload message content
+     * @throws MqttException when the message was not delivered
+     */
+    public void publish(String topic, String payload) throws MqttException {
+        publishAsync(topic, payload.getBytes(StandardCharsets.UTF_8), 1).waitForCompletion(TIMEOUT_MS);
+        log.debug("Message published from : {} with payload of : {}", clientId, payload);
+    }
+
+    /**
+     * Publishes the message without waiting for the acknowledgement, blocks only when the in-flight window is full.
+     *
+     * @param topic topic
+     * @param payload message content
+     * @param qos quality of service
+     * @return token of the delivery
+     */
+    public IMqttDeliveryToken publishAsync(String topic, byte[] payload, int qos) throws MqttException {
+        MqttAsyncClient c = connect();
+        acquire(1);
+        MqttMessage message = new MqttMessage(payload);
+        message.setQos(qos);
+        try {
+            return c.publish(topic, message, null, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken token) {
+                    published.increment();
+                    window.release();
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable throwable) {
+                    log.warn("Unable to publish MQTT message: {}", throwable.getMessage());
+                    failed.increment();
+                    window.release();
+                }
+            });
+        } catch (MqttException e) {
+            window.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Publishes given number of messages at the given rate.
+     *
+     * @param topic topic
+     * @param count number of messages
+     * @param ratePerSecond target rate, values &lt;= 0 publish as fast as the in-flight window allows
+     * @param payloadFactory creates the payload for the given sequence number
+     * @return publishing statistics
+     */
+    public PublishResult publishBulk(String topic, int count, int ratePerSecond, LongFunction<String> payloadFactory) throws MqttException {
+        final long failedBefore = failed.sum();
+        final long intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0L;
+        final long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            if (intervalNanos > 0) {
+                final long wait = start + i * intervalNanos - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            publishAsync(topic, payloadFactory.apply(i).getBytes(StandardCharsets.UTF_8), 1);
+        }
+        flush();
+        PublishResult result = new PublishResult(count, failed.sum() - failedBefore, System.nanoTime() - start);
+        log.info("Published to {}: {}", topic, result);
+        return result;
+    }
+
+    /**
+     * Waits until all in-flight messages are acknowledged.
+     */
+    public void flush() {
+        acquire(maxInFlight);
+        window.release(maxInFlight);
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (client != null) {
+            try {
+                if (client.isConnected()) {
+                    client.disconnect().waitForCompletion(TIMEOUT_MS);
+                }
+                client.close();
+            } catch (MqttException e) {
+                log.warn("Error while closing MQTT publisher: {}", e.getMessage());
+            }
+            client = null;
+        }
+    }
+
+    /**
+     * Creates the payload with embedded sequence number and send timestamp that is understood by {@link Receiver}.
+     *
+     * @param seq sequence number
+     * @return JSON payload
+     */
+    public static String timestampedPayload(long seq) {
+        return String.format("{\"seq\":%d,\"sentAt\":%d}", seq, System.currentTimeMillis());
+    }
+
+    private synchronized MqttAsyncClient connect() throws MqttException {
+        if (client == null) {
+            client = new MqttAsyncClient(broker, clientId, new MemoryPersistence());
+        }
+        if (!client.isConnected()) {
+            log.debug("Connecting MQTT publisher {} to {}", clientId, broker);
+            client.connect(options).waitForCompletion(TIMEOUT_MS);
+        }
+        return client;
+    }
+
+    private void acquire(int permits) {
+        try {
+            if (!window.tryAcquire(permits, TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("MQTT messages were not acknowledged in " + TIMEOUT_MS + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for MQTT acknowledgements", e);
+        }
+    }
+
+    /**
+     * Result of the bulk publish.
+     */
+    public static class PublishResult {
+        private final long count;
+        private final long failed;
+        private final long elapsedNanos;
+
+        PublishResult(long count, long failed, long elapsedNanos) {
+            this.count = count;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public double getMessagesPerSecond() {
+            return elapsedNanos == 0 ? 0D : count * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d messages (%d failed) in %d ms, %.1f msg/s", count, failed, getElapsedMillis(), getMessagesPerSecond());
+        }
+    }
+}
@@ -7,7 +7,6 @@ import org.assertj.core.api.Assertions;
 import org.eclipse.paho.client.mqttv3.MqttClient;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.MqttException;
-import org.eclipse.paho.client.mqttv3.MqttMessage;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 
 import lombok.extern.slf4j.Slf4j;
@@ -15,44 +14,87 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MqttUtils {
     private static final String BROKER = "tcp://localhost:1883";
+    private static final int MAX_IN_FLIGHT = 100;
+
+    private final String broker;
+    private MqttPublisher publisher;
+
+    public MqttUtils() {
+        this(BROKER);
+    }
+
+    /**
+     * @param broker broker URL
+     */
+    public MqttUtils(String broker) {
+        this.broker = broker;
+    }
 
     public MqttClient createReceiver(String clientName, String topic) throws MqttException {
-        MqttClient sampleClient = new MqttClient(BROKER, clientName, new MemoryPersistence());
+        return createReceiver(clientName, topic, new Receiver(clientName));
+    }
+
+    public MqttClient createReceiver(String clientName, String topic, Receiver receiver) throws MqttException {
+        MqttClient sampleClient = new MqttClient(broker, clientName, new MemoryPersistence());
         MqttConnectOptions connOpts = new MqttConnectOptions();
         connOpts.setCleanSession(false);
+        connOpts.setMaxInflight(MAX_IN_FLIGHT);
 
         Account account = AccountsDirectory.getInstance().get(Account.Name.MQTT);
         connOpts.setUserName(account.getProperties().get("userName"));
         connOpts.setPassword(account.getProperties().get("password").toCharArray());
 
+        sampleClient.setCallback(receiver);
         sampleClient.connect(connOpts);
         sampleClient.subscribe(topic, 1);
-        sampleClient.setCallback(new Receiver(clientName));
         return sampleClient;
     }
 
+    /**
+     * Returns the publisher shared by this instance, the publisher stays connected until {@link #closePublisher()} is called.
+     *
+     * @return publisher
+     */
+    public synchronized MqttPublisher getPublisher() {
+        if (publisher == null) {
+            Account account = AccountsDirectory.getInstance().get(Account.Name.MQTT);
+            publisher = new MqttPublisher(broker, account.getProperties().get("userName"), account.getProperties().get("password"),
+                MAX_IN_FLIGHT);
+        }
+        return publisher;
+    }
+
     public void sendMessage(String messageContent, String topic) {
-        final String clientId = "syndesis-mqtt-sender";
-        MqttClient sampleClient = null;
         try {
-            sampleClient = new MqttClient(BROKER, clientId, new MemoryPersistence());
-            MqttConnectOptions connOpts = new MqttConnectOptions();
-            connOpts.setCleanSession(false);
-
-            Account account = AccountsDirectory.getInstance().get(Account.Name.MQTT);
-            connOpts.setUserName(account.getProperties().get("userName"));
-            connOpts.setPassword(account.getProperties().get("password").toCharArray());
-
-            sampleClient.connect(connOpts);
-            MqttMessage message = new MqttMessage(messageContent.getBytes());
-            message.setQos(1);
-            sampleClient.publish(topic, message);
-            System.out.println("Message published from : " + clientId + " with payload of : " + messageContent);
+            getPublisher().publish(topic, messageContent);
         } catch (MqttException e) {
-            e.printStackTrace();
+            log.error("Unable to publish MQTT message", e);
             Assertions.fail("Sending a message should not have thrown any exception.");
-        } finally {
-            closeClient(sampleClient);
+        }
+    }
+
+    /**
+     * Publishes messages with embedded sequence numbers and timestamps at the given rate.
+     *
+     * @param topic topic
+     * @param count number of messages
+     * @param ratePerSecond target rate, values &lt;= 0 publish as fast as possible
+     * @return publishing statistics
+     */
+    public MqttPublisher.PublishResult sendMessages(String topic, int count, int ratePerSecond) {
+        try {
+            return getPublisher().publishBulk(topic, count, ratePerSecond, MqttPublisher::timestampedPayload);
+        } catch (MqttException e) {
+            log.error("Unable to publish MQTT messages", e);
+            Assertions.fail("Sending messages should not have thrown any exception.");
+            return null;
+        }
+    }
+
+    public synchronized void closePublisher() {
+        if (publisher != null) {
+            publisher.close();
+            publisher = null;
         }
     }
 
@@ -1,14 +1,35 @@
 package io.syndesis.qe.utils.mqtt;
 
+import io.syndesis.qe.utils.stats.Histogram;
 
 import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
 import org.eclipse.paho.client.mqttv3.MqttCallback;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts the received messages.
+ *
+ * When the message contains the sequence number and the send timestamp (see {@link MqttPublisher#timestampedPayload(long)}), the receiver
+ * also records the end-to-end latency and the number of messages that arrived out of order.
+ */
+@Slf4j
 public class Receiver implements MqttCallback {
+    private static final Pattern SEQ = Pattern.compile("\"seq\"\\s*:\\s*(\\d+)");
+    private static final Pattern SENT_AT = Pattern.compile("\"sentAt\"\\s*:\\s*(\\d+)");
 
-    private String clientIdPrefix;
-    public static int RECEIVED_FLAG = 0;
+    private final String clientIdPrefix;
+    private final LongAdder received = new LongAdder();
+    private final LongAdder outOfOrder = new LongAdder();
+    private final AtomicLong highestSeq = new AtomicLong(-1L);
+    private final Histogram latency = new Histogram("ms");
 
     public Receiver(String clientIdPrefix) {
         this.clientIdPrefix = clientIdPrefix;
@@ -16,18 +37,67 @@ public class Receiver implements MqttCallback {
 
     @Override
     public void connectionLost(Throwable throwable) {
-        System.out.println("Consumer connection lost : " + throwable.getMessage());
+        log.warn("Consumer {} connection lost : {}", clientIdPrefix, throwable.getMessage());
     }
 
     @Override
     public void messageArrived(String s, MqttMessage mqttMessage) {
-        System.out.println("Message arrived from topic : " + s + " | Message : "
-                + new String(mqttMessage.getPayload()) + " | Message ID : " + mqttMessage.getId());
-        RECEIVED_FLAG = 1;
+        final long now = System.currentTimeMillis();
+        final String payload = new String(mqttMessage.getPayload(), StandardCharsets.UTF_8);
+        log.debug("Message arrived from topic : {} | Message : {} | Message ID : {}", s, payload, mqttMessage.getId());
+        Matcher sentAt = SENT_AT.matcher(payload);
+        if (sentAt.find()) {
+            latency.record(now - Long.parseLong(sentAt.group(1)));
+        }
+        Matcher seq = SEQ.matcher(payload);
+        if (seq.find()) {
+            final long current = Long.parseLong(seq.group(1));
+            if (highestSeq.getAndAccumulate(current, Math::max) > current) {
+                outOfOrder.increment();
+            }
+        }
+        received.increment();
     }
 
     @Override
     public void deliveryComplete(IMqttDeliveryToken iMqttDeliveryToken) {
-        System.out.println("Delivery completed from : " + clientIdPrefix);
+        log.debug("Delivery completed from : {}", clientIdPrefix);
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getOutOfOrder() {
+        return outOfOrder.sum();
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Waits until given number of messages is received.
+     *
+     * @param count expected number of messages
+     * @param timeoutMillis maximum time to wait
+     * @return true if the messages were received in time
+     */
+    public boolean awaitMessages(long count, long timeoutMillis) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (getReceived() < count && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return getReceived() >= count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: received=%d, outOfOrder=%d, latency %s", clientIdPrefix, getReceived(), getOutOfOrder(), latency.summary());
     }
 }
@@ -0,0 +1,111 @@
+package io.syndesis.qe.utils.payload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * SHA-256 digest and size of a content that was computed while streaming it.
+ */
+@Getter
+@EqualsAndHashCode
+public final class ContentDigest {
+    private static final String ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String sha256;
+    private final long bytes;
+
+    private ContentDigest(byte[] digest, long bytes) {
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(String.format("%02x", b));
+        }
+        this.sha256 = sb.toString();
+        this.bytes = bytes;
+    }
+
+    /**
+     * Reads the whole stream and computes its digest, the stream is not closed.
+     *
+     * @param is stream
+     * @return digest
+     */
+    public static ContentDigest of(InputStream is) throws IOException {
+        try (Sink sink = sink()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = is.read(buffer)) != -1) {
+                sink.write(buffer, 0, n);
+            }
+            return sink.getDigest();
+        }
+    }
+
+    /**
+     * Computes the digest of the generated payload.
+     *
+     * @param format record format
+     * @param seed seed
+     * @param size size in bytes
+     * @return digest
+     */
+    public static ContentDigest ofPayload(PayloadGenerator.Format format, long seed, long size) throws IOException {
+        try (InputStream is = PayloadGenerator.stream(format, seed, size)) {
+            return of(is);
+        }
+    }
+
+    /**
+     * Creates the output stream that discards the written data and computes its digest, e.g. as a download target.
+     *
+     * @return digest sink
+     */
+    public static Sink sink() {
+        return new Sink();
+    }
+
+    @Override
+    public String toString() {
+        return "sha256=" + sha256 + ", bytes=" + bytes;
+    }
+
+    public static final class Sink extends OutputStream {
+        private final MessageDigest digest;
+        private long bytes;
+
+        private Sink() {
+            try {
+                digest = MessageDigest.getInstance(ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(ALGORITHM + " is not supported", e);
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            digest.update((byte) b);
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            digest.update(b, off, len);
+            bytes += len;
+        }
+
+        /**
+         * Finishes the computation, the sink can't be used afterwards.
+         *
+         * @return digest of the written data
+         */
+        public ContentDigest getDigest() {
+            return new ContentDigest(digest.digest(), bytes);
+        }
+    }
+}
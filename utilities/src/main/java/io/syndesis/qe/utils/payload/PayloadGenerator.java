@@ -0,0 +1,181 @@
+package io.syndesis.qe.utils.payload;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates large deterministic payloads without keeping them in memory.
+ *
+ * The content is a stream of pseudo-random records in the given {@link Format}, the same seed and size always produce the same bytes,
+ * so the expected content of a remote file can be re-generated when it is verified (see {@link ContentDigest}). The stream has exactly
+ * the requested size, the space that is too small for a whole record is filled with a whitespace-only line.
+ */
+public final class PayloadGenerator {
+    private static final Pattern SIZE = Pattern.compile("(\\d+)\\s*([KMG]?B?)", Pattern.CASE_INSENSITIVE);
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+    private static final int TEXT_LENGTH = 48;
+
+    public enum Format {
+        CSV("csv") {
+            @Override
+            String header() {
+                return "id,name,value,text\n";
+            }
+
+            @Override
+            String record(long id, String name, long value, String text) {
+                return id + "," + name + "," + value + "," + text + "\n";
+            }
+        },
+        JSON("json") {
+            @Override
+            String header() {
+                return "";
+            }
+
+            @Override
+            String record(long id, String name, long value, String text) {
+                return "{\"id\":" + id + ",\"name\":\"" + name + "\",\"value\":" + value + ",\"text\":\"" + text + "\"}\n";
+            }
+        };
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        abstract String header();
+
+        abstract String record(long id, String name, long value, String text);
+    }
+
+    private PayloadGenerator() {
+    }
+
+    /**
+     * Creates the stream with the generated content.
+     *
+     * @param format record format
+     * @param seed seed of the pseudo-random content
+     * @param size size of the content in bytes
+     * @return content stream
+     */
+    public static InputStream stream(Format format, long seed, long size) {
+        return new PayloadInputStream(format, seed, size);
+    }
+
+    /**
+     * Parses the human readable size, e.g. "512", "10KB", "100 MB", "1G".
+     *
+     * @param size size
+     * @return number of bytes
+     */
+    public static long parseSize(String size) {
+        Matcher m = SIZE.matcher(size.trim());
+        if (!m.matches()) {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+        long value = Long.parseLong(m.group(1));
+        switch (m.group(2).toUpperCase(Locale.ROOT).replace("B", "")) {
+            case "K":
+                return value * 1024L;
+            case "M":
+                return value * 1024L * 1024L;
+            case "G":
+                return value * 1024L * 1024L * 1024L;
+            default:
+                return value;
+        }
+    }
+
+    public static Format format(String format) {
+        return Format.valueOf(format.toUpperCase(Locale.ROOT));
+    }
+
+    private static final class PayloadInputStream extends InputStream {
+        private final Format format;
+        private final SplittableRandom random;
+        private final long size;
+        private final char[] text = new char[TEXT_LENGTH];
+        private long position;
+        private long recordId;
+        private byte[] line;
+        private int linePosition;
+
+        private PayloadInputStream(Format format, long seed, long size) {
+            this.format = format;
+            this.random = new SplittableRandom(seed);
+            this.size = size;
+            this.line = format.header().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int read() {
+            if (!ensureLine()) {
+                return -1;
+            }
+            position++;
+            return line[linePosition++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int read = 0;
+            while (read < len && ensureLine()) {
+                final int n = Math.min(len - read, line.length - linePosition);
+                System.arraycopy(line, linePosition, b, off + read, n);
+                linePosition += n;
+                position += n;
+                read += n;
+            }
+            return read == 0 ? -1 : read;
+        }
+
+        @Override
+        public int available() {
+            return line == null ? 0 : line.length - linePosition;
+        }
+
+        private boolean ensureLine() {
+            if (position >= size) {
+                return false;
+            }
+            if (line != null && linePosition < line.length && position + line.length - linePosition <= size) {
+                return true;
+            }
+            byte[] next = nextRecord();
+            final long remaining = size - position;
+            if (next.length > remaining) {
+                // not enough space for the whole record, pad the content to the requested size
+                next = new byte[(int) remaining];
+                Arrays.fill(next, (byte) ' ');
+                next[next.length - 1] = '\n';
+            }
+            line = next;
+            linePosition = 0;
+            return true;
+        }
+
+        private byte[] nextRecord() {
+            for (int i = 0; i < text.length; i++) {
+                text[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            final long id = recordId++;
+            return format.record(id, "name-" + Long.toHexString(random.nextLong() & 0xffffL), random.nextLong(1_000_000_000L), new String(text))
+                .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
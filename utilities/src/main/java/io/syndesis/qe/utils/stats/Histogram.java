@@ -0,0 +1,166 @@
+package io.syndesis.qe.utils.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with power-of-two buckets.
+ *
+ * Bucket 0 holds zero values, bucket i holds values in [2^(i-1), 2^i). This is precise enough for timing reports and recording a value
+ * costs only a couple of atomic increments, so it can be used on hot paths from multiple threads.
+ */
+public class Histogram {
+    private static final int BUCKETS = 64;
+
+    private final String unit;
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * Creates a new histogram.
+     *
+     * @param unit unit of the recorded values, used only in the formatted output
+     */
+    public Histogram(String unit) {
+        this.unit = unit;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value, negative values are recorded as zero.
+     *
+     * @param value value to record
+     */
+    public void record(long value) {
+        final long v = Math.max(0L, value);
+        buckets[bucketIndex(v)].increment();
+        count.increment();
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+        min.accumulateAndGet(v, Math::min);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return getCount() == 0 ? 0L : max.get();
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0L : min.get();
+    }
+
+    public double getMean() {
+        final long c = getCount();
+        return c == 0 ? 0D : (double) getSum() / c;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the upper bound of the bucket that contains given percentile.
+     *
+     * @param percentile percentile in range (0, 100]
+     * @return approximate value of the percentile
+     */
+    public long getPercentile(double percentile) {
+        final long total = getCount();
+        if (total == 0) {
+            return 0L;
+        }
+        final long threshold = (long) Math.ceil(total * percentile / 100D);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += buckets[i].sum();
+            if (cumulative >= threshold) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Merges all values from the other histogram into this one.
+     *
+     * @param other histogram to merge
+     */
+    public void merge(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i].add(other.buckets[i].sum());
+        }
+        count.add(other.getCount());
+        sum.add(other.getSum());
+        if (other.getCount() > 0) {
+            max.accumulateAndGet(other.getMax(), Math::max);
+            min.accumulateAndGet(other.getMin(), Math::min);
+        }
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.set(Long.MIN_VALUE);
+        min.set(Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns one-line summary of the histogram.
+     *
+     * @return summary
+     */
+    public String summary() {
+        return String.format("count=%d, min=%d, mean=%.1f, p50=%d, p90=%d, p99=%d, max=%d [%s]",
+            getCount(), getMin(), getMean(), getPercentile(50), getPercentile(90), getPercentile(99), getMax(), unit);
+    }
+
+    /**
+     * Returns the summary followed by one line per non-empty bucket.
+     *
+     * @param name name of the histogram
+     * @return formatted histogram
+     */
+    public String format(String name) {
+        StringBuilder sb = new StringBuilder(name).append(": ").append(summary());
+        final long total = getCount();
+        for (int i = 0; i < BUCKETS; i++) {
+            final long c = buckets[i].sum();
+            if (c > 0) {
+                sb.append(String.format("%n  [%d, %d] %s: %d (%.1f%%)", lowerBound(i), upperBound(i), unit, c, 100D * c / total));
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    private static int bucketIndex(long value) {
+        return value == 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(value);
+    }
+
+    private static long lowerBound(int bucket) {
+        return bucket == 0 ? 0L : 1L << (bucket - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,171 @@
+package io.syndesis.qe.wait;
+
+import io.syndesis.qe.utils.OpenShiftUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.fabric8.openshift.api.model.Route;
+import io.fabric8.openshift.api.model.RouteIngress;
+import io.fabric8.openshift.api.model.RouteIngressCondition;
+import io.fabric8.openshift.api.model.RouteStatus;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Observes the status of a resource by fetching it once per tick.
+ *
+ * All conditions of a wait are evaluated against the same snapshot, so a wait with several conditions sends a single request per tick
+ * instead of one request per condition. The last snapshot is available after the wait, so the failure handling doesn't need to fetch
+ * the resource again. The polling itself is done by {@link OpenShiftWaitUtils#waitFor(Supplier, Function, Function, long, long)}.
+ *
+ * The caller declares how many fetches per tick the wait needed before it used the observer, the wait then logs how many requests the
+ * observer saved.
+ *
+ * @param <T> type of the observed resource, the snapshot is null when the resource doesn't exist
+ */
+@Slf4j
+public class StatusObserver<T> {
+    private static final long DEFAULT_INTERVAL = 1000L;
+
+    private final String name;
+    private final Supplier<T> fetcher;
+    private final int baselineFetchesPerTick;
+    private T snapshot;
+    private long fetches;
+
+    /**
+     * @param name name of the resource used in the log
+     * @param fetcher fetches the resource
+     * @param baselineFetchesPerTick number of fetches per tick of the wait this observer replaces
+     */
+    public StatusObserver(String name, Supplier<T> fetcher, int baselineFetchesPerTick) {
+        this.name = name;
+        this.fetcher = fetcher;
+        this.baselineFetchesPerTick = baselineFetchesPerTick;
+    }
+
+    /**
+     * @param routeName route name
+     * @param baselineFetchesPerTick number of fetches per tick of the wait this observer replaces
+     * @return observer of the route in the test namespace
+     */
+    public static StatusObserver<Route> route(String routeName, int baselineFetchesPerTick) {
+        return new StatusObserver<>("route " + routeName, () -> OpenShiftUtils.getInstance().getRoute(routeName), baselineFetchesPerTick);
+    }
+
+    /**
+     * Fetches the resource.
+     *
+     * @return new snapshot
+     */
+    public T refresh() {
+        fetches++;
+        snapshot = fetcher.get();
+        return snapshot;
+    }
+
+    /**
+     * @return last fetched snapshot, fetches the resource if it was not fetched yet
+     */
+    public T get() {
+        return fetches == 0 ? refresh() : snapshot;
+    }
+
+    /**
+     * Waits until all conditions hold for the same snapshot.
+     *
+     * @param timeout timeout in milliseconds
+     * @param conditions conditions, evaluated in the given order until the first one that doesn't hold
+     * @throws TimeoutException when the conditions don't hold before the timeout
+     */
+    @SafeVarargs
+    public final void waitFor(long timeout, Predicate<T>... conditions) throws TimeoutException, InterruptedException {
+        waitFor(Arrays.asList(conditions), null, DEFAULT_INTERVAL, timeout);
+    }
+
+    /**
+     * Waits until all conditions hold for the same snapshot or the fail condition holds.
+     *
+     * @param conditions conditions, evaluated in the given order until the first one that doesn't hold
+     * @param failCondition fail condition, may be null
+     * @param interval interval between the fetches in milliseconds
+     * @param timeout timeout in milliseconds
+     * @return true if the conditions hold, false if the fail condition holds
+     * @throws TimeoutException when neither the conditions nor the fail condition hold before the timeout
+     */
+    public boolean waitFor(List<Predicate<T>> conditions, Predicate<T> failCondition, long interval, long timeout)
+        throws TimeoutException, InterruptedException {
+        final long fetchesBefore = fetches;
+        try {
+            return OpenShiftWaitUtils.waitFor(this::refreshIgnoringErrors, current -> conditions.stream().allMatch(c -> test(c, current)),
+                failCondition == null ? null : current -> test(failCondition, current), interval, timeout);
+        } finally {
+            final long requests = fetches - fetchesBefore;
+            log.debug("Observed {}: {} requests, {} requests saved", name, requests, requests * (baselineFetchesPerTick - 1));
+        }
+    }
+
+    private T refreshIgnoringErrors() {
+        try {
+            return refresh();
+        } catch (Exception ex) {
+            log.warn("Exception thrown while fetching {}, ignoring: ", name, ex);
+            return null;
+        }
+    }
+
+    private boolean test(Predicate<T> condition, T current) {
+        try {
+            return condition.test(current);
+        } catch (Exception ex) {
+            log.warn("Exception thrown while waiting for {}, ignoring: ", name, ex);
+            return false;
+        }
+    }
+
+    public long getFetches() {
+        return fetches;
+    }
+
+    /**
+     * @param route route, may be null
+     * @return first condition of the first ingress of the route
+     */
+    public static Optional<RouteIngressCondition> routeCondition(Route route) {
+        return Optional.ofNullable(route)
+            .map(Route::getStatus)
+            .map(RouteStatus::getIngress)
+            .filter(i -> !i.isEmpty())
+            .map(i -> i.get(0))
+            .map(RouteIngress::getConditions)
+            .filter(c -> !c.isEmpty())
+            .map(c -> c.get(0));
+    }
+
+    /**
+     * @param route route, may be null
+     * @return true if the route has an ingress with a condition
+     */
+    public static boolean hasRouteCondition(Route route) {
+        return routeCondition(route).isPresent();
+    }
+
+    /**
+     * @param cr custom resource as returned by the raw custom resource client, may be null
+     * @return status phase of the custom resource
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<String> crPhase(Map<String, Object> cr) {
+        return Optional.ofNullable(cr)
+            .map(c -> c.get("status"))
+            .filter(Map.class::isInstance)
+            .map(s -> ((Map<String, Object>) s).get("phase"))
+            .map(String::valueOf);
+    }
+}
@@ -0,0 +1,126 @@
+package io.syndesis.qe.utils.jms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.syndesis.qe.utils.TestUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Runs the {@link JmsMessageCollector} against an embedded non-persistent broker.
+ */
+public class JmsMessageCollectorTest {
+    private static final String BROKER = "collector-test";
+    private static final String QUEUE = "collector-queue";
+    private static final String TOPIC = "collector-topic";
+    private static final long TIMEOUT = 10000L;
+
+    private BrokerService broker;
+    private ActiveMQConnectionFactory factory;
+
+    @Before
+    public void startBroker() throws Exception {
+        broker = new BrokerService();
+        broker.setBrokerName(BROKER);
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+        broker.waitUntilStarted();
+        factory = new ActiveMQConnectionFactory("vm://" + BROKER + "?create=false");
+    }
+
+    @After
+    public void stopBroker() throws Exception {
+        broker.stop();
+        broker.waitUntilStopped();
+    }
+
+    @Test
+    public void shouldCountAllMessagesAndStoreOnlyLimit() {
+        try (JmsMessageCollector collector = client().createCollector(null, 3)) {
+            send(10, 0L);
+
+            assertThat(collector.awaitMessages(10, TIMEOUT)).isTrue();
+            assertThat(collector.getReceived()).isEqualTo(10);
+            assertThat(collector.getMessageTexts()).containsExactly("message-0", "message-1", "message-2");
+            assertThat(collector.getInterArrival().getCount()).isEqualTo(9);
+        }
+    }
+
+    @Test
+    public void shouldTimeOutWhenNotEnoughMessagesArrive() {
+        try (JmsMessageCollector collector = client().createCollector(null, 10)) {
+            send(2, 0L);
+
+            assertThat(collector.awaitMessages(2, TIMEOUT)).isTrue();
+            assertThat(collector.awaitMessages(3, 500L)).isFalse();
+            assertThat(collector.getReceived()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void shouldCollectOnlyMatchingMessages() throws JMSException {
+        try (JmsMessageCollector collector = client().createCollector("color = 'red'", 10)) {
+            JmsClient sender = client();
+            for (String color : new String[] {"red", "blue", "red"}) {
+                Message message = sender.createMessage(color);
+                message.setStringProperty("color", color);
+                sender.sendMessage(message);
+            }
+
+            assertThat(collector.awaitMessages(2, TIMEOUT)).isTrue();
+            assertThat(collector.awaitMessages(3, 500L)).isFalse();
+            assertThat(collector.getMessageTexts()).containsExactly("red", "red");
+        }
+    }
+
+    @Test
+    public void shouldMeasureArrivalRate() {
+        try (JmsMessageCollector collector = client().createCollector(null, 0)) {
+            // 20 messages 50 ms apart arrive at most 20 messages per second
+            send(20, 50L);
+
+            assertThat(collector.awaitMessages(20, TIMEOUT)).isTrue();
+            assertThat(collector.getArrivalRate()).isBetween(5D, 21D);
+            assertThat(collector.getLatency().getCount()).isEqualTo(20);
+        }
+    }
+
+    @Test
+    public void shouldResumeDurableSubscription() {
+        JmsClient subscriber = new JmsClient(factory).addTopic(TOPIC).durable().subscriptionName("collector-subscription");
+        subscriber.createCollector(null, 10).close();
+
+        JmsClient sender = new JmsClient(factory).addTopic(TOPIC);
+        for (int i = 0; i < 3; i++) {
+            sender.sendMessage("message-" + i);
+        }
+
+        try (JmsMessageCollector collector = subscriber.createCollector(null, 10)) {
+            assertThat(collector.awaitMessages(3, TIMEOUT)).isTrue();
+            assertThat(collector.getMessageTexts()).containsExactly("message-0", "message-1", "message-2");
+        }
+    }
+
+    private JmsClient client() {
+        return new JmsClient(factory).addQueue(QUEUE);
+    }
+
+    private void send(int count, long pauseMillis) {
+        JmsClient sender = client();
+        for (int i = 0; i < count; i++) {
+            sender.sendMessage("message-" + i);
+            if (pauseMillis > 0) {
+                TestUtils.sleepIgnoreInterrupt(pauseMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.syndesis.qe.utils.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.syndesis.qe.utils.TestUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collections;
+
+/**
+ * Feeds the {@link KafkaOutputVerifier} with records of a mock consumer.
+ */
+public class KafkaOutputVerifierTest {
+    private static final String TOPIC = "verifier-test";
+    private static final String RUN_ID = "run-1";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+    private static final long TIMEOUT = 10000L;
+
+    private MockConsumer<String, String> consumer;
+    private KafkaOutputVerifier verifier;
+    private long offset;
+
+    @Before
+    public void startVerifier() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        // the offsets must be known before the partition is assigned, otherwise the poll of the verifier fails
+        consumer.updateBeginningOffsets(Collections.singletonMap(PARTITION, 0L));
+        verifier = new KafkaOutputVerifier(consumer, TOPIC, RUN_ID);
+        consumer.rebalance(Collections.singletonList(PARTITION));
+    }
+
+    @After
+    public void closeVerifier() {
+        verifier.close();
+    }
+
+    @Test
+    public void shouldCountDistinctMessagesOfTheRun() {
+        send(RUN_ID, 0, "key-0");
+        send(RUN_ID, 1, "key-1");
+        send("other-run", 2, "key-0");
+
+        assertThat(verifier.awaitMessages(2, TIMEOUT)).isTrue();
+        assertThat(verifier.awaitMessages(3, 500L)).isFalse();
+        assertThat(verifier.getReceived()).isEqualTo(2);
+        assertThat(verifier.getDuplicates()).isZero();
+        assertThat(verifier.getLatency().getCount()).isEqualTo(2);
+        assertThat(verifier.getMissing(4, 10)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    public void shouldDetectDuplicatesAndReordering() {
+        send(RUN_ID, 0, "key-0");
+        send(RUN_ID, 2, "key-0");
+        send(RUN_ID, 1, "key-0");
+        send(RUN_ID, 2, "key-0");
+
+        assertThat(verifier.awaitMessages(3, TIMEOUT)).isTrue();
+        // the duplicate is the last record, wait until it is processed as well
+        assertThat(awaitReceived(4)).isTrue();
+        assertThat(verifier.getDistinct()).isEqualTo(3);
+        assertThat(verifier.getDuplicates()).isEqualTo(1);
+        assertThat(verifier.getOutOfOrder()).isEqualTo(1);
+    }
+
+    private void send(String runId, long seq, String key) {
+        final String payload = String.format("{\"runId\":\"%s\",\"seq\":%d,\"key\":\"%s\",\"sentAt\":%d}", runId, seq, key,
+            System.currentTimeMillis());
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, offset++, key, payload));
+    }
+
+    private boolean awaitReceived(long count) {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (verifier.getReceived() < count && System.currentTimeMillis() < deadline) {
+            TestUtils.sleepIgnoreInterrupt(50L);
+        }
+        return verifier.getReceived() >= count;
+    }
+}
@@ -0,0 +1,94 @@
+package io.syndesis.qe.utils.mqtt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.activemq.broker.BrokerService;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+/**
+ * Runs the {@link MqttPublisher} and the {@link Receiver} against an embedded non-persistent broker.
+ */
+public class MqttPublisherTest {
+    private static final String TOPIC = "publisher-test";
+    private static final long TIMEOUT = 10000L;
+
+    private BrokerService broker;
+    private String brokerUrl;
+    private MqttPublisher publisher;
+    private MqttClient receiverClient;
+
+    @Before
+    public void startBroker() throws Exception {
+        broker = new BrokerService();
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.addConnector("mqtt://localhost:0");
+        broker.start();
+        broker.waitUntilStarted();
+        brokerUrl = "tcp://localhost:" + broker.getTransportConnectors().get(0).getConnectUri().getPort();
+        publisher = new MqttPublisher(brokerUrl, null, null, 10);
+    }
+
+    @After
+    public void stopBroker() throws Exception {
+        publisher.close();
+        if (receiverClient != null && receiverClient.isConnected()) {
+            receiverClient.disconnect();
+            receiverClient.close();
+        }
+        broker.stop();
+        broker.waitUntilStopped();
+    }
+
+    @Test
+    public void shouldDeliverPublishedMessage() throws MqttException {
+        Receiver receiver = subscribe();
+
+        publisher.publish(TOPIC, "hello");
+
+        assertThat(receiver.awaitMessages(1, TIMEOUT)).isTrue();
+        assertThat(publisher.getPublished()).isEqualTo(1);
+        assertThat(publisher.getFailed()).isZero();
+    }
+
+    @Test
+    public void shouldMeasureBulkPublish() throws MqttException {
+        Receiver receiver = subscribe();
+
+        MqttPublisher.PublishResult result = publisher.publishBulk(TOPIC, 100, 0, MqttPublisher::timestampedPayload);
+
+        assertThat(result.getCount()).isEqualTo(100);
+        assertThat(result.getFailed()).isZero();
+        assertThat(receiver.awaitMessages(100, TIMEOUT)).isTrue();
+        assertThat(receiver.getOutOfOrder()).isZero();
+        assertThat(receiver.getLatency().getCount()).isEqualTo(100);
+    }
+
+    @Test
+    public void shouldFailWhenMessageIsNotDelivered() throws Exception {
+        publisher.publish(TOPIC, "connected");
+        broker.stop();
+        broker.waitUntilStopped();
+
+        assertThatThrownBy(() -> publisher.publish(TOPIC, "lost")).isInstanceOf(MqttException.class);
+    }
+
+    private Receiver subscribe() throws MqttException {
+        Receiver receiver = new Receiver("receiver-test");
+        receiverClient = new MqttClient(brokerUrl, "receiver-test", new MemoryPersistence());
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setCleanSession(true);
+        receiverClient.setCallback(receiver);
+        receiverClient.connect(options);
+        receiverClient.subscribe(TOPIC, 1);
+        return receiver;
+    }
+}
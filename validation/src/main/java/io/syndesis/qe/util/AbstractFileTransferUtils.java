@@ -0,0 +1,142 @@
+package io.syndesis.qe.util;
+
+import static org.assertj.core.api.Assertions.fail;
+
+import io.syndesis.qe.util.transfer.BulkTransferResult;
+import io.syndesis.qe.util.transfer.FileTransferEngine;
+import io.syndesis.qe.utils.payload.ContentDigest;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Common implementation of {@link FileTransferUtils} backed by the pooled {@link FileTransferEngine}.
+ */
+@Slf4j
+public abstract class AbstractFileTransferUtils implements FileTransferUtils {
+    protected final FileTransferEngine engine;
+    private final String protocol;
+
+    protected AbstractFileTransferUtils(String protocol, FileTransferEngine engine) {
+        this.protocol = protocol;
+        this.engine = engine;
+    }
+
+    /**
+     * Converts the directory used in the steps to the path on the server.
+     *
+     * @param directory directory
+     * @return remote directory
+     */
+    protected abstract String remoteDirectory(String directory);
+
+    @Override
+    public void deleteFile(String path) {
+        log.info("Deleting " + path + " from " + protocol + " server");
+        try {
+            engine.delete(path);
+        } catch (IOException e) {
+            fail("Unable to delete file " + path, e);
+        }
+    }
+
+    @Override
+    public boolean isFileThere(String directory, String fileName) {
+        return refreshListing(directory).contains(fileName);
+    }
+
+    @Override
+    public void uploadTestFile(String testFileName, String text, String remoteDirectory) {
+        log.info("Uploading file " + testFileName + " with content " + text + " to directory " + remoteDirectory + ". This may take some time");
+        uploadFile(testFileName, IOUtils.toInputStream(text, StandardCharsets.UTF_8), remoteDirectory);
+    }
+
+    @Override
+    public String getFileContent(String directory, String fileName) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        downloadFile(directory, fileName, os);
+        return new String(os.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void uploadFile(String fileName, InputStream content, String remoteDirectory) {
+        try (InputStream is = content) {
+            engine.upload(remoteDirectory(remoteDirectory), fileName, is);
+        } catch (IOException ex) {
+            fail("Unable to " + protocol + " upload file " + fileName, ex);
+        }
+    }
+
+    @Override
+    public void downloadFile(String directory, String fileName, OutputStream target) {
+        try {
+            engine.download(remoteDirectory(directory), fileName, target);
+        } catch (IOException ex) {
+            fail("Unable to read " + protocol + " file " + directory + "/" + fileName, ex);
+        }
+    }
+
+    @Override
+    public BulkTransferResult uploadFiles(Map<String, Supplier<InputStream>> files, String remoteDirectory) {
+        try {
+            return engine.uploadAll(remoteDirectory(remoteDirectory), files);
+        } catch (IOException ex) {
+            fail("Unable to " + protocol + " upload files to " + remoteDirectory, ex);
+        }
+        return null;
+    }
+
+    @Override
+    public BulkTransferResult downloadFiles(String directory, Map<String, Supplier<OutputStream>> files) {
+        try {
+            return engine.downloadAll(remoteDirectory(directory), files);
+        } catch (IOException ex) {
+            fail("Unable to " + protocol + " download files from " + directory, ex);
+        }
+        return null;
+    }
+
+    @Override
+    public List<String> listFiles(String directory) {
+        try {
+            return engine.listFiles(remoteDirectory(directory));
+        } catch (IOException ex) {
+            fail("Unable to list files in " + protocol, ex);
+        }
+        return null;
+    }
+
+    @Override
+    public List<String> refreshListing(String directory) {
+        try {
+            return engine.refreshListing(remoteDirectory(directory));
+        } catch (IOException ex) {
+            fail("Unable to list files in " + protocol, ex);
+        }
+        return null;
+    }
+
+    @Override
+    public ContentDigest digestFile(String directory, String fileName) {
+        ContentDigest.Sink sink = ContentDigest.sink();
+        downloadFile(directory, fileName, sink);
+        return sink.getDigest();
+    }
+
+    /**
+     * Closes all pooled connections.
+     */
+    public void close() {
+        engine.close();
+    }
+}
@@ -2,25 +2,43 @@ package io.syndesis.qe.util;
 
 import static org.assertj.core.api.Assertions.fail;
 
+import io.syndesis.qe.TestConfiguration;
 import io.syndesis.qe.account.Account;
 import io.syndesis.qe.account.AccountsDirectory;
+import io.syndesis.qe.utils.TestUtils;
 
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
 import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
-import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
 import software.amazon.awssdk.services.dynamodb.model.DeleteTableRequest;
 import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
 import software.amazon.awssdk.services.dynamodb.model.KeyType;
@@ -28,17 +46,34 @@ import software.amazon.awssdk.services.dynamodb.model.ListTablesRequest;
 import software.amazon.awssdk.services.dynamodb.model.ListTablesResponse;
 import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughput;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
+/**
+ * DynamoDB utils.
+ *
+ * The bulk operations use BatchWriteItem requests of 25 items (unprocessed items are retried with exponential backoff) that run in
+ * parallel, the table is read by a parallel segmented scan. When the AWS account contains the "dynamoDbEndpoint" property, the client
+ * is pointed to that endpoint, so a local DynamoDB can be used instead of AWS.
+ */
 @Slf4j
 @Component
 @Lazy
 public class DynamoDbUtils {
+    private static final int BATCH_SIZE = 25;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long MAX_BACKOFF_MS = 5000L;
 
     private DynamoDbClient dynamoDb;
     private String tableName;
+    private int concurrency;
+    private ExecutorService executor;
+    // key attribute names of the table, hash key first
+    private List<String> keySchema;
 
     @PostConstruct
     public void initClient() {
@@ -47,9 +82,25 @@ public class DynamoDbUtils {
         Account dynamoDbAccount = AccountsDirectory.getInstance().get(Account.Name.AWS);
         final String region = dynamoDbAccount.getProperty("region");
         this.tableName = dynamoDbAccount.getProperty("tableName");
-        dynamoDb = DynamoDbClient.builder().region(Region.of(region))
-            .credentialsProvider(() -> AwsBasicCredentials.create(dynamoDbAccount.getProperty("accessKey"), dynamoDbAccount.getProperty("secretKey")))
-            .build();
+        DynamoDbClientBuilder builder = DynamoDbClient.builder().region(Region.of(region))
+            .credentialsProvider(() -> AwsBasicCredentials.create(dynamoDbAccount.getProperty("accessKey"), dynamoDbAccount.getProperty("secretKey")));
+        if (dynamoDbAccount.getProperty("dynamoDbEndpoint") != null) {
+            builder.endpointOverride(URI.create(dynamoDbAccount.getProperty("dynamoDbEndpoint")));
+        }
+        dynamoDb = builder.build();
+        concurrency = Math.max(1, TestConfiguration.dynamoDbConcurrency());
+        final AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "dynamodb-utils-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void closeClient() {
+        executor.shutdownNow();
+        dynamoDb.close();
     }
 
     public void createTable(String primaryKey, String sortKey) {
@@ -67,6 +118,7 @@ public class DynamoDbUtils {
                 AttributeDefinition.builder().attributeType(ScalarAttributeType.S).attributeName(primaryKey).build(),
                 AttributeDefinition.builder().attributeType(ScalarAttributeType.S).attributeName(sortKey).build())
             .build());
+        keySchema = null;
     }
 
     public void deleteTable() {
@@ -81,64 +133,216 @@ public class DynamoDbUtils {
         } else {
             log.debug("The AWS dynamoDb table {} doesn't exist, continuing.", tableName);
         }
+        keySchema = null;
     }
 
     public void insertItem(Map<String, String> item) {
+        dynamoDb.putItem(PutItemRequest.builder().item(toAttributes(item)).tableName(tableName).build());
+    }
 
-        Map<String, AttributeValue> input =
-            item.entrySet().stream().collect(Collectors.toMap(
-                Map.Entry::getKey,
-                entry -> AttributeValue.builder().s(entry.getValue()).build())
-            );
+    /**
+     * Inserts the items using parallel BatchWriteItem requests.
+     *
+     * @param items items
+     * @return number of inserted items
+     */
+    public int insertItems(List<Map<String, String>> items) {
+        final long start = System.nanoTime();
+        batchWrite(items.stream()
+            .map(item -> WriteRequest.builder().putRequest(PutRequest.builder().item(toAttributes(item)).build()).build())
+            .collect(Collectors.toList()));
+        final long elapsed = System.nanoTime() - start;
+        log.info("Inserted {} items into {} in {} ms ({} items/s)", items.size(), tableName, elapsed / 1_000_000L,
+            String.format("%.1f", elapsed == 0 ? 0D : items.size() * 1e9 / elapsed));
+        return items.size();
+    }
 
-        dynamoDb.putItem(PutItemRequest.builder().item(input).tableName(tableName).build());
+    /**
+     * Deletes the items with given keys using parallel BatchWriteItem requests.
+     *
+     * @param keys item keys
+     * @return number of deleted items
+     */
+    public int deleteItems(List<Map<String, AttributeValue>> keys) {
+        batchWrite(keys.stream()
+            .map(key -> WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build()).build())
+            .collect(Collectors.toList()));
+        return keys.size();
     }
 
+    /**
+     * Checks that the table contains an item with all the attributes equal to the record values.
+     *
+     * When the record contains the whole primary key, the item is read by GetItem, when it contains the partition key only, the
+     * partition is queried. Otherwise the whole table is scanned.
+     *
+     * @param recordValue expected attribute values
+     * @return true if there is such item
+     */
     public boolean verifyRecordIsPresent(Map<String, String> recordValue) {
+        final List<String> key = getKeySchema();
+        if (recordValue.keySet().containsAll(key)) {
+            Map<String, AttributeValue> item = dynamoDb.getItem(b -> b.tableName(tableName).key(toAttributes(recordValue, key)).consistentRead(true))
+                .item();
+            return matches(item, recordValue);
+        }
+        final String hashKey = key.get(0);
+        if (recordValue.containsKey(hashKey)) {
+            return dynamoDb.queryPaginator(b -> b.tableName(tableName).consistentRead(true)
+                .keyConditionExpression("#k = :v")
+                .expressionAttributeNames(Collections.singletonMap("#k", hashKey))
+                .expressionAttributeValues(Collections.singletonMap(":v", AttributeValue.builder().s(recordValue.get(hashKey)).build())))
+                .items().stream().anyMatch(item -> matches(item, recordValue));
+        }
+        LongAdder found = new LongAdder();
+        parallelScan(null, item -> {
+            if (matches(item, recordValue)) {
+                found.increment();
+            }
+        });
+        return found.sum() > 0;
+    }
 
-        boolean tableContainsItem = false;
-
-        ScanRequest scanRequest = ScanRequest.builder().tableName(tableName).build();
-        ScanResponse result = dynamoDb.scan(scanRequest);
-        for (Map<String, AttributeValue> item : result.items()) {
+    public int getNrOfRecordsPresentInTable() {
+        LongAdder count = new LongAdder();
+        parallelScanPages(b -> b.select(Select.COUNT), page -> count.add(page.count()));
+        return count.intValue();
+    }
 
-            if (item.isEmpty()) {
-                fail("There is no record in the table");
+    public void purgeTable() {
+        final List<String> key = getKeySchema();
+        List<Map<String, AttributeValue>> keys = new ArrayList<>();
+        parallelScan(key, item -> {
+            synchronized (keys) {
+                keys.add(item);
             }
+        });
+        deleteItems(keys);
+        log.info("Deleted {} items from {}", keys.size(), tableName);
+    }
 
-            int i = item.keySet().size() - 1;
-            if (!tableContainsItem) {
-                for (String key : item.keySet()) {
-                    if (item.get(key).s().equals(recordValue.get(key))) {
-                        if (i > 0) {
-                            i--;
-                        } else {
-                            tableContainsItem = true;
-                            break;
-                        }
-                    } else {
-                        break;
-                    }
+    /**
+     * Scans the table by parallel segments, the consumer is called concurrently from multiple threads.
+     *
+     * @param projection attributes to read, null reads the whole items
+     * @param consumer item consumer
+     */
+    public void parallelScan(List<String> projection, Consumer<Map<String, AttributeValue>> consumer) {
+        parallelScanPages(b -> {
+            if (projection != null) {
+                Map<String, String> names = new HashMap<>();
+                for (int i = 0; i < projection.size(); i++) {
+                    names.put("#p" + i, projection.get(i));
                 }
+                b.projectionExpression(String.join(",", names.keySet())).expressionAttributeNames(names);
             }
+        }, page -> page.items().forEach(consumer));
+    }
+
+    /**
+     * Generates records with the table key attributes and a few other attributes, the records are the same for the same seed.
+     *
+     * @param count number of records
+     * @param seed seed making the keys unique among the generated batches
+     * @return records
+     */
+    public List<Map<String, String>> generateRecords(int count, long seed) {
+        final List<String> key = getKeySchema();
+        List<Map<String, String>> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, String> record = new LinkedHashMap<>();
+            record.put(key.get(0), "synthetic-" + seed + "-" + i + "@example.com");
+            if (key.size() > 1) {
+                record.put(key.get(1), "company-" + (i % 10));
+            }
+            record.put("name", "Synthetic Person " + i);
+            record.put("department", "department-" + (i % 7));
+            records.add(record);
         }
-        return tableContainsItem;
+        return records;
     }
 
-    public int getNrOfRecordsPresentInTable() {
+    private void parallelScanPages(Consumer<ScanRequest.Builder> customizer, Consumer<ScanResponse> pageConsumer) {
+        List<Future<?>> segments = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            final int segment = i;
+            segments.add(executor.submit(() -> dynamoDb.scanPaginator(b -> {
+                b.tableName(tableName).segment(segment).totalSegments(concurrency);
+                customizer.accept(b);
+            }).forEach(pageConsumer)));
+        }
+        segments.forEach(DynamoDbUtils::get);
+    }
 
-        ScanRequest scanRequest = ScanRequest.builder().tableName(tableName).build();
-        ScanResponse result = dynamoDb.scan(scanRequest);
-        return result.items().size();
+    private void batchWrite(List<WriteRequest> requests) {
+        List<Future<?>> batches = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i += BATCH_SIZE) {
+            final List<WriteRequest> batch = requests.subList(i, Math.min(i + BATCH_SIZE, requests.size()));
+            batches.add(executor.submit(() -> writeBatch(batch)));
+        }
+        batches.forEach(DynamoDbUtils::get);
     }
 
-    public void purgeTable() {
+    private void writeBatch(List<WriteRequest> batch) {
+        Map<String, List<WriteRequest>> pending = Collections.singletonMap(tableName, batch);
+        long backoff = 50L;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            final Map<String, List<WriteRequest>> request = pending;
+            BatchWriteItemResponse response = dynamoDb.batchWriteItem(b -> b.requestItems(request));
+            pending = response.unprocessedItems();
+            if (pending == null || pending.isEmpty()) {
+                return;
+            }
+            log.debug("{} unprocessed items, retrying in {} ms", pending.values().stream().mapToInt(List::size).sum(), backoff);
+            TestUtils.sleepIgnoreInterrupt(backoff);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+        fail("Unable to write " + pending.values().stream().mapToInt(List::size).sum() + " items after " + MAX_ATTEMPTS + " attempts");
+    }
 
-        ScanRequest scanRequest = ScanRequest.builder().tableName(tableName).build();
-        ScanResponse result = dynamoDb.scan(scanRequest);
+    private synchronized List<String> getKeySchema() {
+        if (keySchema == null) {
+            List<KeySchemaElement> elements = dynamoDb.describeTable(b -> b.tableName(tableName)).table().keySchema();
+            List<String> key = new ArrayList<>();
+            elements.stream().filter(e -> e.keyType() == KeyType.HASH).forEach(e -> key.add(e.attributeName()));
+            elements.stream().filter(e -> e.keyType() == KeyType.RANGE).forEach(e -> key.add(e.attributeName()));
+            keySchema = key;
+        }
+        return keySchema;
+    }
 
-        for (Map<String, AttributeValue> item : result.items()) {
-            dynamoDb.deleteItem(DeleteItemRequest.builder().tableName(tableName).key(item).build());
+    private static boolean matches(Map<String, AttributeValue> item, Map<String, String> recordValue) {
+        return item != null && !item.isEmpty()
+            && item.entrySet().stream().allMatch(e -> e.getValue().s() != null && e.getValue().s().equals(recordValue.get(e.getKey())));
+    }
+
+    private static Map<String, AttributeValue> toAttributes(Map<String, String> item) {
+        return item.entrySet().stream().collect(Collectors.toMap(
+            Map.Entry::getKey,
+            entry -> AttributeValue.builder().s(entry.getValue()).build())
+        );
+    }
+
+    private static Map<String, AttributeValue> toAttributes(Map<String, String> item, List<String> attributes) {
+        Map<String, AttributeValue> result = new HashMap<>();
+        attributes.forEach(a -> result.put(a, AttributeValue.builder().s(item.get(a)).build()));
+        return result;
+    }
+
+    private static void get(Future<?> future) {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for DynamoDB request", e);
         }
     }
 }
@@ -1,5 +1,14 @@
 package io.syndesis.qe.util;
 
+import io.syndesis.qe.util.transfer.BulkTransferResult;
+import io.syndesis.qe.utils.payload.ContentDigest;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
 public interface FileTransferUtils {
     void deleteFile(String path);
 
@@ -8,4 +17,51 @@ public interface FileTransferUtils {
     void uploadTestFile(String testFileName, String text, String remoteDirectory);
 
     String getFileContent(String directory, String fileName);
+
+    void uploadFile(String fileName, InputStream content, String remoteDirectory);
+
+    void downloadFile(String directory, String fileName, OutputStream target);
+
+    /**
+     * Uploads the files in parallel using multiple connections.
+     *
+     * @param files file name -&gt; supplier of the file content
+     * @param remoteDirectory target directory
+     * @return transfer statistics
+     */
+    BulkTransferResult uploadFiles(Map<String, Supplier<InputStream>> files, String remoteDirectory);
+
+    /**
+     * Downloads the files in parallel using multiple connections.
+     *
+     * @param directory source directory
+     * @param files file name -&gt; supplier of the target stream
+     * @return transfer statistics
+     */
+    BulkTransferResult downloadFiles(String directory, Map<String, Supplier<OutputStream>> files);
+
+    /**
+     * Returns the cached listing of the directory, the cache is invalidated by uploads and deletes done through this instance.
+     *
+     * @param directory directory
+     * @return file names
+     */
+    List<String> listFiles(String directory);
+
+    /**
+     * Lists the directory on the server and updates the cached listing.
+     *
+     * @param directory directory
+     * @return file names
+     */
+    List<String> refreshListing(String directory);
+
+    /**
+     * Computes the digest of the remote file while streaming it down, the file content is not kept in memory.
+     *
+     * @param directory directory
+     * @param fileName file name
+     * @return digest
+     */
+    ContentDigest digestFile(String directory, String fileName);
 }
@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.client.LocalPortForward;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,8 +23,11 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class FtpClientManager {
+    // Number of the passive data ports exposed by the FTP server, this also limits the number of parallel transfers
+    public static final int DATA_PORTS = 10;
 
     private static LocalPortForward LOCAL_PORT_FORWARD = null;
+    private static final LocalPortForward[] DATA_PORT_FORWARDS = new LocalPortForward[DATA_PORTS];
 
     private final String ftpServer = "127.0.0.1";
     private final int ftpLocalPort = 2121;  //on local computer
@@ -38,19 +42,51 @@ public class FtpClientManager {
     }
 
     public FTPClient getClient() {
+        ensurePortForwards();
+        return initClient();
+    }
 
-        if (LOCAL_PORT_FORWARD == null || !LOCAL_PORT_FORWARD.isAlive()) {
-            LOCAL_PORT_FORWARD = OpenShiftUtils.portForward(OpenShiftUtils.getInstance().getAnyPod("app", ftpPodName), ftpRemotePort, ftpLocalPort);
+    /**
+     * Creates the port-forwards that are not alive. The port-forwards are shared by all clients, so they are created only once and
+     * re-created only when they die.
+     */
+    private void ensurePortForwards() {
+        synchronized (FtpClientManager.class) {
+            Pod pod = null;
+            if (LOCAL_PORT_FORWARD == null || !LOCAL_PORT_FORWARD.isAlive()) {
+                pod = OpenShiftUtils.getInstance().getAnyPod("app", ftpPodName);
+                LOCAL_PORT_FORWARD = OpenShiftUtils.portForward(pod, ftpRemotePort, ftpLocalPort);
+            }
             //since we use passive FTP connection, we need to forward data ports also
-            for (int i = 0; i < 10; i++) {
-                OpenShiftUtils.portForward(OpenShiftUtils.getInstance().getAnyPod("app", ftpPodName), FTP.FTP_DATA_PORT + i, FTP.FTP_DATA_PORT + i);
+            for (int i = 0; i < DATA_PORTS; i++) {
+                if (DATA_PORT_FORWARDS[i] == null || !DATA_PORT_FORWARDS[i].isAlive()) {
+                    if (pod == null) {
+                        pod = OpenShiftUtils.getInstance().getAnyPod("app", ftpPodName);
+                    }
+                    DATA_PORT_FORWARDS[i] = OpenShiftUtils.portForward(pod, FTP.FTP_DATA_PORT + i, FTP.FTP_DATA_PORT + i);
+                }
             }
         }
-        return initClient();
     }
 
-    public void closeFtpClient(FTPClient ftpClient) {
+    /**
+     * Terminates the control and data port-forwards, all clients are disconnected.
+     */
+    public static synchronized void closePortForwards() {
         OpenShiftUtils.terminateLocalPortForward(LOCAL_PORT_FORWARD);
+        LOCAL_PORT_FORWARD = null;
+        for (int i = 0; i < DATA_PORTS; i++) {
+            OpenShiftUtils.terminateLocalPortForward(DATA_PORT_FORWARDS[i]);
+            DATA_PORT_FORWARDS[i] = null;
+        }
+    }
+
+    /**
+     * Disconnects the client, the port-forwards are kept for the other clients (see {@link #closePortForwards()}).
+     *
+     * @param ftpClient client
+     */
+    public void closeFtpClient(FTPClient ftpClient) {
         try {
             if (ftpClient == null) {
                 return;
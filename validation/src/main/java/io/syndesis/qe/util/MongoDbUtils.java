@@ -0,0 +1,215 @@
+package io.syndesis.qe.util;
+
+import io.syndesis.qe.TestConfiguration;
+import io.syndesis.qe.utils.OpenShiftUtils;
+import io.syndesis.qe.utils.TestUtils;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.LocalPortForward;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk loading and change stream based waiting for MongoDB collections.
+ *
+ * The documents are written by unordered insertMany/bulkWrite calls of {@link TestConfiguration#mongoDbBatchSize()} documents, so the
+ * server can apply them in parallel and one failing document doesn't stop the rest. The port-forwards are managed per pod, so connecting
+ * to the same database again reuses the existing port-forward.
+ */
+@Slf4j
+public final class MongoDbUtils {
+    private static final Map<String, LocalPortForward> PORT_FORWARDS = new ConcurrentHashMap<>();
+
+    private MongoDbUtils() {
+    }
+
+    /**
+     * Creates the port-forward to the pod of the service if there is no live port-forward to it yet.
+     *
+     * @param service app label of the pod
+     * @param port port
+     */
+    public static synchronized void ensurePortForward(String service, int port) {
+        Pod pod = OpenShiftUtils.getInstance().getAnyPod("app", service);
+        final String key = pod.getMetadata().getName() + ":" + port;
+        LocalPortForward existing = PORT_FORWARDS.get(key);
+        if (existing == null || !existing.isAlive()) {
+            // another pod (e.g. a redeployed one) may hold the local port
+            closePortForwards();
+            PORT_FORWARDS.put(key, OpenShiftUtils.createLocalPortForward(pod, port, port));
+        }
+    }
+
+    public static synchronized void closePortForwards() {
+        PORT_FORWARDS.values().forEach(pf -> {
+            try {
+                pf.close();
+            } catch (IOException e) {
+                log.error("Could not close port forward", e);
+            }
+        });
+        PORT_FORWARDS.clear();
+    }
+
+    /**
+     * Inserts the documents by unordered insertMany calls.
+     *
+     * @param collection collection
+     * @param documents documents, consumed lazily
+     * @param ratePerSecond target rate, values &lt;= 0 insert as fast as possible
+     * @return number of inserted documents
+     */
+    public static long insertMany(MongoCollection<Document> collection, Iterator<Document> documents, int ratePerSecond) {
+        return load(collection, documents, ratePerSecond, batch -> {
+            collection.insertMany(batch, new InsertManyOptions().ordered(false));
+            return batch.size();
+        });
+    }
+
+    /**
+     * Replaces or inserts the documents with the same value of the key field by unordered bulkWrite calls.
+     *
+     * @param collection collection
+     * @param documents documents, consumed lazily
+     * @param keyField field identifying the document
+     * @return number of inserted and modified documents
+     */
+    public static long upsertMany(MongoCollection<Document> collection, Iterator<Document> documents, String keyField) {
+        return load(collection, documents, 0, batch -> {
+            List<WriteModel<Document>> writes = new ArrayList<>(batch.size());
+            batch.forEach(d -> writes.add(new ReplaceOneModel<>(Filters.eq(keyField, d.get(keyField)), d, new ReplaceOptions().upsert(true))));
+            BulkWriteResult result = collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            return result.getUpserts().size() + result.getModifiedCount();
+        });
+    }
+
+    /**
+     * Creates the generated documents, every document contains the sequence number, the send timestamp and a string "value".
+     *
+     * @param count number of documents
+     * @return lazy iterator of the documents
+     */
+    public static Iterator<Document> generate(int count) {
+        return new Iterator<Document>() {
+            private int seq;
+
+            @Override
+            public boolean hasNext() {
+                return seq < count;
+            }
+
+            @Override
+            public Document next() {
+                final int i = seq++;
+                return new Document("seq", i).append("value", "value-" + i).append("sentAt", System.currentTimeMillis());
+            }
+        };
+    }
+
+    /**
+     * Waits until the collection contains exactly the expected number of documents matching the filter.
+     *
+     * The change stream is opened before the collection is queried, so no change is missed, and the collection is queried again only
+     * after matching documents were inserted, updated, replaced or any document was deleted. When the server doesn't support change streams (e.g. it's not a
+     * replica set), the collection is polled instead.
+     *
+     * @param collection collection
+     * @param filter filter of the expected documents, simple equality of fields
+     * @param count expected number of documents
+     * @param timeoutMillis maximum time to wait
+     * @return number of matching documents when the wait ended
+     */
+    public static long awaitDocuments(MongoCollection<Document> collection, Document filter, long count, long timeoutMillis) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        List<Bson> fullDocumentFilters = new ArrayList<>();
+        filter.forEach((k, v) -> fullDocumentFilters.add(Filters.eq("fullDocument." + k, v)));
+        fullDocumentFilters.add(Filters.in("operationType", Arrays.asList("insert", "update", "replace")));
+        // the deleted documents are not available in the change event, so every delete is considered as a matching change
+        List<Bson> pipeline = Arrays.asList(Aggregates.match(Filters.or(Filters.and(fullDocumentFilters), Filters.eq("operationType", "delete"))));
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> stream = collection.watch(pipeline)
+            .fullDocument(FullDocument.UPDATE_LOOKUP).maxAwaitTime(500L, TimeUnit.MILLISECONDS).cursor()) {
+            long found = collection.countDocuments(filter);
+            // matching changes since the last count, the collection is counted again when the stream is idle or the target may be reached
+            long changes = 0;
+            while (found != count && System.currentTimeMillis() < deadline) {
+                if (stream.tryNext() != null) {
+                    changes++;
+                    if (found < count && found + changes < count) {
+                        continue;
+                    }
+                } else if (changes == 0) {
+                    continue;
+                }
+                found = collection.countDocuments(filter);
+                changes = 0;
+            }
+            return found;
+        } catch (MongoCommandException e) {
+            log.warn("Change streams are not supported by the server, polling the collection: {}", e.getErrorMessage());
+            long found = collection.countDocuments(filter);
+            while (found != count && System.currentTimeMillis() < deadline) {
+                TestUtils.sleepIgnoreInterrupt(1000L);
+                found = collection.countDocuments(filter);
+            }
+            return found;
+        }
+    }
+
+    private static long load(MongoCollection<Document> collection, Iterator<Document> documents, int ratePerSecond,
+        Function<List<Document>, Number> writer) {
+        final int batchSize = Math.max(1, TestConfiguration.mongoDbBatchSize());
+        final long intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0L;
+        final long start = System.nanoTime();
+        long sent = 0;
+        long written = 0;
+        while (documents.hasNext()) {
+            List<Document> batch = new ArrayList<>(batchSize);
+            while (documents.hasNext() && batch.size() < batchSize) {
+                if (intervalNanos > 0) {
+                    final long wait = start + sent * intervalNanos - System.nanoTime();
+                    if (wait > 0) {
+                        // at low rates the batch is flushed when the next document is not due yet
+                        if (!batch.isEmpty()) {
+                            break;
+                        }
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                batch.add(documents.next());
+                sent++;
+            }
+            written += writer.apply(batch).longValue();
+        }
+        final long elapsed = System.nanoTime() - start;
+        log.info("Wrote {} documents into {} in {} ms ({} documents/s)", written, collection.getNamespace().getCollectionName(),
+            TimeUnit.NANOSECONDS.toMillis(elapsed), String.format("%.1f", elapsed == 0 ? 0D : written * 1e9 / elapsed));
+        return written;
+    }
+}
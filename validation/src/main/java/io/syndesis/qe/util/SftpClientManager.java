@@ -39,21 +39,38 @@ public class SftpClientManager {
     }
 
     public SSHClient getSshClient() {
-        if (localPortForward == null || !localPortForward.isAlive()) {
-            localPortForward = OpenShiftUtils.portForward(OpenShiftUtils.getInstance().getAnyPod("app", sftpPodName), sftpRemotePort,
-                sftpLocalPort);
+        synchronized (SftpClientManager.class) {
+            if (localPortForward == null || !localPortForward.isAlive()) {
+                localPortForward = OpenShiftUtils.portForward(OpenShiftUtils.getInstance().getAnyPod("app", sftpPodName), sftpRemotePort,
+                    sftpLocalPort);
+            }
         }
         return initSshClient();
     }
 
-    public void closeClient(SSHClient sshClient, SFTPClient sftpClient) {
+    /**
+     * Terminates the port-forward shared by all clients.
+     */
+    public static synchronized void closePortForward() {
         OpenShiftUtils.terminateLocalPortForward(localPortForward);
+        localPortForward = null;
+    }
+
+    /**
+     * Disconnects the clients, the port-forward is kept for the other clients (see {@link #closePortForward()}).
+     *
+     * @param sshClient ssh client
+     * @param sftpClient sftp client
+     */
+    public void closeClient(SSHClient sshClient, SFTPClient sftpClient) {
         try {
             if (sshClient == null) {
                 return;
             }
-            if (!sshClient.isConnected()) {
-                sftpClient.close();
+            if (sshClient.isConnected()) {
+                if (sftpClient != null) {
+                    sftpClient.close();
+                }
                 sshClient.disconnect();
             }
         } catch (IOException e) {
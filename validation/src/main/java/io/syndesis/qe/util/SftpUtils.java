@@ -2,41 +2,48 @@ package io.syndesis.qe.util;
 
 import static org.assertj.core.api.Assertions.fail;
 
+import io.syndesis.qe.TestConfiguration;
 import io.syndesis.qe.resource.impl.SFTP;
+import io.syndesis.qe.util.transfer.FileTransferEngine;
+import io.syndesis.qe.util.transfer.SftpTransferConnection;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.attribute.PosixFilePermissions;
-import java.util.Arrays;
-import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
 import net.schmizz.sshj.SSHClient;
-import net.schmizz.sshj.sftp.RemoteResourceInfo;
 import net.schmizz.sshj.sftp.SFTPClient;
 
+/**
+ * Singleton, so the pooled connections and the port-forward are shared by all scenarios and closed at the end of the run.
+ */
 @Slf4j
-public class SftpUtils implements FileTransferUtils {
+@Component
+@Lazy
+public class SftpUtils extends AbstractFileTransferUtils {
+    private final SftpClientManager manager;
+
+    public SftpUtils() {
+        this(new SftpClientManager());
+    }
 
-    private SftpClientManager manager = new SftpClientManager();
-    private SSHClient sshClient = manager.getSshClient();
-    private SFTPClient sftpClient = manager.getSftpClient(sshClient);
+    private SftpUtils(SftpClientManager manager) {
+        super("SFTP", new FileTransferEngine("SFTP", TestConfiguration.fileTransferConnections(), () -> new SftpTransferConnection(manager)));
+        this.manager = manager;
+    }
 
     public void prepareServerForTest() {
-        checkConnection();
         log.info("Preparing SFTP server for tests");
         try {
             //0. set 'test' as home folder
             //not possible - there is no such method in com.hierynomus.sshj, so we have to bypass this.
             //1. create download / upload folders
-            sftpClient.mkdir("/" + SFTP.TEST_DIRECTORY + "/download");
-            sftpClient.mkdir("/" + SFTP.TEST_DIRECTORY + "/upload");
+            engine.makeDirectory("/" + SFTP.TEST_DIRECTORY + "/download");
+            engine.makeDirectory("/" + SFTP.TEST_DIRECTORY + "/upload");
         } catch (IOException e) {
             fail("Unable to prepare server", e);
         }
@@ -46,67 +53,15 @@ public class SftpUtils implements FileTransferUtils {
         manager.closeClient(sshCl, sftpCl);
     }
 
+    @PreDestroy
     @Override
-    public void deleteFile(String path) {
-        checkConnection();
-        log.info("Deleting " + path + " from SFTP server");
-        try {
-            sftpClient.rm(path);
-        } catch (IOException e) {
-            fail("Unable to delete file", path);
-        }
-    }
-
-    @Override
-    public boolean isFileThere(String directory, String fileName) {
-        checkConnection();
-        try {
-            List<RemoteResourceInfo> directoryContent = sftpClient.ls(directory);
-            RemoteResourceInfo[] itemsArray = new RemoteResourceInfo[directoryContent.size()];
-            itemsArray = directoryContent.toArray(itemsArray);
-            return Arrays.stream(itemsArray).filter(file -> file.getName().equals(fileName)).count() == 1;
-        } catch (IOException ex) {
-            fail("Unable to list files in FTP", ex);
-        }
-        return false;
+    public void close() {
+        super.close();
+        SftpClientManager.closePortForward();
     }
 
     @Override
-    public void uploadTestFile(String testFileName, String text, String remoteDirectory) {
-        checkConnection();
-        log.info("Uploading file " + testFileName + " with content " + text + " to directory " + remoteDirectory + ". This may take some time");
-        try {
-            Path tempFile = Files.createTempFile(testFileName, null,
-                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxrwxrwx")));
-            FileUtils.write(tempFile.toFile(), text, "UTF-8");
-            sftpClient.put(tempFile.toAbsolutePath().toString(), remoteDirectory + "/" + testFileName);
-        } catch (IOException ex) {
-            fail("Unable to SFTP upload test file: ", ex);
-        }
-    }
-
-    @Override
-    public String getFileContent(String directory, String fileName) {
-        checkConnection();
-        try {
-            sftpClient.get(directory + "/" + fileName, fileName);
-            FileInputStream inputStream = new FileInputStream(fileName);
-            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-        } catch (Exception ex) {
-            fail("Unable to read SFTP file " + directory + "/" + fileName);
-        }
-        return null;
-    }
-
-    /**
-     * Sometimes the Connections ends with "FTPConnectionClosedException: Connection closed without indication".
-     */
-    private void checkConnection() {
-        try {
-            sftpClient.ls(".");
-        } catch (IOException ex) {
-            sshClient = manager.getSshClient();
-            sftpClient = manager.getSftpClient(sshClient);
-        }
+    protected String remoteDirectory(String directory) {
+        return directory;
     }
 }
@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
 import io.fabric8.kubernetes.client.LocalPortForward;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +22,8 @@ public class FhirClientManager {
     private String fhirServerLocalUrl;
     private String fhirPodName;
     private int fhirRemotePort;
+    // FHIR server reachable without port-forward, e.g. a local HAPI FHIR server
+    private boolean localServer;
 
     @Getter
     private FhirContext ctx  = FhirContext.forDstu3();
@@ -37,18 +40,34 @@ public class FhirClientManager {
     }
 
     public MyPatientClient getClient() {
-
-        if (LOCAL_PORT_FORWARD == null || !LOCAL_PORT_FORWARD.isAlive()) {
-            LOCAL_PORT_FORWARD =
-                OpenShiftUtils.portForward(OpenShiftUtils.getInstance().getAnyPod("app", fhirPodName), fhirRemotePort, fhirLocalPort);
-        }
+        ensurePortForward();
         return initClient();
     }
 
+    /**
+     * Creates the generic client that is used for the bundle and conditional operations.
+     *
+     * @return generic client
+     */
+    public IGenericClient getGenericClient() {
+        ensurePortForward();
+        return ctx.newRestfulGenericClient(fhirServerLocalUrl);
+    }
+
     public static void closeClient() {
         OpenShiftUtils.terminateLocalPortForward(LOCAL_PORT_FORWARD);
     }
 
+    private void ensurePortForward() {
+        if (localServer) {
+            return;
+        }
+        if (LOCAL_PORT_FORWARD == null || !LOCAL_PORT_FORWARD.isAlive()) {
+            LOCAL_PORT_FORWARD =
+                OpenShiftUtils.portForward(OpenShiftUtils.getInstance().getAnyPod("app", fhirPodName), fhirRemotePort, fhirLocalPort);
+        }
+    }
+
     private MyPatientClient initClient() {
         return ctx.newRestfulClient(MyPatientClient.class, fhirServerLocalUrl);
     }
@@ -59,8 +78,13 @@ public class FhirClientManager {
         account.getProperties().forEach((key, value) ->
             properties.put(key.toLowerCase(), value)
         );
-        fhirPodName = properties.get("host");
-        fhirRemotePort = Integer.parseInt(properties.get("port"));
-        fhirServerLocalUrl = "http://localhost:" + fhirLocalPort + "/baseDstu3";
+        localServer = properties.containsKey("localurl");
+        if (localServer) {
+            fhirServerLocalUrl = properties.get("localurl");
+        } else {
+            fhirPodName = properties.get("host");
+            fhirRemotePort = Integer.parseInt(properties.get("port"));
+            fhirServerLocalUrl = "http://localhost:" + fhirLocalPort + "/baseDstu3";
+        }
     }
 }
@@ -0,0 +1,54 @@
+package io.syndesis.qe.util.fhir;
+
+import org.hl7.fhir.dstu3.model.ContactPoint;
+import org.hl7.fhir.dstu3.model.Enumerations;
+import org.hl7.fhir.dstu3.model.Patient;
+
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates deterministic synthetic patients for load tests.
+ *
+ * Every patient has an identifier in {@link #IDENTIFIER_SYSTEM}, so all synthetic patients can be found (and deleted) by
+ * {@link #SEARCH_QUERY} regardless of their names.
+ */
+public final class FhirPatientGenerator {
+    public static final String IDENTIFIER_SYSTEM = "urn:syndesis:qe:synthetic";
+    public static final String SEARCH_QUERY = "identifier=" + IDENTIFIER_SYSTEM + "|";
+
+    private static final String[] FAMILY_NAMES = {"Novak", "Svoboda", "Smith", "Garcia", "Muller", "Rossi", "Kowalski", "Jensen", "Silva",
+        "Tanaka"};
+    private static final String[] GIVEN_NAMES = {"Anna", "Jan", "John", "Maria", "Peter", "Eva", "Luca", "Sofia", "Tomas", "Emma", "Noah",
+        "Olga"};
+
+    private FhirPatientGenerator() {
+    }
+
+    /**
+     * Generates the patients, the same seed generates the same patients.
+     *
+     * @param count number of patients
+     * @param seed seed
+     * @return patients
+     */
+    public static List<Patient> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<Patient> patients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Patient patient = new Patient();
+            patient.addIdentifier().setSystem(IDENTIFIER_SYSTEM).setValue(seed + "-" + i);
+            patient.addName().setFamily(FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)])
+                .addGiven(GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)]);
+            patient.setGender(random.nextBoolean() ? Enumerations.AdministrativeGender.FEMALE : Enumerations.AdministrativeGender.MALE);
+            patient.setBirthDate(new GregorianCalendar(1930 + random.nextInt(90), random.nextInt(12), 1 + random.nextInt(28)).getTime());
+            patient.addTelecom().setSystem(ContactPoint.ContactPointSystem.PHONE)
+                .setValue(String.format("+420 %03d %03d %03d", random.nextInt(1000), random.nextInt(1000), i % 1000));
+            patient.setActive(true);
+            patients.add(patient);
+        }
+        return patients;
+    }
+}
@@ -1,32 +1,82 @@
 package io.syndesis.qe.util.fhir;
 
+import static org.assertj.core.api.Assertions.fail;
+
+import io.syndesis.qe.TestConfiguration;
+
 import org.hl7.fhir.dstu3.model.Basic;
+import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.dstu3.model.IdType;
 import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.dstu3.model.Resource;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
 import ca.uhn.fhir.rest.client.exceptions.FhirClientConnectionException;
+import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceGoneException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Access to the FHIR server.
+ *
+ * Single resources are created through {@link MyPatientClient}, bulk operations send the resources in bundles of
+ * {@link TestConfiguration#fhirBundleSize()} entries, {@link TestConfiguration#fhirConcurrency()} bundles in parallel. Creating bundles are
+ * of the {@link TestConfiguration#fhirBundleType()} type, deleting bundles are always batches, so a resource that was deleted in the
+ * meantime doesn't fail the whole bundle.
+ */
 @Slf4j
 @Component
 @Lazy
 public class FhirUtils {
     private MyPatientClient fhirClient = FhirClientManager.getInstance().getClient();
+    private IGenericClient genericClient = FhirClientManager.getInstance().getGenericClient();
+    private int bundleSize;
+    private Bundle.BundleType bundleType;
+    private ExecutorService executor;
     @Getter
     private String lastPatientId;
     @Getter
     private String lastBasicId;
 
+    @PostConstruct
+    public void initExecutor() {
+        bundleSize = Math.max(1, TestConfiguration.fhirBundleSize());
+        bundleType = Bundle.BundleType.fromCode(TestConfiguration.fhirBundleType().toLowerCase());
+        final AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, TestConfiguration.fhirConcurrency()), r -> {
+            Thread t = new Thread(r, "fhir-utils-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void closeExecutor() {
+        executor.shutdownNow();
+    }
+
     //   entity PATIENT:
     public String insertPatientToFhir(MyPatientSpecification ps) {
 
@@ -39,16 +89,20 @@ public class FhirUtils {
         return lastPatientId;
     }
 
+    /**
+     * Checks that the patient with the given id has the given name, or that any patient has the given name when the id is not specified.
+     *
+     * @param ps patient specification
+     * @return true if the patient is there
+     */
     public boolean isPatientInFhir(MyPatientSpecification ps) {
-        List<Patient> patients;
-        if (ps.getId() != null && getPatientById(ps.getId()) == null) {
-            return false;
+        if (ps.getId() != null) {
+            Patient patient = getPatientById(ps.getId());
+            return patient != null && patient.getName().stream().anyMatch(n -> ps.getFamilyName().equals(n.getFamily())
+                && n.getGiven().stream().anyMatch(g -> ps.getGivenName().equals(g.getValue())));
         }
-        patients = getPatientsByFamilyName(ps.getFamilyName());
-        if (patients != null && !patients.isEmpty()) {
-            return patients.stream().anyMatch(p -> ps.getGivenName().equals(p.getName().get(0).getGiven().get(0).getValue()));
-        }
-        return false;
+        return countResources(FhirEntity.PATIENT.getName(), "family:exact=" + encode(ps.getFamilyName()) + "&given:exact="
+            + encode(ps.getGivenName())) > 0;
     }
 
     private Patient getPatientById(String id) {
@@ -61,21 +115,8 @@ public class FhirUtils {
         }
     }
 
-    private List<Patient> getPatientsByFamilyName(String fn) {
-        checkConnection();
-        return fhirClient.getPatientsByFamilyName(fn);
-    }
-
     public void deleteAllPatients() {
-        checkConnection();
-        List<Patient> patients = fhirClient.getAllPatients();
-        patients.forEach(this::deleteOnePatient);
-    }
-
-    private void deleteOnePatient(Patient patient) {
-        IdType idtp = new IdType(extractSimpleId(patient.getId(), FhirEntity.PATIENT.getName()));
-        checkConnection();
-        fhirClient.deletePatientById(idtp);
+        deleteAll(FhirEntity.PATIENT.getName());
     }
 
     //    entity: BASIC
@@ -117,9 +158,7 @@ public class FhirUtils {
     }
 
     public void deleteAllBasics() {
-        checkConnection();
-        List<Basic> basics = fhirClient.getAllBasics();
-        basics.forEach(this::deleteOneBasic);
+        deleteAll(FhirEntity.BASIC.getName());
     }
 
     public void deleteOneBasic(Basic basic) {
@@ -128,6 +167,156 @@ public class FhirUtils {
         fhirClient.deleteBasicById(idtp);
     }
 
+    //    BULK:
+    /**
+     * Creates the resources in bundles.
+     *
+     * @param resources resources to create
+     * @return ids of the created resources
+     */
+    public List<String> createResources(List<? extends Resource> resources) {
+        final long start = System.nanoTime();
+        List<Future<List<String>>> bundles = new ArrayList<>();
+        for (int i = 0; i < resources.size(); i += bundleSize) {
+            final List<? extends Resource> chunk = resources.subList(i, Math.min(i + bundleSize, resources.size()));
+            bundles.add(executor.submit(() -> {
+                Bundle bundle = new Bundle().setType(bundleType);
+                chunk.forEach(r -> bundle.addEntry().setResource(r).getRequest().setMethod(Bundle.HTTPVerb.POST).setUrl(r.fhirType()));
+                return submit(bundle);
+            }));
+        }
+        List<String> ids = new ArrayList<>(resources.size());
+        bundles.forEach(b -> ids.addAll(get(b)));
+        logRate("Created", ids.size(), start);
+        return ids;
+    }
+
+    /**
+     * Deletes all resources of the given type in bundles.
+     *
+     * @param type resource type
+     * @return number of deleted resources
+     */
+    public int deleteAll(String type) {
+        return deleteByIds(type, searchIds(type, null));
+    }
+
+    /**
+     * Deletes all resources matching the search query, e.g. "identifier=urn:system|".
+     *
+     * The conditional delete is tried first, if the server doesn't allow deleting multiple resources that way, the matching resources are
+     * deleted in bundles.
+     *
+     * @param type resource type
+     * @param query search query
+     */
+    public void deleteWhere(String type, String query) {
+        try {
+            genericClient.delete().resourceConditionalByUrl(type + "?" + query).execute();
+            log.info("Conditionally deleted {}?{}", type, query);
+        } catch (PreconditionFailedException e) {
+            log.debug("Conditional delete of multiple {} resources is not allowed, deleting them in bundles", type);
+            deleteByIds(type, searchIds(type, query));
+        }
+    }
+
+    /**
+     * Counts the resources matching the search query without fetching them.
+     *
+     * @param type resource type
+     * @param query search query, may be null
+     * @return number of matching resources
+     */
+    public int countResources(String type, String query) {
+        return genericClient.search().byUrl(type + "?" + (query == null ? "" : query + "&") + "_summary=count").returnBundle(Bundle.class)
+            .execute().getTotal();
+    }
+
+    private List<String> searchIds(String type, String query) {
+        List<String> ids = new ArrayList<>();
+        Bundle page = genericClient.search().byUrl(type + "?" + (query == null ? "" : query + "&") + "_elements=id&_count=" + bundleSize)
+            .returnBundle(Bundle.class).execute();
+        while (true) {
+            page.getEntry().forEach(e -> ids.add(e.getResource().getIdElement().getIdPart()));
+            if (page.getLink(Bundle.LINK_NEXT) == null) {
+                return ids;
+            }
+            page = genericClient.loadPage().next(page).execute();
+        }
+    }
+
+    private int deleteByIds(String type, List<String> ids) {
+        final long start = System.nanoTime();
+        List<Future<List<String>>> bundles = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += bundleSize) {
+            final List<String> chunk = ids.subList(i, Math.min(i + bundleSize, ids.size()));
+            bundles.add(executor.submit(() -> {
+                Bundle bundle = new Bundle().setType(Bundle.BundleType.BATCH);
+                chunk.forEach(id -> bundle.addEntry().getRequest().setMethod(Bundle.HTTPVerb.DELETE).setUrl(type + "/" + id));
+                return submit(bundle);
+            }));
+        }
+        bundles.forEach(FhirUtils::get);
+        logRate("Deleted " + type, ids.size(), start);
+        return ids.size();
+    }
+
+    /**
+     * Sends the bundle and checks the status of all entries.
+     *
+     * @param bundle transaction or batch bundle
+     * @return ids of the resources in the response locations
+     */
+    private List<String> submit(Bundle bundle) {
+        Bundle response = genericClient.transaction().withBundle(bundle).execute();
+        List<String> ids = new ArrayList<>(response.getEntry().size());
+        List<String> failures = new ArrayList<>();
+        for (Bundle.BundleEntryComponent entry : response.getEntry()) {
+            final String status = entry.getResponse().getStatus();
+            // 404 and 410 mean the resource is deleted already
+            if (status == null || !(status.startsWith("2") || status.startsWith("404") || status.startsWith("410"))) {
+                failures.add(status);
+            } else if (entry.getResponse().getLocation() != null) {
+                ids.add(new IdType(entry.getResponse().getLocation()).getIdPart());
+            }
+        }
+        if (!failures.isEmpty()) {
+            fail(failures.size() + " of " + bundle.getEntry().size() + " FHIR bundle entries failed: " + failures);
+        }
+        return ids;
+    }
+
+    private static void logRate(String operation, int count, long start) {
+        final long elapsed = System.nanoTime() - start;
+        log.info("{} {} FHIR resources in {} ms ({} resources/s)", operation, count, TimeUnit.NANOSECONDS.toMillis(elapsed),
+            String.format("%.1f", elapsed == 0 ? 0D : count * 1e9 / elapsed));
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for FHIR bundle", e);
+        }
+    }
+
     //    COMMON:
     private String extractSimpleId(String fullId, String entity) {
 
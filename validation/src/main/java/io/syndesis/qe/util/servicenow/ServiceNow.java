@@ -3,11 +3,13 @@ package io.syndesis.qe.util.servicenow;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
+import io.syndesis.qe.TestConfiguration;
 import io.syndesis.qe.account.Account;
 import io.syndesis.qe.account.AccountsDirectory;
 import io.syndesis.qe.util.servicenow.model.Incident;
 import io.syndesis.qe.util.servicenow.model.IncidentRecordList;
 import io.syndesis.qe.util.servicenow.model.IncidentSingleResponse;
+import io.syndesis.qe.utils.TestUtils;
 import io.syndesis.qe.utils.http.HTTPResponse;
 import io.syndesis.qe.utils.http.HTTPUtils;
 
@@ -20,22 +22,46 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.Headers;
 
 /**
  * Simple request wrapper for Service-Now incidents API.
+ *
+ * The incidents are listed lazily page by page, the bulk operations run {@link TestConfiguration#serviceNowConcurrency()} requests in
+ * parallel, limited to {@link TestConfiguration#serviceNowRequestsPerSecond()}. When the account contains the "url" property, the requests
+ * go to that URL instead of the Service-Now instance, e.g. to the {@link ServiceNowStandIn}.
  */
 @Slf4j
 public class ServiceNow {
     private static final String INCIDENT_ENDPOINT = "api/now/v2/table/incident";
+    private static final int MAX_ATTEMPTS = 5;
     private static ServiceNow instance = new ServiceNow();
     private static String url;
     private static String userName;
     private static String password;
     private static ObjectMapper om;
+    private static ExecutorService executor;
+    private static long requestIntervalNanos;
+    private static long nextRequest;
 
     public static ServiceNow getInstance() {
         return instance;
@@ -46,9 +72,21 @@ public class ServiceNow {
         String instanceName = serviceNow.getProperty("instanceName");
         userName = serviceNow.getProperty("userName");
         password = serviceNow.getProperty("password");
-        url = String.format("https://%s.service-now.com/%s", instanceName, INCIDENT_ENDPOINT);
+        if (serviceNow.getProperty("url") != null) {
+            url = String.format("%s/%s", serviceNow.getProperty("url"), INCIDENT_ENDPOINT);
+        } else {
+            url = String.format("https://%s.service-now.com/%s", instanceName, INCIDENT_ENDPOINT);
+        }
         om = new ObjectMapper();
         om.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        final AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, TestConfiguration.serviceNowConcurrency()), r -> {
+            Thread t = new Thread(r, "servicenow-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        final int rate = TestConfiguration.serviceNowRequestsPerSecond();
+        requestIntervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0L;
     }
 
     public static Incident createIncident(Incident i) {
@@ -59,7 +97,7 @@ public class ServiceNow {
             url,
             json,
             "application/json",
-            Headers.of("Authorization", "Basic " + Base64.getEncoder().encodeToString((userName + ":" + password).getBytes()))
+            authHeaders()
         );
 
         assertThat(r.getCode()).isEqualTo(201);
@@ -83,7 +121,7 @@ public class ServiceNow {
 
         HTTPResponse r = HTTPUtils.doGetRequest(
             getUrl,
-            Headers.of("Authorization", "Basic " + Base64.getEncoder().encodeToString((userName + ":" + password).getBytes()))
+            authHeaders()
         );
 
         assertThat(r.getCode()).isEqualTo(200);
@@ -92,10 +130,79 @@ public class ServiceNow {
         return parseResponse(responseBody);
     }
 
+    /**
+     * Lists the incidents lazily, one page per request.
+     *
+     * The pages are ordered by sys_id and every page starts after the last sys_id of the previous page (keyset pagination), so deleting the
+     * already returned incidents while iterating doesn't skip any incident.
+     *
+     * @param filter encoded query, may be null
+     * @param pageSize number of incidents per request
+     * @return stream of incidents
+     */
+    public static Stream<Incident> streamIncidents(String filter, int pageSize) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new IncidentIterator(filter, pageSize),
+            Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Creates the incidents in parallel.
+     *
+     * @param incidents incidents to create
+     * @return created incidents
+     */
+    public static List<Incident> createIncidents(List<Incident> incidents) {
+        return runAll(incidents.stream().map(i -> (Supplier<Incident>) () -> {
+            HTTPResponse r = request(() -> HTTPUtils.doPostRequest(url, getIncidentJson(i), "application/json", authHeaders()));
+            assertThat(r.getCode()).isEqualTo(201);
+            return getIncidentFromResponse(r);
+        }).collect(Collectors.toList()), "Created");
+    }
+
+    /**
+     * Updates the incidents in parallel.
+     *
+     * @param incidents incidents by sys_id
+     * @return updated incidents
+     */
+    public static List<Incident> updateIncidents(Map<String, Incident> incidents) {
+        return runAll(incidents.entrySet().stream().map(e -> (Supplier<Incident>) () -> {
+            HTTPResponse r = request(() -> HTTPUtils.doPutRequest(String.format("%s/%s", url, e.getKey()), getIncidentJson(e.getValue()),
+                "application/json", authHeaders()));
+            assertThat(r.getCode()).isEqualTo(200);
+            return getIncidentFromResponse(r);
+        }).collect(Collectors.toList()), "Updated");
+    }
+
+    /**
+     * Deletes the incidents in parallel, the incidents that don't exist anymore are ignored.
+     *
+     * @param sysIds sys_ids of the incidents
+     */
+    public static void deleteIncidents(List<String> sysIds) {
+        runAll(sysIds.stream().map(id -> (Supplier<Integer>) () -> {
+            HTTPResponse r = request(() -> HTTPUtils.doDeleteRequest(String.format("%s/%s", url, id), authHeaders()));
+            assertThat(r.getCode()).isIn(204, 404);
+            return r.getCode();
+        }).collect(Collectors.toList()), "Deleted");
+    }
+
+    /**
+     * Deletes all incidents matching the filter.
+     *
+     * @param filter encoded query
+     * @return number of deleted incidents
+     */
+    public static int deleteIncidents(String filter) {
+        List<String> sysIds = streamIncidents(filter, 1000).map(Incident::getSysId).collect(Collectors.toList());
+        deleteIncidents(sysIds);
+        return sysIds.size();
+    }
+
     public static void deleteIncident(String sysId) {
         HTTPResponse r = HTTPUtils.doDeleteRequest(
             String.format("%s/%s", url, sysId),
-            Headers.of("Authorization", "Basic " + Base64.getEncoder().encodeToString((userName + ":" + password).getBytes()))
+            authHeaders()
         );
 
         assertThat(r.getCode()).isEqualTo(204);
@@ -109,7 +216,7 @@ public class ServiceNow {
             String.format("%s/%s", url, sysId),
             json,
             "application/json",
-            Headers.of("Authorization", "Basic " + Base64.getEncoder().encodeToString((userName + ":" + password).getBytes()))
+            authHeaders()
         );
 
         assertThat(r.getCode()).isEqualTo(200);
@@ -117,6 +224,75 @@ public class ServiceNow {
         return getIncidentFromResponse(r);
     }
 
+    private static Headers authHeaders() {
+        return Headers.of("Authorization", "Basic " + Base64.getEncoder().encodeToString((userName + ":" + password).getBytes()));
+    }
+
+    /**
+     * Sends the request when the rate limit allows it, the request is repeated when it failed or when it was throttled by Service-Now.
+     *
+     * @param request request
+     * @return response
+     */
+    private static HTTPResponse request(Supplier<HTTPResponse> request) {
+        long backoff = 500L;
+        for (int attempt = 1; ; attempt++) {
+            acquireRequestSlot();
+            HTTPResponse r = request.get();
+            if (attempt == MAX_ATTEMPTS || r != null && r.getCode() != 429 && r.getCode() < 500) {
+                if (r == null) {
+                    fail("Service-Now request failed " + MAX_ATTEMPTS + " times");
+                }
+                return r;
+            }
+            log.debug("Service-Now request failed with {}, retrying in {} ms", r == null ? "exception" : r.getCode(), backoff);
+            TestUtils.sleepIgnoreInterrupt(backoff);
+            backoff *= 2;
+        }
+    }
+
+    private static void acquireRequestSlot() {
+        if (requestIntervalNanos == 0) {
+            return;
+        }
+        final long slot;
+        synchronized (ServiceNow.class) {
+            slot = Math.max(System.nanoTime(), nextRequest);
+            nextRequest = slot + requestIntervalNanos;
+        }
+        final long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private static <T> List<T> runAll(List<Supplier<T>> tasks, String operation) {
+        final long start = System.nanoTime();
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        tasks.forEach(t -> futures.add(executor.submit(t::get)));
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for Service-Now request", e);
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+        log.info("{} {} incidents in {} ms ({} requests/s)", operation, tasks.size(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+            String.format("%.1f", elapsed == 0 ? 0D : tasks.size() * 1e9 / elapsed));
+        return results;
+    }
+
     /**
      * Service-Now API returns single object when there is 1 record, but list of records when there are more records.
      *
@@ -157,4 +333,54 @@ public class ServiceNow {
         }
         return null;
     }
+
+    private static final class IncidentIterator implements Iterator<Incident> {
+        private final String filter;
+        private final int pageSize;
+        private Iterator<Incident> page;
+        private String lastSysId;
+        private boolean lastPage;
+
+        private IncidentIterator(String filter, int pageSize) {
+            this.filter = filter;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while ((page == null || !page.hasNext()) && !lastPage) {
+                StringBuilder query = new StringBuilder();
+                if (filter != null) {
+                    query.append(filter).append('^');
+                }
+                if (lastSysId != null) {
+                    query.append("sys_id>").append(lastSysId).append('^');
+                }
+                query.append("ORDERBYsys_id");
+                List<Incident> incidents;
+                try {
+                    final String getUrl = url + "?sysparm_limit=" + pageSize + "&sysparm_query=" + URLEncoder.encode(query.toString(), "UTF-8");
+                    HTTPResponse r = request(() -> HTTPUtils.doGetRequest(getUrl, authHeaders()));
+                    assertThat(r.getCode()).isEqualTo(200);
+                    incidents = parseResponse(r.getBody());
+                } catch (UnsupportedEncodingException e) {
+                    throw new IllegalStateException(e);
+                }
+                lastPage = incidents.size() < pageSize;
+                if (!incidents.isEmpty()) {
+                    lastSysId = incidents.get(incidents.size() - 1).getSysId();
+                }
+                page = incidents.iterator();
+            }
+            return page != null && page.hasNext();
+        }
+
+        @Override
+        public Incident next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+    }
 }
@@ -0,0 +1,220 @@
+package io.syndesis.qe.util.servicenow;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory stand-in of the Service-Now Table API for offline testing.
+ *
+ * Supports create, read, update and delete of the records of any table and listing with sysparm_limit, sysparm_offset and a subset of
+ * the encoded queries: conditions "field=value", "field!=value", "fieldSTARTSWITHvalue", "fieldLIKEvalue" and "field>value" joined by
+ * "^" and the "ORDERBYfield" clause. The authorization is not checked. Point the Service-Now account "url" property to
+ * {@link #getUrl()} to use it.
+ */
+@Slf4j
+public class ServiceNowStandIn implements AutoCloseable {
+    private static final String TABLE_PATH = "/api/now/v2/table/";
+    private static final TypeReference<Map<String, Object>> RECORD = new TypeReference<Map<String, Object>>() {
+    };
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper om = new ObjectMapper();
+    private final Map<String, NavigableMap<String, Map<String, Object>>> tables = new HashMap<>();
+
+    /**
+     * Starts the stand-in.
+     *
+     * @param port port, 0 for any free port
+     */
+    public ServiceNowStandIn(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext(TABLE_PATH, this::handle);
+        executor = Executors.newFixedThreadPool(8, r -> {
+            Thread t = new Thread(r, "servicenow-stand-in");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.start();
+        log.info("Service-Now stand-in listening on {}", getUrl());
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @param table table name
+     * @return number of records in the table
+     */
+    public int size(String table) {
+        return table(table).size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        // the server does not stop the executor it was given
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            final String[] path = exchange.getRequestURI().getPath().substring(TABLE_PATH.length()).split("/");
+            final NavigableMap<String, Map<String, Object>> table = table(path[0]);
+            final String sysId = path.length > 1 ? path[1] : null;
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                    if (sysId == null) {
+                        respond(exchange, 200, list(table, parameters(exchange.getRequestURI().getRawQuery())));
+                    } else {
+                        respondRecord(exchange, 200, table.get(sysId));
+                    }
+                    break;
+                case "POST":
+                    Map<String, Object> created = om.readValue(exchange.getRequestBody(), RECORD);
+                    created.put("sys_id", UUID.randomUUID().toString().replace("-", ""));
+                    table.put((String) created.get("sys_id"), created);
+                    respondRecord(exchange, 201, created);
+                    break;
+                case "PUT":
+                case "PATCH":
+                    Map<String, Object> existing = table.get(sysId);
+                    if (existing != null) {
+                        synchronized (existing) {
+                            existing.putAll(om.readValue(exchange.getRequestBody(), RECORD));
+                            existing.put("sys_id", sysId);
+                        }
+                    }
+                    respondRecord(exchange, 200, existing);
+                    break;
+                case "DELETE":
+                    respond(exchange, table.remove(sysId) == null ? 404 : 204, null);
+                    break;
+                default:
+                    respond(exchange, 405, null);
+            }
+        } catch (RuntimeException e) {
+            log.error("Service-Now stand-in request failed", e);
+            respond(exchange, 500, Collections.singletonMap("error", Collections.singletonMap("message", String.valueOf(e.getMessage()))));
+        }
+    }
+
+    private synchronized NavigableMap<String, Map<String, Object>> table(String name) {
+        return tables.computeIfAbsent(name, n -> new ConcurrentSkipListMap<>());
+    }
+
+    private Map<String, Object> list(NavigableMap<String, Map<String, Object>> table, Map<String, String> params) {
+        final int limit = Integer.parseInt(params.getOrDefault("sysparm_limit", "10000"));
+        final int offset = Integer.parseInt(params.getOrDefault("sysparm_offset", "0"));
+        Predicate<Map<String, Object>> filter = r -> true;
+        String orderBy = "sys_id";
+        for (String condition : params.getOrDefault("sysparm_query", "").split("\\^")) {
+            if (condition.isEmpty()) {
+                continue;
+            }
+            if (condition.startsWith("ORDERBY")) {
+                orderBy = condition.substring("ORDERBY".length());
+            } else {
+                filter = filter.and(condition(condition));
+            }
+        }
+        List<Map<String, Object>> records = new ArrayList<>();
+        table.values().stream().filter(filter).forEach(records::add);
+        final String order = orderBy;
+        records.sort((a, b) -> String.valueOf(a.get(order)).compareTo(String.valueOf(b.get(order))));
+        List<Map<String, Object>> result = records.subList(Math.min(offset, records.size()), Math.min(offset + limit, records.size()));
+        return Collections.singletonMap("result", result);
+    }
+
+    private static Predicate<Map<String, Object>> condition(String condition) {
+        final String[] operators = {"!=", "STARTSWITH", "LIKE", ">", "="};
+        for (String operator : operators) {
+            final int index = condition.indexOf(operator);
+            if (index > 0) {
+                final String field = condition.substring(0, index);
+                final String value = condition.substring(index + operator.length());
+                switch (operator) {
+                    case "!=":
+                        return r -> !value.equals(String.valueOf(r.get(field)));
+                    case "STARTSWITH":
+                        return r -> String.valueOf(r.get(field)).startsWith(value);
+                    case "LIKE":
+                        return r -> String.valueOf(r.get(field)).contains(value);
+                    case ">":
+                        return r -> String.valueOf(r.get(field)).compareTo(value) > 0;
+                    default:
+                        return r -> value.equals(String.valueOf(r.get(field)));
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported condition: " + condition);
+    }
+
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) {
+            return params;
+        }
+        for (String param : query.split("&")) {
+            final String[] kv = param.split("=", 2);
+            params.put(decode(kv[0]), kv.length > 1 ? decode(kv[1]) : "");
+        }
+        return params;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void respondRecord(HttpExchange exchange, int code, Map<String, Object> record) throws IOException {
+        if (record == null) {
+            respond(exchange, 404, Collections.singletonMap("error", Collections.singletonMap("message", "No Record found")));
+        } else {
+            synchronized (record) {
+                respond(exchange, code, Collections.singletonMap("result", record));
+            }
+        }
+    }
+
+    private void respond(HttpExchange exchange, int code, Object body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(code, -1);
+            exchange.close();
+            return;
+        }
+        final byte[] bytes = om.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.syndesis.qe.util.transfer;
+
+import io.syndesis.qe.utils.stats.Histogram;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+/**
+ * Results of the files transferred in parallel.
+ *
+ * The aggregate throughput is computed from the wall-clock time of the whole batch, the per-file durations are kept in a histogram.
+ */
+@Getter
+public class BulkTransferResult {
+    private final List<TransferResult> results;
+    private final long elapsedNanos;
+    private final long bytes;
+    private final Histogram fileTimes = new Histogram("ms");
+
+    BulkTransferResult(List<TransferResult> results, long elapsedNanos) {
+        this.results = Collections.unmodifiableList(results);
+        this.elapsedNanos = elapsedNanos;
+        this.bytes = results.stream().mapToLong(TransferResult::getBytes).sum();
+        results.forEach(r -> fileTimes.record(r.getElapsedMillis()));
+    }
+
+    public int getFiles() {
+        return results.size();
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getMegabytesPerSecond() {
+        return TransferResult.megabytesPerSecond(bytes, elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d files, %d bytes in %d ms (%.2f MB/s), file time %s", getFiles(), bytes, getElapsedMillis(),
+            getMegabytesPerSecond(), fileTimes.summary());
+    }
+}
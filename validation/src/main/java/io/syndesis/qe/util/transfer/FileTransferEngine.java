@@ -0,0 +1,303 @@
+package io.syndesis.qe.util.transfer;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transfers files using a pool of control connections.
+ *
+ * At most {@code maxConnections} connections are opened lazily and reused, every transfer borrows one connection for its duration.
+ * The bulk operations run the transfers in parallel and retry a failed file once on a fresh connection. Directory listings are cached
+ * until a file is uploaded to / deleted from the directory through this engine, use {@link #refreshListing(String)} when the directory is
+ * changed by someone else (e.g. by an integration).
+ *
+ * The files are uploaded under a hidden temporary name and renamed when complete, so an integration polling the directory never consumes
+ * a file that is still being written. Camel skips the files starting with a dot.
+ */
+@Slf4j
+public class FileTransferEngine implements AutoCloseable {
+    private static final int ATTEMPTS = 2;
+    private static final String TEMP_SUFFIX = ".part";
+
+    private final String name;
+    private final int maxConnections;
+    private final Supplier<TransferConnection> connectionFactory;
+    private final BlockingQueue<TransferConnection> idle = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final Map<String, List<String>> listings = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    /**
+     * @param name name used in the logs and thread names
+     * @param maxConnections maximum number of the opened connections and parallel transfers
+     * @param connectionFactory creates and connects a new connection
+     */
+    public FileTransferEngine(String name, int maxConnections, Supplier<TransferConnection> connectionFactory) {
+        this.name = name;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.connectionFactory = connectionFactory;
+        this.permits = new Semaphore(this.maxConnections);
+    }
+
+    @FunctionalInterface
+    public interface Operation<T> {
+        T apply(TransferConnection connection) throws IOException;
+    }
+
+    /**
+     * Runs the operation on a pooled connection. When the operation fails, the connection is closed instead of being returned to the pool.
+     *
+     * @param operation operation
+     * @param <T> result type
+     * @return operation result
+     */
+    public <T> T execute(Operation<T> operation) throws IOException {
+        TransferConnection connection = borrow();
+        boolean broken = true;
+        try {
+            T result = operation.apply(connection);
+            broken = false;
+            return result;
+        } finally {
+            release(connection, broken);
+        }
+    }
+
+    public TransferResult upload(String directory, String fileName, InputStream content) throws IOException {
+        TransferResult result = doUpload(directory, fileName, content);
+        log.info("{}: {}", name, result);
+        return result;
+    }
+
+    public TransferResult download(String directory, String fileName, OutputStream target) throws IOException {
+        TransferResult result = doDownload(directory, fileName, target);
+        log.info("{}: {}", name, result);
+        return result;
+    }
+
+    /**
+     * Uploads the files in parallel.
+     *
+     * @param directory target directory
+     * @param files file name -&gt; supplier of the content, the supplier is called again when the upload is retried
+     * @return transfer results
+     */
+    public BulkTransferResult uploadAll(String directory, Map<String, Supplier<InputStream>> files) throws IOException {
+        List<Callable<TransferResult>> tasks = new ArrayList<>();
+        files.forEach((fileName, content) -> tasks.add(() -> {
+            try (InputStream is = content.get()) {
+                return doUpload(directory, fileName, is);
+            }
+        }));
+        return runAll("upload", tasks);
+    }
+
+    /**
+     * Downloads the files in parallel.
+     *
+     * @param directory source directory
+     * @param files file name -&gt; supplier of the target stream, the supplier is called again when the download is retried
+     * @return transfer results
+     */
+    public BulkTransferResult downloadAll(String directory, Map<String, Supplier<OutputStream>> files) throws IOException {
+        List<Callable<TransferResult>> tasks = new ArrayList<>();
+        files.forEach((fileName, target) -> tasks.add(() -> {
+            try (OutputStream os = target.get()) {
+                return doDownload(directory, fileName, os);
+            }
+        }));
+        return runAll("download", tasks);
+    }
+
+    /**
+     * Returns the cached listing of the directory, the directory is listed only when it is not in the cache.
+     *
+     * @param directory directory
+     * @return file names
+     */
+    public List<String> listFiles(String directory) throws IOException {
+        List<String> listing = listings.get(directory);
+        if (listing == null) {
+            listing = Collections.unmodifiableList(execute(c -> c.listFiles(directory)));
+            listings.put(directory, listing);
+        }
+        return listing;
+    }
+
+    public List<String> refreshListing(String directory) throws IOException {
+        listings.remove(directory);
+        return listFiles(directory);
+    }
+
+    public void delete(String path) throws IOException {
+        execute(c -> {
+            c.delete(path);
+            return null;
+        });
+        listings.clear();
+    }
+
+    public void makeDirectory(String path) throws IOException {
+        execute(c -> {
+            c.makeDirectory(path);
+            return null;
+        });
+        listings.clear();
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        TransferConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+        listings.clear();
+    }
+
+    private TransferResult doUpload(String directory, String fileName, InputStream content) throws IOException {
+        final String path = path(directory, fileName);
+        final String tempPath = path(directory, "." + fileName + TEMP_SUFFIX);
+        TransferResult result = execute(c -> {
+            final long start = System.nanoTime();
+            CountingInputStream is = new CountingInputStream(content);
+            c.upload(tempPath, is);
+            c.rename(tempPath, path);
+            return new TransferResult("upload", path, is.getByteCount(), System.nanoTime() - start);
+        });
+        listings.remove(directory);
+        return result;
+    }
+
+    private TransferResult doDownload(String directory, String fileName, OutputStream target) throws IOException {
+        final String path = path(directory, fileName);
+        return execute(c -> {
+            final long start = System.nanoTime();
+            CountingOutputStream os = new CountingOutputStream(target);
+            c.download(path, os);
+            os.flush();
+            return new TransferResult("download", path, os.getByteCount(), System.nanoTime() - start);
+        });
+    }
+
+    private BulkTransferResult runAll(String operation, List<Callable<TransferResult>> tasks) throws IOException {
+        final long start = System.nanoTime();
+        List<Future<TransferResult>> futures = new ArrayList<>();
+        for (Callable<TransferResult> task : tasks) {
+            futures.add(executor().submit(() -> withRetry(task)));
+        }
+        List<TransferResult> results = new ArrayList<>();
+        IOException failure = null;
+        for (Future<TransferResult> future : futures) {
+            try {
+                TransferResult result = future.get();
+                log.debug("{}: {}", name, result);
+                results.add(result);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IOException(name + ": bulk " + operation + " failed");
+                }
+                failure.addSuppressed(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IOException(name + ": interrupted while waiting for bulk " + operation, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        BulkTransferResult result = new BulkTransferResult(results, System.nanoTime() - start);
+        log.info("{}: bulk {} of {}", name, operation, result);
+        return result;
+    }
+
+    private TransferResult withRetry(Callable<TransferResult> task) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return task.call();
+            } catch (IOException e) {
+                if (attempt >= ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("{}: transfer failed ({}), retrying on a new connection", name, e.getMessage());
+            }
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            final AtomicInteger threads = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(maxConnections, r -> {
+                Thread t = new Thread(r, name + "-transfer-" + threads.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
+
+    private TransferConnection borrow() throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(name + ": interrupted while waiting for a connection", e);
+        }
+        TransferConnection connection = idle.poll();
+        while (connection != null && !connection.isConnected()) {
+            connection.close();
+            connection = idle.poll();
+        }
+        if (connection == null) {
+            try {
+                connection = connectionFactory.get();
+            } catch (RuntimeException | Error e) {
+                permits.release();
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    private void release(TransferConnection connection, boolean broken) {
+        if (broken) {
+            connection.close();
+        } else {
+            idle.offer(connection);
+        }
+        permits.release();
+    }
+
+    private static String path(String directory, String fileName) {
+        return directory.endsWith("/") ? directory + fileName : directory + "/" + fileName;
+    }
+}
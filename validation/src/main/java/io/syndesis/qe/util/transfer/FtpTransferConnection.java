@@ -0,0 +1,75 @@
+package io.syndesis.qe.util.transfer;
+
+import io.syndesis.qe.util.FtpClientManager;
+
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class FtpTransferConnection implements TransferConnection {
+    private final FtpClientManager manager;
+    private final FTPClient client;
+
+    public FtpTransferConnection(FtpClientManager manager) {
+        this.manager = manager;
+        this.client = manager.getClient();
+    }
+
+    @Override
+    public void upload(String path, InputStream content) throws IOException {
+        if (!client.storeFile(path, content)) {
+            throw new IOException("Unable to store " + path + ": " + client.getReplyString());
+        }
+    }
+
+    @Override
+    public void download(String path, OutputStream target) throws IOException {
+        if (!client.retrieveFile(path, target)) {
+            throw new IOException("Unable to retrieve " + path + ": " + client.getReplyString());
+        }
+    }
+
+    @Override
+    public List<String> listFiles(String directory) throws IOException {
+        return Arrays.stream(client.listFiles(directory)).map(FTPFile::getName).collect(Collectors.toList());
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        // the steps delete the files also as a cleanup before the test, so the missing file is not an error
+        if (!client.deleteFile(path)) {
+            log.debug("File {} was not deleted: {}", path, client.getReplyString());
+        }
+    }
+
+    @Override
+    public void rename(String from, String to) throws IOException {
+        if (!client.rename(from, to)) {
+            throw new IOException("Unable to rename " + from + " to " + to + ": " + client.getReplyString());
+        }
+    }
+
+    @Override
+    public void makeDirectory(String path) throws IOException {
+        client.makeDirectory(path);
+    }
+
+    @Override
+    public boolean isConnected() {
+        return client.isConnected();
+    }
+
+    @Override
+    public void close() {
+        manager.closeFtpClient(client);
+    }
+}
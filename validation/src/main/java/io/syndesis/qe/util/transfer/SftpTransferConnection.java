@@ -0,0 +1,86 @@
+package io.syndesis.qe.util.transfer;
+
+import io.syndesis.qe.util.SftpClientManager;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.RemoteFile;
+import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.SFTPClient;
+
+public class SftpTransferConnection implements TransferConnection {
+    // Number of SFTP packets sent / requested without waiting for the server response
+    private static final int PIPELINED_REQUESTS = 16;
+
+    private final SftpClientManager manager;
+    private final SSHClient sshClient;
+    private final SFTPClient sftpClient;
+
+    public SftpTransferConnection(SftpClientManager manager) {
+        this.manager = manager;
+        this.sshClient = manager.getSshClient();
+        this.sftpClient = manager.getSftpClient(sshClient);
+    }
+
+    @Override
+    public void upload(String path, InputStream content) throws IOException {
+        try (RemoteFile file = sftpClient.open(path, EnumSet.of(OpenMode.WRITE, OpenMode.CREAT, OpenMode.TRUNC));
+            OutputStream os = file.new RemoteFileOutputStream(0, PIPELINED_REQUESTS)) {
+            IOUtils.copyLarge(content, os);
+        }
+    }
+
+    @Override
+    public void download(String path, OutputStream target) throws IOException {
+        try (RemoteFile file = sftpClient.open(path, EnumSet.of(OpenMode.READ));
+            InputStream is = file.new ReadAheadRemoteFileInputStream(PIPELINED_REQUESTS)) {
+            IOUtils.copyLarge(is, target);
+        }
+    }
+
+    @Override
+    public List<String> listFiles(String directory) throws IOException {
+        return sftpClient.ls(directory).stream().map(RemoteResourceInfo::getName).collect(Collectors.toList());
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        // the steps delete the files also as a cleanup before the test, so the missing file is not an error
+        if (sftpClient.statExistence(path) != null) {
+            sftpClient.rm(path);
+        }
+    }
+
+    @Override
+    public void rename(String from, String to) throws IOException {
+        // SFTP v3 servers don't overwrite the target on rename
+        if (sftpClient.statExistence(to) != null) {
+            sftpClient.rm(to);
+        }
+        sftpClient.rename(from, to);
+    }
+
+    @Override
+    public void makeDirectory(String path) throws IOException {
+        sftpClient.mkdir(path);
+    }
+
+    @Override
+    public boolean isConnected() {
+        return sshClient.isConnected();
+    }
+
+    @Override
+    public void close() {
+        manager.closeClient(sshClient, sftpClient);
+    }
+}
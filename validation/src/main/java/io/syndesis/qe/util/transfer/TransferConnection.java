@@ -0,0 +1,36 @@
+package io.syndesis.qe.util.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * One control connection to the file server used by {@link FileTransferEngine}.
+ *
+ * The connection is used by a single thread at a time, the engine takes care of the pooling.
+ */
+public interface TransferConnection extends AutoCloseable {
+    void upload(String path, InputStream content) throws IOException;
+
+    void download(String path, OutputStream target) throws IOException;
+
+    List<String> listFiles(String directory) throws IOException;
+
+    void delete(String path) throws IOException;
+
+    /**
+     * Renames the file, an existing file with the target name is replaced.
+     *
+     * @param from current path
+     * @param to new path
+     */
+    void rename(String from, String to) throws IOException;
+
+    void makeDirectory(String path) throws IOException;
+
+    boolean isConnected();
+
+    @Override
+    void close();
+}
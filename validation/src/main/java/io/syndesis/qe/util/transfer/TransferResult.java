@@ -0,0 +1,42 @@
+package io.syndesis.qe.util.transfer;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+/**
+ * Size and duration of one transferred file.
+ */
+@Getter
+public class TransferResult {
+    private static final double MB = 1024D * 1024D;
+
+    private final String operation;
+    private final String path;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    TransferResult(String operation, String path, long bytes, long elapsedNanos) {
+        this.operation = operation;
+        this.path = path;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getMegabytesPerSecond() {
+        return megabytesPerSecond(bytes, elapsedNanos);
+    }
+
+    static double megabytesPerSecond(long bytes, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0D : bytes / MB / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: %.2f MB in %d ms (%.2f MB/s)", operation, path, bytes / MB, getElapsedMillis(), getMegabytesPerSecond());
+    }
+}
@@ -8,8 +8,14 @@ import io.syndesis.qe.utils.TestUtils;
 import org.assertj.core.api.Assertions;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -18,6 +24,10 @@ public class DynamoDbValidationSteps {
     @Autowired
     private DynamoDbUtils dynamoDb;
 
+    private List<Map<String, String>> syntheticRecords = Collections.emptyList();
+    private int recordsBefore;
+    private long insertStarted;
+
     @Given("delete dynamoDb DB table")
     public void deleteTable() {
         dynamoDb.deleteTable();
@@ -58,4 +68,35 @@ public class DynamoDbValidationSteps {
     public void purgeDynamoDbTable() {
         dynamoDb.purgeTable();
     }
+
+    @Given("insert {int} synthetic records into dynamoDb table")
+    public void insertSyntheticRecords(int count) {
+        // the records already in the table and the time before the insert are the baseline of the verification
+        recordsBefore = dynamoDb.getNrOfRecordsPresentInTable();
+        insertStarted = System.currentTimeMillis();
+        syntheticRecords = dynamoDb.generateRecords(count, insertStarted);
+        dynamoDb.insertItems(syntheticRecords);
+    }
+
+    @Then("verify that {int} new records are in the dynamoDB table within {int} seconds")
+    public void verifyNewRecordCount(int count, int timeout) {
+        assertThat(insertStarted).as("The synthetic records were not inserted in this scenario").isPositive();
+        TestUtils.waitForEvent(c -> c - recordsBefore >= count, () -> dynamoDb.getNrOfRecordsPresentInTable(), TimeUnit.SECONDS, timeout,
+            TimeUnit.SECONDS, 2);
+        final long elapsed = System.currentTimeMillis() - insertStarted;
+        final int added = dynamoDb.getNrOfRecordsPresentInTable() - recordsBefore;
+        log.info("{} records were added to the dynamoDB table in {} ms ({} records/s)", added, elapsed,
+            String.format("%.1f", elapsed == 0 ? 0D : added * 1000D / elapsed));
+        assertThat(added).isEqualTo(count);
+    }
+
+    @Then("verify the dynamoDB table contains the synthetic records")
+    public void verifySyntheticRecords() {
+        assertThat(syntheticRecords).as("The synthetic records were not inserted in this scenario").isNotEmpty();
+        // the records are read by their keys, so a few of them are enough to check the content
+        for (int i : new int[] {0, syntheticRecords.size() / 2, syntheticRecords.size() - 1}) {
+            Assertions.assertThat(dynamoDb.verifyRecordIsPresent(syntheticRecords.get(i))).as("Record %s is present", syntheticRecords.get(i))
+                .isTrue();
+        }
+    }
 }
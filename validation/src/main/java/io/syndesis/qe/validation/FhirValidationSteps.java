@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import io.syndesis.qe.resource.ResourceFactory;
 import io.syndesis.qe.resource.impl.FHIR;
+import io.syndesis.qe.util.fhir.FhirEntity;
+import io.syndesis.qe.util.fhir.FhirPatientGenerator;
 import io.syndesis.qe.util.fhir.FhirUtils;
 import io.syndesis.qe.util.fhir.MyBasicSpecification;
 import io.syndesis.qe.util.fhir.MyPatientSpecification;
@@ -90,6 +92,22 @@ public class FhirValidationSteps {
         assertThat(fhirUtils.isBasicInFhir(newBs)).isTrue();
     }
 
+    //    bulk:
+    @When("create {int} synthetic patients on FHIR")
+    public void createSyntheticPatients(int count) {
+        assertThat(fhirUtils.createResources(FhirPatientGenerator.generate(count, System.currentTimeMillis()))).hasSize(count);
+    }
+
+    @Then("validate that {int} synthetic patients are in FHIR")
+    public void validateSyntheticPatients(int count) {
+        assertThat(fhirUtils.countResources(FhirEntity.PATIENT.getName(), FhirPatientGenerator.SEARCH_QUERY)).isEqualTo(count);
+    }
+
+    @Then("delete all synthetic patients on FHIR")
+    public void deleteSyntheticPatients() {
+        fhirUtils.deleteWhere(FhirEntity.PATIENT.getName(), FhirPatientGenerator.SEARCH_QUERY);
+    }
+
     private DataTable prepareDataTable(MyBasicSpecification bs) {
         List<List<String>> raw = new ArrayList<>();
         List<String> row = new ArrayList<>();
@@ -4,6 +4,7 @@ import io.syndesis.qe.util.FtpUtils;
 import io.syndesis.qe.utils.TestUtils;
 
 import org.assertj.core.api.Assertions;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.concurrent.TimeUnit;
 
@@ -14,7 +15,8 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class FtpValidationSteps {
-    private final FtpUtils ftpUtils = new FtpUtils();
+    @Autowired
+    private FtpUtils ftpUtils;
 
     @When("put {string} file with content {string} in the directory: {string} using FTP")
     public void putFileInTheFTPDirectory(String filename, String text, String remoteDirectory) {
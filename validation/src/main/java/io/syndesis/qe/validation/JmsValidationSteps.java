@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.fail;
 import io.syndesis.qe.account.Account;
 import io.syndesis.qe.account.AccountsDirectory;
 import io.syndesis.qe.utils.jms.JMSUtils;
+import io.syndesis.qe.utils.jms.JmsMessageCollector;
 
 import org.assertj.core.api.Assertions;
 
@@ -13,14 +14,22 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import io.cucumber.java.After;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 public class JmsValidationSteps {
+    private static final int STORE_LIMIT = 1000;
 
     private final String messageText = "ZIL SOM NAPLNO";
+    private final Map<String, JmsMessageCollector> collectors = new HashMap<>();
 
     public JmsValidationSteps() {
     }
@@ -50,6 +59,11 @@ public class JmsValidationSteps {
         JMSUtils.sendMessage("tcp", JMSUtils.Destination.valueOf(type.toUpperCase()), name, content);
     }
 
+    @When("publish {int} messages with content {string} to {string} with name {string}")
+    public void publishMessagesToDestinationWithName(int count, String content, String type, String name) {
+        JMSUtils.sendMessages(JMSUtils.Destination.valueOf(type.toUpperCase()), name, content, count);
+    }
+
     @Given("clean destination type {string} with name {string}")
     public void cleanDestination(String type, String name) {
         JMSUtils.clear(JMSUtils.Destination.valueOf(type.toUpperCase()), name);
@@ -84,10 +98,13 @@ public class JmsValidationSteps {
 
     @Then("^verify that (\\d+) messages? (?:were|was) received from JMS queue \"([^\"]*)\"$")
     public void verifyEmptyQueue(int count, String queue) {
-        for (int i = 0; i < count; i++) {
-            Assertions.assertThat(JMSUtils.getMessage(JMSUtils.Destination.QUEUE, queue)).isNotNull();
+        try (JmsMessageCollector collector = JMSUtils.collect(JMSUtils.Destination.QUEUE, queue, null, null, 0)) {
+            final boolean received = collector.awaitMessages(count, 60000L);
+            Assertions.assertThat(received).as("Messages received from %s: %d", queue, collector.getReceived()).isTrue();
+            // This waits 60 seconds for any other message
+            collector.awaitMessages(count + 1L, 60000L);
+            Assertions.assertThat(collector.getReceived()).isEqualTo(count);
         }
-        verifyEmptyQueue(queue);
     }
 
     @Then("verify that JMS queue {string} received a message in {int} seconds")
@@ -103,4 +120,49 @@ public class JmsValidationSteps {
         final String brokerpod = brokerCredentials.getProperty("appname");
         JMSUtils.sendMessage(brokerpod, "tcp", userName, password, JMSUtils.Destination.QUEUE, queue, message);
     }
+
+    @When("start collecting JMS messages from {string} with name {string}")
+    public void startCollecting(String type, String name) {
+        startCollecting(null, type, name);
+    }
+
+    @When("start collecting JMS messages matching {string} from {string} with name {string}")
+    public void startCollecting(String selector, String type, String name) {
+        closeCollector(name);
+        collectors.put(name, JMSUtils.collect(JMSUtils.Destination.valueOf(type.toUpperCase()), name, selector, null, STORE_LIMIT));
+    }
+
+    @When("start collecting JMS messages from topic {string} with durable subscription {string}")
+    public void startCollectingDurable(String name, String subscription) {
+        closeCollector(name);
+        collectors.put(name, JMSUtils.collect(JMSUtils.Destination.TOPIC, name, null, subscription, STORE_LIMIT));
+    }
+
+    @Then("verify that {int} JMS messages were collected from {string} within {int} seconds")
+    public void verifyCollected(int count, String name, int timeout) {
+        JmsMessageCollector collector = collectors.get(name);
+        assertThat(collector).as("No collector for %s was started", name).isNotNull();
+        final boolean received = collector.awaitMessages(count, TimeUnit.SECONDS.toMillis(timeout));
+        log.info("JMS collector {}", collector);
+        assertThat(received).as("Only %d of %d messages were received from %s", collector.getReceived(), count, name).isTrue();
+    }
+
+    @Then("verify that JMS messages collected from {string} arrived at least {double} messages per second")
+    public void verifyArrivalRate(String name, double rate) {
+        assertThat(collectors.get(name)).as("No collector for %s was started", name).isNotNull();
+        assertThat(collectors.get(name).getArrivalRate()).isGreaterThanOrEqualTo(rate);
+    }
+
+    @After
+    public void closeCollectors() {
+        collectors.values().forEach(JmsMessageCollector::close);
+        collectors.clear();
+    }
+
+    private void closeCollector(String name) {
+        JmsMessageCollector collector = collectors.remove(name);
+        if (collector != null) {
+            collector.close();
+        }
+    }
 }
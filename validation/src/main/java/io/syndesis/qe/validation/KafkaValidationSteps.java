@@ -4,13 +4,28 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
 import io.syndesis.qe.utils.OpenShiftUtils;
+import io.syndesis.qe.utils.TestUtils;
+import io.syndesis.qe.utils.kafka.KafkaLoadGenerator;
+import io.syndesis.qe.utils.kafka.KafkaOutputVerifier;
+import io.syndesis.qe.utils.kafka.KafkaUtils;
 import io.syndesis.qe.wait.OpenShiftWaitUtils;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.concurrent.TimeUnit;
+
+import io.cucumber.java.After;
 import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 public class KafkaValidationSteps {
+    private KafkaUtils kafkaUtils;
+    private KafkaLoadGenerator generator;
+    private KafkaOutputVerifier verifier;
+    private int produced;
+
     @Then("check that kafka option {string} is set to {string} in {string} integration")
     public void validateKafkaOptions(String key, String value, String integration) {
         try {
@@ -21,4 +36,82 @@ public class KafkaValidationSteps {
         }
         assertThat(StringUtils.substringAfter(OpenShiftUtils.getIntegrationLogs(integration), "ConsumerConfig values")).contains(key + " = " + value);
     }
+
+    @When("produce {int} kafka messages with {int} keys to topic {string} at {int} messages per second")
+    public void produceMessages(int count, int keys, String topic, int rate) {
+        if (generator == null) {
+            generator = kafka().loadGenerator();
+        }
+        KafkaLoadGenerator.ProduceResult result = generator.produce(topic, count, keys, rate);
+        assertThat(result.getFailed()).as("Some Kafka messages were not produced").isZero();
+        // the verifier counts all messages of the generator run, not only the last batch
+        produced += count;
+    }
+
+    @Then("verify that all produced kafka messages are received exactly once from topic {string} within {int} seconds")
+    public void verifyExactlyOnce(String topic, int timeout) {
+        KafkaOutputVerifier v = awaitMessages(topic, timeout);
+        assertThat(v.getDuplicates()).as("Kafka messages received more than once").isZero();
+    }
+
+    @Then("verify that all produced kafka messages are received at least once from topic {string} within {int} seconds")
+    public void verifyAtLeastOnce(String topic, int timeout) {
+        awaitMessages(topic, timeout);
+    }
+
+    @Then("verify that {double} percentile of kafka end-to-end latency is at most {long} ms")
+    public void verifyLatency(double percentile, long maximum) {
+        assertThat(verifier).as("No Kafka messages were verified").isNotNull();
+        assertThat(verifier.getLatency().getPercentile(percentile)).as("%s percentile of Kafka end-to-end latency", percentile)
+            .isLessThanOrEqualTo(maximum);
+    }
+
+    @Then("verify that kafka consumer group {string} has no lag on topic {string} within {int} seconds")
+    public void verifyNoLag(String group, String topic, int timeout) {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+        long lag;
+        while ((lag = kafka().getTotalConsumerGroupLag(group, topic)) > 0 && System.currentTimeMillis() < deadline) {
+            TestUtils.sleepIgnoreInterrupt(1000L);
+        }
+        assertThat(lag).as("Lag of consumer group %s on topic %s: %s", group, topic, kafka().getConsumerGroupLag(group, topic)).isZero();
+    }
+
+    @After("@kafka")
+    public void closeKafkaClients() {
+        if (verifier != null) {
+            verifier.close();
+            verifier = null;
+        }
+        if (generator != null) {
+            generator.close();
+            generator = null;
+        }
+        if (kafkaUtils != null) {
+            kafkaUtils.close();
+            kafkaUtils = null;
+            KafkaUtils.closePortForward();
+        }
+        produced = 0;
+    }
+
+    private KafkaOutputVerifier awaitMessages(String topic, int timeout) {
+        assertThat(generator).as("No Kafka messages were produced").isNotNull();
+        if (verifier == null) {
+            verifier = kafka().verifier(topic, generator.getRunId());
+        }
+        final boolean received = verifier.awaitMessages(produced, TimeUnit.SECONDS.toMillis(timeout));
+        log.info("Kafka output {}", verifier);
+        if (!received) {
+            fail("Kafka messages " + verifier.getMissing(produced, 20) + " (first 20) were not received from topic " + topic + " in " + timeout
+                + " seconds");
+        }
+        return verifier;
+    }
+
+    private KafkaUtils kafka() {
+        if (kafkaUtils == null) {
+            kafkaUtils = new KafkaUtils();
+        }
+        return kafkaUtils;
+    }
 }
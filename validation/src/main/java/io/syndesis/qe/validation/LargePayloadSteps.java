@@ -0,0 +1,218 @@
+package io.syndesis.qe.validation;
+
+import static org.assertj.core.api.Assertions.fail;
+
+import io.syndesis.qe.util.FileTransferUtils;
+import io.syndesis.qe.util.FtpUtils;
+import io.syndesis.qe.util.SftpUtils;
+import io.syndesis.qe.util.transfer.BulkTransferResult;
+import io.syndesis.qe.utils.TestUtils;
+import io.syndesis.qe.utils.aws.S3BucketNameBuilder;
+import io.syndesis.qe.utils.aws.S3Utils;
+import io.syndesis.qe.utils.payload.ContentDigest;
+import io.syndesis.qe.utils.payload.PayloadGenerator;
+
+import org.assertj.core.api.Assertions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Steps pushing large generated files through the file based integrations (FTP, SFTP, S3).
+ *
+ * The files are generated on the fly by {@link PayloadGenerator} and verified by comparing the digests computed while streaming the
+ * remote files down, so the size of the files is not limited by the heap. The end-to-end throughput is measured from the start of the
+ * upload until the last file was verified at the destination.
+ */
+@Slf4j
+public class LargePayloadSteps {
+    private static final double MB = 1024D * 1024D;
+    private static final long VERIFY_TIMEOUT_MINUTES = 15L;
+    private static final long POLL_INTERVAL_MS = 5000L;
+
+    private final S3Utils s3Utils;
+    private final FtpUtils ftpUtils;
+    private final SftpUtils sftpUtils;
+    private final Map<String, GeneratedFile> generated = new LinkedHashMap<>();
+    private long uploadStarted;
+    private double throughput;
+
+    @Autowired
+    @Lazy
+    public LargePayloadSteps(S3Utils s3Utils, FtpUtils ftpUtils, SftpUtils sftpUtils) {
+        this.s3Utils = s3Utils;
+        this.ftpUtils = ftpUtils;
+        this.sftpUtils = sftpUtils;
+    }
+
+    @When("upload {int} generated {word} file(s) of size {string} to {string} directory using {word}")
+    public void uploadFiles(int count, String format, String size, String directory, String protocol) {
+        generate(count, format, size);
+        Map<String, Supplier<InputStream>> files = new LinkedHashMap<>();
+        generated.values().forEach(f -> files.put(f.name, f::stream));
+        uploadStarted = System.currentTimeMillis();
+        BulkTransferResult result = utils(protocol).uploadFiles(files, directory);
+        log.info("Uploaded generated files using {}: {}", protocol, result);
+    }
+
+    @When("upload {int} generated {word} file(s) of size {string} to S3 bucket {string}")
+    public void uploadFilesToS3(int count, String format, String size, String bucket) {
+        generate(count, format, size);
+        uploadStarted = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        generated.values().forEach(f -> s3Utils.uploadMultipart(S3BucketNameBuilder.getBucketName(bucket), f.name, f.stream()));
+        log.info("Uploaded {} generated files to S3 in {} ms ({} MB/s)", generated.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), String.format("%.2f", mbPerSecond(totalBytes(), System.nanoTime() - start)));
+    }
+
+    @Then("verify that all generated files are in {string} directory using {word}")
+    public void verifyFiles(String directory, String protocol) {
+        final FileTransferUtils utils = utils(protocol);
+        verify(pending -> {
+            List<String> present = utils.refreshListing(directory);
+            Map<String, ContentDigest.Sink> sinks = new ConcurrentHashMap<>();
+            Map<String, Supplier<OutputStream>> targets = new HashMap<>();
+            pending.stream().filter(present::contains).forEach(name -> targets.put(name, () -> {
+                ContentDigest.Sink sink = ContentDigest.sink();
+                sinks.put(name, sink);
+                return sink;
+            }));
+            if (!targets.isEmpty()) {
+                log.info("Downloaded files using {}: {}", protocol, utils.downloadFiles(directory, targets));
+            }
+            Map<String, ContentDigest> digests = new HashMap<>();
+            sinks.forEach((name, sink) -> digests.put(name, sink.getDigest()));
+            return digests;
+        });
+    }
+
+    @Then("verify that all generated files are in S3 bucket {string}")
+    public void verifyFilesInS3(String bucket) {
+        verify(pending -> {
+            Map<String, ContentDigest> digests = new HashMap<>();
+            for (String name : pending) {
+                ContentDigest digest = s3Utils.digestFile(S3BucketNameBuilder.getBucketName(bucket), name);
+                if (digest != null) {
+                    digests.put(name, digest);
+                }
+            }
+            return digests;
+        });
+    }
+
+    @Then("verify that the generated files were transferred at least {double} MB/s")
+    public void verifyThroughput(double minimum) {
+        Assertions.assertThat(throughput).as("End-to-end throughput in MB/s").isGreaterThanOrEqualTo(minimum);
+    }
+
+    private void generate(int count, String format, String size) {
+        generated.clear();
+        final PayloadGenerator.Format f = PayloadGenerator.format(format);
+        final long bytes = PayloadGenerator.parseSize(size);
+        for (int i = 0; i < count; i++) {
+            GeneratedFile file = new GeneratedFile("generated-" + i + "." + f.getExtension(), f, i, bytes);
+            generated.put(file.name, file);
+        }
+    }
+
+    /**
+     * Polls the destination until all generated files are there with the expected content.
+     *
+     * A file with a different digest is not considered as a failure immediately, because it may still be written by the integration.
+     *
+     * @param fetch computes the digests of the given files that are present at the destination
+     */
+    private void verify(DigestFetcher fetch) {
+        Map<String, ContentDigest> expected = new HashMap<>();
+        generated.values().forEach(f -> expected.put(f.name, f.digest()));
+        Map<String, ContentDigest> mismatched = new HashMap<>();
+        final long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(VERIFY_TIMEOUT_MINUTES);
+        while (!expected.isEmpty()) {
+            fetch.fetch(expected.keySet()).forEach((name, digest) -> {
+                if (digest.equals(expected.get(name))) {
+                    expected.remove(name);
+                    mismatched.remove(name);
+                } else {
+                    mismatched.put(name, digest);
+                }
+            });
+            if (expected.isEmpty()) {
+                break;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("Files " + expected.keySet() + " were not transferred in " + VERIFY_TIMEOUT_MINUTES + " minutes, files with unexpected "
+                    + "content: " + mismatched);
+            }
+            TestUtils.sleepIgnoreInterrupt(POLL_INTERVAL_MS);
+        }
+        final long elapsed = System.currentTimeMillis() - uploadStarted;
+        throughput = mbPerSecond(totalBytes(), TimeUnit.MILLISECONDS.toNanos(elapsed));
+        log.info("All {} generated files ({} bytes) verified {} ms after the upload started, end-to-end throughput {} MB/s", generated.size(),
+            totalBytes(), elapsed, String.format("%.2f", throughput));
+    }
+
+    private long totalBytes() {
+        return generated.values().stream().mapToLong(f -> f.size).sum();
+    }
+
+    private static double mbPerSecond(long bytes, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0D : bytes / MB / (elapsedNanos / 1e9);
+    }
+
+    private FileTransferUtils utils(String protocol) {
+        switch (protocol.toUpperCase()) {
+            case "FTP":
+                return ftpUtils;
+            case "SFTP":
+                return sftpUtils;
+            default:
+                throw new IllegalArgumentException("Unsupported protocol: " + protocol);
+        }
+    }
+
+    @FunctionalInterface
+    private interface DigestFetcher {
+        Map<String, ContentDigest> fetch(Set<String> pending);
+    }
+
+    private static final class GeneratedFile {
+        private final String name;
+        private final PayloadGenerator.Format format;
+        private final long seed;
+        private final long size;
+
+        private GeneratedFile(String name, PayloadGenerator.Format format, long seed, long size) {
+            this.name = name;
+            this.format = format;
+            this.seed = seed;
+            this.size = size;
+        }
+
+        private InputStream stream() {
+            return PayloadGenerator.stream(format, seed, size);
+        }
+
+        private ContentDigest digest() {
+            try {
+                return ContentDigest.ofPayload(format, seed, size);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to compute digest of " + name, e);
+            }
+        }
+    }
+}
@@ -3,13 +3,12 @@ package io.syndesis.qe.validation;
 import io.syndesis.qe.account.Account;
 import io.syndesis.qe.account.AccountsDirectory;
 import io.syndesis.qe.resource.impl.MongoDb36;
-import io.syndesis.qe.utils.OpenShiftUtils;
+import io.syndesis.qe.util.MongoDbUtils;
+import io.syndesis.qe.utils.TestUtils;
 
 import org.assertj.core.api.Assertions;
-import org.awaitility.Awaitility;
 import org.bson.Document;
 
-import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
@@ -17,19 +16,14 @@ import com.mongodb.client.model.CreateCollectionOptions;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.ValidationOptions;
 
-import java.io.IOException;
-import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.After;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
-import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.client.LocalPortForward;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -38,20 +32,21 @@ public class MongoDBValidationSteps {
     private MongoClient client;
     private Account mongoAccount;
     private MongoDatabase database;
-    private LocalPortForward portForward;
 
     @Given("connect to MongoDB {string}")
     public void connectToMongoDB(String mongodDb) {
         mongoAccount = AccountsDirectory.getInstance().get(mongodDb);
         createPortForward();
+        if (client != null) {
+            client.close();
+        }
         client = MongoClients.create(mongoAccount.getProperty("url").replace("@mongodb", "@localhost"));
         database = client.getDatabase(mongoAccount.getProperty("database"));
     }
 
     private void createPortForward() {
         try {
-            Pod mongoPod = OpenShiftUtils.getInstance().getAnyPod("app", mongoAccount.getService());
-            portForward = OpenShiftUtils.createLocalPortForward(mongoPod, MongoDb36.MONGODB_PORT, MongoDb36.MONGODB_PORT);
+            MongoDbUtils.ensurePortForward(mongoAccount.getService(), MongoDb36.MONGODB_PORT);
         } catch (Exception e) {
             // we don't fail here because we might be running the port forward locally when debugging
             log.error("could not port forward, mongo connections probably won't work", e);
@@ -87,42 +82,54 @@ public class MongoDBValidationSteps {
 
     @When("insert the following documents into mongodb collection {string}")
     public void insertDocuments(String collectionName, DataTable documents) {
-        documents.<String, Object>asMaps(String.class, String.class).forEach(d ->
-            database.getCollection(collectionName).insertOne(new Document(d))
-        );
+        List<Document> docs = documents.<String, Object>asMaps(String.class, String.class).stream().map(Document::new)
+            .collect(Collectors.toList());
+        MongoDbUtils.insertMany(database.getCollection(collectionName), docs.iterator(), 0);
+    }
+
+    @When("insert {int} generated documents into mongodb collection {string}")
+    public void insertGeneratedDocuments(int count, String collectionName) {
+        insertGeneratedDocuments(count, collectionName, 0);
+    }
+
+    @When("insert {int} generated documents into mongodb collection {string} at {int} documents per second")
+    public void insertGeneratedDocuments(int count, String collectionName, int rate) {
+        Assertions.assertThat(MongoDbUtils.insertMany(database.getCollection(collectionName), MongoDbUtils.generate(count), rate))
+            .isEqualTo(count);
+    }
+
+    @When("upsert the following documents into mongodb collection {string} by {string}")
+    public void upsertDocuments(String collectionName, String keyField, DataTable documents) {
+        List<Document> docs = documents.<String, Object>asMaps(String.class, String.class).stream().map(Document::new)
+            .collect(Collectors.toList());
+        MongoDbUtils.upsertMany(database.getCollection(collectionName), docs.iterator(), keyField);
     }
 
     @Then("verify that mongodb collection {string} has {int} document matching")
     public void verifyMongoDocuments(String collectionName, int count, DataTable find) {
         Document findSpec = new Document(find.<String, Object>asMaps(String.class, String.class).get(0));
+        if (count == 0) {
+            // the collection may be empty just because the integration didn't process the message yet
+            TestUtils.sleepIgnoreInterrupt(3000L);
+        }
+        final long found = MongoDbUtils.awaitDocuments(database.getCollection(collectionName), findSpec, count, 20000L);
+        Assertions.assertThat(found).describedAs("Didn't find the requested document %s in collection %s", findSpec, collectionName)
+            .isEqualTo(count);
+    }
 
-        Awaitility.await()
-            .atMost(Duration.ofSeconds(20))
-            .pollDelay(Duration.ofSeconds(3))
-            .pollInterval(Duration.ofSeconds(3))
-            .untilAsserted(() -> {
-                FindIterable<Document> documents = database.getCollection(collectionName).find(findSpec);
-                List<Document> results = new ArrayList<>();
-                documents.forEach((Consumer<? super Document>) results::add);
-                Assertions
-                    .assertThat(results)
-                    .describedAs("Didn't find the requested document %s in collection %s", findSpec, collectionName)
-                    .hasSize(count);
-            });
+    @Then("verify that mongodb collection {string} has {int} documents within {int} seconds")
+    public void verifyMongoDocumentCount(String collectionName, int count, int timeout) {
+        final long found = MongoDbUtils.awaitDocuments(database.getCollection(collectionName), new Document(), count, timeout * 1000L);
+        Assertions.assertThat(found).describedAs("Number of documents in collection %s", collectionName).isEqualTo(count);
     }
 
     @After("@mongodb or @10-integrations-complex")
     public void closeMongoConnection() {
         if (client != null) {
             client.close();
+            client = null;
         }
-        if (portForward != null) {
-            log.info("closing mongodb port forward");
-            try {
-                portForward.close();
-            } catch (IOException e) {
-                log.error("Could not close port forward", e);
-            }
-        }
+        log.info("closing mongodb port forward");
+        MongoDbUtils.closePortForwards();
     }
 }
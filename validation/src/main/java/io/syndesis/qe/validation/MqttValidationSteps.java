@@ -2,6 +2,7 @@ package io.syndesis.qe.validation;
 
 import io.syndesis.qe.utils.OpenShiftUtils;
 import io.syndesis.qe.utils.TestUtils;
+import io.syndesis.qe.utils.mqtt.MqttPublisher;
 import io.syndesis.qe.utils.mqtt.MqttUtils;
 import io.syndesis.qe.utils.mqtt.Receiver;
 
@@ -24,22 +25,19 @@ public class MqttValidationSteps {
 
     @Then("verify that when message is sent to {string} topic it is redirected to {string} topic via integration")
     public void sendAndRecieveMessage(String senderTopic, String receiverTopic) {
-
-        //reset message received flag
-        Receiver.RECEIVED_FLAG = 0;
-
+        Receiver receiver = new Receiver("receiver_1");
         MqttClient receiverClient = null;
         try {
             portForward();
 
             //create receiver
-            receiverClient = mqttUtils.createReceiver("receiver_1", receiverTopic);
+            receiverClient = mqttUtils.createReceiver("receiver_1", receiverTopic, receiver);
 
             //send message via client
             mqttUtils.sendMessage("Hi from syndesis integration!", senderTopic);
 
             //give it some short time for delivery
-            TestUtils.sleepIgnoreInterrupt(4000);
+            receiver.awaitMessages(1, 4000L);
         } catch (MqttException e) {
             Assertions.fail("Mqtt Exception was thrown during message transfer", e);
         } finally {
@@ -50,11 +48,33 @@ public class MqttValidationSteps {
             portClose();
         }
 
-        //check flag
-        Assertions.assertThat(Receiver.RECEIVED_FLAG).as("Message was not received!")
+        Assertions.assertThat(receiver.getReceived()).as("Message was not received!")
                 .isEqualTo(1);
     }
 
+    @Then("verify that {int} messages sent to {string} topic at {int} messages per second are redirected to {string} topic via integration")
+    public void sendAndReceiveMessages(int count, String senderTopic, int rate, String receiverTopic) {
+        Receiver receiver = new Receiver("receiver_bulk");
+        MqttClient receiverClient = null;
+        try {
+            portForward();
+            receiverClient = mqttUtils.createReceiver("receiver_bulk", receiverTopic, receiver);
+
+            MqttPublisher.PublishResult result = mqttUtils.sendMessages(senderTopic, count, rate);
+            Assertions.assertThat(result.getFailed()).as("Some messages were not published").isZero();
+
+            receiver.awaitMessages(count, 60000L + count * 10L);
+            log.info("MQTT {} -> {}: sent {}, {}", senderTopic, receiverTopic, result, receiver);
+        } catch (MqttException e) {
+            Assertions.fail("Mqtt Exception was thrown during message transfer", e);
+        } finally {
+            mqttUtils.closeClient(receiverClient);
+            portClose();
+        }
+
+        Assertions.assertThat(receiver.getReceived()).as("Not all messages were received!").isGreaterThanOrEqualTo(count);
+    }
+
     @When("^send mqtt message to \"([^\"]*)\" topic$")
     public void sendMqttMessage(String senderTopic) {
         try {
@@ -82,6 +102,7 @@ public class MqttValidationSteps {
     }
 
     private void portClose() {
+        mqttUtils.closePublisher();
         if (mqttLocalPortForward != null && mqttLocalPortForward.isAlive()) {
             try {
                 mqttLocalPortForward.close();
@@ -60,6 +60,13 @@ public class OpenshiftValidationSteps {
 
     @Given("deploy Kudu")
     public void deployKudu() {
+        ResourceFactory.get(Kudu.class).setReachableFromTestSuite(false);
+        ResourceFactory.create(Kudu.class);
+    }
+
+    @Given("deploy Kudu reachable from the test suite")
+    public void deployKuduWithAdvertisedLocalhost() {
+        ResourceFactory.get(Kudu.class).setReachableFromTestSuite(true);
         ResourceFactory.create(Kudu.class);
     }
 
@@ -88,6 +95,12 @@ public class OpenshiftValidationSteps {
         ResourceFactory.create(Kafka.class);
     }
 
+    @Given("deploy Kafka broker reachable from the test suite")
+    public void deployKafkaWithPortForwardListener() {
+        ResourceFactory.get(Kafka.class).setPortForwardListener(true);
+        ResourceFactory.create(Kafka.class);
+    }
+
     @Given("create Kafka accounts")
     public void createKafkaAccounts() {
         ResourceFactory.get(Kafka.class).addAccounts();
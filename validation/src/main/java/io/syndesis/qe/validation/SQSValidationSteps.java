@@ -30,9 +30,8 @@ public class SQSValidationSteps {
 
     @Given("purge SQS queues:")
     public void purge(DataTable queues) {
+        // the queues are drained, so there is no need to wait for the asynchronous PurgeQueue
         sqs.purge(queues.asList().toArray(new String[0]));
-        // Purging a queue "may take up to 60 seconds"
-        TestUtils.sleepIgnoreInterrupt(60000L);
     }
 
     @When("send SQS message(s) to {string} with content")
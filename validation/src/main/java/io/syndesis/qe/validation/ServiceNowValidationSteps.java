@@ -17,6 +17,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
+import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 
@@ -73,11 +74,33 @@ public class ServiceNowValidationSteps {
     @When("delete incidents with {string} number")
     public void deleteIncidentsWithNumber(String numbers) {
         final String[] incidentNumbers = numbers.split(",");
-        List<Incident> incidents = new ArrayList<>();
+        List<String> sysIds = new ArrayList<>();
 
-        Arrays.asList(incidentNumbers)
-            .forEach(number -> incidents.addAll(ServiceNow.getFilteredIncidents("number=" + snUtils.modifySNNumber(number), 100)));
-        incidents.forEach(incident -> ServiceNow.deleteIncident(incident.getSysId()));
+        Arrays.asList(incidentNumbers).forEach(number -> ServiceNow.streamIncidents("number=" + snUtils.modifySNNumber(number), 100)
+            .forEach(incident -> sysIds.add(incident.getSysId())));
+        ServiceNow.deleteIncidents(sysIds);
     }
 
+    @Given("create {int} incidents with {string} number prefix")
+    public void createIncidents(int count, String prefix) {
+        final String numberPrefix = snUtils.modifySNNumber(prefix);
+        List<Incident> incidents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Incident incident = Incident.getSampleIncident();
+            incident.setNumber(numberPrefix + i);
+            incident.setDescription("Generated incident " + i);
+            incidents.add(incident);
+        }
+        assertThat(ServiceNow.createIncidents(incidents)).hasSize(count);
+    }
+
+    @Then("verify that there are {int} incidents with {string} number prefix")
+    public void verifyIncidentCount(int count, String prefix) {
+        assertThat(ServiceNow.streamIncidents("numberSTARTSWITH" + snUtils.modifySNNumber(prefix), 1000).count()).isEqualTo(count);
+    }
+
+    @When("delete all incidents with {string} number prefix")
+    public void deleteIncidentsWithPrefix(String prefix) {
+        ServiceNow.deleteIncidents("numberSTARTSWITH" + snUtils.modifySNNumber(prefix));
+    }
 }
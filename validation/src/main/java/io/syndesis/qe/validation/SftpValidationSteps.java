@@ -4,6 +4,7 @@ import io.syndesis.qe.util.SftpUtils;
 import io.syndesis.qe.utils.TestUtils;
 
 import org.assertj.core.api.Assertions;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.concurrent.TimeUnit;
 
@@ -15,7 +16,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SftpValidationSteps {
 
-    private final SftpUtils sftpUtils = new SftpUtils();
+    @Autowired
+    private SftpUtils sftpUtils;
 
     @When("put {string} file with content {string} in the directory: {string} using SFTP")
     public void putFileInTheSftpDirectory(String filename, String text, String serverDirectory) {
@@ -34,6 +36,11 @@ public class SftpValidationSteps {
         Assertions.assertThat(sftpUtils.getFileContent(directory, fileName)).isEqualTo(text);
     }
 
+    @Given("delete file {string} from SFTP")
+    public void deleteFile(String path) {
+        sftpUtils.deleteFile(path);
+    }
+
     @Given("prepare SFTP server")
     public void prepareSftpServerForTest() {
         sftpUtils.prepareServerForTest();
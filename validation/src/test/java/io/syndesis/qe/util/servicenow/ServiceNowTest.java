@@ -0,0 +1,130 @@
+package io.syndesis.qe.util.servicenow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.syndesis.qe.TestConfiguration;
+import io.syndesis.qe.util.servicenow.model.Incident;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the {@link ServiceNow} client against the {@link ServiceNowStandIn}.
+ */
+public class ServiceNowTest {
+    private static final String PREFIX = "TEST";
+
+    private static ServiceNowStandIn standIn;
+
+    @BeforeClass
+    public static void startStandIn() throws IOException {
+        // the client reads its account through the TestConfiguration, which requires these properties even without OpenShift
+        setIfAbsent(TestConfiguration.SYNDESIS_VERSION, "test");
+        setIfAbsent(TestConfiguration.OPENSHIFT_URL, "");
+        setIfAbsent(TestConfiguration.OPENSHIFT_NAMESPACE, "test");
+        setIfAbsent(TestConfiguration.SYNDESIS_ADMIN_USERNAME, "admin");
+        setIfAbsent(TestConfiguration.SYNDESIS_ADMIN_PASSWORD, "admin");
+        standIn = new ServiceNowStandIn(0);
+        File credentials = File.createTempFile("credentials", ".json");
+        credentials.deleteOnExit();
+        Files.write(credentials.toPath(), String.format("{\"Servicenow\": {\"service\": \"servicenow\", \"properties\": "
+            + "{\"instanceName\": \"stand-in\", \"userName\": \"admin\", \"password\": \"admin\", \"url\": \"%s\"}}}", standIn.getUrl())
+            .getBytes(StandardCharsets.UTF_8));
+        TestConfiguration.get().overrideProperty(TestConfiguration.SYNDESIS_CREDENTIALS_FILE, credentials.getAbsolutePath());
+    }
+
+    @AfterClass
+    public static void stopStandIn() {
+        standIn.close();
+    }
+
+    @Before
+    public void deleteIncidents() {
+        ServiceNow.deleteIncidents("numberSTARTSWITH" + PREFIX);
+    }
+
+    @Test
+    public void shouldStreamAllPages() {
+        createIncidents(25);
+
+        List<Incident> incidents = ServiceNow.streamIncidents("numberSTARTSWITH" + PREFIX, 10).collect(Collectors.toList());
+
+        assertThat(incidents).hasSize(25);
+        assertThat(incidents.stream().map(Incident::getSysId).distinct().count()).isEqualTo(25);
+        assertThat(incidents).extracting(Incident::getSysId).isSorted();
+    }
+
+    @Test
+    public void shouldNotSkipIncidentsDeletedWhileStreaming() {
+        createIncidents(25);
+
+        // every page is requested after the incidents of the previous page were deleted, an offset would skip the next page
+        Iterator<Incident> incidents = ServiceNow.streamIncidents("numberSTARTSWITH" + PREFIX, 10).iterator();
+        int streamed = 0;
+        while (incidents.hasNext()) {
+            ServiceNow.deleteIncident(incidents.next().getSysId());
+            streamed++;
+        }
+
+        assertThat(streamed).isEqualTo(25);
+        assertThat(standIn.size("incident")).isZero();
+    }
+
+    @Test
+    public void shouldUpdateIncidentsInBulk() {
+        Map<String, Incident> updates = new LinkedHashMap<>();
+        for (Incident incident : createIncidents(20)) {
+            Incident update = new Incident();
+            update.setDescription("updated " + incident.getNumber());
+            updates.put(incident.getSysId(), update);
+        }
+
+        assertThat(ServiceNow.updateIncidents(updates)).hasSize(20);
+        assertThat(ServiceNow.streamIncidents("numberSTARTSWITH" + PREFIX, 100))
+            .allSatisfy(i -> assertThat(i.getDescription()).isEqualTo("updated " + i.getNumber()));
+    }
+
+    @Test
+    public void shouldDeleteIncidentsInBulk() {
+        createIncidents(30);
+        Incident other = Incident.getSampleIncident();
+        other.setNumber("OTHER0");
+        ServiceNow.createIncident(other);
+
+        assertThat(ServiceNow.deleteIncidents("numberSTARTSWITH" + PREFIX)).isEqualTo(30);
+        assertThat(ServiceNow.streamIncidents("numberSTARTSWITH" + PREFIX, 100).count()).isZero();
+        assertThat(ServiceNow.streamIncidents(null, 100).map(Incident::getNumber)).containsExactly("OTHER0");
+        ServiceNow.deleteIncidents("number=OTHER0");
+    }
+
+    private static void setIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private static List<Incident> createIncidents(int count) {
+        List<Incident> incidents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Incident incident = Incident.getSampleIncident();
+            incident.setNumber(PREFIX + i);
+            incidents.add(incident);
+        }
+        List<Incident> created = ServiceNow.createIncidents(incidents);
+        assertThat(created).hasSize(count);
+        return created;
+    }
+}